@@ -103,7 +103,10 @@ public void write(final RawFrame frame, final WritableByteChannel channel) throw
         if (payload != null) {
             if (channel instanceof GatheringByteChannel) {
                 buffer.flip();
-                ((GatheringByteChannel) channel).write(new ByteBuffer[]{buffer, payload});
+                final long bytesWritten = ((GatheringByteChannel) channel).write(new ByteBuffer[]{buffer, payload});
+                if (bytesWritten > 0) {
+                    metrics.incrementBytesTransferred(bytesWritten);
+                }
                 buffer.compact();
                 if (payload.hasRemaining()) {
                     buffer.put(payload);
@@ -86,6 +86,7 @@ public class H2ServerBootstrap {
     private final List<FilterEntry<AsyncFilterHandler>> filters;
     private String canonicalHostName;
     private LookupRegistry<Supplier<AsyncServerExchangeHandler>> lookupRegistry;
+    private int routeCacheSize;
     private IOReactorConfig ioReactorConfig;
     private HttpProcessor httpProcessor;
     private CharCodingConfig charCodingConfig;
@@ -228,6 +229,17 @@ public final H2ServerBootstrap setLookupRegistry(final LookupRegistry<Supplier<A
         return this;
     }
 
+    /**
+     * Sets the maximum number of resolved request routes to cache.
+     * Value {@code 0} (the default) disables the route cache.
+     *
+     * @since 5.3
+     */
+    public final H2ServerBootstrap setRouteCacheSize(final int routeCacheSize) {
+        this.routeCacheSize = Args.notNegative(routeCacheSize, "Route cache size");
+        return this;
+    }
+
     /**
      * Registers the given {@link AsyncServerExchangeHandler} {@link Supplier} as a default handler for URIs
      * matching the given pattern.
@@ -345,7 +357,8 @@ public HttpAsyncServer create() {
         final RequestHandlerRegistry<Supplier<AsyncServerExchangeHandler>> registry = new RequestHandlerRegistry<>(
                 actualCanonicalHostName,
                 () -> lookupRegistry != null ? lookupRegistry :
-                        UriPatternType.newMatcher(UriPatternType.URI_PATTERN));
+                        UriPatternType.newMatcher(UriPatternType.URI_PATTERN),
+                routeCacheSize);
         for (final HandlerEntry<Supplier<AsyncServerExchangeHandler>> entry: handlerList) {
             registry.register(entry.hostname, entry.uriPattern, entry.handler);
         }
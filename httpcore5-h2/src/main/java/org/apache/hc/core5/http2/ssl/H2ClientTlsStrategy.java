@@ -29,6 +29,8 @@
 
 import java.net.SocketAddress;
 
+import java.util.concurrent.Executor;
+
 import javax.net.ssl.SSLContext;
 
 import org.apache.hc.core5.concurrent.FutureCallback;
@@ -39,6 +41,7 @@
 import org.apache.hc.core5.reactor.ssl.SSLBufferMode;
 import org.apache.hc.core5.reactor.ssl.SSLSessionInitializer;
 import org.apache.hc.core5.reactor.ssl.SSLSessionVerifier;
+import org.apache.hc.core5.reactor.ssl.TlsSessionTracker;
 import org.apache.hc.core5.reactor.ssl.TransportSecurityLayer;
 import org.apache.hc.core5.ssl.SSLContexts;
 import org.apache.hc.core5.util.Args;
@@ -56,16 +59,65 @@ public class H2ClientTlsStrategy implements TlsStrategy {
     private final SSLBufferMode sslBufferMode;
     private final SSLSessionInitializer initializer;
     private final SSLSessionVerifier verifier;
+    private final Executor handshakeExecutor;
+    private final TlsSessionTracker sessionTracker;
 
+    /**
+     * @param sslContext the SSL context.
+     * @param sslBufferMode the SSL buffer management mode. May be {@code null}.
+     * @param initializer the SSL session initializer. May be {@code null}.
+     * @param verifier the SSL session verifier. May be {@code null}.
+     * @param handshakeExecutor the executor to run delegated SSL engine tasks with
+     *   during the TLS handshake. If {@code null} the tasks are run by the I/O reactor thread.
+     *
+     * @since 5.3
+     */
     public H2ClientTlsStrategy(
             final SSLContext sslContext,
             final SSLBufferMode sslBufferMode,
             final SSLSessionInitializer initializer,
-            final SSLSessionVerifier verifier) {
+            final SSLSessionVerifier verifier,
+            final Executor handshakeExecutor) {
+        this(sslContext, sslBufferMode, initializer, verifier, handshakeExecutor, null);
+    }
+
+    /**
+     * @param sslContext the SSL context.
+     * @param sslBufferMode the SSL buffer management mode. May be {@code null}.
+     * @param initializer the SSL session initializer. May be {@code null}.
+     * @param verifier the SSL session verifier. May be {@code null}.
+     * @param handshakeExecutor the executor to run delegated SSL engine tasks with
+     *   during the TLS handshake. If {@code null} the tasks are run by the I/O reactor thread.
+     * @param sessionTracker the tracker to record TLS sessions established by this strategy
+     *   with. Its size and time-to-live constraints are applied to the client session context
+     *   of the SSL context. May be {@code null}.
+     *
+     * @since 5.3
+     */
+    public H2ClientTlsStrategy(
+            final SSLContext sslContext,
+            final SSLBufferMode sslBufferMode,
+            final SSLSessionInitializer initializer,
+            final SSLSessionVerifier verifier,
+            final Executor handshakeExecutor,
+            final TlsSessionTracker sessionTracker) {
         this.sslContext = Args.notNull(sslContext, "SSL context");
         this.sslBufferMode = sslBufferMode;
         this.initializer = initializer;
         this.verifier = verifier;
+        this.handshakeExecutor = handshakeExecutor;
+        this.sessionTracker = sessionTracker;
+        if (sessionTracker != null) {
+            sessionTracker.configure(sslContext.getClientSessionContext());
+        }
+    }
+
+    public H2ClientTlsStrategy(
+            final SSLContext sslContext,
+            final SSLBufferMode sslBufferMode,
+            final SSLSessionInitializer initializer,
+            final SSLSessionVerifier verifier) {
+        this(sslContext, sslBufferMode, initializer, verifier, null);
     }
 
     public H2ClientTlsStrategy(
@@ -113,7 +165,8 @@ public void upgrade(
                 H2TlsSupport.enforceRequirements(attachment, initializer),
                 verifier,
                 handshakeTimeout,
-                callback);
+                handshakeExecutor,
+                sessionTracker != null ? sessionTracker.track(endpoint, callback) : callback);
     }
 
     /**
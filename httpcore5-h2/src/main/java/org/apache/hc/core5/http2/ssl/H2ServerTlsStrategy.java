@@ -29,6 +29,8 @@
 
 import java.net.SocketAddress;
 
+import java.util.concurrent.Executor;
+
 import javax.net.ssl.SSLContext;
 
 import org.apache.hc.core5.concurrent.FutureCallback;
@@ -38,6 +40,7 @@
 import org.apache.hc.core5.reactor.ssl.SSLBufferMode;
 import org.apache.hc.core5.reactor.ssl.SSLSessionInitializer;
 import org.apache.hc.core5.reactor.ssl.SSLSessionVerifier;
+import org.apache.hc.core5.reactor.ssl.TlsSessionTracker;
 import org.apache.hc.core5.reactor.ssl.TransportSecurityLayer;
 import org.apache.hc.core5.ssl.SSLContexts;
 import org.apache.hc.core5.util.Args;
@@ -57,6 +60,8 @@ public class H2ServerTlsStrategy implements TlsStrategy {
     private final SSLBufferMode sslBufferMode;
     private final SSLSessionInitializer initializer;
     private final SSLSessionVerifier verifier;
+    private final Executor handshakeExecutor;
+    private final TlsSessionTracker sessionTracker;
 
     /**
      * @deprecated Use {@link H2ServerTlsStrategy#H2ServerTlsStrategy(SSLContext, SSLBufferMode, SSLSessionInitializer, SSLSessionVerifier)}
@@ -73,6 +78,8 @@ public H2ServerTlsStrategy(
         this.sslBufferMode = sslBufferMode;
         this.initializer = initializer;
         this.verifier = verifier;
+        this.handshakeExecutor = null;
+        this.sessionTracker = null;
     }
 
     /**
@@ -115,18 +122,65 @@ public H2ServerTlsStrategy(final int... securePorts) {
         this(SSLContexts.createSystemDefault(), new org.apache.hc.core5.http.nio.ssl.FixedPortStrategy(securePorts));
     }
 
+    /**
+     * @param sslContext the SSL context.
+     * @param sslBufferMode the SSL buffer management mode. May be {@code null}.
+     * @param initializer the SSL session initializer. May be {@code null}.
+     * @param verifier the SSL session verifier. May be {@code null}.
+     * @param handshakeExecutor the executor to run delegated SSL engine tasks with
+     *   during the TLS handshake. If {@code null} the tasks are run by the I/O reactor thread.
+     *
+     * @since 5.3
+     */
     public H2ServerTlsStrategy(
             final SSLContext sslContext,
             final SSLBufferMode sslBufferMode,
             final SSLSessionInitializer initializer,
-            final SSLSessionVerifier verifier) {
+            final SSLSessionVerifier verifier,
+            final Executor handshakeExecutor) {
+        this(sslContext, sslBufferMode, initializer, verifier, handshakeExecutor, null);
+    }
+
+    /**
+     * @param sslContext the SSL context.
+     * @param sslBufferMode the SSL buffer management mode. May be {@code null}.
+     * @param initializer the SSL session initializer. May be {@code null}.
+     * @param verifier the SSL session verifier. May be {@code null}.
+     * @param handshakeExecutor the executor to run delegated SSL engine tasks with
+     *   during the TLS handshake. If {@code null} the tasks are run by the I/O reactor thread.
+     * @param sessionTracker the tracker to record TLS sessions established by this strategy
+     *   with. Its size and time-to-live constraints are applied to the server session context
+     *   of the SSL context. May be {@code null}.
+     *
+     * @since 5.3
+     */
+    public H2ServerTlsStrategy(
+            final SSLContext sslContext,
+            final SSLBufferMode sslBufferMode,
+            final SSLSessionInitializer initializer,
+            final SSLSessionVerifier verifier,
+            final Executor handshakeExecutor,
+            final TlsSessionTracker sessionTracker) {
         this.sslContext = Args.notNull(sslContext, "SSL context");
         this.sslBufferMode = sslBufferMode;
         this.initializer = initializer;
         this.verifier = verifier;
+        this.handshakeExecutor = handshakeExecutor;
+        this.sessionTracker = sessionTracker;
+        if (sessionTracker != null) {
+            sessionTracker.configure(sslContext.getServerSessionContext());
+        }
         this.securePortStrategy = null;
     }
 
+    public H2ServerTlsStrategy(
+            final SSLContext sslContext,
+            final SSLBufferMode sslBufferMode,
+            final SSLSessionInitializer initializer,
+            final SSLSessionVerifier verifier) {
+        this(sslContext, sslBufferMode, initializer, verifier, null);
+    }
+
     public H2ServerTlsStrategy(
             final SSLContext sslContext,
             final SSLSessionInitializer initializer,
@@ -164,7 +218,8 @@ public void upgrade(
                 H2TlsSupport.enforceRequirements(attachment, initializer),
                 verifier,
                 handshakeTimeout,
-                callback);
+                handshakeExecutor,
+                sessionTracker != null ? sessionTracker.track(null, callback) : callback);
     }
 
     /**
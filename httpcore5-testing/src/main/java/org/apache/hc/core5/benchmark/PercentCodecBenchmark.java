@@ -0,0 +1,170 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.core5.benchmark;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+
+import org.apache.hc.core5.net.PercentCodec;
+
+/**
+ * Compares per-call latency of {@link PercentCodec} encoding and decoding with
+ * the charset encoder / bit set based implementation it replaced.
+ * <p>
+ * Usage: {@code PercentCodecBenchmark [iterations]}
+ */
+public class PercentCodecBenchmark {
+
+    private static final String[] INPUTS = {
+            "some-plain-ascii-value",
+            "name with blanks & delimiters=1/2?",
+            "caf\u00e9 cr\u00e8me br\u00fbl\u00e9e \u20ac"
+    };
+
+    private static final BitSet UNRESERVED = new BitSet(256);
+
+    static {
+        for (int i = 'a'; i <= 'z'; i++) {
+            UNRESERVED.set(i);
+        }
+        for (int i = 'A'; i <= 'Z'; i++) {
+            UNRESERVED.set(i);
+        }
+        for (int i = '0'; i <= '9'; i++) {
+            UNRESERVED.set(i);
+        }
+        UNRESERVED.set('-');
+        UNRESERVED.set('.');
+        UNRESERVED.set('_');
+        UNRESERVED.set('~');
+    }
+
+    static void legacyEncode(final StringBuilder buf, final CharSequence content, final Charset charset) {
+        final ByteBuffer bb = charset.encode(CharBuffer.wrap(content));
+        while (bb.hasRemaining()) {
+            final int b = bb.get() & 0xff;
+            if (UNRESERVED.get(b)) {
+                buf.append((char) b);
+            } else {
+                buf.append("%");
+                buf.append(Character.toUpperCase(Character.forDigit((b >> 4) & 0xF, 16)));
+                buf.append(Character.toUpperCase(Character.forDigit(b & 0xF, 16)));
+            }
+        }
+    }
+
+    static String legacyDecode(final CharSequence content, final Charset charset) {
+        final ByteBuffer bb = ByteBuffer.allocate(content.length());
+        final CharBuffer cb = CharBuffer.wrap(content);
+        while (cb.hasRemaining()) {
+            final char c = cb.get();
+            if (c == '%' && cb.remaining() >= 2) {
+                final char uc = cb.get();
+                final char lc = cb.get();
+                final int u = Character.digit(uc, 16);
+                final int l = Character.digit(lc, 16);
+                if (u != -1 && l != -1) {
+                    bb.put((byte) ((u << 4) + l));
+                } else {
+                    bb.put((byte) '%');
+                    bb.put((byte) uc);
+                    bb.put((byte) lc);
+                }
+            } else {
+                bb.put((byte) c);
+            }
+        }
+        bb.flip();
+        return charset.decode(bb).toString();
+    }
+
+    public static void main(final String... args) throws Exception {
+        final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2000000;
+        final Charset charset = StandardCharsets.UTF_8;
+
+        System.out.printf("%-40s %-8s %12s %12s%n", "Input", "Op", "legacy ns", "table ns");
+        for (final String input : INPUTS) {
+            final StringBuilder buf = new StringBuilder();
+            legacyEncode(buf, input, charset);
+            final String encoded = buf.toString();
+            if (!encoded.equals(PercentCodec.encode(input, charset))) {
+                throw new IllegalStateException("Inconsistent encoding of " + input);
+            }
+            for (int round = 0; round < 2; round++) {
+                final long legacyEncode = encode(input, charset, iterations, true);
+                final long tableEncode = encode(input, charset, iterations, false);
+                final long legacyDecode = decode(encoded, charset, iterations, true);
+                final long tableDecode = decode(encoded, charset, iterations, false);
+                // the first round is a warm-up
+                if (round > 0) {
+                    System.out.printf("%-40s %-8s %12.1f %12.1f%n", input, "encode",
+                            (double) legacyEncode / iterations, (double) tableEncode / iterations);
+                    System.out.printf("%-40s %-8s %12.1f %12.1f%n", input, "decode",
+                            (double) legacyDecode / iterations, (double) tableDecode / iterations);
+                }
+            }
+        }
+    }
+
+    static long encode(final String input, final Charset charset, final int iterations, final boolean legacy) {
+        final StringBuilder buf = new StringBuilder();
+        long total = 0;
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            buf.setLength(0);
+            if (legacy) {
+                legacyEncode(buf, input, charset);
+            } else {
+                PercentCodec.encode(buf, input, charset);
+            }
+            total += buf.length();
+        }
+        final long nanos = System.nanoTime() - start;
+        if (total == 0) {
+            throw new IllegalStateException();
+        }
+        return nanos;
+    }
+
+    static long decode(final String input, final Charset charset, final int iterations, final boolean legacy) {
+        long total = 0;
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            final String s = legacy ? legacyDecode(input, charset) : PercentCodec.decode(input, charset);
+            total += s.length();
+        }
+        final long nanos = System.nanoTime() - start;
+        if (total == 0) {
+            throw new IllegalStateException();
+        }
+        return nanos;
+    }
+
+}
@@ -0,0 +1,250 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.core5.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.security.Provider;
+import java.util.Arrays;
+import java.util.concurrent.Future;
+
+import javax.net.ssl.SSLContext;
+
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.Message;
+import org.apache.hc.core5.http.Method;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http.impl.bootstrap.AsyncRequesterBootstrap;
+import org.apache.hc.core5.http.impl.bootstrap.AsyncServerBootstrap;
+import org.apache.hc.core5.http.impl.bootstrap.HttpAsyncRequester;
+import org.apache.hc.core5.http.impl.bootstrap.HttpAsyncServer;
+import org.apache.hc.core5.http.nio.AsyncClientEndpoint;
+import org.apache.hc.core5.http.nio.AsyncRequestConsumer;
+import org.apache.hc.core5.http.nio.AsyncServerRequestHandler;
+import org.apache.hc.core5.http.nio.entity.DiscardingEntityConsumer;
+import org.apache.hc.core5.http.nio.ssl.BasicClientTlsStrategy;
+import org.apache.hc.core5.http.nio.ssl.BasicServerTlsStrategy;
+import org.apache.hc.core5.http.nio.support.AsyncResponseBuilder;
+import org.apache.hc.core5.http.nio.support.BasicRequestConsumer;
+import org.apache.hc.core5.http.nio.support.BasicRequestProducer;
+import org.apache.hc.core5.http.nio.support.BasicResponseConsumer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.ListenerEndpoint;
+import org.apache.hc.core5.reactor.ssl.SSLBufferMode;
+import org.apache.hc.core5.reactor.ssl.SSLSessionVerifier;
+import org.apache.hc.core5.ssl.SSLContextBuilder;
+import org.apache.hc.core5.util.Timeout;
+import org.conscrypt.Conscrypt;
+
+/**
+ * Compares TLS handshake rate and bulk transfer throughput of the JDK and Conscrypt
+ * JSSE providers with heap and direct session buffers over the loopback interface.
+ * Conscrypt is benchmarked only if present on the classpath.
+ * <p>
+ * Usage: {@code TlsProviderBenchmark <PKCS#12 key store> <store password> [handshakes] [requests] [content length]}
+ * <p>
+ * The key store must contain a private key and a certificate valid for {@code localhost}
+ * protected with the store password.
+ */
+public class TlsProviderBenchmark {
+
+    private static final Timeout TIMEOUT = Timeout.ofMinutes(1);
+
+    public static void main(final String... args) throws Exception {
+        if (args.length < 2) {
+            System.out.println("Usage: TlsProviderBenchmark <PKCS#12 key store> <store password> "
+                    + "[handshakes] [requests] [content length]");
+            System.exit(1);
+        }
+        final URL keyStoreURL = new File(args[0]).toURI().toURL();
+        final char[] storePassword = args[1].toCharArray();
+        final int handshakes = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+        final int requests = args.length > 3 ? Integer.parseInt(args[3]) : 200;
+        final int contentLength = args.length > 4 ? Integer.parseInt(args[4]) : 1024 * 1024;
+
+        final Provider conscrypt = createConscryptProvider();
+
+        System.out.printf("%-12s %-8s %14s %14s%n", "Provider", "Buffers", "Handshakes/s", "MB/s");
+        for (final Provider provider : conscrypt != null ? new Provider[] {null, conscrypt} : new Provider[] {null}) {
+            for (final SSLBufferMode bufferMode : new SSLBufferMode[] {SSLBufferMode.STATIC, SSLBufferMode.DIRECT}) {
+                final TlsProviderBenchmark benchmark = new TlsProviderBenchmark(
+                        keyStoreURL, storePassword, provider, bufferMode, contentLength);
+                benchmark.start();
+                try {
+                    // Warm up
+                    benchmark.executeHandshakes(Math.max(1, handshakes / 10));
+                    benchmark.executeRequests(Math.max(1, requests / 10));
+
+                    long startTime = System.nanoTime();
+                    benchmark.executeHandshakes(handshakes);
+                    final double handshakeRate = handshakes / seconds(startTime);
+
+                    startTime = System.nanoTime();
+                    benchmark.executeRequests(requests);
+                    final double throughput = (double) requests * contentLength / (1024 * 1024) / seconds(startTime);
+
+                    System.out.printf("%-12s %-8s %14.1f %14.1f%n",
+                            provider != null ? provider.getName() : "JDK", bufferMode, handshakeRate, throughput);
+                } finally {
+                    benchmark.shutdown();
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the Conscrypt provider if available. Conscrypt is an optional dependency
+     * of this module and may be absent from the runtime classpath.
+     */
+    private static Provider createConscryptProvider() {
+        try {
+            return Conscrypt.newProviderBuilder().provideTrustManager(true).build();
+        } catch (final LinkageError ex) {
+            System.out.println("Conscrypt could not be loaded: " + ex);
+            return null;
+        }
+    }
+
+    private static double seconds(final long startTime) {
+        return (System.nanoTime() - startTime) / 1_000_000_000d;
+    }
+
+    private final HttpAsyncServer server;
+    private final HttpAsyncRequester requester;
+    private HttpHost target;
+
+    TlsProviderBenchmark(
+            final URL keyStoreURL,
+            final char[] storePassword,
+            final Provider provider,
+            final SSLBufferMode bufferMode,
+            final int contentLength) throws Exception {
+        final SSLContext serverSSLContext = SSLContextBuilder.create()
+                .setProvider(provider)
+                .setKeyStoreType("pkcs12")
+                .loadTrustMaterial(keyStoreURL, storePassword)
+                .loadKeyMaterial(keyStoreURL, storePassword, storePassword)
+                .build();
+        final SSLContext clientSSLContext = SSLContextBuilder.create()
+                .setProvider(provider)
+                .setKeyStoreType("pkcs12")
+                .loadTrustMaterial(keyStoreURL, storePassword)
+                .build();
+        // Prevent session resumption in order to measure the cost of full handshakes
+        final SSLSessionVerifier verifier = (endpoint, sslEngine) -> {
+            sslEngine.getSession().invalidate();
+            return null;
+        };
+
+        final byte[] content = new byte[contentLength];
+        Arrays.fill(content, (byte) 'a');
+
+        this.server = AsyncServerBootstrap.bootstrap()
+                .setTlsStrategy(new BasicServerTlsStrategy(serverSSLContext, bufferMode, null, verifier))
+                .register("*", new AsyncServerRequestHandler<Message<HttpRequest, Void>>() {
+
+                    @Override
+                    public AsyncRequestConsumer<Message<HttpRequest, Void>> prepare(
+                            final HttpRequest request,
+                            final EntityDetails entityDetails,
+                            final HttpContext context) throws HttpException {
+                        return new BasicRequestConsumer<>(entityDetails != null ? new DiscardingEntityConsumer<>() : null);
+                    }
+
+                    @Override
+                    public void handle(
+                            final Message<HttpRequest, Void> requestObject,
+                            final ResponseTrigger responseTrigger,
+                            final HttpContext context) throws HttpException, IOException {
+                        final String path = requestObject.getHead().getPath();
+                        responseTrigger.submitResponse(
+                                "/content".equals(path) ?
+                                        AsyncResponseBuilder.create(HttpStatus.SC_OK)
+                                                .setEntity(content, ContentType.APPLICATION_OCTET_STREAM)
+                                                .build() :
+                                        AsyncResponseBuilder.create(HttpStatus.SC_NO_CONTENT).build(),
+                                context);
+                    }
+
+                })
+                .create();
+        this.requester = AsyncRequesterBootstrap.bootstrap()
+                .setTlsStrategy(new BasicClientTlsStrategy(clientSSLContext, bufferMode, null, verifier))
+                .create();
+    }
+
+    void start() throws Exception {
+        server.start();
+        requester.start();
+        final Future<ListenerEndpoint> future = server.listen(new InetSocketAddress(0), URIScheme.HTTPS);
+        final ListenerEndpoint listener = future.get();
+        final InetSocketAddress address = (InetSocketAddress) listener.getAddress();
+        target = new HttpHost(URIScheme.HTTPS.id, "localhost", address.getPort());
+    }
+
+    void executeHandshakes(final int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            final Future<AsyncClientEndpoint> connectFuture = requester.connect(target, TIMEOUT);
+            final AsyncClientEndpoint endpoint = connectFuture.get(TIMEOUT.getDuration(), TIMEOUT.getTimeUnit());
+            try {
+                final Future<Message<HttpResponse, Void>> future = endpoint.execute(
+                        new BasicRequestProducer(Method.GET, target, "/"),
+                        new BasicResponseConsumer<>(new DiscardingEntityConsumer<>()),
+                        null);
+                future.get(TIMEOUT.getDuration(), TIMEOUT.getTimeUnit());
+            } finally {
+                endpoint.releaseAndDiscard();
+            }
+        }
+    }
+
+    void executeRequests(final int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            final Future<Message<HttpResponse, Void>> future = requester.execute(
+                    new BasicRequestProducer(Method.GET, target, "/content"),
+                    new BasicResponseConsumer<>(new DiscardingEntityConsumer<>()),
+                    TIMEOUT,
+                    null);
+            future.get(TIMEOUT.getDuration(), TIMEOUT.getTimeUnit());
+        }
+    }
+
+    void shutdown() {
+        requester.close(CloseMode.GRACEFUL);
+        server.close(CloseMode.GRACEFUL);
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+
+package org.apache.hc.core5.benchmark;
+
+import java.util.Random;
+
+import org.apache.hc.core5.http.protocol.CompiledUriRegexMatcher;
+import org.apache.hc.core5.http.protocol.LookupRegistry;
+import org.apache.hc.core5.http.protocol.UriRegexMatcher;
+
+/**
+ * Compares per-lookup latency of {@link UriRegexMatcher} and {@link CompiledUriRegexMatcher}
+ * with 10, 100 and 1000 regular expression routes.
+ * <p>
+ * Usage: {@code UriRegexMatcherBenchmark [lookups]}
+ */
+public class UriRegexMatcherBenchmark {
+
+    private static final int[] ROUTE_COUNTS = {10, 100, 1000};
+
+    public static void main(final String... args) throws Exception {
+        final int lookups = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+
+        System.out.printf("%-26s %8s %14s%n", "Matcher", "Routes", "ns/lookup");
+        for (final int routeCount : ROUTE_COUNTS) {
+            final String[] paths = createPaths(routeCount, 1024);
+            for (final boolean compiled : new boolean[] {false, true}) {
+                final LookupRegistry<Integer> matcher = compiled ? new CompiledUriRegexMatcher<>() : new UriRegexMatcher<>();
+                for (int i = 0; i < routeCount; i++) {
+                    matcher.register("/service" + i + "/items/[0-9]+", i);
+                }
+                // warm up
+                run(matcher, paths, lookups);
+                final long nanos = run(matcher, paths, lookups);
+                System.out.printf("%-26s %8d %14.1f%n",
+                        matcher.getClass().getSimpleName(), routeCount, (double) nanos / lookups);
+            }
+        }
+    }
+
+    static String[] createPaths(final int routeCount, final int n) {
+        final Random random = new Random(1);
+        final String[] paths = new String[n];
+        for (int i = 0; i < n; i++) {
+            paths[i] = "/service" + random.nextInt(routeCount) + "/items/" + random.nextInt(100000);
+        }
+        return paths;
+    }
+
+    static long run(final LookupRegistry<Integer> matcher, final String[] paths, final int lookups) {
+        long hits = 0;
+        final long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            if (matcher.lookup(paths[i % paths.length]) != null) {
+                hits++;
+            }
+        }
+        final long nanos = System.nanoTime() - start;
+        if (hits != lookups) {
+            throw new IllegalStateException("Unexpected number of matches: " + hits);
+        }
+        return nanos;
+    }
+
+}
@@ -34,6 +34,7 @@
 import java.util.concurrent.ThreadFactory;
 
 import org.apache.hc.core5.function.Callback;
+import org.apache.hc.core5.function.Decorator;
 import org.apache.hc.core5.reactor.DefaultListeningIOReactor;
 import org.apache.hc.core5.reactor.IOEventHandlerFactory;
 import org.apache.hc.core5.reactor.IOReactorConfig;
@@ -42,8 +43,18 @@
 
 public class AsyncServer extends IOReactorExecutor<DefaultListeningIOReactor> {
 
-    public AsyncServer(final IOReactorConfig ioReactorConfig) {
+    private final Decorator<IOSession> ioSessionDecorator;
+
+    /**
+     * @since 5.3
+     */
+    public AsyncServer(final IOReactorConfig ioReactorConfig, final Decorator<IOSession> ioSessionDecorator) {
         super(ioReactorConfig, null);
+        this.ioSessionDecorator = ioSessionDecorator != null ? ioSessionDecorator : LoggingIOSessionDecorator.INSTANCE;
+    }
+
+    public AsyncServer(final IOReactorConfig ioReactorConfig) {
+        this(ioReactorConfig, null);
     }
 
     @Override
@@ -57,7 +68,7 @@ DefaultListeningIOReactor createIOReactor(
                 ioReactorConfig,
                 threadFactory,
                 threadFactory,
-                LoggingIOSessionDecorator.INSTANCE,
+                ioSessionDecorator,
                 LoggingExceptionCallback.INSTANCE,
                 LoggingIOSessionListener.INSTANCE,
                 sessionShutdownCallback);
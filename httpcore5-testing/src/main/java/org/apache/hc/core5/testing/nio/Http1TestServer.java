@@ -48,6 +48,7 @@
 import org.apache.hc.core5.http.protocol.RequestHandlerRegistry;
 import org.apache.hc.core5.reactor.IOEventHandlerFactory;
 import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.reactor.IOSession;
 import org.apache.hc.core5.reactor.ListenerEndpoint;
 import org.apache.hc.core5.reactor.ssl.SSLSessionInitializer;
 import org.apache.hc.core5.reactor.ssl.SSLSessionVerifier;
@@ -59,18 +60,30 @@ public class Http1TestServer extends AsyncServer {
     private final SSLSessionInitializer sslSessionInitializer;
     private final SSLSessionVerifier sslSessionVerifier;
 
+    /**
+     * @since 5.3
+     */
     public Http1TestServer(
             final IOReactorConfig ioReactorConfig,
             final SSLContext sslContext,
             final SSLSessionInitializer sslSessionInitializer,
-            final SSLSessionVerifier sslSessionVerifier) throws IOException {
-        super(ioReactorConfig);
+            final SSLSessionVerifier sslSessionVerifier,
+            final Decorator<IOSession> ioSessionDecorator) throws IOException {
+        super(ioReactorConfig, ioSessionDecorator);
         this.registry = new RequestHandlerRegistry<>();
         this.sslContext = sslContext;
         this.sslSessionInitializer = sslSessionInitializer;
         this.sslSessionVerifier = sslSessionVerifier;
     }
 
+    public Http1TestServer(
+            final IOReactorConfig ioReactorConfig,
+            final SSLContext sslContext,
+            final SSLSessionInitializer sslSessionInitializer,
+            final SSLSessionVerifier sslSessionVerifier) throws IOException {
+        this(ioReactorConfig, sslContext, sslSessionInitializer, sslSessionVerifier, null);
+    }
+
     public Http1TestServer() throws IOException {
         this(IOReactorConfig.DEFAULT, null, null, null);
     }
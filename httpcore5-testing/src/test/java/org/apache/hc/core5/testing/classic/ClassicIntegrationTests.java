@@ -123,4 +123,24 @@ public CoreTransportSocksProxyTls() {
 
     }
 
+    @Nested
+    @DisplayName("Server worker thread factory")
+    public class WorkerThreadFactory extends ClassicServerWorkerTest {
+
+        public WorkerThreadFactory() {
+            super(URIScheme.HTTP, false);
+        }
+
+    }
+
+    @Nested
+    @DisplayName("Server worker executor")
+    public class WorkerExecutor extends ClassicServerWorkerTest {
+
+        public WorkerExecutor() {
+            super(URIScheme.HTTP, true);
+        }
+
+    }
+
 }
@@ -0,0 +1,168 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.core5.testing.classic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.Method;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http.impl.bootstrap.HttpRequester;
+import org.apache.hc.core5.http.impl.bootstrap.HttpServer;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.http.message.BasicClassicHttpRequest;
+import org.apache.hc.core5.http.protocol.HttpCoreContext;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.testing.classic.extension.HttpRequesterResource;
+import org.apache.hc.core5.testing.classic.extension.HttpServerResource;
+import org.apache.hc.core5.util.Timeout;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+public abstract class ClassicServerWorkerTest {
+
+    private static final Timeout TIMEOUT = Timeout.ofMinutes(1);
+    private static final int MAX_CONNECTIONS = 2;
+
+    private final URIScheme scheme;
+    private final ExecutorService workerExecutor;
+    private final AtomicInteger threadCount;
+    private final AtomicInteger concurrentCount;
+    private final AtomicInteger maxConcurrentCount;
+
+    @RegisterExtension
+    private final HttpServerResource serverResource;
+
+    @RegisterExtension
+    private final HttpRequesterResource clientResource;
+
+    public ClassicServerWorkerTest(final URIScheme scheme, final boolean externalExecutor) {
+        this.scheme = scheme;
+        this.threadCount = new AtomicInteger();
+        this.concurrentCount = new AtomicInteger();
+        this.maxConcurrentCount = new AtomicInteger();
+        this.workerExecutor = externalExecutor ? Executors.newCachedThreadPool() : null;
+        this.serverResource = new HttpServerResource(scheme, bootstrap -> bootstrap
+                .setSocketConfig(SocketConfig.custom()
+                        .setSoTimeout(TIMEOUT)
+                        .build())
+                .setWorkerThreadFactory(r -> {
+                    threadCount.incrementAndGet();
+                    final Thread thread = new Thread(r, "test-worker");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                .setWorkerExecutor(workerExecutor)
+                .setMaxConnections(MAX_CONNECTIONS)
+                .setListenerThreadCount(2)
+                .register("*", (request, response, context) -> {
+                    final int n = concurrentCount.incrementAndGet();
+                    maxConcurrentCount.accumulateAndGet(n, Math::max);
+                    try {
+                        Thread.sleep(50);
+                    } catch (final InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        concurrentCount.decrementAndGet();
+                    }
+                    response.setCode(HttpStatus.SC_OK);
+                    response.setEntity(new StringEntity("ok", ContentType.TEXT_PLAIN));
+                }));
+        this.clientResource = new HttpRequesterResource(bootstrap -> bootstrap
+                .setSocketConfig(SocketConfig.custom()
+                        .setSoTimeout(TIMEOUT)
+                        .build())
+                .setMaxTotal(10)
+                .setDefaultMaxPerRoute(10));
+    }
+
+    @AfterEach
+    public void shutdownExecutor() {
+        if (workerExecutor != null) {
+            workerExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testMaxConnections() throws Exception {
+        final HttpServer server = serverResource.start();
+        final HttpRequester requester = clientResource.start();
+
+        final HttpHost target = new HttpHost(scheme.id, "localhost", server.getLocalPort());
+        final ExecutorService clientExecutor = Executors.newFixedThreadPool(6);
+        try {
+            final List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                futures.add(clientExecutor.submit(() -> {
+                    final ClassicHttpRequest request = new BasicClassicHttpRequest(Method.GET, "/");
+                    request.setHeader(HttpHeaders.CONNECTION, "close");
+                    try (final ClassicHttpResponse response = requester.execute(
+                            target, request, TIMEOUT, HttpCoreContext.create())) {
+                        EntityUtils.consume(response.getEntity());
+                        return response.getCode();
+                    }
+                }));
+            }
+            for (final Future<Integer> future : futures) {
+                Assertions.assertEquals(HttpStatus.SC_OK, future.get(TIMEOUT.getDuration(), TIMEOUT.getTimeUnit()));
+            }
+        } finally {
+            clientExecutor.shutdownNow();
+        }
+        Assertions.assertTrue(maxConcurrentCount.get() <= MAX_CONNECTIONS,
+                "Max concurrency " + maxConcurrentCount.get());
+        Assertions.assertEquals(0, server.getRejectedConnectionCount());
+        if (workerExecutor == null) {
+            Assertions.assertTrue(threadCount.get() > 0);
+        } else {
+            Assertions.assertEquals(0, threadCount.get());
+        }
+
+        server.close(CloseMode.GRACEFUL, Timeout.ofSeconds(5));
+        Assertions.assertEquals(0, server.getActiveConnectionCount());
+        if (workerExecutor != null) {
+            Assertions.assertFalse(workerExecutor.isShutdown());
+            Assertions.assertTrue(workerExecutor.submit(() -> true).get(5, TimeUnit.SECONDS));
+        }
+    }
+
+}
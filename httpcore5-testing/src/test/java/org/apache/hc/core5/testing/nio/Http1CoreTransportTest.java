@@ -31,8 +31,19 @@
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.hc.core5.concurrent.BasicFuture;
+import org.apache.hc.core5.concurrent.FutureContribution;
 import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.HeaderElements;
 import org.apache.hc.core5.http.HttpException;
@@ -47,13 +58,16 @@
 import org.apache.hc.core5.http.impl.bootstrap.HttpAsyncRequester;
 import org.apache.hc.core5.http.impl.bootstrap.HttpAsyncServer;
 import org.apache.hc.core5.http.impl.bootstrap.StandardFilter;
+import org.apache.hc.core5.http.nio.AsyncClientExchangeHandler;
 import org.apache.hc.core5.http.nio.AsyncEntityProducer;
 import org.apache.hc.core5.http.nio.AsyncFilterChain;
 import org.apache.hc.core5.http.nio.AsyncPushProducer;
 import org.apache.hc.core5.http.nio.entity.StringAsyncEntityConsumer;
 import org.apache.hc.core5.http.nio.entity.StringAsyncEntityProducer;
+import org.apache.hc.core5.http.nio.support.BasicClientExchangeHandler;
 import org.apache.hc.core5.http.nio.support.BasicRequestProducer;
 import org.apache.hc.core5.http.nio.support.BasicResponseConsumer;
+import org.apache.hc.core5.http.protocol.HttpCoreContext;
 import org.apache.hc.core5.http.protocol.UriPatternMatcher;
 import org.apache.hc.core5.reactor.IOReactorConfig;
 import org.apache.hc.core5.reactor.ListenerEndpoint;
@@ -61,6 +75,8 @@
 import org.apache.hc.core5.testing.nio.extension.HttpAsyncServerResource;
 import org.apache.hc.core5.util.Timeout;
 import org.hamcrest.CoreMatchers;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
@@ -73,6 +89,12 @@ public abstract class Http1CoreTransportTest extends HttpCoreTransportTest {
     @RegisterExtension
     private final HttpAsyncRequesterResource clientResource;
 
+    private final AtomicInteger pipelineArrivals = new AtomicInteger();
+    private final AtomicInteger pipelineMaxOutstanding = new AtomicInteger();
+    private final AtomicInteger pipelineOutstandingAtPost = new AtomicInteger(-1);
+    private final Map<SocketAddress, AtomicInteger> pipelineConnections = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
     public Http1CoreTransportTest(final URIScheme scheme) {
         super(scheme);
         this.serverResource = new HttpAsyncServerResource(bootstrap -> bootstrap
@@ -109,6 +131,59 @@ public void pushPromise(
                             }
 
                         }))
+                .addFilterBefore(StandardFilter.MAIN_HANDLER.name(), "pipeline", (request, entityDetails, context, responseTrigger, chain) -> {
+                    if (!request.getPath().startsWith("/pipeline")) {
+                        return chain.proceed(request, entityDetails, context, responseTrigger);
+                    }
+                    // Keep track of requests received but not yet responded to and delay
+                    // responses a little, so that pipelined requests have a chance to pile up
+                    pipelineArrivals.incrementAndGet();
+                    final AtomicInteger pipelineOutstanding = pipelineConnections.computeIfAbsent(
+                            HttpCoreContext.adapt(context).getEndpointDetails().getRemoteAddress(), k -> new AtomicInteger());
+                    final int outstanding = pipelineOutstanding.getAndIncrement();
+                    pipelineMaxOutstanding.accumulateAndGet(outstanding + 1, Math::max);
+                    if (Method.POST.isSame(request.getMethod())) {
+                        pipelineOutstandingAtPost.set(outstanding);
+                    }
+                    return chain.proceed(request, entityDetails, context, new AsyncFilterChain.ResponseTrigger() {
+
+                        @Override
+                        public void sendInformation(
+                                final HttpResponse response) throws HttpException, IOException {
+                            responseTrigger.sendInformation(response);
+                        }
+
+                        @Override
+                        public void submitResponse(
+                                final HttpResponse response,
+                                final AsyncEntityProducer entityProducer) throws HttpException, IOException {
+                            if (request.getPath().endsWith("/close")) {
+                                response.setHeader(HttpHeaders.CONNECTION, HeaderElements.CLOSE);
+                            }
+                            if (entityProducer != null) {
+                                // Responses echoing request content are not delayed
+                                pipelineOutstanding.decrementAndGet();
+                                responseTrigger.submitResponse(response, entityProducer);
+                                return;
+                            }
+                            scheduler.schedule(() -> {
+                                pipelineOutstanding.decrementAndGet();
+                                try {
+                                    responseTrigger.submitResponse(response, entityProducer);
+                                } catch (final HttpException | IOException ignore) {
+                                }
+                            }, 20, TimeUnit.MILLISECONDS);
+                        }
+
+                        @Override
+                        public void pushPromise(
+                                final HttpRequest promise,
+                                final AsyncPushProducer responseProducer) throws HttpException, IOException {
+                            responseTrigger.pushPromise(promise, responseProducer);
+                        }
+
+                    });
+                })
         );
         this.clientResource = new HttpAsyncRequesterResource(bootstrap -> bootstrap
                 .setIOReactorConfig(IOReactorConfig.custom()
@@ -117,6 +192,11 @@ public void pushPromise(
         );
     }
 
+    @AfterEach
+    public void shutdownScheduler() {
+        scheduler.shutdownNow();
+    }
+
     @Override
     HttpAsyncServer serverStart() throws IOException {
         return serverResource.start();
@@ -170,4 +250,100 @@ public void testSequentialRequestsNonPersistentConnection() throws Exception {
         assertThat(body3, CoreMatchers.equalTo("some more stuff"));
     }
 
+    private static List<Future<Message<HttpResponse, String>>> createPipelinedExchanges(
+            final HttpHost target,
+            final int count,
+            final int postIndex,
+            final int closeIndex,
+            final List<AsyncClientExchangeHandler> exchangeHandlers) {
+        final List<Future<Message<HttpResponse, String>>> resultFutures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final BasicRequestProducer requestProducer;
+            if (i == postIndex) {
+                requestProducer = new BasicRequestProducer(Method.POST, target, "/pipeline/stuff",
+                        new StringAsyncEntityProducer("some stuff", ContentType.TEXT_PLAIN));
+            } else if (i == closeIndex) {
+                requestProducer = new BasicRequestProducer(Method.GET, target, "/pipeline/" + i + "/close");
+            } else {
+                requestProducer = new BasicRequestProducer(Method.GET, target, "/pipeline/" + i);
+            }
+            final BasicFuture<Message<HttpResponse, String>> resultFuture = new BasicFuture<>(null);
+            exchangeHandlers.add(new BasicClientExchangeHandler<>(
+                    requestProducer,
+                    new BasicResponseConsumer<>(new StringAsyncEntityConsumer()),
+                    new FutureContribution<Message<HttpResponse, String>>(resultFuture) {
+
+                        @Override
+                        public void completed(final Message<HttpResponse, String> result) {
+                            resultFuture.completed(result);
+                        }
+
+                    }));
+            resultFutures.add(resultFuture);
+        }
+        return resultFutures;
+    }
+
+    @Test
+    public void testPipelinedExecution() throws Exception {
+        final HttpAsyncServer server = serverResource.start();
+        final Future<ListenerEndpoint> future = server.listen(new InetSocketAddress(0), scheme);
+        final ListenerEndpoint listener = future.get();
+        final InetSocketAddress address = (InetSocketAddress) listener.getAddress();
+        final HttpAsyncRequester requester = clientResource.start();
+
+        final HttpHost target = new HttpHost(scheme.id, "localhost", address.getPort());
+        final List<AsyncClientExchangeHandler> exchangeHandlers = new ArrayList<>();
+        final List<Future<Message<HttpResponse, String>>> resultFutures = createPipelinedExchanges(
+                target, 20, 10, -1, exchangeHandlers);
+        final Future<Void> batchFuture = requester.executePipelined(target, exchangeHandlers, 5, TIMEOUT);
+        batchFuture.get(TIMEOUT.getDuration(), TIMEOUT.getTimeUnit());
+
+        for (int i = 0; i < resultFutures.size(); i++) {
+            final Future<Message<HttpResponse, String>> resultFuture = resultFutures.get(i);
+            assertThat(resultFuture.isDone(), CoreMatchers.equalTo(true));
+            final Message<HttpResponse, String> message = resultFuture.get();
+            assertThat(message, CoreMatchers.notNullValue());
+            final HttpResponse response = message.getHead();
+            assertThat(response.getCode(), CoreMatchers.equalTo(HttpStatus.SC_OK));
+            if (i == 10) {
+                assertThat(message.getBody(), CoreMatchers.equalTo("some stuff"));
+            }
+        }
+        // All requests have been pipelined over one connection without exceeding the max depth
+        assertThat(pipelineConnections.size(), CoreMatchers.equalTo(1));
+        assertThat(pipelineArrivals.get(), CoreMatchers.equalTo(20));
+        assertThat(pipelineMaxOutstanding.get(), Matchers.greaterThan(1));
+        assertThat(pipelineMaxOutstanding.get(), Matchers.lessThanOrEqualTo(5));
+        // The non-idempotent request has been sent only after all preceding responses
+        assertThat(pipelineOutstandingAtPost.get(), CoreMatchers.equalTo(0));
+    }
+
+    @Test
+    public void testPipelinedExecutionReplayOnConnectionClose() throws Exception {
+        final HttpAsyncServer server = serverResource.start();
+        final Future<ListenerEndpoint> future = server.listen(new InetSocketAddress(0), scheme);
+        final ListenerEndpoint listener = future.get();
+        final InetSocketAddress address = (InetSocketAddress) listener.getAddress();
+        final HttpAsyncRequester requester = clientResource.start();
+
+        final HttpHost target = new HttpHost(scheme.id, "localhost", address.getPort());
+        final List<AsyncClientExchangeHandler> exchangeHandlers = new ArrayList<>();
+        final List<Future<Message<HttpResponse, String>>> resultFutures = createPipelinedExchanges(
+                target, 10, -1, 2, exchangeHandlers);
+        final Future<Void> batchFuture = requester.executePipelined(target, exchangeHandlers, 5, TIMEOUT);
+        batchFuture.get(TIMEOUT.getDuration(), TIMEOUT.getTimeUnit());
+
+        for (final Future<Message<HttpResponse, String>> resultFuture : resultFutures) {
+            final Message<HttpResponse, String> message = resultFuture.get(TIMEOUT.getDuration(), TIMEOUT.getTimeUnit());
+            assertThat(message, CoreMatchers.notNullValue());
+            assertThat(message.getHead().getCode(), CoreMatchers.equalTo(HttpStatus.SC_OK));
+        }
+        // Requests pipelined behind the 'Connection: close' response have been replayed
+        // over a second connection
+        assertThat(pipelineConnections.size(), CoreMatchers.equalTo(2));
+        assertThat(pipelineArrivals.get(), Matchers.greaterThan(10));
+        assertThat(pipelineMaxOutstanding.get(), Matchers.lessThanOrEqualTo(5));
+    }
+
 }
@@ -38,12 +38,15 @@
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.ByteBuffer;
 import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -53,8 +56,10 @@
 import java.util.StringTokenizer;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.hc.core5.http.ConnectionReuseStrategy;
@@ -102,10 +107,12 @@
 import org.apache.hc.core5.http.nio.entity.AsyncEntityProducers;
 import org.apache.hc.core5.http.nio.entity.DigestingEntityConsumer;
 import org.apache.hc.core5.http.nio.entity.DigestingEntityProducer;
+import org.apache.hc.core5.http.nio.entity.DiscardingEntityConsumer;
 import org.apache.hc.core5.http.nio.entity.StringAsyncEntityConsumer;
 import org.apache.hc.core5.http.nio.entity.StringAsyncEntityProducer;
 import org.apache.hc.core5.http.nio.support.AbstractServerExchangeHandler;
 import org.apache.hc.core5.http.nio.support.AsyncRequestBuilder;
+import org.apache.hc.core5.http.nio.support.AsyncResponseBuilder;
 import org.apache.hc.core5.http.nio.support.BasicAsyncServerExpectationDecorator;
 import org.apache.hc.core5.http.nio.support.BasicRequestConsumer;
 import org.apache.hc.core5.http.nio.support.BasicRequestProducer;
@@ -122,17 +129,21 @@
 import org.apache.hc.core5.http.protocol.RequestContent;
 import org.apache.hc.core5.http.protocol.RequestTargetHost;
 import org.apache.hc.core5.http.protocol.RequestValidateHost;
+import org.apache.hc.core5.reactor.IOReactorConfig;
 import org.apache.hc.core5.reactor.IOSession;
 import org.apache.hc.core5.reactor.ProtocolIOSession;
 import org.apache.hc.core5.testing.SSLTestContexts;
 import org.apache.hc.core5.testing.nio.extension.Http1TestResources;
 import org.apache.hc.core5.util.CharArrayBuffer;
 import org.apache.hc.core5.util.TextUtils;
+import org.apache.hc.core5.util.TimeValue;
 import org.apache.hc.core5.util.Timeout;
 import org.hamcrest.CoreMatchers;
+import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.LoggerFactory;
 
 public abstract class Http1IntegrationTest {
 
@@ -349,6 +360,106 @@ public void testSimpleGetsPipelined() throws Exception {
         }
     }
 
+    @Test
+    public void testSimpleGetsPipelinedResponseOrder() throws Exception {
+        final AtomicInteger writeCount = new AtomicInteger();
+        final Http1TestServer server = new Http1TestServer(
+                IOReactorConfig.custom()
+                        .setSoTimeout(TIMEOUT)
+                        .build(),
+                scheme == URIScheme.HTTPS ? SSLTestContexts.createServerSSLContext() : null, null, null,
+                ioSession -> new LoggingIOSession(
+                        ioSession,
+                        LoggerFactory.getLogger(ioSession.getClass()),
+                        LoggerFactory.getLogger("org.apache.hc.core5.http.wire")) {
+
+                    @Override
+                    public int write(final ByteBuffer src) throws IOException {
+                        final int bytesWritten = super.write(src);
+                        if (bytesWritten > 0) {
+                            writeCount.incrementAndGet();
+                        }
+                        return bytesWritten;
+                    }
+
+                });
+        final Http1TestClient client = resources.client();
+
+        final int requestCount = 20;
+        final List<Runnable> deferredResponses = new ArrayList<>();
+        server.register("/hello*", () -> new AbstractServerExchangeHandler<Message<HttpRequest, Void>>() {
+
+            @Override
+            protected AsyncRequestConsumer<Message<HttpRequest, Void>> supplyConsumer(
+                    final HttpRequest request,
+                    final EntityDetails entityDetails,
+                    final HttpContext context) throws HttpException {
+                return new BasicRequestConsumer<>(entityDetails != null ? new DiscardingEntityConsumer<>() : null);
+            }
+
+            @Override
+            protected void handle(
+                    final Message<HttpRequest, Void> requestMessage,
+                    final AsyncServerRequestHandler.ResponseTrigger responseTrigger,
+                    final HttpContext context) throws HttpException, IOException {
+                // Hold responses back until the whole pipeline has arrived so that
+                // they are all ready to go out in a single output pass
+                final List<Runnable> batch;
+                synchronized (deferredResponses) {
+                    if (deferredResponses.isEmpty()) {
+                        // Disregard TLS handshake writes
+                        writeCount.set(0);
+                    }
+                    deferredResponses.add(() -> {
+                        try {
+                            responseTrigger.submitResponse(new BasicResponseProducer(
+                                    HttpStatus.SC_OK,
+                                    new StringAsyncEntityProducer(requestMessage.getHead().getPath())), context);
+                        } catch (final HttpException | IOException ex) {
+                            throw new IllegalStateException(ex);
+                        }
+                    });
+                    if (deferredResponses.size() < requestCount) {
+                        return;
+                    }
+                    batch = new ArrayList<>(deferredResponses);
+                }
+                batch.forEach(Runnable::run);
+            }
+        });
+        try {
+            final InetSocketAddress serverEndpoint = server.start();
+
+            client.start();
+            final Future<ClientSessionEndpoint> connectFuture = client.connect(
+                    "localhost", serverEndpoint.getPort(), TIMEOUT);
+            final ClientSessionEndpoint streamEndpoint = connectFuture.get();
+
+            final Queue<Future<Message<HttpResponse, String>>> queue = new LinkedList<>();
+            for (int i = 0; i < requestCount; i++) {
+                queue.add(streamEndpoint.execute(
+                        new BasicRequestProducer(Method.GET, createRequestURI(serverEndpoint, "/hello-" + i)),
+                        new BasicResponseConsumer<>(new StringAsyncEntityConsumer()), null));
+            }
+            int i = 0;
+            while (!queue.isEmpty()) {
+                final Future<Message<HttpResponse, String>> future = queue.remove();
+                final Message<HttpResponse, String> result = future.get(TIMEOUT.getDuration(), TIMEOUT.getTimeUnit());
+                Assertions.assertNotNull(result);
+                final HttpResponse response = result.getHead();
+                Assertions.assertNotNull(response);
+                Assertions.assertEquals(200, response.getCode());
+                Assertions.assertEquals("/hello-" + i, result.getBody());
+                i++;
+            }
+            // Responses queued behind one another are expected to be written out together
+            // rather than with at least one socket write per response
+            assertThat(writeCount.get(), Matchers.lessThan(requestCount / 4));
+        } finally {
+            server.shutdown(TimeValue.ofSeconds(5));
+        }
+    }
+
     @Test
     public void testLargeGet() throws Exception {
         final Http1TestServer server = resources.server();
@@ -1318,6 +1429,131 @@ public void testPipelinedConnectionClose() throws Exception {
                 CoreMatchers.instanceOf(ExecutionException.class)));
     }
 
+    @Test
+    public void testPipelinedResponsesSubmittedByWorkerThreads() throws Exception {
+        final Http1TestServer server = resources.server();
+        final Http1TestClient client = resources.client();
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            server.register("/hello*", new AsyncServerRequestHandler<Message<HttpRequest, Void>>() {
+
+                @Override
+                public AsyncRequestConsumer<Message<HttpRequest, Void>> prepare(
+                        final HttpRequest request,
+                        final EntityDetails entityDetails,
+                        final HttpContext context) throws HttpException {
+                    return new BasicRequestConsumer<>(entityDetails != null ? new DiscardingEntityConsumer<>() : null);
+                }
+
+                @Override
+                public void handle(
+                        final Message<HttpRequest, Void> requestObject,
+                        final ResponseTrigger responseTrigger,
+                        final HttpContext context) throws HttpException, IOException {
+                    // Responses are submitted by a thread other than the I/O dispatch thread
+                    executorService.execute(() -> {
+                        try {
+                            responseTrigger.submitResponse(
+                                    AsyncResponseBuilder.create(HttpStatus.SC_NO_CONTENT).build(), context);
+                        } catch (final HttpException | IOException ex) {
+                            throw new IllegalStateException(ex);
+                        }
+                    });
+                }
+
+            });
+            final InetSocketAddress serverEndpoint = server.start();
+
+            client.start();
+            final Future<ClientSessionEndpoint> connectFuture = client.connect(
+                    "localhost", serverEndpoint.getPort(), TIMEOUT);
+            final ClientSessionEndpoint streamEndpoint = connectFuture.get();
+
+            for (int n = 0; n < 20; n++) {
+                final Queue<Future<Message<HttpResponse, String>>> queue = new LinkedList<>();
+                for (int i = 0; i < 10; i++) {
+                    queue.add(streamEndpoint.execute(
+                            new BasicRequestProducer(Method.GET, createRequestURI(serverEndpoint, "/hello-" + i)),
+                            new BasicResponseConsumer<>(new StringAsyncEntityConsumer()), null));
+                }
+                while (!queue.isEmpty()) {
+                    final Future<Message<HttpResponse, String>> future = queue.remove();
+                    final Message<HttpResponse, String> result = future.get(TIMEOUT.getDuration(), TIMEOUT.getTimeUnit());
+                    Assertions.assertEquals(HttpStatus.SC_NO_CONTENT, result.getHead().getCode());
+                }
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testResponsesPipelinedAfterConnectionClose() throws Exception {
+        final Http1TestClient client = resources.client();
+
+        // The server sends a response pipelined behind a 'Connection: close' response
+        final ServerSocket serverSocket = scheme == URIScheme.HTTPS
+                ? SSLTestContexts.createServerSSLContext().getServerSocketFactory().createServerSocket(0)
+                : new ServerSocket(0);
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            executorService.execute(() -> {
+                try (final Socket socket = serverSocket.accept()) {
+                    final InputStream inStream = socket.getInputStream();
+                    int requests = 0;
+                    int state = 0;
+                    while (requests < 2) {
+                        final int b = inStream.read();
+                        if (b == -1) {
+                            return;
+                        }
+                        state = (b == '\r' || b == '\n') ? state + 1 : 0;
+                        if (state == 4) {
+                            requests++;
+                            state = 0;
+                        }
+                    }
+                    final OutputStream outStream = socket.getOutputStream();
+                    outStream.write(("HTTP/1.1 200 OK\r\nContent-Length: 2\r\nConnection: close\r\n\r\nHi" +
+                            "HTTP/1.1 200 OK\r\nContent-Length: 2\r\n\r\nHi").getBytes(StandardCharsets.US_ASCII));
+                    outStream.flush();
+                    while (inStream.read() != -1) {
+                        // Wait for the client to close the connection
+                    }
+                } catch (final IOException ignore) {
+                }
+            });
+
+            client.start();
+            final Future<ClientSessionEndpoint> connectFuture = client.connect(
+                    "localhost", serverSocket.getLocalPort(), TIMEOUT);
+            final ClientSessionEndpoint streamEndpoint = connectFuture.get();
+
+            final InetSocketAddress serverEndpoint = new InetSocketAddress("localhost", serverSocket.getLocalPort());
+            final Future<Message<HttpResponse, String>> future1 = streamEndpoint.execute(
+                    new BasicRequestProducer(Method.GET, createRequestURI(serverEndpoint, "/hello-1")),
+                    new BasicResponseConsumer<>(new StringAsyncEntityConsumer()), null);
+            final Future<Message<HttpResponse, String>> future2 = streamEndpoint.execute(
+                    new BasicRequestProducer(Method.GET, createRequestURI(serverEndpoint, "/hello-2")),
+                    new BasicResponseConsumer<>(new StringAsyncEntityConsumer()), null);
+
+            final Message<HttpResponse, String> result1 = future1.get(TIMEOUT.getDuration(), TIMEOUT.getTimeUnit());
+            Assertions.assertEquals(200, result1.getHead().getCode());
+            Assertions.assertEquals("Hi", result1.getBody());
+
+            // The response following the 'Connection: close' response must not be processed
+            final Exception exception = Assertions.assertThrows(Exception.class, () ->
+                    future2.get(TIMEOUT.getDuration(), TIMEOUT.getTimeUnit()));
+            assertThat(exception, CoreMatchers.anyOf(
+                    CoreMatchers.instanceOf(CancellationException.class),
+                    CoreMatchers.instanceOf(ExecutionException.class)));
+        } finally {
+            serverSocket.close();
+            executorService.shutdownNow();
+        }
+    }
+
     @Test
     public void testPipelinedInvalidRequest() throws Exception {
         final Http1TestServer server = resources.server();
@@ -30,8 +30,14 @@
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 import javax.net.ssl.SSLContext;
@@ -73,12 +79,14 @@
 import org.apache.hc.core5.reactor.ssl.SSLSessionInitializer;
 import org.apache.hc.core5.reactor.ssl.SSLSessionVerifier;
 import org.apache.hc.core5.reactor.ssl.TlsDetails;
+import org.apache.hc.core5.reactor.ssl.TlsSessionTracker;
 import org.apache.hc.core5.reactor.ssl.TransportSecurityLayer;
 import org.apache.hc.core5.ssl.SSLContexts;
 import org.apache.hc.core5.testing.SSLTestContexts;
 import org.apache.hc.core5.testing.classic.LoggingConnPoolListener;
 import org.apache.hc.core5.util.Args;
 import org.apache.hc.core5.util.ReflectionUtils;
+import org.apache.hc.core5.util.TimeValue;
 import org.apache.hc.core5.util.Timeout;
 import org.hamcrest.CoreMatchers;
 import org.hamcrest.MatcherAssert;
@@ -242,6 +250,228 @@ public void testTLSTrustFailure() throws Exception {
         Assertions.assertInstanceOf(SSLHandshakeException.class, cause);
     }
 
+    @Test
+    public void testTLSHandshakeExecutor() throws Exception {
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            final AtomicInteger serverTaskCount = new AtomicInteger();
+            final AtomicInteger clientTaskCount = new AtomicInteger();
+            final Executor serverExecutor = command -> {
+                serverTaskCount.incrementAndGet();
+                executorService.execute(command);
+            };
+            final Executor clientExecutor = command -> {
+                clientTaskCount.incrementAndGet();
+                executorService.execute(command);
+            };
+            final TlsStrategy serverTlsStrategy = new BasicServerTlsStrategy(
+                    SSLTestContexts.createServerSSLContext(), null, null, null, serverExecutor);
+            server = createServer(serverTlsStrategy);
+            server.start();
+
+            final TlsStrategy clientTlsStrategy = new BasicClientTlsStrategy(
+                    SSLTestContexts.createClientSSLContext(), null, null, null, clientExecutor);
+            client = createClient(clientTlsStrategy);
+            client.start();
+
+            final Future<ListenerEndpoint> future = server.listen(new InetSocketAddress(0), URIScheme.HTTPS);
+            final ListenerEndpoint listener = future.get(TIMEOUT.getDuration(), TIMEOUT.getTimeUnit());
+            final InetSocketAddress address = (InetSocketAddress) listener.getAddress();
+
+            final HttpHost target = new HttpHost(URIScheme.HTTPS.id, "localhost", address.getPort());
+            for (int i = 0; i < 3; i++) {
+                final Future<Message<HttpResponse, String>> resultFuture = client.execute(
+                        new BasicRequestProducer(Method.POST, target, "/stuff",
+                                new StringAsyncEntityProducer("some stuff", ContentType.TEXT_PLAIN)),
+                        new BasicResponseConsumer<>(new StringAsyncEntityConsumer()), TIMEOUT, null);
+                final Message<HttpResponse, String> message = resultFuture.get(TIMEOUT.getDuration(), TIMEOUT.getTimeUnit());
+                Assertions.assertNotNull(message);
+                Assertions.assertEquals(200, message.getHead().getCode());
+                Assertions.assertEquals("some stuff", message.getBody());
+                client.close(CloseMode.GRACEFUL);
+                client = createClient(clientTlsStrategy);
+                client.start();
+            }
+            Assertions.assertTrue(serverTaskCount.get() > 0);
+            Assertions.assertTrue(clientTaskCount.get() > 0);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testTLSDirectBufferMode() throws Exception {
+        final TlsStrategy serverTlsStrategy = new BasicServerTlsStrategy(
+                SSLTestContexts.createServerSSLContext(), SSLBufferMode.DIRECT, null, null);
+        server = createServer(serverTlsStrategy);
+        server.start();
+
+        final TlsStrategy clientTlsStrategy = new BasicClientTlsStrategy(
+                SSLTestContexts.createClientSSLContext(), SSLBufferMode.DIRECT, null, null);
+        client = createClient(clientTlsStrategy);
+        client.start();
+
+        final Future<ListenerEndpoint> future = server.listen(new InetSocketAddress(0), URIScheme.HTTPS);
+        final ListenerEndpoint listener = future.get(TIMEOUT.getDuration(), TIMEOUT.getTimeUnit());
+        final InetSocketAddress address = (InetSocketAddress) listener.getAddress();
+
+        final StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            buf.append("0123456789abcdef ");
+        }
+        final String content = buf.toString();
+
+        final HttpHost target = new HttpHost(URIScheme.HTTPS.id, "localhost", address.getPort());
+        for (int i = 0; i < 3; i++) {
+            final Future<Message<HttpResponse, String>> resultFuture = client.execute(
+                    new BasicRequestProducer(Method.POST, target, "/stuff",
+                            new StringAsyncEntityProducer(content, ContentType.TEXT_PLAIN)),
+                    new BasicResponseConsumer<>(new StringAsyncEntityConsumer()), TIMEOUT, null);
+            final Message<HttpResponse, String> message = resultFuture.get(TIMEOUT.getDuration(), TIMEOUT.getTimeUnit());
+            Assertions.assertNotNull(message);
+            Assertions.assertEquals(200, message.getHead().getCode());
+            Assertions.assertEquals(content, message.getBody());
+        }
+    }
+
+    @Test
+    public void testTLSHandshakeAdmissionControl() throws Exception {
+        final AtomicInteger maxTlsHandshakeCount = new AtomicInteger();
+        final TlsStrategy serverTlsStrategy = new BasicServerTlsStrategy(
+                SSLTestContexts.createServerSSLContext(),
+                (SSLSessionInitializer) null,
+                (endpoint, sslEngine) -> {
+                    maxTlsHandshakeCount.accumulateAndGet(server.getTlsHandshakeCount(), Math::max);
+                    return null;
+                });
+        server = AsyncServerBootstrap.bootstrap()
+                .setIOReactorConfig(
+                        IOReactorConfig.custom()
+                                .setSoTimeout(TIMEOUT)
+                                .setIoThreadCount(1)
+                                .setMaxTlsHandshakes(1)
+                                .setMaxPendingConnections(2)
+                                .build())
+                .setTlsStrategy(serverTlsStrategy)
+                .register("*", () -> new EchoHandler(2048))
+                .create();
+        server.start();
+
+        final TlsStrategy clientTlsStrategy = new BasicClientTlsStrategy(SSLTestContexts.createClientSSLContext());
+        client = createClient(clientTlsStrategy);
+        client.start();
+
+        final Future<ListenerEndpoint> future = server.listen(new InetSocketAddress(0), URIScheme.HTTPS);
+        final ListenerEndpoint listener = future.get(TIMEOUT.getDuration(), TIMEOUT.getTimeUnit());
+        final InetSocketAddress address = (InetSocketAddress) listener.getAddress();
+
+        final HttpHost target = new HttpHost(URIScheme.HTTPS.id, "localhost", address.getPort());
+        final List<Future<AsyncClientEndpoint>> connectFutures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            connectFutures.add(client.connect(target, TIMEOUT));
+        }
+        for (final Future<AsyncClientEndpoint> connectFuture : connectFutures) {
+            final AsyncClientEndpoint endpoint = connectFuture.get(TIMEOUT.getDuration(), TIMEOUT.getTimeUnit());
+            try {
+                final Future<Message<HttpResponse, String>> resultFuture = endpoint.execute(
+                        new BasicRequestProducer(Method.POST, target, "/stuff",
+                                new StringAsyncEntityProducer("some stuff", ContentType.TEXT_PLAIN)),
+                        new BasicResponseConsumer<>(new StringAsyncEntityConsumer()), null);
+                final Message<HttpResponse, String> message = resultFuture.get(TIMEOUT.getDuration(), TIMEOUT.getTimeUnit());
+                Assertions.assertNotNull(message);
+                Assertions.assertEquals(200, message.getHead().getCode());
+                Assertions.assertEquals("some stuff", message.getBody());
+            } finally {
+                endpoint.releaseAndDiscard();
+            }
+        }
+        Assertions.assertEquals(1, maxTlsHandshakeCount.get());
+        Assertions.assertEquals(0, server.getTlsHandshakeCount());
+        Assertions.assertEquals(0, server.getPendingConnectionCount());
+        Assertions.assertEquals(0, server.getRejectedConnectionCount());
+    }
+
+    @Test
+    public void testTLSSessionResumption() throws Exception {
+        final SSLContext serverSSLContext = SSLTestContexts.createServerSSLContext();
+        final TlsSessionTracker serverSessionTracker = new TlsSessionTracker(100, TimeValue.ofMinutes(5));
+        final TlsStrategy serverTlsStrategy = new BasicServerTlsStrategy(
+                serverSSLContext, null, null, null, null, serverSessionTracker);
+        Assertions.assertEquals(100, serverSSLContext.getServerSessionContext().getSessionCacheSize());
+        Assertions.assertEquals(300, serverSSLContext.getServerSessionContext().getSessionTimeout());
+        server = createServer(serverTlsStrategy);
+        server.start();
+
+        final SSLContext clientSSLContext = SSLTestContexts.createClientSSLContext();
+        final TlsSessionTracker clientSessionTracker = new TlsSessionTracker(100, TimeValue.ofMinutes(5));
+        final TlsStrategy clientTlsStrategy = new BasicClientTlsStrategy(
+                clientSSLContext, null, null, null, null, clientSessionTracker);
+        Assertions.assertEquals(100, clientSSLContext.getClientSessionContext().getSessionCacheSize());
+        Assertions.assertEquals(300, clientSSLContext.getClientSessionContext().getSessionTimeout());
+
+        final Future<ListenerEndpoint> future = server.listen(new InetSocketAddress(0), URIScheme.HTTPS);
+        final ListenerEndpoint listener = future.get(TIMEOUT.getDuration(), TIMEOUT.getTimeUnit());
+        final InetSocketAddress address = (InetSocketAddress) listener.getAddress();
+        final HttpHost target = new HttpHost(URIScheme.HTTPS.id, "localhost", address.getPort());
+
+        for (int i = 0; i < 3; i++) {
+            client = createClient(clientTlsStrategy);
+            client.start();
+            final Future<Message<HttpResponse, String>> resultFuture = client.execute(
+                    new BasicRequestProducer(Method.POST, target, "/stuff",
+                            new StringAsyncEntityProducer("some stuff", ContentType.TEXT_PLAIN)),
+                    new BasicResponseConsumer<>(new StringAsyncEntityConsumer()), TIMEOUT, null);
+            final Message<HttpResponse, String> message = resultFuture.get(TIMEOUT.getDuration(), TIMEOUT.getTimeUnit());
+            Assertions.assertNotNull(message);
+            Assertions.assertEquals(200, message.getHead().getCode());
+            client.close(CloseMode.GRACEFUL);
+        }
+
+        Assertions.assertEquals(1, clientSessionTracker.getFullHandshakeCount());
+        Assertions.assertEquals(2, clientSessionTracker.getResumedCount());
+        Assertions.assertEquals(1, clientSessionTracker.size());
+        Assertions.assertNotNull(clientSessionTracker.getSession(target));
+        Assertions.assertEquals(3, serverSessionTracker.getResumedCount() + serverSessionTracker.getFullHandshakeCount());
+
+        clientSessionTracker.invalidate(target);
+        Assertions.assertNull(clientSessionTracker.getSession(target));
+
+        client = createClient(clientTlsStrategy);
+        client.start();
+        final Future<Message<HttpResponse, String>> resultFuture = client.execute(
+                new BasicRequestProducer(Method.POST, target, "/stuff",
+                        new StringAsyncEntityProducer("some stuff", ContentType.TEXT_PLAIN)),
+                new BasicResponseConsumer<>(new StringAsyncEntityConsumer()), TIMEOUT, null);
+        final Message<HttpResponse, String> message = resultFuture.get(TIMEOUT.getDuration(), TIMEOUT.getTimeUnit());
+        Assertions.assertNotNull(message);
+        Assertions.assertEquals(2, clientSessionTracker.getFullHandshakeCount());
+    }
+
+    @Test
+    public void testTLSTrustFailureHandshakeExecutor() throws Exception {
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            final TlsStrategy serverTlsStrategy = new BasicServerTlsStrategy(
+                    SSLTestContexts.createServerSSLContext(), null, null, null, executorService);
+            server = createServer(serverTlsStrategy);
+            server.start();
+
+            final TlsStrategy clientTlsStrategy = new BasicClientTlsStrategy(
+                    SSLContexts.createDefault(), null, null, null, executorService);
+            client = createClient(clientTlsStrategy);
+            client.start();
+
+            final Future<TlsDetails> tlsSessionFuture = executeTlsHandshake();
+
+            final ExecutionException exception = Assertions.assertThrows(ExecutionException.class, () ->
+                    tlsSessionFuture.get(TIMEOUT.getDuration(), TIMEOUT.getTimeUnit()));
+            final Throwable cause = exception.getCause();
+            Assertions.assertInstanceOf(SSLHandshakeException.class, cause);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
     @Test
     public void testTLSClientAuthFailure() throws Exception {
         final TlsStrategy serverTlsStrategy = new BasicServerTlsStrategy(
@@ -0,0 +1,458 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.core5.testing.nio;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.security.Provider;
+import java.security.SecureRandom;
+import java.security.Security;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
+
+import org.apache.hc.core5.concurrent.BasicFuture;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.IOEventHandler;
+import org.apache.hc.core5.reactor.IOSession;
+import org.apache.hc.core5.reactor.ssl.SSLBufferMode;
+import org.apache.hc.core5.reactor.ssl.SSLIOSession;
+import org.apache.hc.core5.reactor.ssl.SSLMode;
+import org.apache.hc.core5.ssl.SSLContextBuilder;
+import org.apache.hc.core5.util.Timeout;
+import org.conscrypt.Conscrypt;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+/**
+ * Tests of the TLS record batching of {@link SSLIOSession}. A client and a server
+ * session are connected with each other through an in-memory transport and driven
+ * by the test thread in place of an I/O reactor.
+ */
+public abstract class TLSRecordBatchingTest {
+
+    private static final int APPLICATION_DATA = 23;
+
+    private final String securityProviderName;
+    private final String protocolVersion;
+    private final SSLBufferMode sslBufferMode;
+
+    private Provider securityProvider;
+    private Peer client;
+    private Peer server;
+
+    public TLSRecordBatchingTest(
+            final String securityProviderName,
+            final String protocolVersion,
+            final SSLBufferMode sslBufferMode) {
+        super();
+        this.securityProviderName = securityProviderName;
+        this.protocolVersion = protocolVersion;
+        this.sslBufferMode = sslBufferMode;
+    }
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        if ("Conscrypt".equalsIgnoreCase(securityProviderName)) {
+            try {
+                securityProvider = Conscrypt.newProviderBuilder().provideTrustManager(true).build();
+            } catch (final UnsatisfiedLinkError e) {
+                Assertions.fail("Conscrypt provider failed to be loaded: " + e.getMessage());
+            }
+        } else {
+            securityProvider = null;
+        }
+        if (securityProvider != null) {
+            Security.insertProviderAt(securityProvider, 1);
+        }
+
+        client = new Peer(SSLMode.CLIENT, createSSLContext("/test-client.p12"));
+        server = new Peer(SSLMode.SERVER, createSSLContext("/test-server.p12"));
+        client.connect(server);
+        server.connect(client);
+        client.sslSession.getHandler().connected(client.sslSession);
+        server.sslSession.getHandler().connected(server.sslSession);
+        pump();
+        Assertions.assertTrue(client.handshakeFuture.isDone());
+        Assertions.assertTrue(server.handshakeFuture.isDone());
+        client.handshakeFuture.get();
+        server.handshakeFuture.get();
+        client.sent.reset();
+        server.sent.reset();
+    }
+
+    @AfterEach
+    public void cleanup() throws Exception {
+        if (securityProvider != null) {
+            Security.removeProvider(securityProvider.getName());
+            securityProvider = null;
+        }
+    }
+
+    private SSLContext createSSLContext(final String keyStore) throws Exception {
+        final URL keyStoreURL = getClass().getResource(keyStore);
+        final String storePassword = "nopassword";
+        return SSLContextBuilder.create()
+                .setProvider(securityProvider)
+                .setKeyStoreType("pkcs12")
+                .loadTrustMaterial(keyStoreURL, storePassword.toCharArray())
+                .loadKeyMaterial(keyStoreURL, storePassword.toCharArray(), storePassword.toCharArray())
+                .setSecureRandom(new SecureRandom())
+                .build();
+    }
+
+    /**
+     * Delivers I/O events to both peers until neither of them has anything left to do.
+     */
+    private void pump() throws IOException {
+        for (int i = 0; i < 10000; i++) {
+            final boolean clientProgress = client.processEvents();
+            final boolean serverProgress = server.processEvents();
+            if (!clientProgress && !serverProgress) {
+                return;
+            }
+        }
+        Assertions.fail("Sessions failed to quiesce: " + client.sslSession + " / " + server.sslSession);
+    }
+
+    private static byte[] createContent(final int len) {
+        final byte[] content = new byte[len];
+        new Random(len).nextBytes(content);
+        return content;
+    }
+
+    private static int countApplicationDataRecords(final byte[] data) {
+        int count = 0;
+        int pos = 0;
+        while (pos + 5 <= data.length) {
+            if (data[pos] == APPLICATION_DATA) {
+                count++;
+            }
+            pos += 5 + (((data[pos + 3] & 0xff) << 8) | (data[pos + 4] & 0xff));
+        }
+        Assertions.assertEquals(data.length, pos, "Incomplete TLS record");
+        return count;
+    }
+
+    @Test
+    public void testSmallWritesCoalesced() throws Exception {
+        final byte[] content = createContent(1000);
+        for (int i = 0; i < 10; i++) {
+            client.handler.submit(ByteBuffer.wrap(content, i * 100, 100));
+        }
+        pump();
+
+        Assertions.assertEquals(1, countApplicationDataRecords(client.sent.toByteArray()));
+        Assertions.assertArrayEquals(content, server.handler.received.toByteArray());
+        Assertions.assertEquals(1, server.handler.inputCount);
+    }
+
+    @Test
+    public void testMultipleRecordsDecryptedInBatch() throws Exception {
+        final byte[] content = createContent(15000);
+        for (int i = 0; i < 3; i++) {
+            client.handler.submit(ByteBuffer.wrap(content, i * 5000, 5000));
+        }
+        server.inputSuspended = true;
+        pump();
+        Assertions.assertEquals(3, countApplicationDataRecords(client.sent.toByteArray()));
+
+        server.inputSuspended = false;
+        pump();
+
+        Assertions.assertArrayEquals(content, server.handler.received.toByteArray());
+        Assertions.assertEquals(1, server.handler.inputCount);
+    }
+
+    @Test
+    public void testRecordExceedingPlainBufferSpace() throws Exception {
+        // The last record does not fit the space left in the plain text buffer
+        // after the first two have been unwrapped
+        final byte[] content = createContent(16500);
+        client.handler.submit(ByteBuffer.wrap(content, 0, 7000));
+        client.handler.submit(ByteBuffer.wrap(content, 7000, 7000));
+        client.handler.submit(ByteBuffer.wrap(content, 14000, 2500));
+        server.inputSuspended = true;
+        pump();
+        Assertions.assertEquals(3, countApplicationDataRecords(client.sent.toByteArray()));
+
+        server.inputSuspended = false;
+        pump();
+
+        Assertions.assertArrayEquals(content, server.handler.received.toByteArray());
+        Assertions.assertEquals(0, server.inbound.position());
+    }
+
+    @Test
+    public void testPartialWrapOfStagedAndLargeData() throws Exception {
+        final byte[] content = createContent(100 + 65536);
+        client.handler.submit(ByteBuffer.wrap(content, 0, 100));
+        client.handler.submit(ByteBuffer.wrap(content, 100, 65536));
+        client.maxWrite = 4000;
+        pump();
+
+        Assertions.assertTrue(client.handler.partialWriteCount > 0);
+        Assertions.assertArrayEquals(content, server.handler.received.toByteArray());
+    }
+
+    @Test
+    public void testGracefulCloseWithStagedData() throws Exception {
+        final byte[] content = createContent(300);
+        for (int i = 0; i < 3; i++) {
+            client.handler.submit(ByteBuffer.wrap(content, i * 100, 100));
+        }
+        client.handler.closeMode = CloseMode.GRACEFUL;
+        pump();
+
+        Assertions.assertArrayEquals(content, server.handler.received.toByteArray());
+        Assertions.assertTrue(server.handler.endOfStream);
+        Assertions.assertTrue(client.closed);
+    }
+
+    @Test
+    public void testImmediateCloseWithStagedData() throws Exception {
+        client.handler.submit(ByteBuffer.wrap(createContent(100)));
+        client.handler.closeMode = CloseMode.IMMEDIATE;
+        pump();
+
+        Assertions.assertTrue(client.closed);
+        Assertions.assertEquals(0, client.sent.size());
+        Assertions.assertEquals(0, server.handler.received.size());
+    }
+
+    final class Peer {
+
+        final IOSession ioSession;
+        final SSLIOSession sslSession;
+        final ProtocolHandler handler;
+        final BasicFuture<SSLSession> handshakeFuture;
+        final ByteBuffer inbound;
+        final ByteArrayOutputStream sent;
+
+        int eventMask;
+        int maxWrite;
+        boolean inputSuspended;
+        boolean closed;
+        boolean endOfStream;
+        Peer peer;
+
+        Peer(final SSLMode sslMode, final SSLContext sslContext) {
+            this.inbound = ByteBuffer.allocate(1024 * 1024);
+            this.sent = new ByteArrayOutputStream();
+            this.eventMask = SelectionKey.OP_READ;
+            this.maxWrite = Integer.MAX_VALUE;
+            this.handler = new ProtocolHandler();
+            this.handshakeFuture = new BasicFuture<>(null);
+
+            final ReentrantLock lock = new ReentrantLock();
+            this.ioSession = Mockito.mock(IOSession.class);
+            Mockito.when(ioSession.getLock()).thenReturn(lock);
+            Mockito.when(ioSession.getHandler()).thenReturn(handler);
+            Mockito.when(ioSession.getSocketTimeout()).thenReturn(Timeout.DISABLED);
+            Mockito.when(ioSession.isOpen()).thenAnswer(invocation -> !closed);
+            Mockito.when(ioSession.getEventMask()).thenAnswer(invocation -> eventMask);
+            Mockito.doAnswer(invocation -> {
+                eventMask = invocation.getArgument(0);
+                return null;
+            }).when(ioSession).setEventMask(ArgumentMatchers.anyInt());
+            Mockito.doAnswer(invocation -> {
+                eventMask |= (Integer) invocation.getArgument(0);
+                return null;
+            }).when(ioSession).setEvent(ArgumentMatchers.anyInt());
+            Mockito.doAnswer(invocation -> {
+                closed = true;
+                return null;
+            }).when(ioSession).close();
+            Mockito.doAnswer(invocation -> {
+                closed = true;
+                return null;
+            }).when(ioSession).close(ArgumentMatchers.any());
+            try {
+                Mockito.when(ioSession.read(ArgumentMatchers.any())).thenAnswer(invocation -> read(invocation.getArgument(0)));
+                Mockito.when(ioSession.write(ArgumentMatchers.any())).thenAnswer(invocation -> write(invocation.getArgument(0)));
+            } catch (final IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+
+            this.sslSession = new SSLIOSession(null, ioSession, sslMode, sslContext, sslBufferMode,
+                    (endpoint, sslEngine) -> {
+                        if (protocolVersion != null) {
+                            sslEngine.setEnabledProtocols(new String[]{protocolVersion});
+                        }
+                    },
+                    null, null, null, null, new FutureCallback<SSLSession>() {
+
+                        @Override
+                        public void completed(final SSLSession result) {
+                            handshakeFuture.completed(result);
+                        }
+
+                        @Override
+                        public void failed(final Exception ex) {
+                            handshakeFuture.failed(ex);
+                        }
+
+                        @Override
+                        public void cancelled() {
+                            handshakeFuture.cancel();
+                        }
+
+                    });
+        }
+
+        void connect(final Peer peer) {
+            this.peer = peer;
+        }
+
+        int read(final ByteBuffer dst) {
+            if (inbound.position() == 0 && peer.closed) {
+                endOfStream = true;
+                return -1;
+            }
+            inbound.flip();
+            final int n = Math.min(inbound.remaining(), dst.remaining());
+            final ByteBuffer chunk = inbound.duplicate();
+            chunk.limit(chunk.position() + n);
+            dst.put(chunk);
+            inbound.position(inbound.position() + n);
+            inbound.compact();
+            return n;
+        }
+
+        int write(final ByteBuffer src) {
+            if (closed) {
+                return 0;
+            }
+            final int n = Math.min(src.remaining(), maxWrite);
+            final byte[] b = new byte[n];
+            src.get(b);
+            peer.inbound.put(b);
+            sent.write(b, 0, n);
+            return n;
+        }
+
+        boolean processEvents() throws IOException {
+            if (closed) {
+                return false;
+            }
+            boolean progress = false;
+            if (!inputSuspended && (inbound.position() > 0 || peer.closed && !endOfStream)) {
+                sslSession.getHandler().inputReady(sslSession, null);
+                progress = true;
+            }
+            if (!closed && (eventMask & SelectionKey.OP_WRITE) != 0) {
+                sslSession.getHandler().outputReady(sslSession);
+                progress = true;
+            }
+            return progress;
+        }
+
+    }
+
+    static final class ProtocolHandler implements IOEventHandler {
+
+        final Deque<ByteBuffer> pending = new ArrayDeque<>();
+        final ByteArrayOutputStream received = new ByteArrayOutputStream();
+
+        int inputCount;
+        int partialWriteCount;
+        boolean endOfStream;
+        CloseMode closeMode;
+        IOSession session;
+
+        void submit(final ByteBuffer data) {
+            pending.add(data);
+            if (session != null) {
+                session.setEvent(SelectionKey.OP_WRITE);
+            }
+        }
+
+        @Override
+        public void connected(final IOSession session) throws IOException {
+            this.session = session;
+            if (!pending.isEmpty()) {
+                session.setEvent(SelectionKey.OP_WRITE);
+            }
+        }
+
+        @Override
+        public void inputReady(final IOSession session, final ByteBuffer src) throws IOException {
+            if (src != null) {
+                inputCount++;
+                final byte[] b = new byte[src.remaining()];
+                src.get(b);
+                received.write(b, 0, b.length);
+            } else if (session.read(ByteBuffer.allocate(0)) == -1) {
+                endOfStream = true;
+            }
+        }
+
+        @Override
+        public void outputReady(final IOSession session) throws IOException {
+            while (!pending.isEmpty()) {
+                final ByteBuffer data = pending.peek();
+                final int len = data.remaining();
+                final int n = session.write(data);
+                if (n < len) {
+                    partialWriteCount++;
+                    return;
+                }
+                pending.remove();
+            }
+            session.clearEvent(SelectionKey.OP_WRITE);
+            if (closeMode != null) {
+                session.close(closeMode);
+            }
+        }
+
+        @Override
+        public void timeout(final IOSession session, final Timeout timeout) throws IOException {
+        }
+
+        @Override
+        public void exception(final IOSession session, final Exception cause) {
+        }
+
+        @Override
+        public void disconnected(final IOSession session) {
+        }
+
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.core5.testing.nio;
+
+import org.apache.hc.core5.reactor.ssl.SSLBufferMode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+
+public class TLSRecordBatchingTests {
+
+    @Nested
+    @DisplayName("Oracle (default)")
+    public class Oracle extends TLSRecordBatchingTest {
+
+        public Oracle() {
+            super("Oracle", null, SSLBufferMode.STATIC);
+        }
+
+    }
+
+    @Nested
+    @DisplayName("Oracle (default, dynamic buffers)")
+    public class OracleDynamic extends TLSRecordBatchingTest {
+
+        public OracleDynamic() {
+            super("Oracle", null, SSLBufferMode.DYNAMIC);
+        }
+
+    }
+
+    @Nested
+    @DisplayName("Conscrypt (TLSv1.2)")
+    public class ConscryptTlsV1_2 extends TLSRecordBatchingTest {
+
+        public ConscryptTlsV1_2() {
+            super("Conscrypt", "TLSv1.2", SSLBufferMode.STATIC);
+        }
+
+    }
+
+    @Nested
+    @DisplayName("Conscrypt (TLSv1.3)")
+    public class ConscryptTlsV1_3 extends TLSRecordBatchingTest {
+
+        public ConscryptTlsV1_3() {
+            super("Conscrypt", "TLSv1.3", SSLBufferMode.STATIC);
+        }
+
+    }
+
+}
@@ -27,16 +27,23 @@
 
 package org.apache.hc.core5.testing.nio;
 
+import java.net.ConnectException;
 import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.hc.core5.io.CloseMode;
 import org.apache.hc.core5.reactor.DefaultListeningIOReactor;
+import org.apache.hc.core5.reactor.IOEventHandler;
 import org.apache.hc.core5.reactor.IOReactorConfig;
 import org.apache.hc.core5.reactor.IOReactorStatus;
 import org.apache.hc.core5.reactor.ListenerEndpoint;
+import org.apache.hc.core5.reactor.ProtocolIOSession;
 import org.apache.hc.core5.util.TimeValue;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
@@ -115,4 +122,72 @@ public void testEndpointAlreadyBound() throws Exception {
         Assertions.assertEquals(IOReactorStatus.SHUT_DOWN, ioReactor.getStatus());
     }
 
+    @Test
+    public void testMultipleListenerThreads() throws Exception {
+        this.ioReactor.close(CloseMode.IMMEDIATE);
+
+        final AtomicInteger sessionCount = new AtomicInteger();
+        final NoopIOEventHandlerFactory handlerFactory = new NoopIOEventHandlerFactory() {
+
+            @Override
+            public IOEventHandler createHandler(final ProtocolIOSession ioSession, final Object attachment) {
+                sessionCount.incrementAndGet();
+                return super.createHandler(ioSession, attachment);
+            }
+
+        };
+        final IOReactorConfig reactorConfig = IOReactorConfig.custom()
+                .setIoThreadCount(2)
+                .setListenerThreadCount(3)
+                .build();
+        this.ioReactor = new DefaultListeningIOReactor(handlerFactory, reactorConfig, null);
+        ioReactor.start();
+
+        final ListenerEndpoint endpoint = ioReactor.listen(new InetSocketAddress(0)).get();
+        final int port = ((InetSocketAddress) endpoint.getAddress()).getPort();
+        Assertions.assertEquals(1, ioReactor.getEndpoints().size());
+
+        connect(port, 20);
+        awaitCount(sessionCount, 20);
+
+        endpoint.close();
+        Assertions.assertEquals(0, ioReactor.getEndpoints().size());
+        awaitPortReleased(port);
+
+        ioReactor.close(CloseMode.IMMEDIATE);
+        ioReactor.awaitShutdown(TimeValue.ofSeconds(5));
+        Assertions.assertEquals(IOReactorStatus.SHUT_DOWN, ioReactor.getStatus());
+    }
+
+    private static void connect(final int port, final int count) throws Exception {
+        final List<Socket> sockets = new ArrayList<>();
+        try {
+            for (int i = 0; i < count; i++) {
+                sockets.add(new Socket("localhost", port));
+            }
+        } finally {
+            for (final Socket socket : sockets) {
+                socket.close();
+            }
+        }
+    }
+
+    private static void awaitCount(final AtomicInteger count, final int expected) throws InterruptedException {
+        for (int i = 0; i < 500 && count.get() < expected; i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(expected, count.get());
+    }
+
+    private static void awaitPortReleased(final int port) throws Exception {
+        for (int i = 0; i < 500; i++) {
+            try (final Socket socket = new Socket("localhost", port)) {
+                Thread.sleep(10);
+            } catch (final ConnectException ex) {
+                return;
+            }
+        }
+        Assertions.fail("Port " + port + " has not been released");
+    }
+
 }
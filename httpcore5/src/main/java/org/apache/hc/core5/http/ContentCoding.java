@@ -0,0 +1,77 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.core5.http;
+
+import org.apache.hc.core5.util.Args;
+
+/**
+ * Enumerates content codings based on the deflate compression algorithm.
+ *
+ * @since 5.3
+ */
+public enum ContentCoding {
+
+    GZIP("gzip"), DEFLATE("deflate");
+
+    public final String id;
+
+    ContentCoding(final String id) {
+        this.id = Args.notBlank(id, "id");
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public boolean same(final String coding) {
+        return id.equalsIgnoreCase(coding);
+    }
+
+    /**
+     * Returns the content coding with the given name or {@code null}
+     * if not supported. {@code x-gzip} is treated as equivalent to {@code gzip}.
+     */
+    public static ContentCoding lookup(final String coding) {
+        if (coding == null) {
+            return null;
+        }
+        final String s = coding.trim();
+        if (GZIP.same(s) || "x-gzip".equalsIgnoreCase(s)) {
+            return GZIP;
+        }
+        if (DEFLATE.same(s)) {
+            return DEFLATE;
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return id;
+    }
+
+}
@@ -37,6 +37,8 @@
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.hc.core5.annotation.Contract;
 import org.apache.hc.core5.annotation.ThreadingBehavior;
@@ -214,6 +216,19 @@ public final class ContentType implements Serializable {
         CONTENT_TYPE_MAP = Collections.unmodifiableMap(map);
     }
 
+    /**
+     * Maximum number of distinct {@code Content-Type} values retained by the parse cache.
+     */
+    private static final int PARSE_CACHE_SIZE = 256;
+
+    /**
+     * Maximum length of {@code Content-Type} values retained by the parse cache.
+     */
+    private static final int PARSE_CACHE_MAX_LENGTH = 256;
+
+    private static final ConcurrentMap<String, ContentType> STRICT_PARSE_CACHE = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, ContentType> LENIENT_PARSE_CACHE = new ConcurrentHashMap<>();
+
     // defaults
     public static final ContentType DEFAULT_TEXT = TEXT_PLAIN;
     public static final ContentType DEFAULT_BINARY = APPLICATION_OCTET_STREAM;
@@ -418,6 +433,28 @@ private static ContentType parse(final CharSequence s, final boolean strict) thr
         if (TextUtils.isBlank(s)) {
             return null;
         }
+        if (s.length() > PARSE_CACHE_MAX_LENGTH) {
+            return doParse(s, strict);
+        }
+        // ContentType instances are immutable and can be shared
+        final ConcurrentMap<String, ContentType> cache = strict ? STRICT_PARSE_CACHE : LENIENT_PARSE_CACHE;
+        final String key = s.toString();
+        final ContentType cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        final ContentType contentType = doParse(key, strict);
+        if (contentType != null) {
+            if (cache.size() >= PARSE_CACHE_SIZE) {
+                // Too many distinct values. Start over rather than let the cache grow unbounded
+                cache.clear();
+            }
+            cache.putIfAbsent(key, contentType);
+        }
+        return contentType;
+    }
+
+    private static ContentType doParse(final CharSequence s, final boolean strict) throws UnsupportedCharsetException {
         final ParserCursor cursor = new ParserCursor(0, s.length());
         final HeaderElement[] elements = BasicHeaderValueParser.INSTANCE.parseElements(s, cursor);
         if (elements.length > 0) {
@@ -426,6 +463,85 @@ private static ContentType parse(final CharSequence s, final boolean strict) thr
         return null;
     }
 
+    /**
+     * Extracts the charset from textual representation of {@code Content-Type} value
+     * without parsing the value into a {@link ContentType}. Only the {@code charset}
+     * parameter is decoded, other parameters are skipped.
+     *
+     * @param s text
+     * @param defaultCharset the charset to return if the value has no charset parameter.
+     * @return the charset of the {@code Content-Type} value or {@code defaultCharset}
+     *   if not present.
+     * @throws UnsupportedCharsetException Thrown when the named charset is not available in
+     * this instance of the Java virtual machine
+     *
+     * @since 5.3
+     */
+    public static Charset parseCharset(final CharSequence s, final Charset defaultCharset) throws UnsupportedCharsetException {
+        if (TextUtils.isBlank(s)) {
+            return defaultCharset;
+        }
+        if (s.length() <= PARSE_CACHE_MAX_LENGTH) {
+            final ContentType cached = STRICT_PARSE_CACHE.get(s.toString());
+            if (cached != null) {
+                return cached.getCharset(defaultCharset);
+            }
+        }
+        final int len = s.length();
+        int pos = 0;
+        while (pos < len && s.charAt(pos) != ';' && s.charAt(pos) != ',') {
+            pos++;
+        }
+        if (TextUtils.isBlank(s.subSequence(0, pos))) {
+            return defaultCharset;
+        }
+        while (pos < len && s.charAt(pos) == ';') {
+            pos++;
+            final int nameStart = pos;
+            while (pos < len && s.charAt(pos) != '=' && s.charAt(pos) != ';' && s.charAt(pos) != ',') {
+                pos++;
+            }
+            final boolean isCharset = CHARSET.equalsIgnoreCase(s.subSequence(nameStart, pos).toString().trim());
+            final StringBuilder value = isCharset ? new StringBuilder() : null;
+            if (pos < len && s.charAt(pos) == '=') {
+                pos++;
+                boolean quoted = false;
+                boolean escaped = false;
+                while (pos < len) {
+                    final char ch = s.charAt(pos);
+                    if (quoted) {
+                        if (escaped) {
+                            escaped = false;
+                        } else if (ch == '\\') {
+                            escaped = true;
+                            pos++;
+                            continue;
+                        } else if (ch == '"') {
+                            quoted = false;
+                            pos++;
+                            continue;
+                        }
+                    } else if (ch == ';' || ch == ',') {
+                        break;
+                    } else if (ch == '"') {
+                        quoted = true;
+                        pos++;
+                        continue;
+                    }
+                    if (value != null) {
+                        value.append(ch);
+                    }
+                    pos++;
+                }
+            }
+            if (isCharset) {
+                final String charsetName = value.toString().trim();
+                return !charsetName.isEmpty() ? Charset.forName(charsetName) : defaultCharset;
+            }
+        }
+        return defaultCharset;
+    }
+
     /**
      * Returns {@code Content-Type} for the given MIME type.
      *
@@ -54,10 +54,11 @@ public class Http1Config {
     private final int maxHeaderCount;
     private final int maxEmptyLineCount;
     private final int initialWindowSize;
+    private final int maxBufferSize;
 
     Http1Config(final int bufferSize, final int chunkSizeHint, final Timeout waitForContinueTimeout,
                 final int maxLineLength, final int maxHeaderCount, final int maxEmptyLineCount,
-                final int initialWindowSize) {
+                final int initialWindowSize, final int maxBufferSize) {
         super();
         this.bufferSize = bufferSize;
         this.chunkSizeHint = chunkSizeHint;
@@ -66,6 +67,7 @@ public class Http1Config {
         this.maxHeaderCount = maxHeaderCount;
         this.maxEmptyLineCount = maxEmptyLineCount;
         this.initialWindowSize = initialWindowSize;
+        this.maxBufferSize = maxBufferSize;
     }
 
     public int getBufferSize() {
@@ -96,6 +98,18 @@ public int getInitialWindowSize() {
         return initialWindowSize;
     }
 
+    /**
+     * Returns the maximum size the session output buffer of a classic connection
+     * may grow to in order to coalesce a message head and a small message body
+     * into a single write. Values not greater than {@link #getBufferSize()}
+     * disable adaptive buffering.
+     *
+     * @since 5.3
+     */
+    public int getMaxBufferSize() {
+        return maxBufferSize;
+    }
+
     @Override
     public String toString() {
         final StringBuilder builder = new StringBuilder();
@@ -106,6 +120,7 @@ public String toString() {
                 .append(", maxHeaderCount=").append(maxHeaderCount)
                 .append(", maxEmptyLineCount=").append(maxEmptyLineCount)
                 .append(", initialWindowSize=").append(initialWindowSize)
+                .append(", maxBufferSize=").append(maxBufferSize)
                 .append("]");
         return builder.toString();
     }
@@ -122,7 +137,8 @@ public static Http1Config.Builder copy(final Http1Config config) {
                 .setMaxHeaderCount(config.getMaxHeaderCount())
                 .setMaxLineLength(config.getMaxLineLength())
                 .setMaxEmptyLineCount(config.getMaxEmptyLineCount())
-                .setInitialWindowSize(config.getInitialWindowSize());
+                .setInitialWindowSize(config.getInitialWindowSize())
+                .setMaxBufferSize(config.getMaxBufferSize());
     }
 
     private static final int INIT_WINDOW_SIZE = 65535;
@@ -132,6 +148,7 @@ public static Http1Config.Builder copy(final Http1Config config) {
     private static final int INIT_MAX_HEADER_COUNT = -1;
     private static final int INIT_MAX_LINE_LENGTH = -1;
     private static final int INIT_MAX_EMPTY_LINE_COUNT = 10;
+    private static final int INIT_MAX_BUF_SIZE = -1;
 
     public static class Builder {
 
@@ -142,6 +159,7 @@ public static class Builder {
         private int maxHeaderCount;
         private int maxEmptyLineCount;
         private int initialWindowSize;
+        private int maxBufferSize;
 
         Builder() {
             this.bufferSize = INIT_BUF_SIZE;
@@ -151,6 +169,7 @@ public static class Builder {
             this.maxHeaderCount = INIT_MAX_HEADER_COUNT;
             this.maxEmptyLineCount = INIT_MAX_EMPTY_LINE_COUNT;
             this.initialWindowSize = INIT_WINDOW_SIZE;
+            this.maxBufferSize = INIT_MAX_BUF_SIZE;
         }
 
         public Builder setBufferSize(final int bufferSize) {
@@ -189,6 +208,18 @@ public Builder setInitialWindowSize(final int initialWindowSize) {
             return this;
         }
 
+        /**
+         * Sets the maximum size the session output buffer may grow to in order to
+         * coalesce a message head and a small message body into a single write.
+         * Values not greater than the buffer size disable adaptive buffering.
+         *
+         * @since 5.3
+         */
+        public Builder setMaxBufferSize(final int maxBufferSize) {
+            this.maxBufferSize = maxBufferSize;
+            return this;
+        }
+
         public Http1Config build() {
             return new Http1Config(
                     bufferSize,
@@ -197,7 +228,8 @@ public Http1Config build() {
                     maxLineLength,
                     maxHeaderCount,
                     maxEmptyLineCount,
-                    initialWindowSize);
+                    initialWindowSize,
+                    maxBufferSize);
         }
 
     }
@@ -39,9 +39,11 @@
 public class BasicHttpTransportMetrics implements HttpTransportMetrics {
 
     private final AtomicLong bytesTransferred;
+    private final AtomicLong transferCount;
 
     public BasicHttpTransportMetrics() {
         this.bytesTransferred = new AtomicLong(0);
+        this.transferCount = new AtomicLong(0);
     }
 
     @Override
@@ -53,4 +55,22 @@ public void incrementBytesTransferred(final long count) {
         this.bytesTransferred.addAndGet(count);
     }
 
+    /**
+     * Returns the number of individual I/O operations used to transfer data.
+     * Together with the number of messages this gives the average number
+     * of writes (or reads) per message.
+     *
+     * @since 5.3
+     */
+    public long getTransferCount() {
+        return this.transferCount.get();
+    }
+
+    /**
+     * @since 5.3
+     */
+    public void incrementTransferCount() {
+        this.transferCount.incrementAndGet();
+    }
+
 }
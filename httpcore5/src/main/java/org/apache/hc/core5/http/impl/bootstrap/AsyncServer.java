@@ -119,6 +119,33 @@ public Set<ListenerEndpoint> getEndpoints() {
         return ioReactor.getEndpoints();
     }
 
+    /**
+     * @see DefaultListeningIOReactor#getTlsHandshakeCount()
+     *
+     * @since 5.3
+     */
+    public int getTlsHandshakeCount() {
+        return ioReactor.getTlsHandshakeCount();
+    }
+
+    /**
+     * @see DefaultListeningIOReactor#getPendingConnectionCount()
+     *
+     * @since 5.3
+     */
+    public int getPendingConnectionCount() {
+        return ioReactor.getPendingConnectionCount();
+    }
+
+    /**
+     * @see DefaultListeningIOReactor#getRejectedConnectionCount()
+     *
+     * @since 5.3
+     */
+    public long getRejectedConnectionCount() {
+        return ioReactor.getRejectedConnectionCount();
+    }
+
     @Override
     public IOReactorStatus getStatus() {
         return ioReactor.getStatus();
@@ -79,6 +79,7 @@ public class AsyncServerBootstrap {
     private final List<FilterEntry<AsyncFilterHandler>> filters;
     private String canonicalHostName;
     private LookupRegistry<Supplier<AsyncServerExchangeHandler>> lookupRegistry;
+    private int routeCacheSize;
     private IOReactorConfig ioReactorConfig;
     private Http1Config http1Config;
     private CharCodingConfig charCodingConfig;
@@ -196,6 +197,17 @@ public final AsyncServerBootstrap setLookupRegistry(final LookupRegistry<Supplie
         return this;
     }
 
+    /**
+     * Sets the maximum number of resolved request routes to cache.
+     * Value {@code 0} (the default) disables the route cache.
+     *
+     * @since 5.3
+     */
+    public final AsyncServerBootstrap setRouteCacheSize(final int routeCacheSize) {
+        this.routeCacheSize = Args.notNegative(routeCacheSize, "Route cache size");
+        return this;
+    }
+
     /**
      * Assigns {@link Http1StreamListener} instance.
      *
@@ -322,7 +334,8 @@ public HttpAsyncServer create() {
         final RequestHandlerRegistry<Supplier<AsyncServerExchangeHandler>> registry = new RequestHandlerRegistry<>(
                 canonicalHostName != null ? canonicalHostName : InetAddressUtils.getCanonicalLocalHostName(),
                 () -> lookupRegistry != null ? lookupRegistry :
-                        UriPatternType.newMatcher(UriPatternType.URI_PATTERN));
+                        UriPatternType.newMatcher(UriPatternType.URI_PATTERN),
+                routeCacheSize);
         for (final HandlerEntry<Supplier<AsyncServerExchangeHandler>> entry: handlerList) {
             registry.register(entry.hostname, entry.uriPattern, entry.handler);
         }
@@ -29,14 +29,22 @@
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.hc.core5.annotation.Internal;
 import org.apache.hc.core5.concurrent.BasicFuture;
 import org.apache.hc.core5.concurrent.CallbackContribution;
+import org.apache.hc.core5.concurrent.Cancellable;
 import org.apache.hc.core5.concurrent.ComplexFuture;
 import org.apache.hc.core5.concurrent.FutureCallback;
 import org.apache.hc.core5.concurrent.FutureContribution;
@@ -48,8 +56,11 @@
 import org.apache.hc.core5.http.HttpConnection;
 import org.apache.hc.core5.http.HttpException;
 import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.HttpRequest;
 import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.Method;
 import org.apache.hc.core5.http.ProtocolException;
+import org.apache.hc.core5.http.RequestNotExecutedException;
 import org.apache.hc.core5.http.impl.DefaultAddressResolver;
 import org.apache.hc.core5.http.nio.AsyncClientEndpoint;
 import org.apache.hc.core5.http.nio.AsyncClientExchangeHandler;
@@ -432,6 +443,71 @@ public final <T> Future<T> execute(
         return execute(requestProducer, responseConsumer, null, timeout, null, callback);
     }
 
+    /**
+     * Executes the given message exchanges with the given target over a single
+     * persistent connection using HTTP/1.1 request pipelining.
+     * <p>
+     * No more than {@code maxPipelineDepth} requests are outstanding on the connection
+     * at any time. Requests are sent in the order of the given list. Requests with
+     * a non-idempotent method are never pipelined: such requests are sent only once
+     * all preceding responses have been received and no other request is sent until
+     * their response has been received.
+     * </p>
+     * <p>
+     * If the connection gets closed, unanswered requests are replayed over a new connection
+     * provided they have not been sent yet or they are idempotent and enclose no content.
+     * Requests are no longer replayed once two connections in a row have failed
+     * without a single completed exchange.
+     * </p>
+     * <p>
+     * The returned future completes once every exchange of the batch has completed
+     * or failed. Cancelling it cancels all exchanges that have not completed yet.
+     * </p>
+     *
+     * @param target the target host.
+     * @param exchangeHandlers the message exchanges to execute.
+     * @param maxPipelineDepth the maximum number of outstanding requests.
+     * @param timeout the connect timeout.
+     * @param callback the batch completion callback. May be {@code null}.
+     * @return the batch completion future.
+     *
+     * @since 5.3
+     */
+    public Future<Void> executePipelined(
+            final HttpHost target,
+            final List<? extends AsyncClientExchangeHandler> exchangeHandlers,
+            final int maxPipelineDepth,
+            final Timeout timeout,
+            final FutureCallback<Void> callback) {
+        Args.notNull(target, "Target host");
+        Args.notNull(exchangeHandlers, "Exchange handlers");
+        Args.positive(maxPipelineDepth, "Max pipeline depth");
+        Args.notNull(timeout, "Timeout");
+        final ComplexFuture<Void> future = new ComplexFuture<>(callback);
+        final PipelinedExecution execution = new PipelinedExecution(target, maxPipelineDepth, timeout, future);
+        for (final AsyncClientExchangeHandler exchangeHandler : exchangeHandlers) {
+            execution.add(exchangeHandler);
+        }
+        future.setDependency(execution);
+        execution.proceed();
+        return future;
+    }
+
+    /**
+     * Executes the given message exchanges with the given target over a single
+     * persistent connection using HTTP/1.1 request pipelining.
+     *
+     * @see #executePipelined(HttpHost, List, int, Timeout, FutureCallback)
+     * @since 5.3
+     */
+    public Future<Void> executePipelined(
+            final HttpHost target,
+            final List<? extends AsyncClientExchangeHandler> exchangeHandlers,
+            final int maxPipelineDepth,
+            final Timeout timeout) {
+        return executePipelined(target, exchangeHandlers, maxPipelineDepth, timeout, null);
+    }
+
     protected void doTlsUpgrade(
             final ProtocolIOSession ioSession,
             final NamedEndpoint endpoint,
@@ -456,6 +532,449 @@ public void completed(final TransportSecurityLayer transportSecurityLayer) {
         }
     }
 
+    private static final class PipelinedExchange {
+
+        final long seqNo;
+        final AsyncClientExchangeHandler exchangeHandler;
+        final HttpRequest request;
+        final EntityDetails entityDetails;
+        final HttpContext context;
+        final boolean idempotent;
+
+        PipelinedExchange(
+                final long seqNo,
+                final AsyncClientExchangeHandler exchangeHandler,
+                final HttpRequest request,
+                final EntityDetails entityDetails,
+                final HttpContext context) {
+            this.seqNo = seqNo;
+            this.exchangeHandler = exchangeHandler;
+            this.request = request;
+            this.entityDetails = entityDetails;
+            this.context = context;
+            this.idempotent = Method.isIdempotent(request.getMethod());
+        }
+
+    }
+
+    private final class PipelinedExecution implements Cancellable {
+
+        private final HttpHost target;
+        private final int maxPipelineDepth;
+        private final Timeout timeout;
+        private final BasicFuture<Void> future;
+        private final Queue<PipelinedExchange> pending;
+        private final Queue<PipelinedExchangeHandler> outbound;
+        private final ReentrantLock lock;
+
+        private long seqNo;
+        private int remaining;
+        private AsyncClientEndpoint endpoint;
+        private boolean connecting;
+        private boolean submitting;
+        private int inFlight;
+        private boolean barrier;
+        private boolean progress;
+        private int failedConnections;
+        private boolean cancelled;
+
+        PipelinedExecution(
+                final HttpHost target,
+                final int maxPipelineDepth,
+                final Timeout timeout,
+                final BasicFuture<Void> future) {
+            this.target = target;
+            this.maxPipelineDepth = maxPipelineDepth;
+            this.timeout = timeout;
+            this.future = future;
+            this.pending = new PriorityQueue<>(Comparator.comparingLong(exchange -> exchange.seqNo));
+            this.outbound = new ArrayDeque<>();
+            this.lock = new ReentrantLock();
+        }
+
+        void add(final AsyncClientExchangeHandler exchangeHandler) {
+            final HttpContext context = HttpCoreContext.create();
+            try {
+                exchangeHandler.produceRequest((request, entityDetails, requestContext) -> {
+                    lock.lock();
+                    try {
+                        pending.add(new PipelinedExchange(seqNo++, exchangeHandler, request, entityDetails, context));
+                        remaining++;
+                    } finally {
+                        lock.unlock();
+                    }
+                }, context);
+            } catch (final IOException | HttpException ex) {
+                try {
+                    exchangeHandler.failed(ex);
+                } finally {
+                    exchangeHandler.releaseResources();
+                }
+            }
+        }
+
+        void proceed() {
+            final AsyncClientEndpoint releasedEndpoint;
+            final boolean batchDone;
+            boolean connect = false;
+            lock.lock();
+            try {
+                batchDone = remaining == 0;
+                if (cancelled || pending.isEmpty() && inFlight == 0) {
+                    releasedEndpoint = endpoint;
+                    endpoint = null;
+                } else {
+                    releasedEndpoint = null;
+                    if (endpoint == null) {
+                        if (!connecting && !pending.isEmpty()) {
+                            connecting = true;
+                            connect = true;
+                        }
+                    } else {
+                        while (!barrier && inFlight < maxPipelineDepth && !pending.isEmpty()) {
+                            final PipelinedExchange exchange = pending.peek();
+                            if (!exchange.idempotent) {
+                                if (inFlight > 0) {
+                                    break;
+                                }
+                                barrier = true;
+                            }
+                            pending.remove();
+                            inFlight++;
+                            // Queue up for submission in the order of selection
+                            outbound.add(new PipelinedExchangeHandler(this, exchange, endpoint));
+                        }
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (releasedEndpoint != null) {
+                releasedEndpoint.releaseAndReuse();
+            }
+            if (batchDone) {
+                future.completed(null);
+            }
+            if (connect) {
+                connect(target, timeout, null, new FutureCallback<AsyncClientEndpoint>() {
+
+                    @Override
+                    public void completed(final AsyncClientEndpoint result) {
+                        lock.lock();
+                        try {
+                            connecting = false;
+                            endpoint = result;
+                            progress = false;
+                        } finally {
+                            lock.unlock();
+                        }
+                        proceed();
+                    }
+
+                    @Override
+                    public void failed(final Exception ex) {
+                        abort(ex);
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        abort(new RequestNotExecutedException());
+                    }
+
+                });
+            }
+            submit();
+        }
+
+        /**
+         * Submits queued exchanges one by one. Only one thread at a time drains
+         * the queue, which keeps requests on the wire in the order they have
+         * been selected in, including when submission re-enters {@link #proceed()}.
+         */
+        private void submit() {
+            lock.lock();
+            try {
+                if (submitting) {
+                    return;
+                }
+                submitting = true;
+            } finally {
+                lock.unlock();
+            }
+            for (;;) {
+                final PipelinedExchangeHandler handler;
+                lock.lock();
+                try {
+                    handler = outbound.poll();
+                    if (handler == null) {
+                        submitting = false;
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                handler.endpoint.execute(handler, null, handler.exchange.context);
+            }
+        }
+
+        void exchangeDone() {
+            final boolean batchDone;
+            lock.lock();
+            try {
+                remaining--;
+                batchDone = remaining == 0;
+            } finally {
+                lock.unlock();
+            }
+            if (batchDone) {
+                future.completed(null);
+            }
+        }
+
+        void abort(final Exception cause) {
+            final List<PipelinedExchange> aborted = new ArrayList<>();
+            lock.lock();
+            try {
+                connecting = false;
+                while (!pending.isEmpty()) {
+                    aborted.add(pending.remove());
+                }
+            } finally {
+                lock.unlock();
+            }
+            for (final PipelinedExchange exchange : aborted) {
+                try {
+                    exchange.exchangeHandler.failed(cause);
+                } finally {
+                    exchange.exchangeHandler.releaseResources();
+                }
+                exchangeDone();
+            }
+        }
+
+        @Override
+        public boolean cancel() {
+            final List<PipelinedExchange> unsent = new ArrayList<>();
+            final AsyncClientEndpoint discardedEndpoint;
+            lock.lock();
+            try {
+                if (cancelled) {
+                    return false;
+                }
+                cancelled = true;
+                while (!pending.isEmpty()) {
+                    unsent.add(pending.remove());
+                }
+                while (!outbound.isEmpty()) {
+                    unsent.add(outbound.remove().exchange);
+                    inFlight--;
+                }
+                discardedEndpoint = endpoint;
+                endpoint = null;
+            } finally {
+                lock.unlock();
+            }
+            for (final PipelinedExchange exchange : unsent) {
+                try {
+                    exchange.exchangeHandler.cancel();
+                } finally {
+                    exchange.exchangeHandler.releaseResources();
+                }
+                exchangeDone();
+            }
+            // Outstanding exchanges get cancelled as they fail with the connection
+            if (discardedEndpoint != null) {
+                discardedEndpoint.releaseAndDiscard();
+            }
+            return true;
+        }
+
+        boolean isCancelled() {
+            lock.lock();
+            try {
+                return cancelled;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void completed(final PipelinedExchange exchange) {
+            lock.lock();
+            try {
+                inFlight--;
+                if (!exchange.idempotent) {
+                    barrier = false;
+                }
+                progress = true;
+                failedConnections = 0;
+            } finally {
+                lock.unlock();
+            }
+            proceed();
+            exchangeDone();
+        }
+
+        boolean failed(
+                final PipelinedExchange exchange,
+                final AsyncClientEndpoint exchangeEndpoint,
+                final boolean responseReceived,
+                final Exception cause) {
+            final boolean replay;
+            final boolean discard;
+            lock.lock();
+            try {
+                inFlight--;
+                if (!exchange.idempotent) {
+                    barrier = false;
+                }
+                discard = exchangeEndpoint == endpoint;
+                if (discard) {
+                    endpoint = null;
+                    if (!progress) {
+                        failedConnections++;
+                    }
+                }
+                replay = !cancelled && failedConnections <= 1 && !responseReceived
+                        && (cause instanceof RequestNotExecutedException
+                        || (cause instanceof IOException && exchange.idempotent && exchange.entityDetails == null));
+                if (replay) {
+                    pending.add(exchange);
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (discard) {
+                exchangeEndpoint.releaseAndDiscard();
+            }
+            return replay;
+        }
+
+    }
+
+    private static final class PipelinedExchangeHandler implements AsyncClientExchangeHandler {
+
+        private final PipelinedExecution execution;
+        private final PipelinedExchange exchange;
+        private final AsyncClientEndpoint endpoint;
+        private final AtomicBoolean done;
+        private final AtomicBoolean replayed;
+
+        private volatile boolean responseReceived;
+
+        PipelinedExchangeHandler(
+                final PipelinedExecution execution,
+                final PipelinedExchange exchange,
+                final AsyncClientEndpoint endpoint) {
+            this.execution = execution;
+            this.exchange = exchange;
+            this.endpoint = endpoint;
+            this.done = new AtomicBoolean();
+            this.replayed = new AtomicBoolean();
+        }
+
+        @Override
+        public void produceRequest(final RequestChannel channel, final HttpContext context) throws HttpException, IOException {
+            channel.sendRequest(exchange.request, exchange.entityDetails, context);
+        }
+
+        @Override
+        public int available() {
+            return exchange.exchangeHandler.available();
+        }
+
+        @Override
+        public void produce(final DataStreamChannel channel) throws IOException {
+            exchange.exchangeHandler.produce(channel);
+        }
+
+        @Override
+        public void consumeInformation(final HttpResponse response, final HttpContext context) throws HttpException, IOException {
+            exchange.exchangeHandler.consumeInformation(response, context);
+        }
+
+        @Override
+        public void consumeResponse(
+                final HttpResponse response,
+                final EntityDetails entityDetails,
+                final HttpContext context) throws HttpException, IOException {
+            responseReceived = true;
+            exchange.exchangeHandler.consumeResponse(response, entityDetails, context);
+            // Signal completion only once the response has been handed over
+            if (entityDetails == null && done.compareAndSet(false, true)) {
+                execution.completed(exchange);
+            }
+        }
+
+        @Override
+        public void updateCapacity(final CapacityChannel capacityChannel) throws IOException {
+            exchange.exchangeHandler.updateCapacity(capacityChannel);
+        }
+
+        @Override
+        public void consume(final ByteBuffer src) throws IOException {
+            exchange.exchangeHandler.consume(src);
+        }
+
+        @Override
+        public void streamEnd(final List<? extends Header> trailers) throws HttpException, IOException {
+            exchange.exchangeHandler.streamEnd(trailers);
+            if (done.compareAndSet(false, true)) {
+                execution.completed(exchange);
+            }
+        }
+
+        @Override
+        public void failed(final Exception cause) {
+            final boolean first = done.compareAndSet(false, true);
+            if (first) {
+                final boolean replay = execution.failed(exchange, endpoint, responseReceived, cause);
+                replayed.set(replay);
+                if (replay) {
+                    execution.proceed();
+                    return;
+                }
+            } else if (replayed.get()) {
+                return;
+            }
+            try {
+                if (execution.isCancelled()) {
+                    exchange.exchangeHandler.cancel();
+                } else {
+                    exchange.exchangeHandler.failed(cause);
+                }
+            } finally {
+                if (first) {
+                    execution.proceed();
+                    execution.exchangeDone();
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            final boolean first = done.compareAndSet(false, true);
+            if (first) {
+                execution.failed(exchange, endpoint, true, null);
+            }
+            try {
+                exchange.exchangeHandler.cancel();
+            } finally {
+                if (first) {
+                    execution.proceed();
+                    execution.exchangeDone();
+                }
+            }
+        }
+
+        @Override
+        public void releaseResources() {
+            if (!replayed.get()) {
+                exchange.exchangeHandler.releaseResources();
+            }
+        }
+
+    }
+
     private class InternalAsyncClientEndpoint extends AsyncClientEndpoint implements TlsUpgradeCapable {
 
         final AtomicReference<PoolEntry<HttpHost, IOSession>> poolEntryRef;
@@ -30,7 +30,9 @@
 import java.net.InetAddress;
 import java.net.ServerSocket;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
@@ -76,9 +78,12 @@ enum Status { READY, ACTIVE, STOPPING }
     private final HttpConnectionFactory<? extends DefaultBHttpServerConnection> connectionFactory;
     private final Callback<SSLParameters> sslSetupHandler;
     private final ExceptionListener exceptionListener;
+    private final int listenerThreadCount;
     private final ThreadPoolExecutor listenerExecutorService;
     private final ThreadGroup workerThreads;
-    private final WorkerPoolExecutor workerExecutorService;
+    private final ExecutorService workerExecutorService;
+    private final boolean workerExecutorOwned;
+    private final WorkerTracker workerTracker;
     private final AtomicReference<Status> status;
 
     private volatile ServerSocket serverSocket;
@@ -94,6 +99,36 @@ public HttpServer(
             final HttpConnectionFactory<? extends DefaultBHttpServerConnection> connectionFactory,
             final Callback<SSLParameters> sslSetupHandler,
             final ExceptionListener exceptionListener) {
+        this(port, httpService, ifAddress, socketConfig, serverSocketFactory, connectionFactory, sslSetupHandler,
+                exceptionListener, null, null, 0, 1);
+    }
+
+    /**
+     * @param workerThreadFactory factory of threads used to serve individual connections
+     *                            by the internal worker pool. Ignored if {@code workerExecutor}
+     *                            is given.
+     * @param workerExecutor      external executor used to serve individual connections.
+     *                            The executor is not shut down by the server.
+     * @param maxConnections      maximum number of connections served concurrently. Once reached
+     *                            the server stops accepting new connections until one of the active
+     *                            ones gets closed. Zero or negative value means no limit.
+     * @param listenerThreadCount number of threads accepting connections from the server socket.
+     * @since 5.3
+     */
+    @Internal
+    public HttpServer(
+            final int port,
+            final HttpService httpService,
+            final InetAddress ifAddress,
+            final SocketConfig socketConfig,
+            final ServerSocketFactory serverSocketFactory,
+            final HttpConnectionFactory<? extends DefaultBHttpServerConnection> connectionFactory,
+            final Callback<SSLParameters> sslSetupHandler,
+            final ExceptionListener exceptionListener,
+            final ThreadFactory workerThreadFactory,
+            final ExecutorService workerExecutor,
+            final int maxConnections,
+            final int listenerThreadCount) {
         this.port = Args.notNegative(port, "Port value is negative");
         this.httpService = Args.notNull(httpService, "HTTP service");
         this.ifAddress = ifAddress;
@@ -105,15 +140,24 @@ public HttpServer(
                 CharCodingConfig.DEFAULT);
         this.sslSetupHandler = sslSetupHandler;
         this.exceptionListener = exceptionListener != null ? exceptionListener : ExceptionListener.NO_OP;
+        this.listenerThreadCount = Args.positive(listenerThreadCount, "Listener thread count");
         this.listenerExecutorService = new ThreadPoolExecutor(
-                1, 1, 0L, TimeUnit.MILLISECONDS,
+                this.listenerThreadCount, this.listenerThreadCount, 0L, TimeUnit.MILLISECONDS,
                 new SynchronousQueue<>(),
                 new DefaultThreadFactory("HTTP-listener-" + this.port));
         this.workerThreads = new ThreadGroup("HTTP-workers");
-        this.workerExecutorService = new WorkerPoolExecutor(
-                0, Integer.MAX_VALUE, 1L, TimeUnit.SECONDS,
-                new SynchronousQueue<>(),
-                new DefaultThreadFactory("HTTP-worker", this.workerThreads, true));
+        if (workerExecutor != null) {
+            this.workerExecutorService = workerExecutor;
+            this.workerExecutorOwned = false;
+        } else {
+            this.workerExecutorService = new ThreadPoolExecutor(
+                    0, Integer.MAX_VALUE, 1L, TimeUnit.SECONDS,
+                    new SynchronousQueue<>(),
+                    workerThreadFactory != null ? workerThreadFactory :
+                            new DefaultThreadFactory("HTTP-worker", this.workerThreads, true));
+            this.workerExecutorOwned = true;
+        }
+        this.workerTracker = new WorkerTracker(maxConnections);
         this.status = new AtomicReference<>(Status.READY);
     }
 
@@ -133,6 +177,25 @@ public int getLocalPort() {
         return -1;
     }
 
+    /**
+     * Returns the number of connections currently being served.
+     *
+     * @since 5.3
+     */
+    public int getActiveConnectionCount() {
+        return this.workerTracker.getActiveCount();
+    }
+
+    /**
+     * Returns the total number of accepted connections that have been closed
+     * because the worker executor rejected them.
+     *
+     * @since 5.3
+     */
+    public long getRejectedConnectionCount() {
+        return this.workerTracker.getRejectedCount();
+    }
+
     public void start() throws IOException {
         if (this.status.compareAndSet(Status.READY, Status.ACTIVE)) {
             this.serverSocket = this.serverSocketFactory.createServerSocket(
@@ -153,15 +216,20 @@ public void start() throws IOException {
                     this.httpService,
                     this.connectionFactory,
                     this.exceptionListener,
-                    this.workerExecutorService);
-            this.listenerExecutorService.execute(this.requestListener);
+                    this.workerExecutorService,
+                    this.workerTracker);
+            for (int i = 0; i < this.listenerThreadCount; i++) {
+                this.listenerExecutorService.execute(this.requestListener);
+            }
         }
     }
 
     public void stop() {
         if (this.status.compareAndSet(Status.ACTIVE, Status.STOPPING)) {
             this.listenerExecutorService.shutdownNow();
-            this.workerExecutorService.shutdown();
+            if (this.workerExecutorOwned) {
+                this.workerExecutorService.shutdown();
+            }
             final RequestListener local = this.requestListener;
             if (local != null) {
                 try {
@@ -180,7 +248,11 @@ public void initiateShutdown() {
 
     public void awaitTermination(final TimeValue waitTime) throws InterruptedException {
         Args.notNull(waitTime, "Wait time");
-        this.workerExecutorService.awaitTermination(waitTime.getDuration(), waitTime.getTimeUnit());
+        if (this.workerExecutorOwned) {
+            this.workerExecutorService.awaitTermination(waitTime.getDuration(), waitTime.getTimeUnit());
+        } else {
+            this.workerTracker.awaitIdle(waitTime);
+        }
     }
 
     @Override
@@ -206,7 +278,7 @@ public void close(final CloseMode closeMode, final Timeout timeout) {
                 Thread.currentThread().interrupt();
             }
         }
-        final Set<Worker> workers = this.workerExecutorService.getWorkers();
+        final Set<Worker> workers = this.workerTracker.getWorkers();
         for (final Worker worker: workers) {
             Closer.close(worker.getConnection(), CloseMode.GRACEFUL);
         }
@@ -30,6 +30,7 @@
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.hc.core5.http.ExceptionListener;
@@ -37,6 +38,7 @@
 import org.apache.hc.core5.http.io.HttpConnectionFactory;
 import org.apache.hc.core5.http.io.HttpServerConnection;
 import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.io.CloseMode;
 
 class RequestListener implements Runnable {
 
@@ -46,6 +48,7 @@ class RequestListener implements Runnable {
     private final HttpConnectionFactory<? extends HttpServerConnection> connectionFactory;
     private final ExceptionListener exceptionListener;
     private final ExecutorService executorService;
+    private final WorkerTracker workerTracker;
     private final AtomicBoolean terminated;
 
     public RequestListener(
@@ -54,13 +57,15 @@ public RequestListener(
             final HttpService httpService,
             final HttpConnectionFactory<? extends HttpServerConnection> connectionFactory,
             final ExceptionListener exceptionListener,
-            final ExecutorService executorService) {
+            final ExecutorService executorService,
+            final WorkerTracker workerTracker) {
         this.socketConfig = socketConfig;
         this.serverSocket = serversocket;
         this.connectionFactory = connectionFactory;
         this.httpService = httpService;
         this.exceptionListener = exceptionListener;
         this.executorService = executorService;
+        this.workerTracker = workerTracker;
         this.terminated = new AtomicBoolean(false);
     }
 
@@ -68,7 +73,14 @@ public RequestListener(
     public void run() {
         try {
             while (!isTerminated() && !Thread.interrupted()) {
-                final Socket socket = this.serverSocket.accept();
+                this.workerTracker.acquire();
+                final Socket socket;
+                try {
+                    socket = this.serverSocket.accept();
+                } catch (final IOException | RuntimeException ex) {
+                    this.workerTracker.release();
+                    throw ex;
+                }
                 socket.setSoTimeout(this.socketConfig.getSoTimeout().toMillisecondsIntBound());
                 socket.setKeepAlive(this.socketConfig.isSoKeepAlive());
                 socket.setTcpNoDelay(this.socketConfig.isTcpNoDelay());
@@ -81,9 +93,24 @@ public void run() {
                 if (this.socketConfig.getSoLinger().toSeconds() >= 0) {
                     socket.setSoLinger(true, this.socketConfig.getSoLinger().toSecondsIntBound());
                 }
-                final HttpServerConnection conn = this.connectionFactory.createConnection(socket);
+                final HttpServerConnection conn;
+                try {
+                    conn = this.connectionFactory.createConnection(socket);
+                } catch (final IOException | RuntimeException ex) {
+                    this.workerTracker.release();
+                    socket.close();
+                    throw ex;
+                }
                 final Worker worker = new Worker(this.httpService, conn, this.exceptionListener);
-                this.executorService.execute(worker);
+                try {
+                    this.executorService.execute(this.workerTracker.track(worker));
+                } catch (final RejectedExecutionException ex) {
+                    this.workerTracker.rejected(worker);
+                    conn.close(CloseMode.IMMEDIATE);
+                    if (isTerminated() || this.executorService.isShutdown()) {
+                        break;
+                    }
+                }
             }
         } catch (final Exception ex) {
             this.exceptionListener.onError(ex);
@@ -29,6 +29,8 @@
 import java.net.InetAddress;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
 
 import javax.net.ServerSocketFactory;
 import javax.net.ssl.SSLContext;
@@ -81,6 +83,7 @@ public class ServerBootstrap {
     private final List<FilterEntry<HttpFilterHandler>> filters;
     private String canonicalHostName;
     private LookupRegistry<HttpRequestHandler> lookupRegistry;
+    private int routeCacheSize;
     private int listenerPort;
     private InetAddress localAddress;
     private SocketConfig socketConfig;
@@ -95,10 +98,15 @@ public class ServerBootstrap {
     private HttpConnectionFactory<? extends DefaultBHttpServerConnection> connectionFactory;
     private ExceptionListener exceptionListener;
     private Http1StreamListener streamListener;
+    private ThreadFactory workerThreadFactory;
+    private ExecutorService workerExecutor;
+    private int maxConnections;
+    private int listenerThreadCount;
 
     private ServerBootstrap() {
         this.handlerList = new ArrayList<>();
         this.filters = new ArrayList<>();
+        this.listenerThreadCount = 1;
     }
 
     public static ServerBootstrap bootstrap() {
@@ -187,6 +195,17 @@ public final ServerBootstrap setLookupRegistry(final LookupRegistry<HttpRequestH
         return this;
     }
 
+    /**
+     * Sets the maximum number of resolved request routes to cache.
+     * Value {@code 0} (the default) disables the route cache.
+     *
+     * @since 5.3
+     */
+    public final ServerBootstrap setRouteCacheSize(final int routeCacheSize) {
+        this.routeCacheSize = Args.notNegative(routeCacheSize, "Route cache size");
+        return this;
+    }
+
     /**
      * Registers the given {@link HttpRequestHandler} as a default handler for URIs
      * matching the given pattern.
@@ -269,6 +288,56 @@ public final ServerBootstrap setStreamListener(final Http1StreamListener streamL
         return this;
     }
 
+    /**
+     * Assigns {@link ThreadFactory} used to create threads serving individual connections.
+     * Each connection is served by its own thread, so a factory of lightweight (virtual)
+     * threads can be used where the runtime supports them.
+     * <p>
+     * This parameter has no effect if {@link #setWorkerExecutor(ExecutorService)} is set.
+     *
+     * @since 5.3
+     */
+    public final ServerBootstrap setWorkerThreadFactory(final ThreadFactory workerThreadFactory) {
+        this.workerThreadFactory = workerThreadFactory;
+        return this;
+    }
+
+    /**
+     * Assigns {@link ExecutorService} used to serve individual connections. The executor
+     * remains in control of the caller and is not shut down along with the server.
+     * Connections rejected by the executor get closed immediately.
+     *
+     * @since 5.3
+     */
+    public final ServerBootstrap setWorkerExecutor(final ExecutorService workerExecutor) {
+        this.workerExecutor = workerExecutor;
+        return this;
+    }
+
+    /**
+     * Sets maximum number of connections served concurrently. Once the limit is reached
+     * the server stops accepting new connections, leaving them in the listen backlog,
+     * until one of the active connections gets closed. Zero value means no limit.
+     *
+     * @since 5.3
+     */
+    public final ServerBootstrap setMaxConnections(final int maxConnections) {
+        this.maxConnections = Args.notNegative(maxConnections, "Max connections");
+        return this;
+    }
+
+    /**
+     * Sets the number of threads accepting connections from the server socket. All threads
+     * share the same server socket, which spreads the work of accepting short-lived
+     * connections at high rates across multiple cores.
+     *
+     * @since 5.3
+     */
+    public final ServerBootstrap setListenerThreadCount(final int listenerThreadCount) {
+        this.listenerThreadCount = Args.positive(listenerThreadCount, "Listener thread count");
+        return this;
+    }
+
     /**
      * Adds the filter before the filter with the given name.
      */
@@ -325,7 +394,8 @@ public HttpServer create() {
         final RequestHandlerRegistry<HttpRequestHandler> handlerRegistry = new RequestHandlerRegistry<>(
                 canonicalHostName != null ? canonicalHostName : InetAddressUtils.getCanonicalLocalHostName(),
                 () -> lookupRegistry != null ? lookupRegistry :
-                        UriPatternType.newMatcher(UriPatternType.URI_PATTERN));
+                        UriPatternType.newMatcher(UriPatternType.URI_PATTERN),
+                routeCacheSize);
         for (final HandlerEntry<HttpRequestHandler> entry: handlerList) {
             handlerRegistry.register(entry.hostname, entry.uriPattern, entry.handler);
         }
@@ -406,7 +476,11 @@ public HttpServer create() {
                 serverSocketFactoryCopy,
                 connectionFactoryCopy,
                 sslSetupHandler != null ? sslSetupHandler : new DefaultTlsSetupHandler(),
-                this.exceptionListener != null ? this.exceptionListener : ExceptionListener.NO_OP);
+                this.exceptionListener != null ? this.exceptionListener : ExceptionListener.NO_OP,
+                this.workerThreadFactory,
+                this.workerExecutor,
+                this.maxConnections,
+                this.listenerThreadCount);
     }
 
 }
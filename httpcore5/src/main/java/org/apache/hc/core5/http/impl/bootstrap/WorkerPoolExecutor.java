@@ -1,71 +0,0 @@
-/*
- * ====================================================================
- * Licensed to the Apache Software Foundation (ASF) under one
- * or more contributor license agreements.  See the NOTICE file
- * distributed with this work for additional information
- * regarding copyright ownership.  The ASF licenses this file
- * to you under the Apache License, Version 2.0 (the
- * "License"); you may not use this file except in compliance
- * with the License.  You may obtain a copy of the License at
- *
- *   http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing,
- * software distributed under the License is distributed on an
- * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
- * KIND, either express or implied.  See the License for the
- * specific language governing permissions and limitations
- * under the License.
- * ====================================================================
- *
- * This software consists of voluntary contributions made by many
- * individuals on behalf of the Apache Software Foundation.  For more
- * information on the Apache Software Foundation, please see
- * <http://www.apache.org/>.
- *
- */
-package org.apache.hc.core5.http.impl.bootstrap;
-
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
-
-class WorkerPoolExecutor extends ThreadPoolExecutor {
-
-    private final Map<Worker, Boolean> workerSet;
-
-    public WorkerPoolExecutor(
-            final int corePoolSize,
-            final int maximumPoolSize,
-            final long keepAliveTime,
-            final TimeUnit unit,
-            final BlockingQueue<Runnable> workQueue,
-            final ThreadFactory threadFactory) {
-        super(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory);
-        this.workerSet = new ConcurrentHashMap<>();
-    }
-
-    @Override
-    protected void beforeExecute(final Thread t, final Runnable r) {
-        if (r instanceof Worker) {
-            this.workerSet.put((Worker) r, Boolean.TRUE);
-        }
-    }
-
-    @Override
-    protected void afterExecute(final Runnable r, final Throwable t) {
-        if (r instanceof Worker) {
-            this.workerSet.remove(r);
-        }
-    }
-
-    public Set<Worker> getWorkers() {
-        return new HashSet<>(this.workerSet.keySet());
-    }
-
-}
@@ -0,0 +1,139 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.core5.http.impl.bootstrap;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.hc.core5.util.TimeValue;
+
+/**
+ * Keeps track of active connection workers and optionally limits their number.
+ */
+final class WorkerTracker {
+
+    private final Semaphore permits;
+    private final Set<Worker> workers;
+    private final AtomicLong rejectedCount;
+    private final ReentrantLock lock;
+    private final Condition idleCondition;
+
+    WorkerTracker(final int maxWorkers) {
+        this.permits = maxWorkers > 0 ? new Semaphore(maxWorkers) : null;
+        this.workers = ConcurrentHashMap.newKeySet();
+        this.rejectedCount = new AtomicLong(0);
+        this.lock = new ReentrantLock();
+        this.idleCondition = this.lock.newCondition();
+    }
+
+    /**
+     * Blocks until a new worker can be admitted.
+     */
+    void acquire() throws InterruptedException {
+        if (this.permits != null) {
+            this.permits.acquire();
+        }
+    }
+
+    /**
+     * Releases a permit acquired with {@link #acquire()} that has not been used
+     * to admit a worker.
+     */
+    void release() {
+        if (this.permits != null) {
+            this.permits.release();
+        }
+    }
+
+    void register(final Worker worker) {
+        this.workers.add(worker);
+    }
+
+    void deregister(final Worker worker) {
+        if (this.workers.remove(worker)) {
+            release();
+            if (this.workers.isEmpty()) {
+                this.lock.lock();
+                try {
+                    this.idleCondition.signalAll();
+                } finally {
+                    this.lock.unlock();
+                }
+            }
+        }
+    }
+
+    void rejected(final Worker worker) {
+        this.rejectedCount.incrementAndGet();
+        deregister(worker);
+    }
+
+    Runnable track(final Worker worker) {
+        register(worker);
+        return () -> {
+            try {
+                worker.run();
+            } finally {
+                deregister(worker);
+            }
+        };
+    }
+
+    Set<Worker> getWorkers() {
+        return new HashSet<>(this.workers);
+    }
+
+    int getActiveCount() {
+        return this.workers.size();
+    }
+
+    long getRejectedCount() {
+        return this.rejectedCount.get();
+    }
+
+    boolean awaitIdle(final TimeValue waitTime) throws InterruptedException {
+        long remaining = waitTime.toNanoseconds();
+        this.lock.lock();
+        try {
+            while (!this.workers.isEmpty()) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = this.idleCondition.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+}
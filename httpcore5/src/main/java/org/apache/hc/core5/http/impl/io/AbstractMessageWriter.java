@@ -39,6 +39,7 @@
 import org.apache.hc.core5.http.io.SessionOutputBuffer;
 import org.apache.hc.core5.http.message.BasicLineFormatter;
 import org.apache.hc.core5.http.message.LineFormatter;
+import org.apache.hc.core5.http.message.PreEncodedHeader;
 import org.apache.hc.core5.util.Args;
 import org.apache.hc.core5.util.CharArrayBuffer;
 
@@ -90,6 +91,9 @@ public void write(final T message, final SessionOutputBuffer buffer, final Outpu
         buffer.writeLine(this.lineBuf, outputStream);
         for (final Iterator<Header> it = message.headerIterator(); it.hasNext(); ) {
             final Header header = it.next();
+            if (header instanceof PreEncodedHeader && ((PreEncodedHeader) header).writeTo(buffer, outputStream)) {
+                continue;
+            }
             if (header instanceof FormattedHeader) {
                 final CharArrayBuffer chbuffer = ((FormattedHeader) header).getBuffer();
                 buffer.writeLine(chbuffer, outputStream);
@@ -34,10 +34,17 @@
 import java.net.SocketAddress;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CharsetEncoder;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.net.ssl.SSLSession;
 import javax.net.ssl.SSLSocket;
@@ -56,9 +63,12 @@
 import org.apache.hc.core5.http.impl.BasicHttpConnectionMetrics;
 import org.apache.hc.core5.http.impl.BasicHttpTransportMetrics;
 import org.apache.hc.core5.http.io.BHttpConnection;
+import org.apache.hc.core5.http.io.BufferAllocator;
 import org.apache.hc.core5.http.io.SessionInputBuffer;
 import org.apache.hc.core5.http.io.SessionOutputBuffer;
 import org.apache.hc.core5.http.io.entity.EmptyInputStream;
+import org.apache.hc.core5.http.io.entity.FileEntity;
+import org.apache.hc.core5.http.io.entity.PathEntity;
 import org.apache.hc.core5.io.CloseMode;
 import org.apache.hc.core5.io.Closer;
 import org.apache.hc.core5.net.InetAddressUtils;
@@ -72,7 +82,14 @@ class BHttpConnectionBase implements BHttpConnection {
     final SessionInputBufferImpl inBuffer;
     final SessionOutputBufferImpl outbuffer;
     final BasicHttpConnectionMetrics connMetrics;
+    private final BasicHttpTransportMetrics outTransportMetrics;
     final AtomicReference<SocketHolder> socketHolderRef;
+    private final BufferAllocator bufferAllocator;
+    private final AtomicBoolean buffersReleased;
+    private final ReentrantLock bufferLock;
+    // Thread performing I/O on this connection. Session buffers are returned
+    // to the allocator by this thread only.
+    private volatile Thread ioThread;
     // Lazily initialized chunked request buffer provided to ChunkedOutputStream.
     private byte[] chunkedRequestBuffer;
 
@@ -82,28 +99,53 @@ class BHttpConnectionBase implements BHttpConnection {
     BHttpConnectionBase(
             final Http1Config http1Config,
             final CharsetDecoder charDecoder,
-            final CharsetEncoder charEncoder) {
+            final CharsetEncoder charEncoder,
+            final BufferAllocator bufferAllocator) {
         this.http1Config = http1Config != null ? http1Config : Http1Config.DEFAULT;
         final BasicHttpTransportMetrics inTransportMetrics = new BasicHttpTransportMetrics();
         final BasicHttpTransportMetrics outTransportMetrics = new BasicHttpTransportMetrics();
         this.inBuffer = new SessionInputBufferImpl(inTransportMetrics,
                 this.http1Config.getBufferSize(), -1,
-                this.http1Config.getMaxLineLength(), charDecoder);
+                this.http1Config.getMaxLineLength(), charDecoder, bufferAllocator);
         this.outbuffer = new SessionOutputBufferImpl(outTransportMetrics,
                 this.http1Config.getBufferSize(),
-                this.http1Config.getChunkSizeHint(), charEncoder);
+                this.http1Config.getMaxBufferSize(),
+                this.http1Config.getChunkSizeHint(), charEncoder, bufferAllocator);
         this.connMetrics = new BasicHttpConnectionMetrics(inTransportMetrics, outTransportMetrics);
+        this.outTransportMetrics = outTransportMetrics;
         this.socketHolderRef = new AtomicReference<>();
+        this.bufferAllocator = bufferAllocator;
+        this.buffersReleased = new AtomicBoolean(false);
+        this.bufferLock = new ReentrantLock();
+    }
+
+    BHttpConnectionBase(
+            final Http1Config http1Config,
+            final CharsetDecoder charDecoder,
+            final CharsetEncoder charEncoder) {
+        this(http1Config, charDecoder, charEncoder, null);
     }
 
     protected SocketHolder ensureOpen() throws IOException {
         final SocketHolder socketHolder = this.socketHolderRef.get();
         if (socketHolder == null) {
+            // The connection may have been closed by another thread
+            releaseBuffers();
             throw new ConnectionClosedException();
         }
+        updateIoThread();
         return socketHolder;
     }
 
+    private void updateIoThread() {
+        if (this.bufferAllocator != null) {
+            final Thread currentThread = Thread.currentThread();
+            if (this.ioThread != currentThread) {
+                this.ioThread = currentThread;
+            }
+        }
+    }
+
     /**
      * Binds this connection to the given {@link Socket}. This socket will be
      * used by the connection to send and receive data.
@@ -123,6 +165,7 @@ protected void bind(final SocketHolder socketHolder) throws IOException {
         Args.notNull(socketHolder, "Socket holder");
         this.socketHolderRef.set(socketHolder);
         this.endpointDetails = null;
+        updateIoThread();
     }
 
     @Override
@@ -159,11 +202,58 @@ protected OutputStream createContentOutputStream(
     private byte[] getChunkedRequestBuffer() {
         if (chunkedRequestBuffer == null) {
             final int chunkSizeHint = this.http1Config.getChunkSizeHint();
-            chunkedRequestBuffer = new byte[chunkSizeHint > 0 ? chunkSizeHint : 8192];
+            final int size = chunkSizeHint > 0 ? chunkSizeHint : 8192;
+            chunkedRequestBuffer = bufferAllocator != null ? bufferAllocator.allocate(size) : new byte[size];
         }
         return chunkedRequestBuffer;
     }
 
+    /**
+     * Transfers content of the given entity from its file to the socket channel
+     * bypassing the session output buffer, provided the entity is a plain
+     * {@link FileEntity} or {@link PathEntity}, its content is length delimited
+     * and the connection is bound to a plain socket with a blocking channel.
+     *
+     * @return {@code true} if the entity content has been transferred,
+     *   {@code false} if it needs to be written out with {@link HttpEntity#writeTo(OutputStream)}.
+     */
+    boolean transferFileContent(
+            final HttpEntity entity,
+            final long len,
+            final SocketHolder socketHolder) throws IOException {
+        if (len <= 0 || socketHolder.getClass() != SocketHolder.class) {
+            return false;
+        }
+        final SocketChannel socketChannel = socketHolder.getSocket().getChannel();
+        if (socketChannel == null || !socketChannel.isBlocking()) {
+            return false;
+        }
+        final Path path;
+        if (entity.getClass() == FileEntity.class) {
+            path = ((FileEntity) entity).getFile().toPath();
+        } else if (entity.getClass() == PathEntity.class
+                && ((PathEntity) entity).getPath().getFileSystem() == FileSystems.getDefault()) {
+            path = ((PathEntity) entity).getPath();
+        } else {
+            return false;
+        }
+        try (final FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            this.outbuffer.flush(socketHolder.getOutputStream());
+            long total = 0;
+            while (total < len) {
+                final long transferred = fileChannel.transferTo(total, len - total, socketChannel);
+                if (transferred <= 0) {
+                    // end of file
+                    break;
+                }
+                total += transferred;
+                this.outTransportMetrics.incrementTransferCount();
+            }
+            this.outTransportMetrics.incrementBytesTransferred(total);
+        }
+        return true;
+    }
+
     protected InputStream createContentInputStream(
             final long len,
             final SessionInputBuffer buffer,
@@ -244,6 +334,7 @@ public void close(final CloseMode closeMode) {
                 Closer.closeQuietly(socket);
             }
         }
+        releaseBuffers();
     }
 
     @Override
@@ -251,9 +342,41 @@ public void close() throws IOException {
         final SocketHolder socketHolder = this.socketHolderRef.getAndSet(null);
         if (socketHolder != null) {
             try (final Socket socket = socketHolder.getSocket()) {
-                this.inBuffer.clear();
-                this.outbuffer.flush(socketHolder.getOutputStream());
+                this.bufferLock.lock();
+                try {
+                    this.inBuffer.clear();
+                    this.outbuffer.flush(socketHolder.getOutputStream());
+                } finally {
+                    this.bufferLock.unlock();
+                }
+            }
+        }
+        releaseBuffers();
+    }
+
+    /**
+     * Returns the session buffers to the allocator once the connection has been closed.
+     * The connection can be closed by any thread, for instance in order to abort a blocked
+     * operation, while the I/O thread may still be using its buffers. The buffers are
+     * therefore only released by the I/O thread, either when closing the connection
+     * or upon its next attempt to use the connection after it has been closed.
+     */
+    private void releaseBuffers() {
+        if (this.bufferAllocator == null || this.ioThread != Thread.currentThread()) {
+            return;
+        }
+        this.bufferLock.lock();
+        try {
+            if (this.socketHolderRef.get() == null && this.buffersReleased.compareAndSet(false, true)) {
+                this.inBuffer.release();
+                this.outbuffer.release();
+                if (this.chunkedRequestBuffer != null) {
+                    this.bufferAllocator.release(this.chunkedRequestBuffer);
+                    this.chunkedRequestBuffer = null;
+                }
             }
+        } finally {
+            this.bufferLock.unlock();
         }
     }
 
@@ -326,6 +449,17 @@ public SSLSession getSSLSession() {
         return null;
     }
 
+    /**
+     * Returns the number of write operations performed on the underlying socket.
+     * Divided by the number of messages sent this gives the average number
+     * of writes per message.
+     *
+     * @since 5.3
+     */
+    public long getSocketWriteCount() {
+        return this.outTransportMetrics.getTransferCount();
+    }
+
     @Override
     public EndpointDetails getEndpointDetails() {
         if (endpointDetails == null) {
@@ -37,6 +37,7 @@
 import org.apache.hc.core5.http.StreamClosedException;
 import org.apache.hc.core5.http.io.SessionOutputBuffer;
 import org.apache.hc.core5.http.message.BasicLineFormatter;
+import org.apache.hc.core5.http.message.PreEncodedHeader;
 import org.apache.hc.core5.util.Args;
 import org.apache.hc.core5.util.CharArrayBuffer;
 
@@ -161,6 +162,9 @@ private void writeTrailers() throws IOException {
         if (trailers != null) {
             for (int i = 0; i < trailers.size(); i++) {
                 final Header header = trailers.get(i);
+                if (header instanceof PreEncodedHeader && ((PreEncodedHeader) header).writeTo(this.buffer, this.outputStream)) {
+                    continue;
+                }
                 if (header instanceof FormattedHeader) {
                     final CharArrayBuffer chbuffer = ((FormattedHeader) header).getBuffer();
                     this.buffer.writeLine(chbuffer, this.outputStream);
@@ -51,6 +51,7 @@
 import org.apache.hc.core5.http.UnsupportedHttpVersionException;
 import org.apache.hc.core5.http.config.Http1Config;
 import org.apache.hc.core5.http.impl.DefaultContentLengthStrategy;
+import org.apache.hc.core5.http.io.BufferAllocator;
 import org.apache.hc.core5.http.io.HttpClientConnection;
 import org.apache.hc.core5.http.io.HttpMessageParser;
 import org.apache.hc.core5.http.io.HttpMessageParserFactory;
@@ -94,6 +95,10 @@ public class DefaultBHttpClientConnection extends BHttpConnectionBase
      *   {@link DefaultHttpRequestWriterFactory#INSTANCE} will be used.
      * @param responseParserFactory response parser factory. If {@code null}
      *   {@link DefaultHttpResponseParserFactory#INSTANCE} will be used.
+     * @param bufferAllocator allocator of session buffers. If {@code null} session buffers
+     *   will be allocated on the heap and left to the garbage collector.
+     *
+     * @since 5.3
      */
     public DefaultBHttpClientConnection(
             final Http1Config http1Config,
@@ -103,8 +108,9 @@ public DefaultBHttpClientConnection(
             final ContentLengthStrategy outgoingContentStrategy,
             final ResponseOutOfOrderStrategy responseOutOfOrderStrategy,
             final HttpMessageWriterFactory<ClassicHttpRequest> requestWriterFactory,
-            final HttpMessageParserFactory<ClassicHttpResponse> responseParserFactory) {
-        super(http1Config, charDecoder, charEncoder);
+            final HttpMessageParserFactory<ClassicHttpResponse> responseParserFactory,
+            final BufferAllocator bufferAllocator) {
+        super(http1Config, charDecoder, charEncoder, bufferAllocator);
         this.requestWriter = (requestWriterFactory != null ? requestWriterFactory :
             DefaultHttpRequestWriterFactory.INSTANCE).create();
         this.responseParser = (responseParserFactory != null ? responseParserFactory :
@@ -118,6 +124,39 @@ public DefaultBHttpClientConnection(
         this.consistent = true;
     }
 
+    /**
+     * Creates new instance of DefaultBHttpClientConnection.
+     *
+     * @param http1Config Message http1Config. If {@code null}
+     *   {@link Http1Config#DEFAULT} will be used.
+     * @param charDecoder decoder to be used for decoding HTTP protocol elements.
+     *   If {@code null} simple type cast will be used for byte to char conversion.
+     * @param charEncoder encoder to be used for encoding HTTP protocol elements.
+     *   If {@code null} simple type cast will be used for char to byte conversion.
+     * @param incomingContentStrategy incoming content length strategy. If {@code null}
+     *   {@link DefaultContentLengthStrategy#INSTANCE} will be used.
+     * @param outgoingContentStrategy outgoing content length strategy. If {@code null}
+     *   {@link DefaultContentLengthStrategy#INSTANCE} will be used.
+     * @param responseOutOfOrderStrategy response out of order strategy. If {@code null}
+     *   {@link NoResponseOutOfOrderStrategy#INSTANCE} will be used.
+     * @param requestWriterFactory request writer factory. If {@code null}
+     *   {@link DefaultHttpRequestWriterFactory#INSTANCE} will be used.
+     * @param responseParserFactory response parser factory. If {@code null}
+     *   {@link DefaultHttpResponseParserFactory#INSTANCE} will be used.
+     */
+    public DefaultBHttpClientConnection(
+            final Http1Config http1Config,
+            final CharsetDecoder charDecoder,
+            final CharsetEncoder charEncoder,
+            final ContentLengthStrategy incomingContentStrategy,
+            final ContentLengthStrategy outgoingContentStrategy,
+            final ResponseOutOfOrderStrategy responseOutOfOrderStrategy,
+            final HttpMessageWriterFactory<ClassicHttpRequest> requestWriterFactory,
+            final HttpMessageParserFactory<ClassicHttpResponse> responseParserFactory) {
+        this(http1Config, charDecoder, charEncoder, incomingContentStrategy, outgoingContentStrategy,
+                responseOutOfOrderStrategy, requestWriterFactory, responseParserFactory, null);
+    }
+
     /**
      * Creates new instance of DefaultBHttpClientConnection.
      *
@@ -199,6 +238,10 @@ public void sendRequestEntity(final ClassicHttpRequest request) throws HttpExcep
         if (len == ContentLengthStrategy.UNDEFINED) {
             throw new LengthRequiredException();
         }
+        if (this.responseOutOfOrderStrategy == NoResponseOutOfOrderStrategy.INSTANCE
+                && transferFileContent(entity, len, socketHolder)) {
+            return;
+        }
         try (final OutputStream outStream = createContentOutputStream(
                 len, this.outbuffer, new OutputStream() {
 
@@ -38,6 +38,7 @@
 import org.apache.hc.core5.http.config.CharCodingConfig;
 import org.apache.hc.core5.http.config.Http1Config;
 import org.apache.hc.core5.http.impl.CharCodingSupport;
+import org.apache.hc.core5.http.io.BufferAllocator;
 import org.apache.hc.core5.http.io.HttpConnectionFactory;
 import org.apache.hc.core5.http.io.HttpMessageParserFactory;
 import org.apache.hc.core5.http.io.HttpMessageWriterFactory;
@@ -59,6 +60,7 @@
     private final ResponseOutOfOrderStrategy responseOutOfOrderStrategy;
     private final HttpMessageWriterFactory<ClassicHttpRequest> requestWriterFactory;
     private final HttpMessageParserFactory<ClassicHttpResponse> responseParserFactory;
+    private final BufferAllocator bufferAllocator;
 
     private DefaultBHttpClientConnectionFactory(
             final Http1Config http1Config,
@@ -67,7 +69,8 @@ private DefaultBHttpClientConnectionFactory(
             final ContentLengthStrategy outgoingContentStrategy,
             final ResponseOutOfOrderStrategy responseOutOfOrderStrategy,
             final HttpMessageWriterFactory<ClassicHttpRequest> requestWriterFactory,
-            final HttpMessageParserFactory<ClassicHttpResponse> responseParserFactory) {
+            final HttpMessageParserFactory<ClassicHttpResponse> responseParserFactory,
+            final BufferAllocator bufferAllocator) {
         this.http1Config = http1Config != null ? http1Config : Http1Config.DEFAULT;
         this.charCodingConfig = charCodingConfig != null ? charCodingConfig : CharCodingConfig.DEFAULT;
         this.incomingContentStrategy = incomingContentStrategy;
@@ -75,6 +78,7 @@ private DefaultBHttpClientConnectionFactory(
         this.responseOutOfOrderStrategy = responseOutOfOrderStrategy;
         this.requestWriterFactory = requestWriterFactory;
         this.responseParserFactory = responseParserFactory;
+        this.bufferAllocator = bufferAllocator;
     }
 
     public DefaultBHttpClientConnectionFactory(
@@ -91,7 +95,8 @@ public DefaultBHttpClientConnectionFactory(
                 outgoingContentStrategy,
                 null,
                 requestWriterFactory,
-                responseParserFactory);
+                responseParserFactory,
+                null);
     }
 
     public DefaultBHttpClientConnectionFactory(
@@ -122,7 +127,8 @@ public DefaultBHttpClientConnection createConnection(final Socket socket) throws
                 this.outgoingContentStrategy,
                 this.responseOutOfOrderStrategy,
                 this.requestWriterFactory,
-                this.responseParserFactory);
+                this.responseParserFactory,
+                this.bufferAllocator);
         conn.bind(socket);
         return conn;
     }
@@ -149,6 +155,7 @@ public static final class Builder {
         private ResponseOutOfOrderStrategy responseOutOfOrderStrategy;
         private HttpMessageWriterFactory<ClassicHttpRequest> requestWriterFactory;
         private HttpMessageParserFactory<ClassicHttpResponse> responseParserFactory;
+        private BufferAllocator bufferAllocator;
 
         private Builder() {}
 
@@ -189,6 +196,17 @@ public Builder responseParserFactory(
             return this;
         }
 
+        /**
+         * Sets allocator of session buffers, for instance {@link PooledBufferAllocator}
+         * to re-use session buffers of closed connections.
+         *
+         * @since 5.3
+         */
+        public Builder bufferAllocator(final BufferAllocator bufferAllocator) {
+            this.bufferAllocator = bufferAllocator;
+            return this;
+        }
+
         public DefaultBHttpClientConnectionFactory build() {
             return new DefaultBHttpClientConnectionFactory(
                     http1Config,
@@ -197,7 +215,8 @@ public DefaultBHttpClientConnectionFactory build() {
                     outgoingContentLengthStrategy,
                     responseOutOfOrderStrategy,
                     requestWriterFactory,
-                    responseParserFactory);
+                    responseParserFactory,
+                    bufferAllocator);
         }
     }
 }
@@ -44,6 +44,7 @@
 import org.apache.hc.core5.http.UnsupportedHttpVersionException;
 import org.apache.hc.core5.http.config.Http1Config;
 import org.apache.hc.core5.http.impl.DefaultContentLengthStrategy;
+import org.apache.hc.core5.http.io.BufferAllocator;
 import org.apache.hc.core5.http.io.HttpMessageParser;
 import org.apache.hc.core5.http.io.HttpMessageParserFactory;
 import org.apache.hc.core5.http.io.HttpMessageWriter;
@@ -82,6 +83,10 @@ public class DefaultBHttpServerConnection extends BHttpConnectionBase implements
      *   {@link DefaultHttpRequestParserFactory#INSTANCE} will be used.
      * @param responseWriterFactory response writer factory. If {@code null}
      *   {@link DefaultHttpResponseWriterFactory#INSTANCE} will be used.
+     * @param bufferAllocator allocator of session buffers. If {@code null} session buffers
+     *   will be allocated on the heap and left to the garbage collector.
+     *
+     * @since 5.3
      */
     public DefaultBHttpServerConnection(
             final String scheme,
@@ -91,8 +96,9 @@ public DefaultBHttpServerConnection(
             final ContentLengthStrategy incomingContentStrategy,
             final ContentLengthStrategy outgoingContentStrategy,
             final HttpMessageParserFactory<ClassicHttpRequest> requestParserFactory,
-            final HttpMessageWriterFactory<ClassicHttpResponse> responseWriterFactory) {
-        super(http1Config, charDecoder, charEncoder);
+            final HttpMessageWriterFactory<ClassicHttpResponse> responseWriterFactory,
+            final BufferAllocator bufferAllocator) {
+        super(http1Config, charDecoder, charEncoder, bufferAllocator);
         this.scheme = scheme;
         this.requestParser = (requestParserFactory != null ? requestParserFactory :
             DefaultHttpRequestParserFactory.INSTANCE).create(http1Config);
@@ -104,6 +110,38 @@ public DefaultBHttpServerConnection(
                 DefaultContentLengthStrategy.INSTANCE;
     }
 
+    /**
+     * Creates new instance of DefaultBHttpServerConnection.
+     *
+     * @param scheme protocol scheme
+     * @param http1Config Message http1Config. If {@code null}
+     *   {@link Http1Config#DEFAULT} will be used.
+     * @param charDecoder decoder to be used for decoding HTTP protocol elements.
+     *   If {@code null} simple type cast will be used for byte to char conversion.
+     * @param charEncoder encoder to be used for encoding HTTP protocol elements.
+     *   If {@code null} simple type cast will be used for char to byte conversion.
+     * @param incomingContentStrategy incoming content length strategy. If {@code null}
+     *   {@link DefaultContentLengthStrategy#INSTANCE} will be used.
+     * @param outgoingContentStrategy outgoing content length strategy. If {@code null}
+     *   {@link DefaultContentLengthStrategy#INSTANCE} will be used.
+     * @param requestParserFactory request parser factory. If {@code null}
+     *   {@link DefaultHttpRequestParserFactory#INSTANCE} will be used.
+     * @param responseWriterFactory response writer factory. If {@code null}
+     *   {@link DefaultHttpResponseWriterFactory#INSTANCE} will be used.
+     */
+    public DefaultBHttpServerConnection(
+            final String scheme,
+            final Http1Config http1Config,
+            final CharsetDecoder charDecoder,
+            final CharsetEncoder charEncoder,
+            final ContentLengthStrategy incomingContentStrategy,
+            final ContentLengthStrategy outgoingContentStrategy,
+            final HttpMessageParserFactory<ClassicHttpRequest> requestParserFactory,
+            final HttpMessageWriterFactory<ClassicHttpResponse> responseWriterFactory) {
+        this(scheme, http1Config, charDecoder, charEncoder, incomingContentStrategy, outgoingContentStrategy,
+                requestParserFactory, responseWriterFactory, null);
+    }
+
     public DefaultBHttpServerConnection(
             final String scheme,
             final Http1Config http1Config,
@@ -182,6 +220,9 @@ public void sendResponseEntity(final ClassicHttpResponse response)
             return;
         }
         final long len = this.outgoingContentStrategy.determineLength(response);
+        if (transferFileContent(entity, len, socketHolder)) {
+            return;
+        }
         try (final OutputStream outStream = createContentOutputStream(len, this.outbuffer, socketHolder.getOutputStream(), entity.getTrailers())) {
             entity.writeTo(outStream);
         }
@@ -38,6 +38,7 @@
 import org.apache.hc.core5.http.config.CharCodingConfig;
 import org.apache.hc.core5.http.config.Http1Config;
 import org.apache.hc.core5.http.impl.CharCodingSupport;
+import org.apache.hc.core5.http.io.BufferAllocator;
 import org.apache.hc.core5.http.io.HttpConnectionFactory;
 import org.apache.hc.core5.http.io.HttpMessageParserFactory;
 import org.apache.hc.core5.http.io.HttpMessageWriterFactory;
@@ -57,7 +58,11 @@ public class DefaultBHttpServerConnectionFactory implements HttpConnectionFactor
     private final ContentLengthStrategy outgoingContentStrategy;
     private final HttpMessageParserFactory<ClassicHttpRequest> requestParserFactory;
     private final HttpMessageWriterFactory<ClassicHttpResponse> responseWriterFactory;
+    private final BufferAllocator bufferAllocator;
 
+    /**
+     * @since 5.3
+     */
     public DefaultBHttpServerConnectionFactory(
             final String scheme,
             final Http1Config http1Config,
@@ -65,7 +70,8 @@ public DefaultBHttpServerConnectionFactory(
             final ContentLengthStrategy incomingContentStrategy,
             final ContentLengthStrategy outgoingContentStrategy,
             final HttpMessageParserFactory<ClassicHttpRequest> requestParserFactory,
-            final HttpMessageWriterFactory<ClassicHttpResponse> responseWriterFactory) {
+            final HttpMessageWriterFactory<ClassicHttpResponse> responseWriterFactory,
+            final BufferAllocator bufferAllocator) {
         super();
         this.scheme = scheme;
         this.http1Config = http1Config != null ? http1Config : Http1Config.DEFAULT;
@@ -74,6 +80,19 @@ public DefaultBHttpServerConnectionFactory(
         this.outgoingContentStrategy = outgoingContentStrategy;
         this.requestParserFactory = requestParserFactory;
         this.responseWriterFactory = responseWriterFactory;
+        this.bufferAllocator = bufferAllocator;
+    }
+
+    public DefaultBHttpServerConnectionFactory(
+            final String scheme,
+            final Http1Config http1Config,
+            final CharCodingConfig charCodingConfig,
+            final ContentLengthStrategy incomingContentStrategy,
+            final ContentLengthStrategy outgoingContentStrategy,
+            final HttpMessageParserFactory<ClassicHttpRequest> requestParserFactory,
+            final HttpMessageWriterFactory<ClassicHttpResponse> responseWriterFactory) {
+        this(scheme, http1Config, charCodingConfig, incomingContentStrategy, outgoingContentStrategy,
+                requestParserFactory, responseWriterFactory, null);
     }
 
     public DefaultBHttpServerConnectionFactory(
@@ -102,7 +121,8 @@ public DefaultBHttpServerConnection createConnection(final Socket socket) throws
                 this.incomingContentStrategy,
                 this.outgoingContentStrategy,
                 this.requestParserFactory,
-                this.responseWriterFactory);
+                this.responseWriterFactory,
+                this.bufferAllocator);
         conn.bind(socket);
         return conn;
     }
@@ -129,6 +149,7 @@ public static final class Builder {
         private ContentLengthStrategy outgoingContentLengthStrategy;
         private HttpMessageParserFactory<ClassicHttpRequest> requestParserFactory;
         private HttpMessageWriterFactory<ClassicHttpResponse> responseWriterFactory;
+        private BufferAllocator bufferAllocator;
 
         private Builder() {}
 
@@ -169,6 +190,17 @@ public Builder responseWriterFactory(
             return this;
         }
 
+        /**
+         * Sets allocator of session buffers, for instance {@link PooledBufferAllocator}
+         * to re-use session buffers of closed connections.
+         *
+         * @since 5.3
+         */
+        public Builder bufferAllocator(final BufferAllocator bufferAllocator) {
+            this.bufferAllocator = bufferAllocator;
+            return this;
+        }
+
         public DefaultBHttpServerConnectionFactory build() {
             return new DefaultBHttpServerConnectionFactory(
                     scheme,
@@ -177,7 +209,8 @@ public DefaultBHttpServerConnectionFactory build() {
                     incomingContentLengthStrategy,
                     outgoingContentLengthStrategy,
                     requestParserFactory,
-                    responseWriterFactory);
+                    responseWriterFactory,
+                    bufferAllocator);
         }
     }
 }
@@ -0,0 +1,155 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.core5.http.impl.io;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+import org.apache.hc.core5.http.io.BufferAllocator;
+import org.apache.hc.core5.util.Args;
+
+/**
+ * {@link BufferAllocator} that keeps released byte arrays for re-use
+ * by subsequently created connections. A bounded number of arrays is retained
+ * for each distinct array length; arrays released above that limit are left to
+ * the garbage collector.
+ *
+ * @since 5.3
+ */
+@Contract(threading = ThreadingBehavior.SAFE)
+public final class PooledBufferAllocator implements BufferAllocator {
+
+    public static final int DEFAULT_MAX_POOLED = 256;
+
+    private final int maxPooled;
+    private final ConcurrentMap<Integer, Pool> pools;
+    private final AtomicLong allocatedCount;
+    private final AtomicLong reusedCount;
+
+    /**
+     * @param maxPooled maximum number of arrays retained per array length.
+     */
+    public PooledBufferAllocator(final int maxPooled) {
+        this.maxPooled = Args.positive(maxPooled, "Max pooled buffers");
+        this.pools = new ConcurrentHashMap<>();
+        this.allocatedCount = new AtomicLong();
+        this.reusedCount = new AtomicLong();
+    }
+
+    public PooledBufferAllocator() {
+        this(DEFAULT_MAX_POOLED);
+    }
+
+    @Override
+    public byte[] allocate(final int capacity) {
+        Args.positive(capacity, "Buffer capacity");
+        final Pool pool = this.pools.computeIfAbsent(capacity, k -> new Pool());
+        final byte[] buffer = pool.poll();
+        if (buffer != null) {
+            this.reusedCount.incrementAndGet();
+            return buffer;
+        }
+        this.allocatedCount.incrementAndGet();
+        return new byte[capacity];
+    }
+
+    @Override
+    public void release(final byte[] buffer) {
+        if (buffer == null) {
+            return;
+        }
+        // Only retain arrays of the lengths handed out by this allocator
+        final Pool pool = this.pools.get(buffer.length);
+        if (pool != null) {
+            pool.offer(buffer, this.maxPooled);
+        }
+    }
+
+    /**
+     * Returns the number of arrays currently retained for re-use.
+     */
+    public int getPooledCount() {
+        int count = 0;
+        for (final Pool pool : this.pools.values()) {
+            count += pool.size.get();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the total number of arrays allocated by this allocator.
+     */
+    public long getAllocatedCount() {
+        return this.allocatedCount.get();
+    }
+
+    /**
+     * Returns the total number of allocation requests served with a retained array.
+     */
+    public long getReusedCount() {
+        return this.reusedCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "[maxPooled=" + this.maxPooled +
+                ", pooled=" + getPooledCount() +
+                ", allocated=" + getAllocatedCount() +
+                ", reused=" + getReusedCount() +
+                "]";
+    }
+
+    private static final class Pool {
+
+        private final Queue<byte[]> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        byte[] poll() {
+            final byte[] buffer = this.queue.poll();
+            if (buffer != null) {
+                this.size.decrementAndGet();
+            }
+            return buffer;
+        }
+
+        void offer(final byte[] buffer, final int max) {
+            if (this.size.incrementAndGet() <= max) {
+                this.queue.add(buffer);
+            } else {
+                this.size.decrementAndGet();
+            }
+        }
+
+    }
+
+}
@@ -37,6 +37,7 @@
 import org.apache.hc.core5.http.Chars;
 import org.apache.hc.core5.http.MessageConstraintException;
 import org.apache.hc.core5.http.impl.BasicHttpTransportMetrics;
+import org.apache.hc.core5.http.io.BufferAllocator;
 import org.apache.hc.core5.http.io.HttpTransportMetrics;
 import org.apache.hc.core5.http.io.SessionInputBuffer;
 import org.apache.hc.core5.util.Args;
@@ -56,13 +57,17 @@
  */
 public class SessionInputBufferImpl implements SessionInputBuffer {
 
+    private static final byte[] EMPTY = new byte[0];
+
     private final BasicHttpTransportMetrics metrics;
-    private final byte[] buffer;
-    private final ByteArrayBuffer lineBuffer;
+    private final BufferAllocator allocator;
+    private final int bufferSize;
     private final int minChunkLimit;
     private final int maxLineLen;
     private final CharsetDecoder decoder;
 
+    private byte[] buffer;
+    private ByteArrayBuffer lineBuffer;
     private int bufferPos;
     private int bufferLen;
     private CharBuffer cbuf;
@@ -80,25 +85,54 @@ public class SessionInputBufferImpl implements SessionInputBuffer {
      * @param maxLineLen maximum line length.
      * @param charDecoder charDecoder to be used for decoding HTTP protocol elements.
      *   If {@code null} simple type cast will be used for byte to char conversion.
+     * @param allocator allocator of the session buffer. If {@code null} the buffer will be
+     *   allocated on the heap and left to the garbage collector.
+     *
+     * @since 5.3
      */
     public SessionInputBufferImpl(
             final BasicHttpTransportMetrics metrics,
             final int bufferSize,
             final int minChunkLimit,
             final int maxLineLen,
-            final CharsetDecoder charDecoder) {
+            final CharsetDecoder charDecoder,
+            final BufferAllocator allocator) {
         Args.notNull(metrics, "HTTP transport metrics");
         Args.positive(bufferSize, "Buffer size");
         this.metrics = metrics;
-        this.buffer = new byte[bufferSize];
+        this.allocator = allocator;
+        this.buffer = allocator != null ? allocator.allocate(bufferSize) : new byte[bufferSize];
         this.bufferPos = 0;
         this.bufferLen = 0;
         this.minChunkLimit = minChunkLimit >= 0 ? minChunkLimit : 512;
         this.maxLineLen = Math.max(maxLineLen, 0);
-        this.lineBuffer = new ByteArrayBuffer(bufferSize);
+        this.bufferSize = bufferSize;
         this.decoder = charDecoder;
     }
 
+    /**
+     * Creates new instance of SessionInputBufferImpl.
+     *
+     * @param metrics HTTP transport metrics.
+     * @param bufferSize buffer size. Must be a positive number.
+     * @param minChunkLimit size limit below which data chunks should be buffered in memory
+     *   in order to minimize native method invocations on the underlying network socket.
+     *   The optimal value of this parameter can be platform specific and defines a trade-off
+     *   between performance of memory copy operations and that of native method invocation.
+     *   If negative default chunk limited will be used.
+     * @param maxLineLen maximum line length.
+     * @param charDecoder charDecoder to be used for decoding HTTP protocol elements.
+     *   If {@code null} simple type cast will be used for byte to char conversion.
+     */
+    public SessionInputBufferImpl(
+            final BasicHttpTransportMetrics metrics,
+            final int bufferSize,
+            final int minChunkLimit,
+            final int maxLineLen,
+            final CharsetDecoder charDecoder) {
+        this(metrics, bufferSize, minChunkLimit, maxLineLen, charDecoder, null);
+    }
+
     public SessionInputBufferImpl(
             final BasicHttpTransportMetrics metrics,
             final int bufferSize) {
@@ -117,6 +151,21 @@ public SessionInputBufferImpl(final int bufferSize) {
         this(new BasicHttpTransportMetrics(), bufferSize, bufferSize, 0, null);
     }
 
+    /**
+     * Returns the session buffer to its allocator. Should the buffer be used
+     * again, it gets a new session buffer that is not taken from the allocator.
+     */
+    void release() {
+        final byte[] released = this.buffer;
+        this.buffer = EMPTY;
+        this.bufferPos = 0;
+        this.bufferLen = 0;
+        this.lineBuffer = null;
+        if (this.allocator != null && released != EMPTY) {
+            this.allocator.release(released);
+        }
+    }
+
     @Override
     public int capacity() {
         return this.buffer.length;
@@ -143,6 +192,10 @@ public int fillBuffer(final InputStream inputStream) throws IOException {
             this.bufferPos = 0;
             this.bufferLen = len;
         }
+        if (this.buffer == EMPTY) {
+            // The session buffer has been released
+            this.buffer = new byte[this.bufferSize];
+        }
         final int readLen;
         final int off = this.bufferLen;
         final int len = this.buffer.length - off;
@@ -152,6 +205,7 @@ public int fillBuffer(final InputStream inputStream) throws IOException {
         }
         this.bufferLen = off + readLen;
         this.metrics.incrementBytesTransferred(readLen);
+        this.metrics.incrementTransferCount();
         return readLen;
     }
 
@@ -195,6 +249,7 @@ public int read(final byte[] b, final int off, final int len, final InputStream
             final int read = inputStream.read(b, off, len);
             if (read > 0) {
                 this.metrics.incrementBytesTransferred(read);
+                this.metrics.incrementTransferCount();
             }
             return read;
         }
@@ -253,7 +308,7 @@ public int readLine(final CharArrayBuffer charBuffer, final InputStream inputStr
             }
 
             if (this.maxLineLen > 0) {
-                final int currentLen = this.lineBuffer.length()
+                final int currentLen = lineBufferLength()
                         + (pos >= 0 ? pos : this.bufferLen) - this.bufferPos;
                 if (currentLen >= this.maxLineLen) {
                     throw new MessageConstraintException("Maximum line length limit exceeded");
@@ -262,19 +317,19 @@ public int readLine(final CharArrayBuffer charBuffer, final InputStream inputStr
 
             if (pos != -1) {
                 // end of line found.
-                if (this.lineBuffer.isEmpty()) {
+                if (lineBufferLength() == 0) {
                     // the entire line is preset in the read buffer
                     return lineFromReadBuffer(charBuffer, pos);
                 }
                 retry = false;
                 final int len = pos + 1 - this.bufferPos;
-                this.lineBuffer.append(this.buffer, this.bufferPos, len);
+                ensureLineBuffer().append(this.buffer, this.bufferPos, len);
                 this.bufferPos = pos + 1;
             } else {
                 // end of line not found
                 if (hasBufferedData()) {
                     final int len = this.bufferLen - this.bufferPos;
-                    this.lineBuffer.append(this.buffer, this.bufferPos, len);
+                    ensureLineBuffer().append(this.buffer, this.bufferPos, len);
                     this.bufferPos = this.bufferLen;
                 }
                 readLen = fillBuffer(inputStream);
@@ -283,13 +338,25 @@ public int readLine(final CharArrayBuffer charBuffer, final InputStream inputStr
                 }
             }
         }
-        if (readLen == -1 && this.lineBuffer.isEmpty()) {
+        if (readLen == -1 && lineBufferLength() == 0) {
             // indicate the end of stream
             return -1;
         }
         return lineFromLineBuffer(charBuffer);
     }
 
+    private int lineBufferLength() {
+        return this.lineBuffer != null ? this.lineBuffer.length() : 0;
+    }
+
+    private ByteArrayBuffer ensureLineBuffer() {
+        // Only needed for lines spanning multiple reads
+        if (this.lineBuffer == null) {
+            this.lineBuffer = new ByteArrayBuffer(this.bufferSize);
+        }
+        return this.lineBuffer;
+    }
+
     /**
      * Reads a complete line of characters up to a line delimiter from this
      * session buffer. The line delimiter itself is discarded. If no char is
@@ -36,6 +36,7 @@
 
 import org.apache.hc.core5.http.Chars;
 import org.apache.hc.core5.http.impl.BasicHttpTransportMetrics;
+import org.apache.hc.core5.http.io.BufferAllocator;
 import org.apache.hc.core5.http.io.HttpTransportMetrics;
 import org.apache.hc.core5.http.io.SessionOutputBuffer;
 import org.apache.hc.core5.util.Args;
@@ -57,37 +58,82 @@ public class SessionOutputBufferImpl implements SessionOutputBuffer {
     private static final byte[] CRLF = new byte[] {Chars.CR, Chars.LF};
 
     private final BasicHttpTransportMetrics metrics;
-    private final ByteArrayBuffer buffer;
+    private final BufferAllocator allocator;
+    private final int bufferSize;
+    private final int maxBufferSize;
     private final int fragmentSizeHint;
     private final CharsetEncoder encoder;
 
+    private ByteArrayBuffer buffer;
     private ByteBuffer bbuf;
+    private long messageBytes;
+    private int averageMessageSize;
 
     /**
      * Creates new instance of SessionOutputBufferImpl.
+     * <p>
+     * If {@code maxBufferSize} is greater than {@code bufferSize} the session buffer
+     * becomes adaptive. Data written since the last flush get coalesced into a single
+     * write to the underlying stream as long as they fit into {@code maxBufferSize},
+     * so that a message head and a small message body go out in one write. The buffer
+     * capacity is adjusted upon each flush based on a running average of the amount
+     * of data flushed and never falls below {@code bufferSize}. Adjusted capacities are
+     * rounded up to a power of two multiple of {@code bufferSize}, so that the allocator
+     * is only ever asked for a small number of distinct buffer lengths.
+     * </p>
      *
      * @param metrics HTTP transport metrics.
      * @param bufferSize buffer size. Must be a positive number.
+     * @param maxBufferSize maximum size the buffer may grow to. Values less than
+     *   {@code bufferSize} disable adaptive buffering.
      * @param fragmentSizeHint fragment size hint defining a minimal size of a fragment
      *   that should be written out directly to the socket bypassing the session buffer.
      *   Value {@code 0} disables fragment buffering.
      * @param charEncoder charEncoder to be used for encoding HTTP protocol elements.
      *   If {@code null} simple type cast will be used for char to byte conversion.
+     * @param allocator allocator of the session buffer. If {@code null} the buffer will be
+     *   allocated on the heap and left to the garbage collector.
+     *
+     * @since 5.3
      */
     public SessionOutputBufferImpl(
             final BasicHttpTransportMetrics metrics,
             final int bufferSize,
+            final int maxBufferSize,
             final int fragmentSizeHint,
-            final CharsetEncoder charEncoder) {
+            final CharsetEncoder charEncoder,
+            final BufferAllocator allocator) {
         super();
         Args.positive(bufferSize, "Buffer size");
         Args.notNull(metrics, "HTTP transport metrics");
         this.metrics = metrics;
-        this.buffer = new ByteArrayBuffer(bufferSize);
+        this.allocator = allocator;
+        this.bufferSize = bufferSize;
+        this.maxBufferSize = Math.max(maxBufferSize, bufferSize);
+        this.buffer = allocate(bufferSize);
         this.fragmentSizeHint = fragmentSizeHint >= 0 ? fragmentSizeHint : bufferSize;
         this.encoder = charEncoder;
     }
 
+    /**
+     * Creates new instance of SessionOutputBufferImpl.
+     *
+     * @param metrics HTTP transport metrics.
+     * @param bufferSize buffer size. Must be a positive number.
+     * @param fragmentSizeHint fragment size hint defining a minimal size of a fragment
+     *   that should be written out directly to the socket bypassing the session buffer.
+     *   Value {@code 0} disables fragment buffering.
+     * @param charEncoder charEncoder to be used for encoding HTTP protocol elements.
+     *   If {@code null} simple type cast will be used for char to byte conversion.
+     */
+    public SessionOutputBufferImpl(
+            final BasicHttpTransportMetrics metrics,
+            final int bufferSize,
+            final int fragmentSizeHint,
+            final CharsetEncoder charEncoder) {
+        this(metrics, bufferSize, bufferSize, fragmentSizeHint, charEncoder, null);
+    }
+
     public SessionOutputBufferImpl(final int bufferSize) {
         this(new BasicHttpTransportMetrics(), bufferSize, bufferSize, null);
     }
@@ -96,6 +142,87 @@ public SessionOutputBufferImpl(final int bufferSize, final CharsetEncoder encode
         this(new BasicHttpTransportMetrics(), bufferSize, bufferSize, encoder);
     }
 
+    /**
+     * Returns the session buffer to its allocator discarding any buffered data.
+     * The session buffer must not be used afterwards.
+     */
+    void release() {
+        final byte[] released = this.buffer.array();
+        this.buffer = new ByteArrayBuffer(0);
+        if (this.allocator != null) {
+            this.allocator.release(released);
+        }
+    }
+
+    private ByteArrayBuffer allocate(final int capacity) {
+        return this.allocator != null ? new ByteArrayBuffer(this.allocator.allocate(capacity)) : new ByteArrayBuffer(capacity);
+    }
+
+    /**
+     * Rounds the given capacity up to the nearest power of two multiple of
+     * the initial buffer size, not exceeding the maximum buffer size.
+     */
+    private int sizeClass(final int capacity) {
+        int size = this.bufferSize;
+        while (size < capacity) {
+            if (size > this.maxBufferSize >> 1) {
+                return this.maxBufferSize;
+            }
+            size <<= 1;
+        }
+        return Math.min(size, this.maxBufferSize);
+    }
+
+    private void reallocate(final int capacity) {
+        final ByteArrayBuffer newBuffer = allocate(capacity);
+        newBuffer.append(this.buffer.array(), 0, this.buffer.length());
+        final byte[] released = this.buffer.array();
+        this.buffer = newBuffer;
+        if (this.allocator != null) {
+            this.allocator.release(released);
+        }
+    }
+
+    /**
+     * Grows the session buffer so that {@code len} more bytes can be appended
+     * to the data already buffered, provided that the total does not exceed
+     * the maximum buffer size.
+     *
+     * @return {@code true} if the buffered data and the next {@code len} bytes
+     *   can be written out with a single write.
+     */
+    private boolean coalesce(final int len) {
+        final int required = this.buffer.length() + len;
+        if (this.buffer.isEmpty() || required > this.maxBufferSize) {
+            return false;
+        }
+        if (required > this.buffer.capacity()) {
+            reallocate(sizeClass(required));
+        }
+        return true;
+    }
+
+    /**
+     * Adjusts buffer capacity to the running average of data flushed per message
+     * (usually one message head and body), keeping it within the bounds of
+     * the initial and the maximum buffer size.
+     */
+    private void adapt() {
+        if (this.maxBufferSize == this.bufferSize || this.messageBytes == 0) {
+            return;
+        }
+        final int observed = (int) Math.min(this.messageBytes, this.maxBufferSize);
+        this.messageBytes = 0;
+        this.averageMessageSize = this.averageMessageSize > 0
+                ? this.averageMessageSize - (this.averageMessageSize >> 2) + (observed >> 2)
+                : observed;
+        final int target = sizeClass(this.averageMessageSize + (this.averageMessageSize >> 2));
+        final int capacity = this.buffer.capacity();
+        if (capacity < target || capacity > target << 1) {
+            reallocate(target);
+        }
+    }
+
     @Override
     public int capacity() {
         return this.buffer.capacity();
@@ -117,6 +244,8 @@ private void flushBuffer(final OutputStream outputStream) throws IOException {
             outputStream.write(this.buffer.array(), 0, len);
             this.buffer.clear();
             this.metrics.incrementBytesTransferred(len);
+            this.metrics.incrementTransferCount();
+            this.messageBytes += len;
         }
     }
 
@@ -125,6 +254,7 @@ public void flush(final OutputStream outputStream) throws IOException {
         Args.notNull(outputStream, "Output stream");
         flushBuffer(outputStream);
         outputStream.flush();
+        adapt();
     }
 
     @Override
@@ -137,15 +267,22 @@ public void write(final byte[] b, final int off, final int len, final OutputStre
         // if the byte array is larger then MIN_CHUNK_LIMIT
         // write it directly to the output stream
         if (len > this.fragmentSizeHint || len > this.buffer.capacity()) {
+            if (coalesce(len)) {
+                // write out together with the buffered data
+                this.buffer.append(b, off, len);
+                return;
+            }
             // flush the buffer
             flushBuffer(outputStream);
             // write directly to the out stream
             outputStream.write(b, off, len);
             this.metrics.incrementBytesTransferred(len);
+            this.metrics.incrementTransferCount();
+            this.messageBytes += len;
         } else {
             // Do not let the buffer grow unnecessarily
             final int freecapacity = this.buffer.capacity() - this.buffer.length();
-            if (len > freecapacity) {
+            if (len > freecapacity && !coalesce(len)) {
                 // flush the buffer
                 flushBuffer(outputStream);
             }
@@ -173,6 +310,9 @@ public void write(final int b, final OutputStream outputStream) throws IOExcepti
         } else {
             flushBuffer(outputStream);
             outputStream.write(b);
+            this.metrics.incrementBytesTransferred(1);
+            this.metrics.incrementTransferCount();
+            this.messageBytes++;
         }
     }
 
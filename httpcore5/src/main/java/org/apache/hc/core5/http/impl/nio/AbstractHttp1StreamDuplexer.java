@@ -341,7 +341,7 @@ public final void onInput(final ByteBuffer src) throws HttpException, IOExceptio
                     break;
                 }
             }
-        } while (inbuf.hasData());
+        } while (inbuf.hasData() && connState.compareTo(ConnectionState.SHUTDOWN) < 0);
 
         if (endOfStream && !inbuf.hasData()) {
             if (outputIdle() && inputIdle()) {
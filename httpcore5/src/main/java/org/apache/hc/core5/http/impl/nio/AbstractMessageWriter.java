@@ -28,6 +28,7 @@
 package org.apache.hc.core5.http.impl.nio;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Iterator;
 
 import org.apache.hc.core5.http.FormattedHeader;
@@ -36,6 +37,7 @@
 import org.apache.hc.core5.http.HttpMessage;
 import org.apache.hc.core5.http.message.BasicLineFormatter;
 import org.apache.hc.core5.http.message.LineFormatter;
+import org.apache.hc.core5.http.message.PreEncodedHeader;
 import org.apache.hc.core5.http.nio.SessionOutputBuffer;
 import org.apache.hc.core5.http.nio.NHttpMessageWriter;
 import org.apache.hc.core5.util.Args;
@@ -81,16 +83,38 @@ public void reset() {
      */
     protected abstract void writeHeadLine(T message, CharArrayBuffer buffer) throws IOException;
 
+    /**
+     * Returns the first line of {@link HttpMessage} including the line delimiter
+     * in its encoded form or {@code null} if the line needs to be formatted with
+     * {@link #writeHeadLine(HttpMessage, CharArrayBuffer)}.
+     *
+     * @param message HTTP message.
+     * @return the encoded head line or {@code null}.
+     *
+     * @since 5.3
+     */
+    protected ByteBuffer getEncodedHeadLine(final T message) {
+        return null;
+    }
+
     @Override
     public void write(final T message, final SessionOutputBuffer sessionBuffer) throws IOException, HttpException {
         Args.notNull(message, "HTTP message");
         Args.notNull(sessionBuffer, "Session output buffer");
 
-        writeHeadLine(message, this.lineBuf);
-        sessionBuffer.writeLine(this.lineBuf);
+        final ByteBuffer encodedHeadLine = getEncodedHeadLine(message);
+        if (encodedHeadLine != null) {
+            sessionBuffer.write(encodedHeadLine);
+        } else {
+            writeHeadLine(message, this.lineBuf);
+            sessionBuffer.writeLine(this.lineBuf);
+        }
         for (final Iterator<Header> it = message.headerIterator(); it.hasNext(); ) {
             final Header header = it.next();
-            if (header instanceof FormattedHeader) {
+            final ByteBuffer encoded = header instanceof PreEncodedHeader ? ((PreEncodedHeader) header).getEncoded() : null;
+            if (encoded != null) {
+                sessionBuffer.write(encoded);
+            } else if (header instanceof FormattedHeader) {
                 final CharArrayBuffer buffer = ((FormattedHeader) header).getBuffer();
                 sessionBuffer.writeLine(buffer);
             } else {
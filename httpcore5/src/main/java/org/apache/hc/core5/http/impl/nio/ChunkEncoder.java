@@ -29,9 +29,11 @@
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.util.List;
 
+import org.apache.hc.core5.http.Chars;
 import org.apache.hc.core5.http.FormattedHeader;
 import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.impl.BasicHttpTransportMetrics;
@@ -42,6 +44,12 @@
 /**
  * Implements chunked transfer coding. The content is sent in small chunks.
  * Entities transferred using this decoder can be of unlimited length.
+ * <p>
+ * If the underlying channel is a {@link GatheringByteChannel} and the session
+ * buffer is empty, chunks no smaller than the chunk size hint are written
+ * to the channel directly as chunk header, content and trailing CRLF
+ * without copying the content into the session buffer.
+ * </p>
  *
  * @since 4.0
  */
@@ -49,6 +57,8 @@ public class ChunkEncoder extends AbstractContentEncoder {
 
     private final int chunkSizeHint;
     private final CharArrayBuffer lineBuffer;
+    private final ByteBuffer chunkHead;
+    private final ByteBuffer chunkTail;
 
     /**
      * @param channel underlying channel.
@@ -65,6 +75,8 @@ public ChunkEncoder(
         super(channel, buffer, metrics);
         this.chunkSizeHint = Math.max(chunkSizeHint, 0);
         this.lineBuffer = new CharArrayBuffer(16);
+        this.chunkHead = ByteBuffer.allocate(10);
+        this.chunkTail = ByteBuffer.allocate(2);
     }
 
     public ChunkEncoder(
@@ -83,6 +95,18 @@ public int write(final ByteBuffer src) throws IOException {
 
         int total = 0;
         while (src.hasRemaining()) {
+            if (this.channel instanceof GatheringByteChannel && !this.buffer.hasData()) {
+                // bypass the session buffer and emit the chunk directly
+                final int chunk = Math.min(src.remaining(), this.buffer.capacity() - 12);
+                if (chunk > 0 && chunk >= this.chunkSizeHint) {
+                    writeChunkDirect(src, chunk);
+                    total += chunk;
+                    if (this.buffer.hasData()) {
+                        break;
+                    }
+                    continue;
+                }
+            }
             int chunk = src.remaining();
             int avail;
             avail = this.buffer.capacity();
@@ -123,6 +147,41 @@ public int write(final ByteBuffer src) throws IOException {
         return total;
     }
 
+    private void writeChunkDirect(final ByteBuffer src, final int chunk) throws IOException {
+        this.chunkHead.clear();
+        final String hex = Integer.toHexString(chunk);
+        for (int i = 0; i < hex.length(); i++) {
+            this.chunkHead.put((byte) hex.charAt(i));
+        }
+        this.chunkHead.put((byte) Chars.CR).put((byte) Chars.LF);
+        this.chunkHead.flip();
+        this.chunkTail.clear();
+        this.chunkTail.put((byte) Chars.CR).put((byte) Chars.LF);
+        this.chunkTail.flip();
+
+        final int oldLimit = src.limit();
+        src.limit(src.position() + chunk);
+        try {
+            final long bytesWritten = ((GatheringByteChannel) this.channel).write(
+                    new ByteBuffer[] {this.chunkHead, src, this.chunkTail});
+            if (bytesWritten > 0) {
+                this.metrics.incrementBytesTransferred(bytesWritten);
+            }
+            // retain whatever the channel could not accept
+            if (this.chunkHead.hasRemaining()) {
+                this.buffer.write(this.chunkHead);
+            }
+            if (src.hasRemaining()) {
+                this.buffer.write(src);
+            }
+            if (this.chunkTail.hasRemaining()) {
+                this.buffer.write(this.chunkTail);
+            }
+        } finally {
+            src.limit(oldLimit);
+        }
+    }
+
     @Override
     public void complete(final List<? extends Header> trailers) throws IOException {
         assertNotCompleted();
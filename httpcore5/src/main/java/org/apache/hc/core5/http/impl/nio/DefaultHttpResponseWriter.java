@@ -28,10 +28,14 @@
 package org.apache.hc.core5.http.impl.nio;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 import org.apache.hc.core5.http.HttpResponse;
 import org.apache.hc.core5.http.HttpVersion;
 import org.apache.hc.core5.http.ProtocolVersion;
+import org.apache.hc.core5.http.impl.EnglishReasonPhraseCatalog;
+import org.apache.hc.core5.http.message.BasicLineFormatter;
 import org.apache.hc.core5.http.message.LineFormatter;
 import org.apache.hc.core5.http.message.StatusLine;
 import org.apache.hc.core5.util.CharArrayBuffer;
@@ -43,6 +47,27 @@
  */
 public class DefaultHttpResponseWriter<T extends HttpResponse> extends AbstractMessageWriter<T> {
 
+    private static final int MIN_STATUS = 100;
+    private static final int MAX_STATUS = 599;
+
+    // Pre-encoded HTTP/1.1 status lines for status codes with a standard reason phrase
+    // both with the reason phrase and without it (as sent when the phrase is not set)
+    private static final String[] REASONS = new String[MAX_STATUS - MIN_STATUS + 1];
+    private static final byte[][] STATUS_LINES = new byte[MAX_STATUS - MIN_STATUS + 1][];
+    private static final byte[][] BARE_STATUS_LINES = new byte[MAX_STATUS - MIN_STATUS + 1][];
+
+    static {
+        for (int code = MIN_STATUS; code <= MAX_STATUS; code++) {
+            final String reason = EnglishReasonPhraseCatalog.INSTANCE.getReason(code, null);
+            if (reason != null) {
+                final String bare = HttpVersion.HTTP_1_1 + " " + code + " ";
+                REASONS[code - MIN_STATUS] = reason;
+                STATUS_LINES[code - MIN_STATUS] = (bare + reason + "\r\n").getBytes(StandardCharsets.US_ASCII);
+                BARE_STATUS_LINES[code - MIN_STATUS] = (bare + "\r\n").getBytes(StandardCharsets.US_ASCII);
+            }
+        }
+    }
+
     /**
      * Creates an instance of DefaultHttpResponseWriter.
      *
@@ -72,4 +97,37 @@ protected void writeHeadLine(final T message, final CharArrayBuffer lineBuf) thr
                 message.getReasonPhrase()));
     }
 
+    /**
+     * Returns a pre-encoded status line for HTTP/1.1 responses with a standard
+     * status code and either no reason phrase or the standard one as long as
+     * the default line formatter is used.
+     *
+     * @since 5.3
+     */
+    @Override
+    protected ByteBuffer getEncodedHeadLine(final T message) {
+        if (getLineFormatter() != BasicLineFormatter.INSTANCE) {
+            return null;
+        }
+        final ProtocolVersion transportVersion = message.getVersion();
+        if (transportVersion != null && !HttpVersion.HTTP_1_1.equals(transportVersion)) {
+            return null;
+        }
+        final int code = message.getCode();
+        if (code < MIN_STATUS || code > MAX_STATUS) {
+            return null;
+        }
+        final int idx = code - MIN_STATUS;
+        final String reasonPhrase = message.getReasonPhrase();
+        final byte[] line;
+        if (reasonPhrase == null) {
+            line = BARE_STATUS_LINES[idx];
+        } else if (reasonPhrase.equals(REASONS[idx])) {
+            line = STATUS_LINES[idx];
+        } else {
+            line = null;
+        }
+        return line != null ? ByteBuffer.wrap(line).asReadOnlyBuffer() : null;
+    }
+
 }
@@ -129,7 +129,10 @@ public void submit(
                 if (streamListener != null) {
                     streamListener.onResponseHead(ServerHttp1StreamDuplexer.this, response);
                 }
-                commitMessageHead(response, endStream, flushMode);
+                // Defer flushing while there are more pipelined responses queued up
+                // behind this one
+                commitMessageHead(response, endStream,
+                        flushMode == FlushMode.IMMEDIATE && !pipeline.isEmpty() ? FlushMode.BUFFER : flushMode);
             }
 
             @Override
@@ -417,23 +420,34 @@ void produceOutput() throws HttpException, IOException {
 
     @Override
     void outputEnd() throws HttpException, IOException {
-        if (outgoing != null && outgoing.isResponseFinal()) {
-            if (streamListener != null) {
-                streamListener.onExchangeComplete(this, outgoing.keepAlive());
+        // Activate pipelined exchanges back to back for as long as their responses
+        // complete synchronously so that their messages get coalesced in the session
+        // output buffer and written out with a single write operation
+        for (;;) {
+            if (outgoing != null && outgoing.isResponseFinal()) {
+                final boolean keepAlive = outgoing.keepAlive();
+                if (streamListener != null) {
+                    streamListener.onExchangeComplete(this, keepAlive);
+                }
+                if (outgoing.isCompleted()) {
+                    outgoing.releaseResources();
+                }
+                outgoing = null;
+                if (!keepAlive) {
+                    break;
+                }
             }
-            if (outgoing.isCompleted()) {
-                outgoing.releaseResources();
+            if (outgoing != null || !isActive()) {
+                break;
             }
-            outgoing = null;
-        }
-        if (outgoing == null && isActive()) {
             final ServerHttp1StreamHandler handler = pipeline.poll();
-            if (handler != null) {
-                outgoing = handler;
-                handler.activateChannel();
-                if (handler.isOutputReady()) {
-                    handler.produceOutput();
-                }
+            if (handler == null) {
+                break;
+            }
+            outgoing = handler;
+            handler.activateChannel();
+            if (handler.isOutputReady()) {
+                handler.produceOutput();
             }
         }
         if (isShuttingDown() && outputIdle() && inputIdle()) {
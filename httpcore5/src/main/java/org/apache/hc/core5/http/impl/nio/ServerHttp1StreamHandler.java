@@ -101,6 +101,7 @@ public void endStream(final List<? extends Header> trailers) throws IOException
                     outputChannel.close();
                 }
                 responseState = MessageState.COMPLETE;
+                outputChannel.requestOutput();
             }
 
             @Override
@@ -185,6 +186,10 @@ private void commitResponse(
                     outputChannel.close();
                 }
                 responseState = MessageState.COMPLETE;
+                // Re-trigger output in case the response has been submitted by a thread other
+                // than the I/O dispatch thread, which may have already found the exchange
+                // incomplete, so that pipelined exchanges get activated
+                outputChannel.requestOutput();
             } else {
                 responseState = MessageState.BODY;
                 exchangeHandler.produce(internalDataChannel);
@@ -0,0 +1,62 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.core5.http.io;
+
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+
+/**
+ * Allocator of byte arrays used as session buffers by blocking HTTP connections.
+ * <p>
+ * Connections return their buffers to the allocator once closed. A connection
+ * can be closed by any thread, for instance in order to abort a blocked operation,
+ * but its buffers are released only by the thread performing I/O on the connection,
+ * either when it closes the connection or upon its next attempt to use it. Buffers
+ * of a connection closed by another thread and never used again are left to
+ * the garbage collector.
+ *
+ * @since 5.3
+ */
+@Contract(threading = ThreadingBehavior.SAFE)
+public interface BufferAllocator {
+
+    /**
+     * Returns a byte array of the given length.
+     *
+     * @param capacity the array length.
+     */
+    byte[] allocate(int capacity);
+
+    /**
+     * Releases a byte array previously obtained from {@link #allocate(int)}.
+     * The caller must no longer use the array.
+     *
+     * @param buffer the byte array.
+     */
+    void release(byte[] buffer);
+
+}
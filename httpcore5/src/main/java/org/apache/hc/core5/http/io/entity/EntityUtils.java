@@ -45,6 +45,7 @@
 import org.apache.hc.core5.http.NameValuePair;
 import org.apache.hc.core5.http.ParseException;
 import org.apache.hc.core5.io.Closer;
+import org.apache.hc.core5.net.NameValueHandler;
 import org.apache.hc.core5.net.WWWFormCodec;
 import org.apache.hc.core5.util.Args;
 import org.apache.hc.core5.util.ByteArrayBuffer;
@@ -121,20 +122,7 @@ private static int toContentLength(final int contentLength) {
      * @throws IllegalArgumentException if entity is null or if content length &gt; Integer.MAX_VALUE
      */
     public static byte[] toByteArray(final HttpEntity entity) throws IOException {
-        Args.notNull(entity, "HttpEntity");
-        final int contentLength = toContentLength((int) Args.checkContentLength(entity));
-        try (final InputStream inStream = entity.getContent()) {
-            if (inStream == null) {
-                return null;
-            }
-            final ByteArrayBuffer buffer = new ByteArrayBuffer(contentLength);
-            final byte[] tmp = new byte[DEFAULT_BYTE_BUFFER_SIZE];
-            int l;
-            while ((l = inStream.read(tmp)) != -1) {
-                buffer.append(tmp, 0, l);
-            }
-            return buffer.toByteArray();
-        }
+        return toByteArray(entity, DEFAULT_ENTITY_RETURN_MAX_LENGTH);
     }
 
     /**
@@ -150,20 +138,132 @@ public static byte[] toByteArray(final HttpEntity entity) throws IOException {
      */
     public static byte[] toByteArray(final HttpEntity entity, final int maxResultLength) throws IOException {
         Args.notNull(entity, "HttpEntity");
-        final int contentLength = toContentLength((int) Args.checkContentLength(entity));
+        final int contentLength = (int) Args.checkContentLength(entity);
         try (final InputStream inStream = entity.getContent()) {
             if (inStream == null) {
                 return null;
             }
-            final ByteArrayBuffer buffer = new ByteArrayBuffer(Math.min(maxResultLength, contentLength));
-            final byte[] tmp = new byte[DEFAULT_BYTE_BUFFER_SIZE];
-            int l;
-            while ((l = inStream.read(tmp)) != -1 && buffer.length() < maxResultLength) {
-                buffer.append(tmp, 0, l);
+            final ByteArrayBuffer buffer = new ByteArrayBuffer(initialCapacity(contentLength, maxResultLength));
+            readContent(inStream, buffer, maxResultLength);
+            // The buffer is sized exactly when the content length is known in advance
+            return buffer.isFull() ? buffer.array() : buffer.toByteArray();
+        }
+    }
+
+    /**
+     * Reads the contents of an entity appending them to the given buffer. The buffer
+     * can be cleared and re-used by the caller to read multiple entities without
+     * allocating intermediate buffers for each of them.
+     *
+     * @param entity the entity to read from.
+     * @param buffer the buffer to append the content to.
+     * @param maxResultLength the maximum number of bytes to read; use it to guard against
+     *            unreasonable or malicious processing.
+     * @return the number of bytes read or {@code -1} if {@link HttpEntity#getContent()} is null.
+     * @throws IOException if an error occurs reading the input stream
+     * @throws IllegalArgumentException if entity is null or if content length &gt; Integer.MAX_VALUE
+     *
+     * @since 5.3
+     */
+    public static int read(final HttpEntity entity, final ByteArrayBuffer buffer, final int maxResultLength) throws IOException {
+        Args.notNull(entity, "HttpEntity");
+        Args.notNull(buffer, "Buffer");
+        Args.notNegative(maxResultLength, "maxResultLength");
+        final int contentLength = (int) Args.checkContentLength(entity);
+        try (final InputStream inStream = entity.getContent()) {
+            if (inStream == null) {
+                return -1;
+            }
+            final int start = buffer.length();
+            buffer.ensureCapacity(initialCapacity(contentLength, maxResultLength));
+            readContent(inStream, buffer, maxResultLength);
+            return buffer.length() - start;
+        }
+    }
+
+    /**
+     * Reads the contents of an entity appending them to the given buffer.
+     *
+     * @param entity the entity to read from.
+     * @param buffer the buffer to append the content to.
+     * @return the number of bytes read or {@code -1} if {@link HttpEntity#getContent()} is null.
+     * @throws IOException if an error occurs reading the input stream
+     * @throws IllegalArgumentException if entity is null or if content length &gt; Integer.MAX_VALUE
+     *
+     * @since 5.3
+     */
+    public static int read(final HttpEntity entity, final ByteArrayBuffer buffer) throws IOException {
+        return read(entity, buffer, DEFAULT_ENTITY_RETURN_MAX_LENGTH);
+    }
+
+    private static int initialCapacity(final int contentLength, final int maxLength) {
+        return Math.min(maxLength, contentLength >= 0 ? contentLength : DEFAULT_BYTE_BUFFER_SIZE);
+    }
+
+    /**
+     * Reads up to {@code maxLength} bytes from the stream directly into the buffer
+     * without an intermediate transfer buffer.
+     */
+    private static void readContent(
+            final InputStream inStream, final ByteArrayBuffer buffer, final int maxLength) throws IOException {
+        int remaining = maxLength;
+        while (remaining > 0) {
+            if (buffer.isFull()) {
+                // Probe for more content before expanding the buffer
+                final int b = inStream.read();
+                if (b == -1) {
+                    return;
+                }
+                buffer.append(b);
+                remaining--;
+                continue;
+            }
+            final int off = buffer.length();
+            final int l = inStream.read(buffer.array(), off, Math.min(remaining, buffer.capacity() - off));
+            if (l == -1) {
+                return;
             }
-            buffer.setLength(Math.min(buffer.length(), maxResultLength));
-            return buffer.toByteArray();
+            buffer.setLength(off + l);
+            remaining -= l;
+        }
+    }
+
+    /**
+     * Returns the maximum number of bytes needed to decode {@code maxResultLength} chars
+     * or {@code -1} if not known for the charset.
+     */
+    private static int maxByteCount(final Charset charset, final int maxResultLength) {
+        if (maxResultLength == Integer.MAX_VALUE) {
+            return Integer.MAX_VALUE;
+        }
+        if (StandardCharsets.ISO_8859_1.equals(charset) || StandardCharsets.US_ASCII.equals(charset)) {
+            return maxResultLength;
+        }
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            // Up to 3 bytes per char plus an incomplete trailing sequence
+            return (int) Math.min(Integer.MAX_VALUE, 3L * maxResultLength + 3);
         }
+        return -1;
+    }
+
+    private static String decodeContent(final InputStream inStream, final int contentLength,
+            final Charset charset, final int maxResultLength, final ByteArrayBuffer buffer) throws IOException {
+        Args.positive(maxResultLength, "maxResultLength");
+        final int maxByteCount = maxByteCount(charset, maxResultLength);
+        if (maxByteCount < 0) {
+            return toCharArrayBuffer(inStream, contentLength, charset, maxResultLength).toString();
+        }
+        final ByteArrayBuffer buf;
+        if (buffer != null) {
+            buffer.clear();
+            buffer.ensureCapacity(initialCapacity(contentLength, maxByteCount));
+            buf = buffer;
+        } else {
+            buf = new ByteArrayBuffer(initialCapacity(contentLength, maxByteCount));
+        }
+        readContent(inStream, buf, maxByteCount);
+        final String s = new String(buf.array(), 0, buf.length(), charset);
+        return s.length() > maxResultLength ? s.substring(0, maxResultLength) : s;
     }
 
     private static CharArrayBuffer toCharArrayBuffer(final InputStream inStream, final int contentLength,
@@ -203,10 +303,10 @@ private static CharArrayBuffer toCharArrayBuffer(final InputStream inStream, fin
         CONTENT_TYPE_MAP = Collections.unmodifiableMap(map);
     }
 
-    private static String toString(final HttpEntity entity, final ContentType contentType, final int maxResultLength)
-            throws IOException {
+    private static String toString(final HttpEntity entity, final ContentType contentType, final int maxResultLength,
+            final ByteArrayBuffer buffer) throws IOException {
         Args.notNull(entity, "HttpEntity");
-        final int contentLength = toContentLength((int) Args.checkContentLength(entity));
+        final int contentLength = (int) Args.checkContentLength(entity);
         try (final InputStream inStream = entity.getContent()) {
             if (inStream == null) {
                 return null;
@@ -219,7 +319,8 @@ private static String toString(final HttpEntity entity, final ContentType conten
                     charset = defaultContentType != null ? defaultContentType.getCharset() : null;
                 }
             }
-            return toCharArrayBuffer(inStream, contentLength, charset, maxResultLength).toString();
+            return decodeContent(inStream, contentLength, charset != null ? charset : DEFAULT_CHARSET,
+                    maxResultLength, buffer);
         }
     }
 
@@ -265,6 +366,38 @@ public static String toString(
     public static String toString(
             final HttpEntity entity, final Charset defaultCharset, final int maxResultLength) throws IOException, ParseException {
         Args.notNull(entity, "HttpEntity");
+        return toString(entity, toContentType(entity, defaultCharset), maxResultLength, null);
+    }
+
+    /**
+     * Gets the entity content as a String, using the provided default character set
+     * if none is found in the entity. The raw content is read into the given buffer,
+     * which can be re-used by the caller to convert multiple entities without
+     * allocating intermediate buffers for each of them.
+     * If defaultCharset is null, the default "ISO-8859-1" is used.
+     *
+     * @param entity must not be null
+     * @param defaultCharset character set to be applied if none found in the entity,
+     * or if the entity provided charset is invalid or not available.
+     * @param buffer the buffer to read the raw content into. Its existing content is discarded.
+     * @return the entity content as a String. May be null if
+     *   {@link HttpEntity#getContent()} is null.
+     * @throws ParseException if header elements cannot be parsed
+     * @throws IllegalArgumentException if entity is null or if content length &gt; Integer.MAX_VALUE
+     * @throws IOException if an error occurs reading the input stream
+     * @throws java.nio.charset.UnsupportedCharsetException Thrown when the named entity's charset is not available in
+     * this instance of the Java virtual machine and no defaultCharset is provided.
+     *
+     * @since 5.3
+     */
+    public static String toString(
+            final HttpEntity entity, final Charset defaultCharset, final ByteArrayBuffer buffer) throws IOException, ParseException {
+        Args.notNull(entity, "HttpEntity");
+        Args.notNull(buffer, "Buffer");
+        return toString(entity, toContentType(entity, defaultCharset), DEFAULT_ENTITY_RETURN_MAX_LENGTH, buffer);
+    }
+
+    private static ContentType toContentType(final HttpEntity entity, final Charset defaultCharset) throws IOException {
         ContentType contentType = null;
         try {
             contentType = ContentType.parse(entity.getContentType());
@@ -280,7 +413,7 @@ public static String toString(
         } else {
             contentType = ContentType.DEFAULT_TEXT.withCharset(defaultCharset);
         }
-        return toString(entity, contentType, maxResultLength);
+        return contentType;
     }
 
     /**
@@ -359,7 +492,7 @@ public static String toString(final HttpEntity entity) throws IOException, Parse
      */
     public static String toString(final HttpEntity entity, final int maxResultLength) throws IOException, ParseException {
         Args.notNull(entity, "HttpEntity");
-        return toString(entity, ContentType.parse(entity.getContentType()), maxResultLength);
+        return toString(entity, ContentType.parse(entity.getContentType()), maxResultLength, null);
     }
 
     /**
@@ -416,4 +549,33 @@ public static List<NameValuePair> parse(final HttpEntity entity, final int maxSt
         return WWWFormCodec.parse(buf, charset);
     }
 
+    /**
+     * Parses {@code application/x-www-form-urlencoded} content of the given {@link HttpEntity}
+     * incrementally as it is being read passing parameters to the given handler in the order
+     * of appearance. Unlike {@link #parse(HttpEntity)} this method does not buffer the entire
+     * content; only the parameter currently being parsed is held in memory. The encoding is
+     * taken from the entity's Content-Type header. The handler is not called if the entity
+     * content is of a different type.
+     *
+     * @param entity the entity to parse.
+     * @param handler the handler of parsed parameters.
+     * @throws IOException if there was an exception getting the entity's data.
+     *
+     * @since 5.3
+     */
+    public static void parse(final HttpEntity entity, final NameValueHandler handler) throws IOException {
+        Args.notNull(entity, "HttpEntity");
+        Args.notNull(handler, "Name / value handler");
+        final ContentType contentType = ContentType.parse(entity.getContentType());
+        if (!ContentType.APPLICATION_FORM_URLENCODED.isSameMimeType(contentType)) {
+            return;
+        }
+        final Charset charset = contentType.getCharset(DEFAULT_CHARSET);
+        try (final InputStream inStream = entity.getContent()) {
+            if (inStream != null) {
+                WWWFormCodec.parse(inStream, charset, handler);
+            }
+        }
+    }
+
 }
@@ -57,6 +57,15 @@ public FileEntity(final File file, final ContentType contentType) {
         this.file = Args.notNull(file, "File");
     }
 
+    /**
+     * Returns the file this entity obtains its content from.
+     *
+     * @since 5.3
+     */
+    public final File getFile() {
+        return this.file;
+    }
+
     @Override
     public final boolean isRepeatable() {
         return true;
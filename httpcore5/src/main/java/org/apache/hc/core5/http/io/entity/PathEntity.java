@@ -55,6 +55,15 @@ public PathEntity(final Path path, final ContentType contentType) {
         this.path = Args.notNull(path, "Path");
     }
 
+    /**
+     * Returns the path this entity obtains its content from.
+     *
+     * @since 5.3
+     */
+    public final Path getPath() {
+        return this.path;
+    }
+
     @Override
     public final boolean isRepeatable() {
         return true;
@@ -0,0 +1,157 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.core5.http.message;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+import org.apache.hc.core5.http.FormattedHeader;
+import org.apache.hc.core5.http.io.SessionOutputBuffer;
+import org.apache.hc.core5.util.Args;
+import org.apache.hc.core5.util.CharArrayBuffer;
+
+/**
+ * Immutable {@link FormattedHeader} that is formatted and encoded once
+ * at construction time. Instances of this class can be shared by many messages
+ * and written out by HTTP/1.1 message writers as a pre-encoded sequence of bytes
+ * without a formatting and charset encoding step for every message. This is
+ * primarily intended for headers with a static value such as {@code Server}
+ * or a fixed {@code Content-Type}.
+ * <p>
+ * Only headers consisting entirely of US-ASCII characters are pre-encoded.
+ * </p>
+ *
+ * @since 5.3
+ */
+@Contract(threading = ThreadingBehavior.IMMUTABLE)
+public final class PreEncodedHeader implements FormattedHeader, Serializable {
+
+    private static final long serialVersionUID = 2270391361318566541L;
+
+    private final String name;
+    private final String value;
+    private final CharArrayBuffer buffer;
+    private final int valuePos;
+    private final byte[] encoded;
+
+    /**
+     * @param name the header name
+     * @param value the header value, taken as the value's {@link #toString()}.
+     */
+    public PreEncodedHeader(final String name, final Object value) {
+        super();
+        this.name = Args.notNull(name, "Name");
+        this.value = Objects.toString(value, null);
+        this.buffer = new CharArrayBuffer(32);
+        BasicLineFormatter.INSTANCE.formatHeader(this.buffer, new BasicHeader(this.name, this.value));
+        this.valuePos = this.name.length() + 1;
+        this.encoded = encode(this.buffer);
+    }
+
+    private static byte[] encode(final CharArrayBuffer buffer) {
+        final int len = buffer.length();
+        final byte[] b = new byte[len + 2];
+        for (int i = 0; i < len; i++) {
+            final char ch = buffer.charAt(i);
+            if (ch > 0x7f) {
+                return null;
+            }
+            b[i] = (byte) ch;
+        }
+        b[len] = '\r';
+        b[len + 1] = '\n';
+        return b;
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    public String getValue() {
+        return this.value;
+    }
+
+    @Override
+    public boolean isSensitive() {
+        return false;
+    }
+
+    /**
+     * Returns a copy of the formatted header line. Instances of this class
+     * are shared, so the internal buffer is never exposed to the caller.
+     */
+    @Override
+    public CharArrayBuffer getBuffer() {
+        final CharArrayBuffer copy = new CharArrayBuffer(this.buffer.length());
+        copy.append(this.buffer);
+        return copy;
+    }
+
+    @Override
+    public int getValuePos() {
+        return this.valuePos;
+    }
+
+    /**
+     * Returns a read-only view of the complete header line including the line
+     * delimiter encoded as US-ASCII or {@code null} if the header contains
+     * non US-ASCII characters.
+     */
+    public ByteBuffer getEncoded() {
+        return this.encoded != null ? ByteBuffer.wrap(this.encoded).asReadOnlyBuffer() : null;
+    }
+
+    /**
+     * Writes the complete header line including the line delimiter encoded as US-ASCII
+     * to the given session output buffer.
+     *
+     * @param buffer the session output buffer.
+     * @param outputStream the output stream the session buffer gets flushed to.
+     * @return {@code true} if the header line has been written or {@code false} if the
+     *   header contains non US-ASCII characters and needs to be formatted by the caller.
+     */
+    public boolean writeTo(final SessionOutputBuffer buffer, final OutputStream outputStream) throws IOException {
+        if (this.encoded == null) {
+            return false;
+        }
+        buffer.write(this.encoded, 0, this.encoded.length, outputStream);
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return this.buffer.toString();
+    }
+
+}
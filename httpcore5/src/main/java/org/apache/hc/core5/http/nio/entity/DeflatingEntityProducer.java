@@ -0,0 +1,304 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.core5.http.nio.entity;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.apache.hc.core5.http.ContentCoding;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.DataStreamChannel;
+import org.apache.hc.core5.util.Args;
+
+/**
+ * {@link AsyncEntityProducer} decorator that compresses the data stream content
+ * of the wrapped producer incrementally using the {@code gzip} or {@code deflate}
+ * content coding.
+ * <p>
+ * Content is compressed through fixed size input and output windows as the wrapped
+ * producer writes it out. The wrapped producer is throttled whenever the underlying
+ * data channel is unable to accept compressed output, so the content is never
+ * buffered in memory in its entirety.
+ * </p>
+ *
+ * @since 5.3
+ */
+public class DeflatingEntityProducer implements AsyncEntityProducer {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+    private final AsyncEntityProducer wrapped;
+    private final ContentCoding coding;
+    private final int compressionLevel;
+    private final int bufferSize;
+
+    private Deflater deflater;
+    private CRC32 crc;
+    private byte[] inBuf;
+    private ByteBuffer outBuf;
+    private boolean finishing;
+    private boolean trailerWritten;
+    private boolean endOfStream;
+    private List<? extends Header> trailers;
+
+    /**
+     * @param wrapped the producer of the content to compress.
+     * @param coding the content coding.
+     * @param compressionLevel the compression level (0-9) or {@link Deflater#DEFAULT_COMPRESSION}.
+     * @param bufferSize the size of the input and output windows.
+     */
+    public DeflatingEntityProducer(
+            final AsyncEntityProducer wrapped,
+            final ContentCoding coding,
+            final int compressionLevel,
+            final int bufferSize) {
+        this.wrapped = Args.notNull(wrapped, "Entity producer");
+        this.coding = Args.notNull(coding, "Content coding");
+        Args.check(compressionLevel == Deflater.DEFAULT_COMPRESSION
+                || compressionLevel >= Deflater.NO_COMPRESSION && compressionLevel <= Deflater.BEST_COMPRESSION,
+                "Invalid compression level: %d", compressionLevel);
+        this.compressionLevel = compressionLevel;
+        this.bufferSize = Args.checkRange(bufferSize, 64, Integer.MAX_VALUE, "Buffer size");
+    }
+
+    public DeflatingEntityProducer(final AsyncEntityProducer wrapped, final ContentCoding coding) {
+        this(wrapped, coding, Deflater.DEFAULT_COMPRESSION, DEFAULT_BUFFER_SIZE);
+    }
+
+    public DeflatingEntityProducer(final AsyncEntityProducer wrapped) {
+        this(wrapped, ContentCoding.GZIP);
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return wrapped.isRepeatable();
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public String getContentType() {
+        return wrapped.getContentType();
+    }
+
+    @Override
+    public String getContentEncoding() {
+        return coding.id;
+    }
+
+    @Override
+    public boolean isChunked() {
+        return true;
+    }
+
+    @Override
+    public Set<String> getTrailerNames() {
+        return wrapped.getTrailerNames();
+    }
+
+    @Override
+    public int available() {
+        if (endOfStream) {
+            return 0;
+        }
+        final int pending = outBuf != null ? outBuf.position() : 0;
+        if (finishing) {
+            return Math.max(pending, 1);
+        }
+        return Math.max(pending, wrapped.available());
+    }
+
+    private void init() {
+        if (deflater == null) {
+            deflater = new Deflater(compressionLevel, coding == ContentCoding.GZIP);
+            crc = new CRC32();
+            inBuf = new byte[bufferSize];
+            outBuf = ByteBuffer.allocate(bufferSize);
+            if (coding == ContentCoding.GZIP) {
+                outBuf.put(GZIP_HEADER);
+            }
+        }
+    }
+
+    /**
+     * Writes out pending compressed output.
+     *
+     * @return {@code true} if all pending output has been written out.
+     */
+    private boolean flush(final DataStreamChannel channel) throws IOException {
+        if (outBuf.position() > 0) {
+            outBuf.flip();
+            channel.write(outBuf);
+            outBuf.compact();
+        }
+        return outBuf.position() == 0;
+    }
+
+    private int deflate(final int flushMode) {
+        final int n = deflater.deflate(outBuf.array(), outBuf.arrayOffset() + outBuf.position(), outBuf.remaining(), flushMode);
+        outBuf.position(outBuf.position() + n);
+        return n;
+    }
+
+    /**
+     * Compresses input held by the deflater and writes out compressed output.
+     *
+     * @return {@code true} if the deflater is ready to accept more input.
+     */
+    private boolean drain(final DataStreamChannel channel) throws IOException {
+        while (!deflater.needsInput()) {
+            if (!outBuf.hasRemaining() && !flush(channel)) {
+                return false;
+            }
+            deflate(Deflater.NO_FLUSH);
+        }
+        flush(channel);
+        return true;
+    }
+
+    private void finish(final DataStreamChannel channel) throws IOException {
+        if (!drain(channel)) {
+            return;
+        }
+        deflater.finish();
+        while (!deflater.finished()) {
+            if (!outBuf.hasRemaining() && !flush(channel)) {
+                return;
+            }
+            deflate(Deflater.NO_FLUSH);
+        }
+        if (coding == ContentCoding.GZIP && !trailerWritten) {
+            if (outBuf.remaining() < 8 && !flush(channel)) {
+                return;
+            }
+            writeIntLE((int) crc.getValue());
+            writeIntLE((int) deflater.getBytesRead());
+            trailerWritten = true;
+        }
+        if (flush(channel)) {
+            endOfStream = true;
+            channel.endStream(trailers);
+        }
+    }
+
+    private void writeIntLE(final int i) {
+        outBuf.put((byte) i);
+        outBuf.put((byte) (i >> 8));
+        outBuf.put((byte) (i >> 16));
+        outBuf.put((byte) (i >> 24));
+    }
+
+    @Override
+    public void produce(final DataStreamChannel channel) throws IOException {
+        if (endOfStream) {
+            return;
+        }
+        init();
+        if (finishing) {
+            finish(channel);
+            return;
+        }
+        if (!drain(channel)) {
+            return;
+        }
+        wrapped.produce(new DataStreamChannel() {
+
+            @Override
+            public void requestOutput() {
+                channel.requestOutput();
+            }
+
+            @Override
+            public int write(final ByteBuffer src) throws IOException {
+                if (finishing || !drain(channel)) {
+                    return 0;
+                }
+                final int n = Math.min(src.remaining(), inBuf.length);
+                if (n == 0) {
+                    return 0;
+                }
+                src.get(inBuf, 0, n);
+                if (coding == ContentCoding.GZIP) {
+                    crc.update(inBuf, 0, n);
+                }
+                deflater.setInput(inBuf, 0, n);
+                drain(channel);
+                return n;
+            }
+
+            @Override
+            public void endStream(final List<? extends Header> trailers) throws IOException {
+                if (finishing) {
+                    return;
+                }
+                DeflatingEntityProducer.this.trailers = trailers;
+                finishing = true;
+                finish(channel);
+                if (!endOfStream) {
+                    channel.requestOutput();
+                }
+            }
+
+            @Override
+            public void endStream() throws IOException {
+                endStream(null);
+            }
+
+        });
+    }
+
+    @Override
+    public void failed(final Exception cause) {
+        wrapped.failed(cause);
+    }
+
+    @Override
+    public void releaseResources() {
+        if (deflater != null) {
+            deflater.end();
+            deflater = null;
+        }
+        crc = null;
+        inBuf = null;
+        outBuf = null;
+        finishing = false;
+        trailerWritten = false;
+        endOfStream = false;
+        trailers = null;
+        wrapped.releaseResources();
+    }
+
+}
@@ -0,0 +1,493 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.core5.http.nio.entity;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentCoding;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.nio.AsyncEntityConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.util.Args;
+
+/**
+ * {@link AsyncEntityConsumer} decorator that decompresses the data stream content
+ * encoded with the {@code gzip} or {@code deflate} content coding incrementally
+ * and passes the decompressed content to the wrapped consumer. Content with no
+ * or an unsupported content coding is passed to the wrapped consumer as is.
+ * <p>
+ * Content is decompressed through fixed size input and output windows as it
+ * arrives. The capacity reported by the wrapped consumer applies to the decompressed
+ * content. The wrapped consumer is initially expected to accept one output window
+ * of content. Once it has been passed as much content as it has capacity for,
+ * decompression is suspended and encoded content received in the meantime gets
+ * retained. Decompression resumes when the wrapped consumer updates its capacity,
+ * on the thread performing the update. Capacity for more encoded content is requested
+ * from the underlying data stream only once all retained content has been decompressed.
+ * </p>
+ *
+ * @since 5.3
+ */
+public class InflatingEntityConsumer<T> implements AsyncEntityConsumer<T> {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private static final int CM_DEFLATE = 8;
+
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    enum State { HEADER, EXTRA_LEN, EXTRA, NAME, COMMENT, HEADER_CRC, BODY, TRAILER, DONE }
+
+    private final AsyncEntityConsumer<T> wrapped;
+    private final int bufferSize;
+    private final ReentrantLock lock;
+    private final CapacityChannel outputCapacityChannel;
+
+    private ContentCoding coding;
+    private Inflater inflater;
+    private CRC32 crc;
+    private byte[] inBuf;
+    private int inLen;
+    private byte[] outBuf;
+    private State state;
+    private int flags;
+    private int count;
+    private int skip;
+    private long trailer;
+    private ByteBuffer pending;
+    private int outputWindow;
+    private boolean outputCapacityRequested;
+    private CapacityChannel capacityChannel;
+    private boolean inputCapacityRequested;
+    private boolean inflating;
+    private boolean endOfStream;
+    private boolean completed;
+    private List<? extends Header> trailers;
+
+    /**
+     * @param wrapped the consumer of the decompressed content.
+     * @param bufferSize the size of the input and output windows.
+     */
+    public InflatingEntityConsumer(final AsyncEntityConsumer<T> wrapped, final int bufferSize) {
+        this.wrapped = Args.notNull(wrapped, "Entity consumer");
+        this.bufferSize = Args.checkRange(bufferSize, 64, Integer.MAX_VALUE, "Buffer size");
+        this.lock = new ReentrantLock();
+        this.outputCapacityChannel = this::updateOutputCapacity;
+    }
+
+    public InflatingEntityConsumer(final AsyncEntityConsumer<T> wrapped) {
+        this(wrapped, DEFAULT_BUFFER_SIZE);
+    }
+
+    @Override
+    public void streamStart(
+            final EntityDetails entityDetails,
+            final FutureCallback<T> resultCallback) throws IOException, HttpException {
+        coding = entityDetails != null ? ContentCoding.lookup(entityDetails.getContentEncoding()) : null;
+        if (coding == null) {
+            wrapped.streamStart(entityDetails, resultCallback);
+            return;
+        }
+        inflater = new Inflater(coding == ContentCoding.GZIP);
+        crc = new CRC32();
+        inBuf = new byte[bufferSize];
+        outBuf = new byte[bufferSize];
+        state = coding == ContentCoding.GZIP ? State.HEADER : State.BODY;
+        count = 0;
+        trailer = 0;
+        pending = null;
+        outputWindow = bufferSize;
+        outputCapacityRequested = false;
+        capacityChannel = null;
+        inputCapacityRequested = false;
+        endOfStream = false;
+        completed = false;
+        trailers = null;
+        wrapped.streamStart(new EntityDetails() {
+
+            @Override
+            public long getContentLength() {
+                return -1;
+            }
+
+            @Override
+            public String getContentType() {
+                return entityDetails.getContentType();
+            }
+
+            @Override
+            public String getContentEncoding() {
+                return null;
+            }
+
+            @Override
+            public boolean isChunked() {
+                return true;
+            }
+
+            @Override
+            public Set<String> getTrailerNames() {
+                return entityDetails.getTrailerNames();
+            }
+
+        }, resultCallback);
+    }
+
+    @Override
+    public void updateCapacity(final CapacityChannel capacityChannel) throws IOException {
+        if (coding == null) {
+            wrapped.updateCapacity(capacityChannel);
+            return;
+        }
+        lock.lock();
+        try {
+            this.capacityChannel = capacityChannel;
+            inputCapacityRequested = true;
+            signalInputCapacity();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void updateOutputCapacity(final int increment) throws IOException {
+        lock.lock();
+        try {
+            if (increment <= 0 || inflater == null || completed) {
+                return;
+            }
+            outputWindow = increment > Integer.MAX_VALUE - outputWindow ? Integer.MAX_VALUE : outputWindow + increment;
+            outputCapacityRequested = false;
+            if (inflating) {
+                // Updated from within the wrapped consumer while inflating
+                return;
+            }
+            try {
+                if (pending != null) {
+                    pending.flip();
+                    try {
+                        process(pending);
+                    } finally {
+                        pending.compact();
+                    }
+                } else {
+                    process(EMPTY);
+                }
+                if (endOfStream) {
+                    if (isDrained()) {
+                        complete();
+                    }
+                } else {
+                    signalInputCapacity();
+                }
+            } catch (final HttpException | IOException ex) {
+                wrapped.failed(ex);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isDrained() {
+        return (pending == null || pending.position() == 0) && (state != State.BODY || inflater.needsInput());
+    }
+
+    private void signalInputCapacity() throws IOException {
+        if (inputCapacityRequested && capacityChannel != null && isDrained()) {
+            inputCapacityRequested = false;
+            capacityChannel.update(Math.max(outputWindow, bufferSize));
+        }
+    }
+
+    private void retain(final ByteBuffer src) {
+        if (pending == null) {
+            pending = ByteBuffer.allocate(Math.max(bufferSize, src.remaining()));
+        } else if (pending.remaining() < src.remaining()) {
+            final ByteBuffer expanded = ByteBuffer.allocate(
+                    Math.max(pending.capacity() << 1, pending.position() + src.remaining()));
+            pending.flip();
+            expanded.put(pending);
+            pending = expanded;
+        }
+        pending.put(src);
+    }
+
+    private void nextHeaderSection(final State current) {
+        if (current.ordinal() < State.EXTRA_LEN.ordinal() && (flags & FEXTRA) != 0) {
+            state = State.EXTRA_LEN;
+            count = 0;
+            skip = 0;
+        } else if (current.ordinal() < State.NAME.ordinal() && (flags & FNAME) != 0) {
+            state = State.NAME;
+        } else if (current.ordinal() < State.COMMENT.ordinal() && (flags & FCOMMENT) != 0) {
+            state = State.COMMENT;
+        } else if (current.ordinal() < State.HEADER_CRC.ordinal() && (flags & FHCRC) != 0) {
+            state = State.HEADER_CRC;
+            skip = 2;
+        } else {
+            state = State.BODY;
+        }
+    }
+
+    private void parseHeader(final ByteBuffer src) throws IOException {
+        while (src.hasRemaining() && state.ordinal() < State.BODY.ordinal()) {
+            final int b = src.get() & 0xff;
+            switch (state) {
+                case HEADER:
+                    if (count == 0 && b != 0x1f || count == 1 && b != 0x8b) {
+                        throw new ZipException("Not in GZIP format");
+                    }
+                    if (count == 2 && b != CM_DEFLATE) {
+                        throw new ZipException("Unsupported compression method");
+                    }
+                    if (count == 3) {
+                        flags = b;
+                    }
+                    count++;
+                    if (count == 10) {
+                        nextHeaderSection(State.HEADER);
+                    }
+                    break;
+                case EXTRA_LEN:
+                    skip |= b << (8 * count);
+                    count++;
+                    if (count == 2) {
+                        if (skip > 0) {
+                            state = State.EXTRA;
+                        } else {
+                            nextHeaderSection(State.EXTRA);
+                        }
+                    }
+                    break;
+                case NAME:
+                case COMMENT:
+                    if (b == 0) {
+                        nextHeaderSection(state);
+                    }
+                    break;
+                case EXTRA:
+                case HEADER_CRC:
+                    skip--;
+                    if (skip == 0) {
+                        nextHeaderSection(state);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private void parseTrailer(final byte[] b, final int off, final int len) throws IOException {
+        for (int i = off; i < off + len && count < 8; i++) {
+            trailer |= (long) (b[i] & 0xff) << (8 * count);
+            count++;
+        }
+        if (count == 8) {
+            if ((trailer & 0xffffffffL) != crc.getValue()) {
+                throw new ZipException("Corrupt GZIP trailer");
+            }
+            if ((trailer >>> 32) != (inflater.getBytesWritten() & 0xffffffffL)) {
+                throw new ZipException("Corrupt GZIP trailer");
+            }
+            state = State.DONE;
+        }
+    }
+
+    private void inflate(final ByteBuffer src) throws IOException {
+        while (state == State.BODY) {
+            if (inflater.needsInput()) {
+                if (!src.hasRemaining()) {
+                    return;
+                }
+                final int n = Math.min(src.remaining(), inBuf.length);
+                src.get(inBuf, 0, n);
+                inflater.setInput(inBuf, 0, n);
+                inLen = n;
+            }
+            if (outputWindow <= 0) {
+                if (!outputCapacityRequested) {
+                    outputCapacityRequested = true;
+                    wrapped.updateCapacity(outputCapacityChannel);
+                }
+                if (outputWindow <= 0) {
+                    return;
+                }
+            }
+            final int len;
+            try {
+                len = inflater.inflate(outBuf, 0, Math.min(outBuf.length, outputWindow));
+            } catch (final DataFormatException ex) {
+                throw new ZipException(ex.getMessage());
+            }
+            if (len > 0) {
+                if (coding == ContentCoding.GZIP) {
+                    crc.update(outBuf, 0, len);
+                }
+                outputWindow -= len;
+                wrapped.consume(ByteBuffer.wrap(outBuf, 0, len));
+            }
+            if (inflater.finished()) {
+                if (coding == ContentCoding.GZIP) {
+                    state = State.TRAILER;
+                    count = 0;
+                    final int remaining = inflater.getRemaining();
+                    parseTrailer(inBuf, inLen - remaining, remaining);
+                } else {
+                    state = State.DONE;
+                }
+            } else if (len == 0 && inflater.needsDictionary()) {
+                throw new ZipException("Preset dictionary not supported");
+            }
+        }
+    }
+
+    private void process(final ByteBuffer src) throws IOException {
+        inflating = true;
+        try {
+            if (state.ordinal() < State.BODY.ordinal()) {
+                parseHeader(src);
+            }
+            if (state == State.BODY) {
+                inflate(src);
+            }
+            if (state == State.TRAILER && src.hasRemaining()) {
+                final int n = Math.min(src.remaining(), 8);
+                src.get(inBuf, 0, n);
+                parseTrailer(inBuf, 0, n);
+            }
+            if (state == State.DONE) {
+                // Discard anything following the end of the compressed stream
+                src.position(src.limit());
+            }
+        } finally {
+            inflating = false;
+        }
+    }
+
+    @Override
+    public void consume(final ByteBuffer src) throws IOException {
+        if (coding == null) {
+            wrapped.consume(src);
+            return;
+        }
+        lock.lock();
+        try {
+            if (pending != null && pending.position() > 0) {
+                retain(src);
+                pending.flip();
+                try {
+                    process(pending);
+                } finally {
+                    pending.compact();
+                }
+            } else {
+                process(src);
+                if (src.hasRemaining()) {
+                    // Output capacity exhausted
+                    retain(src);
+                }
+            }
+            signalInputCapacity();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void complete() throws HttpException, IOException {
+        completed = true;
+        if (state != State.DONE) {
+            throw new ZipException("Truncated " + coding + " content");
+        }
+        wrapped.streamEnd(trailers);
+    }
+
+    @Override
+    public void streamEnd(final List<? extends Header> trailers) throws HttpException, IOException {
+        if (coding == null) {
+            wrapped.streamEnd(trailers);
+            return;
+        }
+        lock.lock();
+        try {
+            this.endOfStream = true;
+            this.trailers = trailers;
+            // Otherwise the stream gets completed once the retained content has been inflated
+            if (isDrained()) {
+                complete();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void failed(final Exception cause) {
+        wrapped.failed(cause);
+    }
+
+    @Override
+    public T getContent() {
+        return wrapped.getContent();
+    }
+
+    @Override
+    public void releaseResources() {
+        lock.lock();
+        try {
+            if (inflater != null) {
+                inflater.end();
+                inflater = null;
+            }
+            crc = null;
+            inBuf = null;
+            outBuf = null;
+            pending = null;
+            capacityChannel = null;
+            trailers = null;
+        } finally {
+            lock.unlock();
+        }
+        wrapped.releaseResources();
+    }
+
+}
@@ -29,6 +29,8 @@
 
 import java.net.SocketAddress;
 
+import java.util.concurrent.Executor;
+
 import javax.net.ssl.SSLContext;
 
 import org.apache.hc.core5.concurrent.FutureCallback;
@@ -37,6 +39,7 @@
 import org.apache.hc.core5.reactor.ssl.SSLBufferMode;
 import org.apache.hc.core5.reactor.ssl.SSLSessionInitializer;
 import org.apache.hc.core5.reactor.ssl.SSLSessionVerifier;
+import org.apache.hc.core5.reactor.ssl.TlsSessionTracker;
 import org.apache.hc.core5.reactor.ssl.TransportSecurityLayer;
 import org.apache.hc.core5.ssl.SSLContexts;
 import org.apache.hc.core5.util.Args;
@@ -56,6 +59,8 @@ public class BasicServerTlsStrategy implements TlsStrategy {
     private final SSLBufferMode sslBufferMode;
     private final SSLSessionInitializer initializer;
     private final SSLSessionVerifier verifier;
+    private final Executor handshakeExecutor;
+    private final TlsSessionTracker sessionTracker;
 
     /**
      * @deprecated Use {@link BasicServerTlsStrategy#BasicServerTlsStrategy(SSLContext, SSLBufferMode, SSLSessionInitializer, SSLSessionVerifier)}
@@ -72,6 +77,8 @@ public BasicServerTlsStrategy(
         this.sslBufferMode = sslBufferMode;
         this.initializer = initializer;
         this.verifier = verifier;
+        this.handshakeExecutor = null;
+        this.sessionTracker = null;
     }
 
     /**
@@ -122,18 +129,65 @@ public BasicServerTlsStrategy(final SSLSessionVerifier verifier) {
         this(SSLContexts.createSystemDefault(), verifier);
     }
 
+    /**
+     * @param sslContext the SSL context.
+     * @param sslBufferMode the SSL buffer management mode. May be {@code null}.
+     * @param initializer the SSL session initializer. May be {@code null}.
+     * @param verifier the SSL session verifier. May be {@code null}.
+     * @param handshakeExecutor the executor to run delegated SSL engine tasks with
+     *   during the TLS handshake. If {@code null} the tasks are run by the I/O reactor thread.
+     *
+     * @since 5.3
+     */
     public BasicServerTlsStrategy(
             final SSLContext sslContext,
             final SSLBufferMode sslBufferMode,
             final SSLSessionInitializer initializer,
-            final SSLSessionVerifier verifier) {
+            final SSLSessionVerifier verifier,
+            final Executor handshakeExecutor) {
+        this(sslContext, sslBufferMode, initializer, verifier, handshakeExecutor, null);
+    }
+
+    /**
+     * @param sslContext the SSL context.
+     * @param sslBufferMode the SSL buffer management mode. May be {@code null}.
+     * @param initializer the SSL session initializer. May be {@code null}.
+     * @param verifier the SSL session verifier. May be {@code null}.
+     * @param handshakeExecutor the executor to run delegated SSL engine tasks with
+     *   during the TLS handshake. If {@code null} the tasks are run by the I/O reactor thread.
+     * @param sessionTracker the tracker to record TLS sessions established by this strategy
+     *   with. Its size and time-to-live constraints are applied to the server session context
+     *   of the SSL context. May be {@code null}.
+     *
+     * @since 5.3
+     */
+    public BasicServerTlsStrategy(
+            final SSLContext sslContext,
+            final SSLBufferMode sslBufferMode,
+            final SSLSessionInitializer initializer,
+            final SSLSessionVerifier verifier,
+            final Executor handshakeExecutor,
+            final TlsSessionTracker sessionTracker) {
         this.sslContext = Args.notNull(sslContext, "SSL context");
         this.sslBufferMode = sslBufferMode;
         this.initializer = initializer;
         this.verifier = verifier;
+        this.handshakeExecutor = handshakeExecutor;
+        this.sessionTracker = sessionTracker;
+        if (sessionTracker != null) {
+            sessionTracker.configure(sslContext.getServerSessionContext());
+        }
         this.securePortStrategy = null;
     }
 
+    public BasicServerTlsStrategy(
+            final SSLContext sslContext,
+            final SSLBufferMode sslBufferMode,
+            final SSLSessionInitializer initializer,
+            final SSLSessionVerifier verifier) {
+        this(sslContext, sslBufferMode, initializer, verifier, null);
+    }
+
     public BasicServerTlsStrategy(
             final SSLContext sslContext,
             final SSLSessionInitializer initializer,
@@ -148,7 +202,7 @@ public BasicServerTlsStrategy(
     }
 
     public BasicServerTlsStrategy(final SSLContext sslContext) {
-        this(sslContext, null, null, null, null);
+        this(sslContext, (SSLBufferMode) null, null, null);
     }
 
     public BasicServerTlsStrategy() {
@@ -167,7 +221,8 @@ public void upgrade(
             final Timeout handshakeTimeout,
             final FutureCallback<TransportSecurityLayer> callback) {
         tlsSession.startTls(sslContext, endpoint, sslBufferMode,
-                TlsSupport.enforceStrongSecurity(initializer), verifier, handshakeTimeout, callback);
+                TlsSupport.enforceStrongSecurity(initializer), verifier, handshakeTimeout, handshakeExecutor,
+                sessionTracker != null ? sessionTracker.track(null, callback) : callback);
     }
 
     /**
@@ -0,0 +1,648 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.core5.http.nio.support;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+import org.apache.hc.core5.http.ContentCoding;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HeaderElement;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.Method;
+import org.apache.hc.core5.http.NameValuePair;
+import org.apache.hc.core5.http.message.BasicHeaderValueParser;
+import org.apache.hc.core5.http.message.ParserCursor;
+import org.apache.hc.core5.http.nio.AsyncDataConsumer;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.AsyncFilterChain;
+import org.apache.hc.core5.http.nio.AsyncFilterHandler;
+import org.apache.hc.core5.http.nio.AsyncPushProducer;
+import org.apache.hc.core5.http.nio.DataStreamChannel;
+import org.apache.hc.core5.http.nio.entity.AsyncEntityProducerWrapper;
+import org.apache.hc.core5.http.nio.entity.BasicAsyncEntityProducer;
+import org.apache.hc.core5.http.nio.entity.DeflatingEntityProducer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.Args;
+import org.apache.hc.core5.util.ByteArrayBuffer;
+import org.apache.hc.core5.util.TextUtils;
+
+/**
+ * {@link AsyncFilterHandler} that compresses response content with the {@code gzip}
+ * or {@code deflate} content coding negotiated with the client through
+ * the {@code Accept-Encoding} request header.
+ * <p>
+ * Response content of known length not exceeding the max cacheable length is
+ * compressed in one go and the compressed output is kept in a bounded memory cache
+ * keyed by the SHA-256 digest of the content and, for responses with a strong
+ * {@code ETag}, by the request scheme, authority and URI and the entity tag.
+ * Byte-identical or ETag-identical response content is compressed only once for
+ * as long as it stays in the cache. A cache hit by entity tag does not require
+ * the original content to be produced at all.
+ * Content of unknown length or larger content is compressed on the fly with
+ * {@link DeflatingEntityProducer}.
+ * </p>
+ * <p>
+ * Please note that caching by entity tag assumes that the server never sends
+ * different representations with the same strong entity tag for the same
+ * request target, for instance depending on the user or on request headers
+ * other than {@code Accept-Encoding}. Applications that do should not use
+ * this filter with a non-zero max cache size.
+ * </p>
+ * <p>
+ * A strong entity tag of compressed content is rewritten by appending the content
+ * coding to its opaque value (for instance {@code "abc"} becomes {@code "abc-gzip"}),
+ * as the compressed representation is not byte-identical to the original one.
+ * Weak entity tags are left unchanged. Strong entity tags with the suffix of
+ * the negotiated content coding in {@code If-None-Match} and {@code If-Match} request
+ * headers are mapped back to the original entity tags before the request is passed
+ * on, and the entity tag of a resulting {@code 304 (Not Modified)} response is
+ * rewritten the same way as that of compressed content.
+ * </p>
+ * <p>
+ * Only content types that are likely to compress well are compressed by default
+ * (see {@link #isCompressible(HttpResponse, AsyncEntityProducer)}).
+ * </p>
+ *
+ * @since 5.3
+ */
+@Contract(threading = ThreadingBehavior.SAFE)
+public class AsyncServerCompressionFilter implements AsyncFilterHandler {
+
+    public static final int DEFAULT_MIN_CONTENT_LENGTH = 256;
+    public static final int DEFAULT_MAX_CACHEABLE_LENGTH = 256 * 1024;
+    public static final long DEFAULT_MAX_CACHE_SIZE = 16 * 1024 * 1024;
+
+    private final int minContentLength;
+    private final int maxCacheableLength;
+    private final ContentCache cache;
+    private final AtomicLong hitCount;
+    private final AtomicLong missCount;
+
+    /**
+     * @param minContentLength the minimum length of content of known length to compress.
+     * @param maxCacheableLength the maximum length of content whose compressed output is cached.
+     * @param maxCacheSize the maximum total size of compressed content kept in the cache.
+     *   Caching is disabled if zero.
+     */
+    public AsyncServerCompressionFilter(final int minContentLength, final int maxCacheableLength, final long maxCacheSize) {
+        this.minContentLength = Args.notNegative(minContentLength, "Min content length");
+        this.maxCacheableLength = Args.notNegative(maxCacheableLength, "Max cacheable length");
+        this.cache = new ContentCache(Args.notNegative(maxCacheSize, "Max cache size"));
+        this.hitCount = new AtomicLong();
+        this.missCount = new AtomicLong();
+    }
+
+    public AsyncServerCompressionFilter() {
+        this(DEFAULT_MIN_CONTENT_LENGTH, DEFAULT_MAX_CACHEABLE_LENGTH, DEFAULT_MAX_CACHE_SIZE);
+    }
+
+    /**
+     * Selects the content coding preferred by the client. {@code gzip} is preferred
+     * over {@code deflate} if both are equally acceptable.
+     *
+     * @return the content coding or {@code null} if the client accepts neither.
+     */
+    static ContentCoding negotiate(final HttpRequest request) {
+        double gzip = -1;
+        double deflate = -1;
+        double any = -1;
+        final Iterator<Header> it = request.headerIterator(HttpHeaders.ACCEPT_ENCODING);
+        while (it.hasNext()) {
+            final String value = it.next().getValue();
+            if (value == null) {
+                continue;
+            }
+            final ParserCursor cursor = new ParserCursor(0, value.length());
+            for (final HeaderElement element : BasicHeaderValueParser.INSTANCE.parseElements(value, cursor)) {
+                final double q = qValue(element);
+                if (q < 0) {
+                    continue;
+                }
+                final String name = element.getName();
+                if ("*".equals(name)) {
+                    any = q;
+                } else {
+                    final ContentCoding coding = ContentCoding.lookup(name);
+                    if (coding == ContentCoding.GZIP) {
+                        gzip = q;
+                    } else if (coding == ContentCoding.DEFLATE) {
+                        deflate = q;
+                    }
+                }
+            }
+        }
+        if (gzip < 0) {
+            gzip = any;
+        }
+        if (deflate < 0) {
+            deflate = any;
+        }
+        if (gzip <= 0 && deflate <= 0) {
+            return null;
+        }
+        return gzip >= deflate ? ContentCoding.GZIP : ContentCoding.DEFLATE;
+    }
+
+    private static double qValue(final HeaderElement element) {
+        final NameValuePair param = element.getParameterByName("q");
+        if (param == null || param.getValue() == null) {
+            return 1;
+        }
+        try {
+            final double q = Double.parseDouble(param.getValue().trim());
+            return q >= 0 && q <= 1 ? q : -1;
+        } catch (final NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * Determines whether the response content should be compressed. By default
+     * successful responses with textual, JSON, XML or JavaScript content that
+     * have no content coding applied are compressed.
+     */
+    protected boolean isCompressible(final HttpResponse response, final AsyncEntityProducer entityProducer) {
+        final int status = response.getCode();
+        if (status < HttpStatus.SC_OK || status == HttpStatus.SC_NO_CONTENT
+                || status == HttpStatus.SC_PARTIAL_CONTENT || status == HttpStatus.SC_NOT_MODIFIED) {
+            return false;
+        }
+        if (entityProducer.getContentEncoding() != null || response.containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+            return false;
+        }
+        final ContentType contentType = ContentType.parseLenient(entityProducer.getContentType());
+        if (contentType == null) {
+            return false;
+        }
+        final String mimeType = contentType.getMimeType();
+        return mimeType.startsWith("text/")
+                || mimeType.endsWith("json")
+                || mimeType.endsWith("xml")
+                || mimeType.endsWith("javascript");
+    }
+
+    @Override
+    public final AsyncDataConsumer handle(
+            final HttpRequest request,
+            final EntityDetails entityDetails,
+            final HttpContext context,
+            final AsyncFilterChain.ResponseTrigger responseTrigger,
+            final AsyncFilterChain chain) throws HttpException, IOException {
+        if (Method.HEAD.isSame(request.getMethod())) {
+            return chain.proceed(request, entityDetails, context, responseTrigger);
+        }
+        final ContentCoding coding = negotiate(request);
+        final boolean conditional = coding != null && decodeEntityTags(request, coding);
+        final String requestTarget = requestTarget(request);
+        return chain.proceed(request, entityDetails, context, new AsyncFilterChain.ResponseTrigger() {
+
+            @Override
+            public void sendInformation(final HttpResponse response) throws HttpException, IOException {
+                responseTrigger.sendInformation(response);
+            }
+
+            @Override
+            public void submitResponse(
+                    final HttpResponse response, final AsyncEntityProducer entityProducer) throws HttpException, IOException {
+                if (conditional && response.getCode() == HttpStatus.SC_NOT_MODIFIED) {
+                    // The client holds the compressed representation
+                    final Header etag = response.getFirstHeader(HttpHeaders.ETAG);
+                    if (etag != null) {
+                        response.setHeader(HttpHeaders.ETAG, encodeEntityTag(etag.getValue(), coding));
+                    }
+                    response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                    responseTrigger.submitResponse(response, entityProducer);
+                    return;
+                }
+                if (entityProducer == null || !isCompressible(response, entityProducer)) {
+                    responseTrigger.submitResponse(response, entityProducer);
+                    return;
+                }
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                if (coding == null) {
+                    responseTrigger.submitResponse(response, entityProducer);
+                    return;
+                }
+                final AsyncEntityProducer compressedProducer = compress(response, entityProducer, coding, requestTarget);
+                if (compressedProducer != entityProducer) {
+                    final Header etag = response.getFirstHeader(HttpHeaders.ETAG);
+                    if (etag != null) {
+                        response.setHeader(HttpHeaders.ETAG, encodeEntityTag(etag.getValue(), coding));
+                    }
+                }
+                responseTrigger.submitResponse(response, compressedProducer);
+            }
+
+            @Override
+            public void pushPromise(
+                    final HttpRequest promise, final AsyncPushProducer responseProducer) throws HttpException, IOException {
+                responseTrigger.pushPromise(promise, responseProducer);
+            }
+
+        });
+    }
+
+    private static String requestTarget(final HttpRequest request) {
+        final StringBuilder buf = new StringBuilder();
+        if (request.getScheme() != null) {
+            buf.append(request.getScheme()).append("://");
+        }
+        if (request.getAuthority() != null) {
+            buf.append(request.getAuthority());
+        }
+        buf.append(request.getRequestUri());
+        return buf.toString();
+    }
+
+    /**
+     * Derives the entity tag of content compressed with the given coding from
+     * the entity tag of the original content. Weak or malformed entity tags
+     * are returned unchanged.
+     */
+    static String encodeEntityTag(final String etag, final ContentCoding coding) {
+        if (etag == null || etag.startsWith("W/") || etag.length() < 2
+                || etag.charAt(0) != '"' || etag.charAt(etag.length() - 1) != '"') {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "-" + coding.id + "\"";
+    }
+
+    /**
+     * Reverses {@link #encodeEntityTag(String, ContentCoding)}. Entity tags without
+     * the suffix of the given coding are returned unchanged.
+     */
+    static String decodeEntityTag(final String etag, final ContentCoding coding) {
+        final String suffix = "-" + coding.id + "\"";
+        if (etag == null || etag.startsWith("W/") || etag.length() < suffix.length() + 1
+                || etag.charAt(0) != '"' || !etag.endsWith(suffix)) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - suffix.length()) + "\"";
+    }
+
+    /**
+     * Maps entity tags of compressed content in the {@code If-None-Match} and
+     * {@code If-Match} headers of the given request back to the entity tags of
+     * the original content.
+     *
+     * @return {@code true} if any entity tag has been mapped.
+     */
+    static boolean decodeEntityTags(final HttpRequest request, final ContentCoding coding) {
+        boolean decoded = false;
+        for (final String headerName : new String[] {HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MATCH}) {
+            final Header[] headers = request.getHeaders(headerName);
+            final String[] values = new String[headers.length];
+            boolean modified = false;
+            for (int i = 0; i < headers.length; i++) {
+                final String value = headers[i].getValue();
+                values[i] = value != null ? decodeEntityTagList(value, coding) : null;
+                if (values[i] != null && !values[i].equals(value)) {
+                    modified = true;
+                }
+            }
+            if (modified) {
+                request.removeHeaders(headerName);
+                for (final String value : values) {
+                    request.addHeader(headerName, value);
+                }
+                decoded = true;
+            }
+        }
+        return decoded;
+    }
+
+    private static String decodeEntityTagList(final String value, final ContentCoding coding) {
+        final StringBuilder buf = new StringBuilder(value.length());
+        int i = 0;
+        while (i < value.length()) {
+            final int start = value.indexOf('"', i);
+            final int end = start >= 0 ? value.indexOf('"', start + 1) : -1;
+            if (end < 0) {
+                break;
+            }
+            buf.append(value, i, start);
+            final String etag = value.substring(start, end + 1);
+            // Entity tags may contain commas but never quotes
+            final boolean weak = start >= 2 && value.startsWith("W/", start - 2);
+            buf.append(weak ? etag : decodeEntityTag(etag, coding));
+            i = end + 1;
+        }
+        buf.append(value, i, value.length());
+        return buf.toString();
+    }
+
+    private AsyncEntityProducer compress(
+            final HttpResponse response,
+            final AsyncEntityProducer entityProducer,
+            final ContentCoding coding,
+            final String requestTarget) throws IOException {
+        final long contentLength = entityProducer.getContentLength();
+        if (contentLength >= 0 && contentLength < minContentLength) {
+            return entityProducer;
+        }
+        final Set<String> trailerNames = entityProducer.getTrailerNames();
+        if (contentLength < 0 || contentLength > maxCacheableLength || cache.maxSize == 0
+                || trailerNames != null && !trailerNames.isEmpty()) {
+            return new DeflatingEntityProducer(entityProducer, coding);
+        }
+        final Header etag = response.getFirstHeader(HttpHeaders.ETAG);
+        final String etagKey = etag != null && etag.getValue() != null && !etag.getValue().startsWith("W/")
+                ? coding.id + " " + requestTarget + " " + etag.getValue() : null;
+        if (etagKey != null) {
+            final byte[] compressed = cache.get(etagKey);
+            if (compressed != null) {
+                hitCount.incrementAndGet();
+                entityProducer.releaseResources();
+                return createProducer(compressed, entityProducer.getContentType(), coding);
+            }
+        }
+        final CapturingChannel channel = new CapturingChannel((int) contentLength);
+        while (!channel.endOfStream && channel.buffer.length() <= maxCacheableLength) {
+            final int n = channel.buffer.length();
+            entityProducer.produce(channel);
+            if (channel.buffer.length() == n && !channel.endOfStream) {
+                break;
+            }
+        }
+        if (!channel.endOfStream || channel.buffer.length() > maxCacheableLength) {
+            // The content could not be produced in one go
+            return new DeflatingEntityProducer(
+                    new ReplayingEntityProducer(entityProducer, channel.buffer), coding);
+        }
+        final byte[] content = channel.buffer.toByteArray();
+        final String digestKey = coding.id + ":" + TextUtils.toHexString(digest(content));
+        byte[] compressed = cache.get(digestKey);
+        if (compressed != null) {
+            hitCount.incrementAndGet();
+        } else {
+            missCount.incrementAndGet();
+            compressed = compress(content, coding);
+            cache.put(digestKey, compressed);
+        }
+        if (etagKey != null) {
+            cache.put(etagKey, compressed);
+        }
+        final String contentType = entityProducer.getContentType();
+        entityProducer.releaseResources();
+        return createProducer(compressed, contentType, coding);
+    }
+
+    private static byte[] digest(final byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    static byte[] compress(final byte[] content, final ContentCoding coding) throws IOException {
+        final ByteArrayOutputStream buf = new ByteArrayOutputStream(Math.max(64, content.length / 4));
+        try (final OutputStream outStream = coding == ContentCoding.GZIP
+                ? new GZIPOutputStream(buf) : new DeflaterOutputStream(buf)) {
+            outStream.write(content);
+        }
+        return buf.toByteArray();
+    }
+
+    private static AsyncEntityProducer createProducer(
+            final byte[] compressed, final String contentType, final ContentCoding coding) {
+        return new AsyncEntityProducerWrapper(new BasicAsyncEntityProducer(compressed)) {
+
+            @Override
+            public String getContentType() {
+                return contentType;
+            }
+
+            @Override
+            public String getContentEncoding() {
+                return coding.id;
+            }
+
+        };
+    }
+
+    /**
+     * Returns the number of responses served from compressed content cache.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the number of responses whose content had to be compressed
+     * and was added to the cache.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Returns the total size of compressed content kept in the cache.
+     */
+    public long getCacheSize() {
+        return cache.size();
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncServerCompressionFilter{" +
+                "minContentLength=" + minContentLength +
+                ", maxCacheableLength=" + maxCacheableLength +
+                ", maxCacheSize=" + cache.maxSize +
+                ", cacheSize=" + cache.size() +
+                ", hits=" + hitCount +
+                ", misses=" + missCount +
+                '}';
+    }
+
+    static final class CapturingChannel implements DataStreamChannel {
+
+        final ByteArrayBuffer buffer;
+        boolean endOfStream;
+
+        CapturingChannel(final int initialCapacity) {
+            this.buffer = new ByteArrayBuffer(initialCapacity);
+        }
+
+        @Override
+        public void requestOutput() {
+        }
+
+        @Override
+        public int write(final ByteBuffer src) {
+            final int n = src.remaining();
+            buffer.append(src);
+            return n;
+        }
+
+        @Override
+        public void endStream(final List<? extends Header> trailers) {
+            endOfStream = true;
+        }
+
+        @Override
+        public void endStream() {
+            endStream(null);
+        }
+
+    }
+
+    /**
+     * Replays content already produced by the wrapped producer before
+     * passing control back to it.
+     */
+    static final class ReplayingEntityProducer extends AsyncEntityProducerWrapper {
+
+        private final ByteBuffer replay;
+
+        ReplayingEntityProducer(final AsyncEntityProducer wrapped, final ByteArrayBuffer produced) {
+            super(wrapped);
+            this.replay = ByteBuffer.wrap(produced.array(), 0, produced.length());
+        }
+
+        @Override
+        public int available() {
+            return replay.hasRemaining() ? replay.remaining() : super.available();
+        }
+
+        @Override
+        public void produce(final DataStreamChannel channel) throws IOException {
+            if (replay.hasRemaining()) {
+                channel.write(replay);
+                if (replay.hasRemaining()) {
+                    return;
+                }
+            }
+            super.produce(channel);
+        }
+
+    }
+
+    /**
+     * LRU cache of compressed content bounded by the total size of its entries.
+     * Content stored under several keys is accounted for only once.
+     */
+    static final class ContentCache {
+
+        private final long maxSize;
+        private final ReentrantLock lock;
+        private final Map<String, byte[]> map;
+        private final Map<byte[], Integer> refCounts;
+        private long size;
+
+        ContentCache(final long maxSize) {
+            this.maxSize = maxSize;
+            this.lock = new ReentrantLock();
+            this.map = new LinkedHashMap<>(16, 0.75f, true);
+            this.refCounts = new IdentityHashMap<>();
+        }
+
+        byte[] get(final String key) {
+            lock.lock();
+            try {
+                return map.get(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void retain(final byte[] content) {
+            final Integer refCount = refCounts.get(content);
+            if (refCount == null) {
+                refCounts.put(content, 1);
+                size += content.length;
+            } else {
+                refCounts.put(content, refCount + 1);
+            }
+        }
+
+        private void release(final byte[] content) {
+            final int refCount = refCounts.get(content);
+            if (refCount == 1) {
+                refCounts.remove(content);
+                size -= content.length;
+            } else {
+                refCounts.put(content, refCount - 1);
+            }
+        }
+
+        void put(final String key, final byte[] content) {
+            if (content.length > maxSize) {
+                return;
+            }
+            lock.lock();
+            try {
+                retain(content);
+                final byte[] previous = map.put(key, content);
+                if (previous != null) {
+                    release(previous);
+                }
+                final Iterator<byte[]> it = map.values().iterator();
+                while (size > maxSize && it.hasNext()) {
+                    release(it.next());
+                    it.remove();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long size() {
+            lock.lock();
+            try {
+                return size;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,293 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+
+package org.apache.hc.core5.http.protocol;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+import org.apache.hc.core5.util.Args;
+
+/**
+ * Maintains a map of objects keyed by a request URI regular expression.
+ * <p>
+ * This class resolves objects using the same rules as {@link UriRegexMatcher}:
+ * an exact match of the request path against a registered expression first,
+ * then the first expression in registration order that matches the entire
+ * request path. Registered expressions however are compiled into an immutable
+ * snapshot where each expression is indexed by its literal prefix, that is,
+ * the leading characters every matching path must start with. A lookup walks
+ * the request path through the prefix trie once and evaluates only expressions
+ * whose literal prefix matches, so that services with many routes anchored
+ * at distinct paths need only a few regular expression evaluations per request.
+ * </p>
+ * <p>
+ * Lookups take no lock. Registration changes rebuild the snapshot and are
+ * relatively expensive.
+ * </p>
+ *
+ * @param <T> The type of registered objects.
+ * @since 5.3
+ */
+@Contract(threading = ThreadingBehavior.SAFE)
+public class CompiledUriRegexMatcher<T> implements LookupRegistry<T> {
+
+    private final Map<String, T> objectMap;
+    private final Map<String, Pattern> patternMap;
+    private volatile Snapshot<T> snapshot;
+
+    public CompiledUriRegexMatcher() {
+        super();
+        this.objectMap = new LinkedHashMap<>();
+        this.patternMap = new LinkedHashMap<>();
+        this.snapshot = new Snapshot<>(this.objectMap, this.patternMap);
+    }
+
+    /**
+     * Registers the given object for URIs matching the given regex.
+     *
+     * @param regex
+     *            the regex to register the handler for.
+     * @param obj
+     *            the object.
+     */
+    @Override
+    public synchronized void register(final String regex, final T obj) {
+        Args.notNull(regex, "URI request regex");
+        final Pattern pattern = Pattern.compile(regex);
+        this.objectMap.put(regex, obj);
+        this.patternMap.put(regex, pattern);
+        this.snapshot = new Snapshot<>(this.objectMap, this.patternMap);
+    }
+
+    /**
+     * Removes registered object, if exists, for the given regex.
+     *
+     * @param regex
+     *            the regex to unregister.
+     */
+    @Override
+    public synchronized void unregister(final String regex) {
+        if (regex == null) {
+            return;
+        }
+        if (this.objectMap.containsKey(regex)) {
+            this.objectMap.remove(regex);
+            this.patternMap.remove(regex);
+            this.snapshot = new Snapshot<>(this.objectMap, this.patternMap);
+        }
+    }
+
+    /**
+     * Looks up an object matching the given request path.
+     *
+     * @param path
+     *            the request path
+     * @return object or {@code null} if no match is found.
+     */
+    @Override
+    public T lookup(final String path) {
+        Args.notNull(path, "Request path");
+        return this.snapshot.lookup(path);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return this.objectMap.toString();
+    }
+
+    /**
+     * Returns the literal prefix of the given regular expression, that is,
+     * the longest sequence of plain characters every input matching
+     * the entire expression must start with. This method errs on the safe
+     * side and returns a shorter (possibly empty) prefix for any construct
+     * it does not recognize.
+     */
+    static String literalPrefix(final String regex) {
+        if (regex.indexOf('|') >= 0) {
+            // alternation may make any prefix optional
+            return "";
+        }
+        final StringBuilder buf = new StringBuilder();
+        int i = regex.startsWith("^") ? 1 : 0;
+        while (i < regex.length()) {
+            final char ch = regex.charAt(i);
+            if (Character.isSurrogate(ch)) {
+                break;
+            }
+            final char literal;
+            final int next;
+            if (ch == '\\') {
+                if (i + 1 >= regex.length()) {
+                    break;
+                }
+                final char escaped = regex.charAt(i + 1);
+                if (Character.isLetterOrDigit(escaped)) {
+                    // character class, back reference or quotation
+                    break;
+                }
+                literal = escaped;
+                next = i + 2;
+            } else if ("[](){}.*+?^$".indexOf(ch) >= 0) {
+                break;
+            } else {
+                literal = ch;
+                next = i + 1;
+            }
+            if (next < regex.length()) {
+                final char quantifier = regex.charAt(next);
+                if (quantifier == '?' || quantifier == '*' || quantifier == '{') {
+                    // optional or repeated literal
+                    break;
+                }
+            }
+            buf.append(literal);
+            i = next;
+        }
+        return buf.toString();
+    }
+
+    static final class Node {
+
+        final char[] chars;
+        final Node[] children;
+        final int[] candidates;
+
+        Node(final char[] chars, final Node[] children, final int[] candidates) {
+            this.chars = chars;
+            this.children = children;
+            this.candidates = candidates;
+        }
+
+        Node child(final char ch) {
+            int low = 0;
+            int high = this.chars.length - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                final char c = this.chars[mid];
+                if (c < ch) {
+                    low = mid + 1;
+                } else if (c > ch) {
+                    high = mid - 1;
+                } else {
+                    return this.children[mid];
+                }
+            }
+            return null;
+        }
+
+    }
+
+    static final class NodeBuilder {
+
+        final TreeMap<Character, NodeBuilder> children = new TreeMap<>();
+        final List<Integer> candidates = new ArrayList<>();
+
+        void add(final String prefix, final int index) {
+            NodeBuilder node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.children.computeIfAbsent(prefix.charAt(i), c -> new NodeBuilder());
+            }
+            node.candidates.add(index);
+        }
+
+        Node build() {
+            final char[] chars = new char[this.children.size()];
+            final Node[] nodes = new Node[this.children.size()];
+            int i = 0;
+            for (final Map.Entry<Character, NodeBuilder> entry : this.children.entrySet()) {
+                chars[i] = entry.getKey();
+                nodes[i] = entry.getValue().build();
+                i++;
+            }
+            final int[] indexes = new int[this.candidates.size()];
+            for (int n = 0; n < indexes.length; n++) {
+                indexes[n] = this.candidates.get(n);
+            }
+            return new Node(chars, nodes, indexes);
+        }
+
+    }
+
+    static final class Snapshot<T> {
+
+        final Map<String, T> exact;
+        final Pattern[] patterns;
+        final List<T> objects;
+        final Node root;
+
+        Snapshot(final Map<String, T> objectMap, final Map<String, Pattern> patternMap) {
+            this.exact = new HashMap<>(objectMap);
+            this.patterns = new Pattern[patternMap.size()];
+            this.objects = new ArrayList<>(patternMap.size());
+            final NodeBuilder builder = new NodeBuilder();
+            int index = 0;
+            for (final Map.Entry<String, Pattern> entry : patternMap.entrySet()) {
+                this.patterns[index] = entry.getValue();
+                this.objects.add(objectMap.get(entry.getKey()));
+                builder.add(literalPrefix(entry.getKey()), index);
+                index++;
+            }
+            this.root = builder.build();
+        }
+
+        T lookup(final String path) {
+            // direct match?
+            final T obj = this.exact.get(path);
+            if (obj != null) {
+                return obj;
+            }
+            // regex match? Candidates of each trie node are in registration order.
+            // The first expression to match wins across all nodes.
+            int best = Integer.MAX_VALUE;
+            Node node = this.root;
+            int i = 0;
+            while (node != null) {
+                for (final int candidate : node.candidates) {
+                    if (candidate >= best) {
+                        break;
+                    }
+                    if (this.patterns[candidate].matcher(path).matches()) {
+                        best = candidate;
+                        break;
+                    }
+                }
+                node = i < path.length() ? node.child(path.charAt(i++)) : null;
+            }
+            return best != Integer.MAX_VALUE ? this.objects.get(best) : null;
+        }
+
+    }
+
+}
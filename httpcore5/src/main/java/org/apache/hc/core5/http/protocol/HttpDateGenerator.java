@@ -35,9 +35,16 @@
 
 import org.apache.hc.core5.annotation.Contract;
 import org.apache.hc.core5.annotation.ThreadingBehavior;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.message.PreEncodedHeader;
 
 /**
  * Generates a date in the format required by the HTTP protocol.
+ * <p>
+ * The date is formatted at most once a second and published through
+ * a volatile reference, so it can be read by many threads without locking.
+ * </p>
  *
  * @since 4.0
  */
@@ -62,9 +69,9 @@ public class HttpDateGenerator {
     public static final HttpDateGenerator INSTANCE = new HttpDateGenerator(PATTERN_RFC1123, GMT_ID);
 
     private final DateTimeFormatter dateTimeFormatter;
-    private long dateAsMillis;
-    private String dateAsText;
-    private ZoneId zoneId;
+    private final ZoneId zoneId;
+
+    private volatile CachedDate cachedDate;
 
     HttpDateGenerator() {
         dateTimeFormatter =new DateTimeFormatterBuilder()
@@ -85,14 +92,43 @@ private HttpDateGenerator(final String pattern, final ZoneId zoneId) {
         this.zoneId =  zoneId;
     }
 
-    public synchronized String getCurrentDate() {
-        final long now = System.currentTimeMillis();
-        if (now - this.dateAsMillis > GRANULARITY_MILLIS) {
-            // Generate new date string
-            dateAsText = dateTimeFormatter.format(Instant.now().atZone(zoneId));
-            dateAsMillis = now;
+    private CachedDate getCachedDate() {
+        final long second = System.currentTimeMillis() / GRANULARITY_MILLIS;
+        CachedDate date = this.cachedDate;
+        if (date == null || date.second != second) {
+            // Racing threads may format the same date more than once, which is harmless
+            final String dateAsText = dateTimeFormatter.format(Instant.ofEpochSecond(second).atZone(zoneId));
+            date = new CachedDate(second, new PreEncodedHeader(HttpHeaders.DATE, dateAsText));
+            this.cachedDate = date;
         }
-        return dateAsText;
+        return date;
+    }
+
+    public String getCurrentDate() {
+        return getCachedDate().header.getValue();
+    }
+
+    /**
+     * Returns {@code Date} header with the current date. The header instance is
+     * shared for the duration of a second and carries its US-ASCII encoded form
+     * so it can be written out without formatting.
+     *
+     * @since 5.3
+     */
+    public Header getCurrentDateHeader() {
+        return getCachedDate().header;
+    }
+
+    private static final class CachedDate {
+
+        final long second;
+        final PreEncodedHeader header;
+
+        CachedDate(final long second, final PreEncodedHeader header) {
+            this.second = second;
+            this.header = header;
+        }
+
     }
 
 }
@@ -63,7 +63,7 @@ public void process(final HttpRequest request, final EntityDetails entity, final
             throws HttpException, IOException {
         Args.notNull(request, "HTTP request");
         if (entity != null && !request.containsHeader(HttpHeaders.DATE)) {
-            request.setHeader(HttpHeaders.DATE, HttpDateGenerator.INSTANCE.getCurrentDate());
+            request.setHeader(HttpDateGenerator.INSTANCE.getCurrentDateHeader());
         }
     }
 
@@ -27,8 +27,12 @@
 
 package org.apache.hc.core5.http.protocol;
 
+import java.util.Iterator;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.hc.core5.annotation.Contract;
 import org.apache.hc.core5.annotation.ThreadingBehavior;
@@ -42,6 +46,12 @@
 
 /**
  * Generic registry of request handlers that can be resolved by properties of request messages.
+ * <p>
+ * The registry can optionally keep a bounded cache of recently resolved handlers keyed
+ * by the request authority and path, so that requests to hot endpoints are routed without
+ * evaluating URI patterns. The cache approximates LRU eviction, does not block lookups
+ * and is invalidated each time a handler gets registered.
+ * </p>
  *
  * @param <T> request handler type.
  *
@@ -57,12 +67,29 @@
     private final Supplier<LookupRegistry<T>> registrySupplier;
     private final LookupRegistry<T> primary;
     private final ConcurrentMap<String, LookupRegistry<T>> virtualMap;
+    private final RouteCache<T> routeCache;
 
-    public RequestHandlerRegistry(final String canonicalHostName, final Supplier<LookupRegistry<T>> registrySupplier) {
+    /**
+     * @param canonicalHostName the canonical name of the local host.
+     * @param registrySupplier the supplier of pattern registries for individual hosts.
+     * @param routeCacheSize the maximum number of resolved routes to cache.
+     *   Value {@code 0} disables the route cache.
+     *
+     * @since 5.3
+     */
+    public RequestHandlerRegistry(
+            final String canonicalHostName,
+            final Supplier<LookupRegistry<T>> registrySupplier,
+            final int routeCacheSize) {
         this.canonicalHostName = TextUtils.toLowerCase(Args.notNull(canonicalHostName, "Canonical hostname"));
         this.registrySupplier = registrySupplier != null ? registrySupplier : UriPatternMatcher::new;
         this.primary = this.registrySupplier.get();
         this.virtualMap = new ConcurrentHashMap<>();
+        this.routeCache = Args.notNegative(routeCacheSize, "Route cache size") > 0 ? new RouteCache<>(routeCacheSize) : null;
+    }
+
+    public RequestHandlerRegistry(final String canonicalHostName, final Supplier<LookupRegistry<T>> registrySupplier) {
+        this(canonicalHostName, registrySupplier, 0);
     }
 
     public RequestHandlerRegistry(final String canonicalHostName, final UriPatternType patternType) {
@@ -98,7 +125,27 @@ public T resolve(final HttpRequest request, final HttpContext context) throws Mi
         if (i != -1) {
             path = path.substring(0, i);
         }
-        return patternMatcher.lookup(path);
+        if (routeCache == null) {
+            return patternMatcher.lookup(path);
+        }
+        final RouteKey routeKey = new RouteKey(patternMatcher, path);
+        final long generation = routeCache.generation();
+        final Route<T> route = routeCache.get(routeKey, generation);
+        if (route != null) {
+            return route.handler;
+        }
+        final T handler = patternMatcher.lookup(path);
+        routeCache.put(routeKey, new Route<>(handler, generation));
+        return handler;
+    }
+
+    /**
+     * Returns the number of resolved routes currently cached.
+     *
+     * @since 5.3
+     */
+    public int getRouteCacheSize() {
+        return routeCache != null ? routeCache.size() : 0;
     }
 
     public void register(final String hostname, final String uriPattern, final T object) {
@@ -120,6 +167,132 @@ public void register(final String hostname, final String uriPattern, final T obj
             }
             patternMatcher.register(uriPattern, object);
         }
+        if (routeCache != null) {
+            routeCache.invalidate();
+        }
+    }
+
+    static final class RouteKey {
+
+        final LookupRegistry<?> registry;
+        final String path;
+
+        RouteKey(final LookupRegistry<?> registry, final String path) {
+            this.registry = registry;
+            this.path = path;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj instanceof RouteKey) {
+                final RouteKey that = (RouteKey) obj;
+                return this.registry == that.registry && this.path.equals(that.path);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(registry) + path.hashCode();
+        }
+
+    }
+
+    static final class Route<T> {
+
+        final T handler;
+        final long generation;
+        volatile boolean referenced;
+
+        Route(final T handler, final long generation) {
+            this.handler = handler;
+            this.generation = generation;
+        }
+
+    }
+
+    /**
+     * Bounded concurrent cache with CLOCK (second chance) eviction. Routes resolved
+     * before the last invalidation are ignored even if they make it into the cache
+     * after it has been cleared.
+     */
+    static final class RouteCache<T> {
+
+        private final int maxSize;
+        private final ConcurrentHashMap<RouteKey, Route<T>> map;
+        private final AtomicLong generation;
+        private final ReentrantLock evictionLock;
+        private Iterator<Map.Entry<RouteKey, Route<T>>> hand;
+
+        RouteCache(final int maxSize) {
+            this.maxSize = maxSize;
+            this.map = new ConcurrentHashMap<>();
+            this.generation = new AtomicLong();
+            this.evictionLock = new ReentrantLock();
+        }
+
+        long generation() {
+            return generation.get();
+        }
+
+        Route<T> get(final RouteKey key, final long currentGeneration) {
+            final Route<T> route = map.get(key);
+            if (route == null || route.generation != currentGeneration) {
+                return null;
+            }
+            if (!route.referenced) {
+                route.referenced = true;
+            }
+            return route;
+        }
+
+        void put(final RouteKey key, final Route<T> route) {
+            map.put(key, route);
+            if (map.size() > maxSize) {
+                evict();
+            }
+        }
+
+        void invalidate() {
+            generation.incrementAndGet();
+            map.clear();
+        }
+
+        int size() {
+            return map.size();
+        }
+
+        private void evict() {
+            if (!evictionLock.tryLock()) {
+                // another thread is already evicting
+                return;
+            }
+            try {
+                // two sweeps are enough to clear the reference bit of every entry
+                int budget = 2 * map.size();
+                while (map.size() > maxSize && budget-- > 0) {
+                    if (hand == null || !hand.hasNext()) {
+                        hand = map.entrySet().iterator();
+                        if (!hand.hasNext()) {
+                            return;
+                        }
+                    }
+                    final Map.Entry<RouteKey, Route<T>> entry = hand.next();
+                    final Route<T> route = entry.getValue();
+                    if (route.referenced) {
+                        route.referenced = false;
+                    } else {
+                        map.remove(entry.getKey(), route);
+                    }
+                }
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+
     }
 
 }
@@ -60,7 +60,7 @@ public void process(final HttpResponse response, final EntityDetails entity, fin
         final int status = response.getCode();
         if ((status >= HttpStatus.SC_OK) &&
             !response.containsHeader(HttpHeaders.DATE)) {
-            response.setHeader(HttpHeaders.DATE, HttpDateGenerator.INSTANCE.getCurrentDate());
+            response.setHeader(HttpDateGenerator.INSTANCE.getCurrentDateHeader());
         }
     }
 
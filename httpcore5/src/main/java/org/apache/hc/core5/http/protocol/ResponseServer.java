@@ -36,6 +36,7 @@
 import org.apache.hc.core5.http.HttpHeaders;
 import org.apache.hc.core5.http.HttpResponse;
 import org.apache.hc.core5.http.HttpResponseInterceptor;
+import org.apache.hc.core5.http.message.PreEncodedHeader;
 import org.apache.hc.core5.util.Args;
 
 /**
@@ -48,6 +49,7 @@
 public class ResponseServer implements HttpResponseInterceptor {
 
     private final String originServer;
+    private final PreEncodedHeader serverHeader;
 
     /**
      * @since 4.3
@@ -55,6 +57,7 @@ public class ResponseServer implements HttpResponseInterceptor {
     public ResponseServer(final String originServer) {
         super();
         this.originServer = originServer;
+        this.serverHeader = originServer != null ? new PreEncodedHeader(HttpHeaders.SERVER, originServer) : null;
     }
 
     public ResponseServer() {
@@ -66,7 +69,7 @@ public void process(final HttpResponse response, final EntityDetails entity, fin
             throws HttpException, IOException {
         Args.notNull(response, "HTTP response");
         if (!response.containsHeader(HttpHeaders.SERVER) && this.originServer != null) {
-            response.addHeader(HttpHeaders.SERVER, this.originServer);
+            response.addHeader(this.serverHeader);
         }
     }
 
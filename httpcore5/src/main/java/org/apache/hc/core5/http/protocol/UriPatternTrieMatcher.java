@@ -0,0 +1,301 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+
+package org.apache.hc.core5.http.protocol;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+import org.apache.hc.core5.util.Args;
+
+/**
+ * Maintains a map of objects keyed by a request URI pattern.
+ * <p>
+ * Patterns may have three formats:
+ * </p>
+ * <ul>
+ * <li>{@code *}</li>
+ * <li>{@code *<uri>}</li>
+ * <li>{@code <uri>*}</li>
+ * </ul>
+ * <p>
+ * This class resolves objects using the same longest match rules as
+ * {@link UriPatternMatcher} but keeps registered patterns in an immutable
+ * snapshot of a prefix and a suffix trie that gets replaced upon each
+ * registration change. Lookups do not lock and do not allocate, and their cost
+ * depends on the length of the request path rather than on the number
+ * of registered patterns. This makes it suitable for large, rarely changing
+ * sets of patterns looked up concurrently by many threads.
+ * </p>
+ *
+ * @param <T> The type of registered objects.
+ * @since 5.3
+ */
+@Contract(threading = ThreadingBehavior.SAFE)
+public class UriPatternTrieMatcher<T> implements LookupRegistry<T> {
+
+    private final Map<String, T> map;
+    private volatile Snapshot<T> snapshot;
+
+    public UriPatternTrieMatcher() {
+        super();
+        this.map = new LinkedHashMap<>();
+        this.snapshot = new Snapshot<>(this.map);
+    }
+
+    /**
+     * Returns a {@link Set} view of the mappings contained in this matcher.
+     *
+     * @return  a set view of the mappings contained in this matcher.
+     *
+     * @see Map#entrySet()
+     */
+    public synchronized Set<Entry<String, T>> entrySet() {
+        return new HashSet<>(map.entrySet());
+    }
+
+    /**
+     * Registers the given object for URIs matching the given pattern.
+     *
+     * @param pattern
+     *            the pattern to register the handler for.
+     * @param obj
+     *            the object.
+     */
+    @Override
+    public synchronized void register(final String pattern, final T obj) {
+        Args.notNull(pattern, "URI request pattern");
+        this.map.put(pattern, obj);
+        this.snapshot = new Snapshot<>(this.map);
+    }
+
+    /**
+     * Removes registered object, if exists, for the given pattern.
+     *
+     * @param pattern
+     *            the pattern to unregister.
+     */
+    @Override
+    public synchronized void unregister(final String pattern) {
+        if (pattern == null) {
+            return;
+        }
+        if (this.map.containsKey(pattern)) {
+            this.map.remove(pattern);
+            this.snapshot = new Snapshot<>(this.map);
+        }
+    }
+
+    /**
+     * Looks up an object matching the given request path.
+     *
+     * @param path
+     *            the request path
+     * @return object or {@code null} if no match is found.
+     */
+    @Override
+    public T lookup(final String path) {
+        Args.notNull(path, "Request path");
+        return this.snapshot.lookup(path);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return this.map.toString();
+    }
+
+    static final class Match<T> {
+
+        final String pattern;
+        final T obj;
+        final int order;
+        final boolean trailingWildcard;
+
+        Match(final String pattern, final T obj, final int order) {
+            this.pattern = pattern;
+            this.obj = obj;
+            this.order = order;
+            this.trailingWildcard = pattern.endsWith("*");
+        }
+
+    }
+
+    static final class Node<T> {
+
+        final char[] chars;
+        final Node<T>[] children;
+        final Match<T> match;
+
+        Node(final char[] chars, final Node<T>[] children, final Match<T> match) {
+            this.chars = chars;
+            this.children = children;
+            this.match = match;
+        }
+
+        Node<T> child(final char ch) {
+            int low = 0;
+            int high = this.chars.length - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                final char c = this.chars[mid];
+                if (c < ch) {
+                    low = mid + 1;
+                } else if (c > ch) {
+                    high = mid - 1;
+                } else {
+                    return this.children[mid];
+                }
+            }
+            return null;
+        }
+
+    }
+
+    static final class NodeBuilder<T> {
+
+        final TreeMap<Character, NodeBuilder<T>> children = new TreeMap<>();
+        Match<T> match;
+
+        void add(final CharSequence key, final boolean reverse, final Match<T> match) {
+            NodeBuilder<T> node = this;
+            final int len = key.length();
+            for (int i = 0; i < len; i++) {
+                final char ch = key.charAt(reverse ? len - 1 - i : i);
+                node = node.children.computeIfAbsent(ch, c -> new NodeBuilder<>());
+            }
+            node.match = match;
+        }
+
+        @SuppressWarnings("unchecked")
+        Node<T> build() {
+            final char[] chars = new char[this.children.size()];
+            final Node<T>[] nodes = new Node[this.children.size()];
+            int i = 0;
+            for (final Map.Entry<Character, NodeBuilder<T>> entry : this.children.entrySet()) {
+                chars[i] = entry.getKey();
+                nodes[i] = entry.getValue().build();
+                i++;
+            }
+            return new Node<>(chars, nodes, this.match);
+        }
+
+    }
+
+    static final class Snapshot<T> {
+
+        final Map<String, T> exact;
+        final Node<T> prefixRoot;
+        final Node<T> suffixRoot;
+
+        Snapshot(final Map<String, T> map) {
+            final Map<String, T> exactMap = new HashMap<>(map.size());
+            final NodeBuilder<T> prefixBuilder = new NodeBuilder<>();
+            final NodeBuilder<T> suffixBuilder = new NodeBuilder<>();
+            int order = 0;
+            for (final Map.Entry<String, T> entry : map.entrySet()) {
+                final String pattern = entry.getKey();
+                final T obj = entry.getValue();
+                exactMap.put(pattern, obj);
+                final Match<T> match = new Match<>(pattern, obj, order++);
+                if (pattern.endsWith("*")) {
+                    prefixBuilder.add(pattern.subSequence(0, pattern.length() - 1), false, match);
+                }
+                if (pattern.startsWith("*")) {
+                    suffixBuilder.add(pattern.subSequence(1, pattern.length()), true, match);
+                }
+            }
+            this.exact = exactMap.isEmpty() ? Collections.emptyMap() : exactMap;
+            this.prefixRoot = prefixBuilder.build();
+            this.suffixRoot = suffixBuilder.build();
+        }
+
+        T lookup(final String path) {
+            // direct match?
+            final T obj = this.exact.get(path);
+            if (obj != null) {
+                return obj;
+            }
+            // longest prefix pattern
+            Node<T> node = this.prefixRoot;
+            Match<T> prefixMatch = node.match;
+            for (int i = 0; i < path.length() && node != null; i++) {
+                node = node.child(path.charAt(i));
+                if (node != null && node.match != null) {
+                    prefixMatch = node.match;
+                }
+            }
+            // longest suffix pattern
+            node = this.suffixRoot;
+            Match<T> suffixMatch = node.match;
+            for (int i = path.length() - 1; i >= 0 && node != null; i--) {
+                node = node.child(path.charAt(i));
+                if (node != null && node.match != null) {
+                    suffixMatch = node.match;
+                }
+            }
+            final Match<T> bestMatch = select(prefixMatch, suffixMatch);
+            return bestMatch != null ? bestMatch.obj : null;
+        }
+
+        /**
+         * Selects the longer of the two patterns. Of two patterns of the same length
+         * the one registered last with a trailing wildcard wins; failing that
+         * the one registered first. This mirrors iteration order semantics
+         * of {@link UriPatternMatcher#lookup(String)}.
+         */
+        private static <T> Match<T> select(final Match<T> m1, final Match<T> m2) {
+            if (m1 == null) {
+                return m2;
+            }
+            if (m2 == null || m1 == m2) {
+                return m1;
+            }
+            final int l1 = m1.pattern.length();
+            final int l2 = m2.pattern.length();
+            if (l1 != l2) {
+                return l1 > l2 ? m1 : m2;
+            }
+            if (m1.trailingWildcard && m2.trailingWildcard) {
+                return m1.order > m2.order ? m1 : m2;
+            }
+            if (m1.trailingWildcard || m2.trailingWildcard) {
+                return m1.trailingWildcard ? m1 : m2;
+            }
+            return m1.order < m2.order ? m1 : m2;
+        }
+
+    }
+
+}
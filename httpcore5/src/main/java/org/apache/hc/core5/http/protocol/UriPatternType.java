@@ -32,7 +32,23 @@
  */
 public enum UriPatternType {
 
-    REGEX, URI_PATTERN, URI_PATTERN_IN_ORDER;
+    REGEX, URI_PATTERN, URI_PATTERN_IN_ORDER,
+
+    /**
+     * Same matching rules as {@link #URI_PATTERN} backed by a lock-free
+     * {@link UriPatternTrieMatcher}.
+     *
+     * @since 5.3
+     */
+    URI_PATTERN_TRIE,
+
+    /**
+     * Same matching rules as {@link #REGEX} backed by a lock-free
+     * {@link CompiledUriRegexMatcher}.
+     *
+     * @since 5.3
+     */
+    REGEX_COMPILED;
 
     public static <T> LookupRegistry<T> newMatcher(final UriPatternType type) {
         if (type == null) {
@@ -43,6 +59,10 @@ public static <T> LookupRegistry<T> newMatcher(final UriPatternType type) {
             return new UriRegexMatcher<>();
         case URI_PATTERN_IN_ORDER:
             return new UriPatternOrderedMatcher<>();
+        case URI_PATTERN_TRIE:
+            return new UriPatternTrieMatcher<>();
+        case REGEX_COMPILED:
+            return new CompiledUriRegexMatcher<>();
         case URI_PATTERN:
         default:
             return new UriPatternMatcher<>();
@@ -0,0 +1,125 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+
+package org.apache.hc.core5.net;
+
+import java.nio.charset.Charset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.RandomAccess;
+
+import org.apache.hc.core5.http.NameValuePair;
+import org.apache.hc.core5.http.message.BasicNameValuePair;
+import org.apache.hc.core5.util.Tokenizer;
+
+/**
+ * Immutable list view of parameters of {@code application/x-www-form-urlencoded} content.
+ * Parameter boundaries are located upon construction; names and values are decoded only
+ * when the respective parameter gets accessed for the first time.
+ *
+ * @since 5.3
+ */
+final class LazyNameValueList extends AbstractList<NameValuePair> implements RandomAccess {
+
+    private final CharSequence content;
+    private final Charset charset;
+    private final boolean plusAsBlank;
+    // name start, name end, value start (-1 if none), value end per parameter
+    private final int[] bounds;
+    private final NameValuePair[] params;
+
+    LazyNameValueList(final CharSequence content, final Charset charset, final BitSet separators, final boolean plusAsBlank) {
+        this.content = content;
+        this.charset = charset;
+        this.plusAsBlank = plusAsBlank;
+        int[] tmp = new int[16];
+        int count = 0;
+        final int len = content.length();
+        int pos = 0;
+        while (pos < len) {
+            final int nameStart = pos;
+            boolean blank = true;
+            while (pos < len && !separators.get(content.charAt(pos)) && content.charAt(pos) != '=') {
+                blank &= Tokenizer.isWhitespace(content.charAt(pos));
+                pos++;
+            }
+            final int nameEnd = pos;
+            int valueStart = -1;
+            int valueEnd = -1;
+            if (pos < len && content.charAt(pos) == '=') {
+                pos++;
+                valueStart = pos;
+                while (pos < len && !separators.get(content.charAt(pos))) {
+                    pos++;
+                }
+                valueEnd = pos;
+            }
+            // skip separator
+            pos++;
+            if (!blank) {
+                if (tmp.length < (count + 1) * 4) {
+                    tmp = Arrays.copyOf(tmp, tmp.length << 1);
+                }
+                tmp[count * 4] = nameStart;
+                tmp[count * 4 + 1] = nameEnd;
+                tmp[count * 4 + 2] = valueStart;
+                tmp[count * 4 + 3] = valueEnd;
+                count++;
+            }
+        }
+        this.bounds = Arrays.copyOf(tmp, count * 4);
+        this.params = new NameValuePair[count];
+    }
+
+    private String decode(final int start, final int end) {
+        final WWWFormParser.TokenBuilder builder = new WWWFormParser.TokenBuilder(plusAsBlank);
+        for (int i = start; i < end; i++) {
+            builder.append(content.charAt(i));
+        }
+        return builder.build(charset);
+    }
+
+    @Override
+    public NameValuePair get(final int index) {
+        NameValuePair param = params[index];
+        if (param == null) {
+            final int i = index * 4;
+            param = new BasicNameValuePair(
+                    decode(bounds[i], bounds[i + 1]),
+                    bounds[i + 2] >= 0 ? decode(bounds[i + 2], bounds[i + 3]) : null);
+            params[index] = param;
+        }
+        return param;
+    }
+
+    @Override
+    public int size() {
+        return params.length;
+    }
+
+}
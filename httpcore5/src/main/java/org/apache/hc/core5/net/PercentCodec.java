@@ -31,6 +31,7 @@
 import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.BitSet;
 
 /**
@@ -84,76 +85,210 @@ public class PercentCodec {
         URIC.or(UNRESERVED);
     }
 
+    static final boolean[] UNRESERVED_CHARS = toTable(UNRESERVED);
+    static final boolean[] URIC_CHARS = toTable(URIC);
+
     private static final int RADIX = 16;
 
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private static final byte[] HEX_VALUES = new byte[128];
+
+    static {
+        Arrays.fill(HEX_VALUES, (byte) -1);
+        for (int i = '0'; i <= '9'; i++) {
+            HEX_VALUES[i] = (byte) (i - '0');
+        }
+        for (int i = 'A'; i <= 'F'; i++) {
+            HEX_VALUES[i] = (byte) (i - 'A' + 10);
+            HEX_VALUES[i + ('a' - 'A')] = (byte) (i - 'A' + 10);
+        }
+    }
+
+    /**
+     * Converts the set of safe characters into a lookup table. Only US-ASCII
+     * characters can be safe.
+     */
+    static boolean[] toTable(final BitSet safechars) {
+        final boolean[] table = new boolean[128];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = safechars.get(i);
+        }
+        return table;
+    }
+
+    /**
+     * Determines whether US-ASCII characters are encoded by the charset as single bytes
+     * of the same value and non-ASCII characters as bytes outside of the US-ASCII range,
+     * which allows for ASCII content to be coded without a charset encoder.
+     */
+    private static boolean isAsciiCompatible(final Charset charset) {
+        return StandardCharsets.UTF_8.equals(charset)
+                || StandardCharsets.ISO_8859_1.equals(charset)
+                || StandardCharsets.US_ASCII.equals(charset);
+    }
+
+    private static void appendEscaped(final StringBuilder buf, final int b) {
+        buf.append('%').append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
+    }
+
+    private static void appendByte(final StringBuilder buf, final int b, final boolean[] safechars,
+                                   final boolean blankAsPlus) {
+        if (b < 0x80 && safechars[b]) {
+            buf.append((char) b);
+        } else if (blankAsPlus && b == ' ') {
+            buf.append('+');
+        } else {
+            appendEscaped(buf, b);
+        }
+    }
+
+    private static void encodeBytes(final StringBuilder buf, final ByteBuffer bb, final boolean[] safechars,
+                                    final boolean blankAsPlus) {
+        while (bb.hasRemaining()) {
+            appendByte(buf, bb.get() & 0xff, safechars, blankAsPlus);
+        }
+    }
+
+    /**
+     * Encodes the non-ASCII character at the given position as UTF-8 and returns the position
+     * of the next character. Malformed surrogates are replaced with {@code '?'} the way
+     * the standard UTF-8 encoder does.
+     */
+    private static int encodeUtf8(final StringBuilder buf, final CharSequence content, final int pos, final int end,
+                                  final boolean[] safechars, final boolean blankAsPlus) {
+        final char c = content.charAt(pos);
+        if (c < 0x800) {
+            appendEscaped(buf, 0xC0 | (c >> 6));
+            appendEscaped(buf, 0x80 | (c & 0x3F));
+            return pos + 1;
+        }
+        if (Character.isSurrogate(c)) {
+            if (Character.isHighSurrogate(c) && pos + 1 < end && Character.isLowSurrogate(content.charAt(pos + 1))) {
+                final int cp = Character.toCodePoint(c, content.charAt(pos + 1));
+                appendEscaped(buf, 0xF0 | (cp >> 18));
+                appendEscaped(buf, 0x80 | ((cp >> 12) & 0x3F));
+                appendEscaped(buf, 0x80 | ((cp >> 6) & 0x3F));
+                appendEscaped(buf, 0x80 | (cp & 0x3F));
+                return pos + 2;
+            }
+            appendByte(buf, '?', safechars, blankAsPlus);
+            return pos + 1;
+        }
+        appendEscaped(buf, 0xE0 | (c >> 12));
+        appendEscaped(buf, 0x80 | ((c >> 6) & 0x3F));
+        appendEscaped(buf, 0x80 | (c & 0x3F));
+        return pos + 1;
+    }
+
     static void encode(final StringBuilder buf, final CharSequence content, final Charset charset,
-                       final BitSet safechars, final boolean blankAsPlus) {
+                       final boolean[] safechars, final boolean blankAsPlus) {
         if (content == null) {
             return;
         }
-        final CharBuffer cb = CharBuffer.wrap(content);
-        final ByteBuffer bb = (charset != null ? charset : StandardCharsets.UTF_8).encode(cb);
-        while (bb.hasRemaining()) {
-            final int b = bb.get() & 0xff;
-            if (safechars.get(b)) {
-                buf.append((char) b);
-            } else if (blankAsPlus && b == ' ') {
-                buf.append("+");
+        final Charset cs = charset != null ? charset : StandardCharsets.UTF_8;
+        if (!isAsciiCompatible(cs)) {
+            encodeBytes(buf, cs.encode(CharBuffer.wrap(content)), safechars, blankAsPlus);
+            return;
+        }
+        final boolean utf8 = StandardCharsets.UTF_8.equals(cs);
+        final int len = content.length();
+        int pos = 0;
+        while (pos < len) {
+            int end = pos;
+            while (end < len) {
+                final char c = content.charAt(end);
+                if (c >= 0x80 || !safechars[c]) {
+                    break;
+                }
+                end++;
+            }
+            if (end > pos) {
+                // Copy the run of safe characters in bulk
+                buf.append(content, pos, end);
+                pos = end;
+                if (pos == len) {
+                    break;
+                }
+            }
+            final char c = content.charAt(pos);
+            if (c < 0x80) {
+                appendByte(buf, c, safechars, blankAsPlus);
+                pos++;
+            } else if (utf8) {
+                pos = encodeUtf8(buf, content, pos, len, safechars, blankAsPlus);
             } else {
-                buf.append("%");
-                final char hex1 = Character.toUpperCase(Character.forDigit((b >> 4) & 0xF, RADIX));
-                final char hex2 = Character.toUpperCase(Character.forDigit(b & 0xF, RADIX));
-                buf.append(hex1);
-                buf.append(hex2);
+                encodeBytes(buf, cs.encode(CharBuffer.wrap(content, pos, len)), safechars, blankAsPlus);
+                break;
             }
         }
     }
 
     static void encode(final StringBuilder buf, final CharSequence content, final Charset charset, final boolean blankAsPlus) {
-        encode(buf, content, charset, UNRESERVED, blankAsPlus);
+        encode(buf, content, charset, UNRESERVED_CHARS, blankAsPlus);
     }
 
     public static void encode(final StringBuilder buf, final CharSequence content, final Charset charset) {
-        encode(buf, content, charset, UNRESERVED, false);
+        encode(buf, content, charset, UNRESERVED_CHARS, false);
     }
 
     public static String encode(final CharSequence content, final Charset charset) {
         if (content == null) {
             return null;
         }
-        final StringBuilder buf = new StringBuilder();
-        encode(buf, content, charset, UNRESERVED, false);
+        final StringBuilder buf = new StringBuilder(content.length() + 16);
+        encode(buf, content, charset, UNRESERVED_CHARS, false);
         return buf.toString();
     }
 
+    private static int hexValue(final char c) {
+        return c < 0x80 ? HEX_VALUES[c] : Character.digit(c, RADIX);
+    }
+
     static String decode(final CharSequence content, final Charset charset, final boolean plusAsBlank) {
         if (content == null) {
             return null;
         }
-        final ByteBuffer bb = ByteBuffer.allocate(content.length());
-        final CharBuffer cb = CharBuffer.wrap(content);
-        while (cb.hasRemaining()) {
-            final char c = cb.get();
-            if (c == '%' && cb.remaining() >= 2) {
-                final char uc = cb.get();
-                final char lc = cb.get();
-                final int u = Character.digit(uc, RADIX);
-                final int l = Character.digit(lc, RADIX);
+        final Charset cs = charset != null ? charset : StandardCharsets.UTF_8;
+        final int len = content.length();
+        if (isAsciiCompatible(cs)) {
+            int i = 0;
+            while (i < len) {
+                final char c = content.charAt(i);
+                if (c >= 0x80 || c == '%' || plusAsBlank && c == '+') {
+                    break;
+                }
+                i++;
+            }
+            if (i == len) {
+                // Nothing to decode
+                return content.toString();
+            }
+        }
+        final byte[] bytes = new byte[len];
+        int n = 0;
+        int i = 0;
+        while (i < len) {
+            final char c = content.charAt(i++);
+            if (c == '%' && len - i >= 2) {
+                final char uc = content.charAt(i++);
+                final char lc = content.charAt(i++);
+                final int u = hexValue(uc);
+                final int l = hexValue(lc);
                 if (u != -1 && l != -1) {
-                    bb.put((byte) ((u << 4) + l));
+                    bytes[n++] = (byte) ((u << 4) + l);
                 } else {
-                    bb.put((byte) '%');
-                    bb.put((byte) uc);
-                    bb.put((byte) lc);
+                    bytes[n++] = (byte) '%';
+                    bytes[n++] = (byte) uc;
+                    bytes[n++] = (byte) lc;
                 }
             } else if (plusAsBlank && c == '+') {
-                bb.put((byte) ' ');
+                bytes[n++] = (byte) ' ';
             } else {
-                bb.put((byte) c);
+                bytes[n++] = (byte) c;
             }
         }
-        bb.flip();
-        return (charset != null ? charset : StandardCharsets.UTF_8).decode(bb).toString();
+        return new String(bytes, 0, n, cs);
     }
 
     public static String decode(final CharSequence content, final Charset charset) {
@@ -0,0 +1,262 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.core5.net;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+import org.apache.hc.core5.http.NameValuePair;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.util.Args;
+import org.apache.hc.core5.util.TextUtils;
+
+/**
+ * Pre-compiled request target template.
+ * <p>
+ * The scheme, authority, path and optional fixed query of the template are encoded
+ * once at construction time. Request targets are produced by appending percent-encoded
+ * query parameters to the cached prefix, which avoids parsing and re-serializing
+ * {@link URI} instances with {@link URIBuilder} on every request. Query parameters
+ * are encoded exactly as {@link URIBuilder} encodes them.
+ * </p>
+ * <p>
+ * Request targets produced by this class can be passed to request builders without
+ * intermediate {@link URI} objects:
+ * </p>
+ * <pre>
+ * RequestTargetTemplate template = RequestTargetTemplate.create(URI.create("https://host/search"));
+ * ClassicRequestBuilder.get()
+ *         .setScheme(template.getScheme())
+ *         .setAuthority(template.getAuthority())
+ *         .setPath(template.format("q", query))
+ *         .build();
+ * </pre>
+ *
+ * @since 5.3
+ */
+@Contract(threading = ThreadingBehavior.IMMUTABLE)
+public final class RequestTargetTemplate {
+
+    private final String scheme;
+    private final URIAuthority authority;
+    private final Charset charset;
+    private final String prefix;
+    private final String absolutePrefix;
+    private final boolean hasQuery;
+
+    RequestTargetTemplate(
+            final String scheme,
+            final URIAuthority authority,
+            final String encodedPath,
+            final String encodedQuery,
+            final Charset charset) {
+        this.scheme = scheme;
+        this.authority = authority;
+        this.charset = charset != null ? charset : StandardCharsets.UTF_8;
+        final StringBuilder buf = new StringBuilder();
+        if (TextUtils.isEmpty(encodedPath)) {
+            buf.append('/');
+        } else {
+            if (encodedPath.charAt(0) != '/') {
+                buf.append('/');
+            }
+            buf.append(encodedPath);
+        }
+        if (encodedQuery != null) {
+            buf.append('?').append(encodedQuery);
+        }
+        this.prefix = buf.toString();
+        this.hasQuery = encodedQuery != null;
+        if (authority != null) {
+            final StringBuilder abuf = new StringBuilder();
+            abuf.append(scheme != null ? scheme : URIScheme.HTTP.id).append("://");
+            URIAuthority.format(abuf, authority);
+            abuf.append(this.prefix);
+            this.absolutePrefix = abuf.toString();
+        } else {
+            this.absolutePrefix = this.prefix;
+        }
+    }
+
+    /**
+     * Creates a template from the given URI. The raw path and query of the URI are used
+     * as is, the fragment is discarded.
+     */
+    public static RequestTargetTemplate create(final URI uri, final Charset charset) {
+        Args.notNull(uri, "URI");
+        URIAuthority authority = null;
+        final String uriHost = uri.getHost();
+        if (uriHost != null) {
+            // URI.getHost returns bracketed IPv6 addresses. Brackets are an encoding detail
+            // of the URI and not part of the host name.
+            final String hostName = InetAddressUtils.isIPv6URLBracketedAddress(uriHost)
+                    ? uriHost.substring(1, uriHost.length() - 1)
+                    : uriHost;
+            authority = new URIAuthority(uri.getRawUserInfo(), hostName, uri.getPort());
+        } else if (uri.getRawAuthority() != null) {
+            try {
+                authority = URIAuthority.create(uri.getRawAuthority());
+            } catch (final URISyntaxException ignore) {
+                // ignore
+            }
+        }
+        return new RequestTargetTemplate(uri.getScheme(), authority, uri.getRawPath(), uri.getRawQuery(), charset);
+    }
+
+    public static RequestTargetTemplate create(final URI uri) {
+        return create(uri, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates a template from the given scheme, authority and unencoded path segments.
+     *
+     * @param scheme the scheme. May be {@code null}.
+     * @param authority the authority. May be {@code null}.
+     * @param pathSegments the path segments. Will be percent-encoded using the given charset.
+     * @param charset the charset used to encode path segments and query parameters.
+     */
+    public static RequestTargetTemplate create(
+            final String scheme,
+            final URIAuthority authority,
+            final List<String> pathSegments,
+            final Charset charset) {
+        Args.notNull(pathSegments, "Path segments");
+        final StringBuilder buf = new StringBuilder();
+        URIBuilder.formatPath(buf, pathSegments, false, charset != null ? charset : StandardCharsets.UTF_8);
+        return new RequestTargetTemplate(scheme, authority, buf.toString(), null, charset);
+    }
+
+    public static RequestTargetTemplate create(
+            final String scheme,
+            final URIAuthority authority,
+            final String... pathSegments) {
+        return create(scheme, authority, Arrays.asList(pathSegments), StandardCharsets.UTF_8);
+    }
+
+    public String getScheme() {
+        return scheme;
+    }
+
+    public URIAuthority getAuthority() {
+        return authority;
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * Returns the encoded path and fixed query of the template.
+     */
+    public String getPath() {
+        return prefix;
+    }
+
+    private void appendParam(final StringBuilder buf, final boolean first, final String name, final String value) {
+        buf.append(first ? '?' : '&');
+        PercentCodec.encode(buf, name, charset, false);
+        if (value != null) {
+            buf.append('=');
+            PercentCodec.encode(buf, value, charset, false);
+        }
+    }
+
+    /**
+     * Appends the request target (origin form) with the given query parameters
+     * to the buffer.
+     *
+     * @param buf the buffer. Can be re-used by the caller for subsequent requests.
+     * @param params the query parameters.
+     */
+    public void formatTo(final StringBuilder buf, final Iterable<? extends NameValuePair> params) {
+        Args.notNull(buf, "Buffer");
+        buf.append(prefix);
+        if (params != null) {
+            boolean first = !hasQuery;
+            for (final NameValuePair param : params) {
+                appendParam(buf, first, param.getName(), param.getValue());
+                first = false;
+            }
+        }
+    }
+
+    /**
+     * Appends the request target (origin form) with a single query parameter
+     * to the buffer.
+     */
+    public void formatTo(final StringBuilder buf, final String name, final String value) {
+        Args.notNull(buf, "Buffer");
+        Args.notNull(name, "Parameter name");
+        buf.append(prefix);
+        appendParam(buf, !hasQuery, name, value);
+    }
+
+    /**
+     * Returns the request target (origin form) with the given query parameters.
+     */
+    public String format(final Iterable<? extends NameValuePair> params) {
+        final StringBuilder buf = new StringBuilder(prefix.length() + 64);
+        formatTo(buf, params);
+        return buf.toString();
+    }
+
+    public String format(final NameValuePair... params) {
+        return format(Arrays.asList(params));
+    }
+
+    /**
+     * Returns the request target (origin form) with a single query parameter.
+     */
+    public String format(final String name, final String value) {
+        final StringBuilder buf = new StringBuilder(prefix.length() + 64);
+        formatTo(buf, name, value);
+        return buf.toString();
+    }
+
+    /**
+     * Returns the request target in absolute form with the given query parameters.
+     * If the template has no authority the origin form is returned.
+     */
+    public String formatAbsolute(final Iterable<? extends NameValuePair> params) {
+        final StringBuilder buf = new StringBuilder(absolutePrefix.length() + 64);
+        buf.append(absolutePrefix, 0, absolutePrefix.length() - prefix.length());
+        formatTo(buf, params);
+        return buf.toString();
+    }
+
+    @Override
+    public String toString() {
+        return absolutePrefix;
+    }
+
+}
@@ -45,7 +45,6 @@
 import org.apache.hc.core5.http.message.ParserCursor;
 import org.apache.hc.core5.util.Args;
 import org.apache.hc.core5.util.TextUtils;
-import org.apache.hc.core5.util.Tokenizer;
 
 /**
  * Builder for {@link URI} instances.
@@ -196,13 +195,10 @@ public Charset getCharset() {
     private static final char PARAM_VALUE_SEPARATOR = '=';
     private static final char PATH_SEPARATOR = '/';
 
-    private static final BitSet QUERY_PARAM_SEPARATORS = new BitSet(256);
     private static final BitSet QUERY_VALUE_SEPARATORS = new BitSet(256);
     private static final BitSet PATH_SEPARATORS = new BitSet(256);
 
     static {
-        QUERY_PARAM_SEPARATORS.set(QUERY_PARAM_SEPARATOR);
-        QUERY_PARAM_SEPARATORS.set(PARAM_VALUE_SEPARATOR);
         QUERY_VALUE_SEPARATORS.set(QUERY_PARAM_SEPARATOR);
         PATH_SEPARATORS.set(PATH_SEPARATOR);
     }
@@ -211,28 +207,10 @@ static List<NameValuePair> parseQuery(final CharSequence s, final Charset charse
         if (s == null) {
             return null;
         }
-        final Tokenizer tokenParser = Tokenizer.INSTANCE;
-        final ParserCursor cursor = new ParserCursor(0, s.length());
         final List<NameValuePair> list = new ArrayList<>();
-        while (!cursor.atEnd()) {
-            final String name = tokenParser.parseToken(s, cursor, QUERY_PARAM_SEPARATORS);
-            String value = null;
-            if (!cursor.atEnd()) {
-                final int delim = s.charAt(cursor.getPos());
-                cursor.updatePos(cursor.getPos() + 1);
-                if (delim == PARAM_VALUE_SEPARATOR) {
-                    value = tokenParser.parseToken(s, cursor, QUERY_VALUE_SEPARATORS);
-                    if (!cursor.atEnd()) {
-                        cursor.updatePos(cursor.getPos() + 1);
-                    }
-                }
-            }
-            if (!name.isEmpty()) {
-                list.add(new BasicNameValuePair(
-                        PercentCodec.decode(name, charset, plusAsBlank),
-                        PercentCodec.decode(value, charset, plusAsBlank)));
-            }
-        }
+        final WWWFormParser parser = new WWWFormParser(charset, QUERY_VALUE_SEPARATORS, plusAsBlank,
+                (name, value) -> list.add(new BasicNameValuePair(name, value)));
+        parser.parse(s, 0, s.length());
         return list;
     }
 
@@ -367,7 +345,7 @@ private String buildString() {
                 formatQuery(sb, this.queryParams, this.charset, false);
             } else if (this.query != null) {
                 sb.append("?");
-                PercentCodec.encode(sb, this.query, this.charset, PercentCodec.URIC, false);
+                PercentCodec.encode(sb, this.query, this.charset, PercentCodec.URIC_CHARS, false);
             }
         }
         if (this.encodedFragment != null) {
@@ -38,7 +38,6 @@
 import org.apache.hc.core5.http.NameValuePair;
 import org.apache.hc.core5.http.message.BasicNameValuePair;
 import org.apache.hc.core5.util.Args;
-import org.apache.hc.core5.util.Tokenizer;
 
 /**
  * A collection of utilities for encoding URLs.
@@ -103,35 +102,37 @@ public static List<NameValuePair> parse(final CharSequence s, final Charset char
     public static List<NameValuePair> parse(
             final CharSequence s, final Charset charset, final char... separators) {
         Args.notNull(s, "Char sequence");
-        final Tokenizer tokenParser = Tokenizer.INSTANCE;
+        final List<NameValuePair> list = new ArrayList<>();
+        parse(s, charset, (name, value) -> list.add(new BasicNameValuePair(name, value)), separators);
+        return list;
+    }
+
+    /**
+     * Parses URI query parameters passing them to the given handler in the order of appearance
+     * without building an intermediate list. By convention, {@code '&'} and {@code ';'} are
+     * accepted as parameter separators.
+     *
+     * @param s URI query component.
+     * @param charset charset to use when decoding the parameters.
+     * @param handler the handler of parsed parameters.
+     *
+     * @since 5.3
+     */
+    public static void parse(final CharSequence s, final Charset charset, final NameValueHandler handler) {
+        if (s == null) {
+            return;
+        }
+        parse(s, charset, handler, QP_SEP_A, QP_SEP_S);
+    }
+
+    private static void parse(
+            final CharSequence s, final Charset charset, final NameValueHandler handler, final char... separators) {
         final BitSet delimSet = new BitSet();
         for (final char separator: separators) {
             delimSet.set(separator);
         }
-        final Tokenizer.Cursor cursor = new Tokenizer.Cursor(0, s.length());
-        final List<NameValuePair> list = new ArrayList<>();
-        while (!cursor.atEnd()) {
-            delimSet.set('=');
-            final String name = tokenParser.parseToken(s, cursor, delimSet);
-            String value = null;
-            if (!cursor.atEnd()) {
-                final int delim = s.charAt(cursor.getPos());
-                cursor.updatePos(cursor.getPos() + 1);
-                if (delim == '=') {
-                    delimSet.clear('=');
-                    value = tokenParser.parseToken(s, cursor, delimSet);
-                    if (!cursor.atEnd()) {
-                        cursor.updatePos(cursor.getPos() + 1);
-                    }
-                }
-            }
-            if (!name.isEmpty()) {
-                list.add(new BasicNameValuePair(
-                        PercentCodec.decode(name, charset, true),
-                        PercentCodec.decode(value, charset, true)));
-            }
-        }
-        return list;
+        final WWWFormParser parser = new WWWFormParser(charset, delimSet, true, handler);
+        parser.parse(s, 0, s.length());
     }
 
     /**
@@ -209,10 +210,10 @@ public static String format(
             if (i > 0) {
                 buf.append(parameterSeparator);
             }
-            PercentCodec.encode(buf, parameter.getName(), charset, URL_ENCODER, true);
+            PercentCodec.encode(buf, parameter.getName(), charset, URL_ENCODER_CHARS, true);
             if (parameter.getValue() != null) {
                 buf.append('=');
-                PercentCodec.encode(buf, parameter.getValue(), charset, URL_ENCODER, true);
+                PercentCodec.encode(buf, parameter.getValue(), charset, URL_ENCODER_CHARS, true);
             }
             i++;
         }
@@ -256,4 +257,6 @@ public static String format(
         URL_ENCODER.set('*');
     }
 
+    private static final boolean[] URL_ENCODER_CHARS = PercentCodec.toTable(URL_ENCODER);
+
 }
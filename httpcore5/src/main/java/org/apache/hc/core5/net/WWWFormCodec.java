@@ -27,10 +27,18 @@
 
 package org.apache.hc.core5.net;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
 import java.util.List;
 
 import org.apache.hc.core5.http.NameValuePair;
+import org.apache.hc.core5.util.Args;
 
 /**
  * {@code application/x-www-form-urlencoded} codec.
@@ -41,6 +49,12 @@ public class WWWFormCodec {
 
     private static final char QP_SEP_A = '&';
 
+    private static final BitSet SEPARATORS = new BitSet(256);
+
+    static {
+        SEPARATORS.set(QP_SEP_A);
+    }
+
     /**
      * Returns a list of {@link NameValuePair} parameters parsed
      * from the {@code application/x-www-form-urlencoded} content.
@@ -53,6 +67,89 @@ public static List<NameValuePair> parse(final CharSequence s, final Charset char
         return URIBuilder.parseQuery(s, charset, true);
     }
 
+    /**
+     * Parses {@code application/x-www-form-urlencoded} content passing parameters
+     * to the given handler in the order of appearance without building an intermediate list.
+     *
+     * @param s input text.
+     * @param charset parameter charset.
+     * @param handler the handler of parsed parameters.
+     *
+     * @since 5.3
+     */
+    public static void parse(final CharSequence s, final Charset charset, final NameValueHandler handler) {
+        Args.notNull(s, "Char sequence");
+        new WWWFormParser(charset, SEPARATORS, true, handler).parse(s, 0, s.length());
+    }
+
+    /**
+     * Parses {@code application/x-www-form-urlencoded} content incrementally as it is
+     * being read from the given input stream passing parameters to the given handler
+     * in the order of appearance. Only the parameter currently being parsed is held in memory.
+     *
+     * @param inputStream the content stream. The stream is read to its end but not closed.
+     * @param charset parameter charset.
+     * @param handler the handler of parsed parameters.
+     * @throws IOException in case of an I/O error.
+     *
+     * @see WWWFormParser
+     * @since 5.3
+     */
+    public static void parse(
+            final InputStream inputStream, final Charset charset, final NameValueHandler handler) throws IOException {
+        Args.notNull(inputStream, "Input stream");
+        final Charset actualCharset = charset != null ? charset : StandardCharsets.UTF_8;
+        if (WWWFormParser.isAsciiCompatible(actualCharset)) {
+            new WWWFormParser(actualCharset, handler).parse(inputStream);
+        } else {
+            final WWWFormParser parser = new WWWFormParser(actualCharset, SEPARATORS, true, handler);
+            final Reader reader = new InputStreamReader(inputStream, actualCharset);
+            final char[] tmp = new char[1024];
+            int l;
+            while ((l = reader.read(tmp)) != -1) {
+                for (int i = 0; i < l; i++) {
+                    parser.update(tmp[i]);
+                }
+            }
+            parser.complete();
+        }
+    }
+
+    /**
+     * Parses {@code application/x-www-form-urlencoded} content remaining in the given buffer
+     * passing parameters to the given handler in the order of appearance.
+     *
+     * @param src the content buffer.
+     * @param charset parameter charset. Must be ASCII compatible.
+     * @param handler the handler of parsed parameters.
+     *
+     * @see WWWFormParser
+     * @since 5.3
+     */
+    public static void parse(final ByteBuffer src, final Charset charset, final NameValueHandler handler) {
+        final WWWFormParser parser = new WWWFormParser(charset, handler);
+        parser.update(src);
+        parser.complete();
+    }
+
+    /**
+     * Returns an immutable list view of {@link NameValuePair} parameters of
+     * the {@code application/x-www-form-urlencoded} content. Parameter boundaries
+     * are located upon construction of the view while names and values are decoded
+     * only once the individual parameter gets accessed. The content must not change
+     * while the view is in use.
+     *
+     * @param s input text.
+     * @param charset parameter charset.
+     * @return list view of form parameters.
+     *
+     * @since 5.3
+     */
+    public static List<NameValuePair> parseLazily(final CharSequence s, final Charset charset) {
+        Args.notNull(s, "Char sequence");
+        return new LazyNameValueList(s, charset != null ? charset : StandardCharsets.UTF_8, SEPARATORS, true);
+    }
+
     /**
      * Formats the list of {@link NameValuePair} parameters into a {@code application/x-www-form-urlencoded}
      * content.
@@ -0,0 +1,294 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+
+package org.apache.hc.core5.net;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.apache.hc.core5.util.Args;
+import org.apache.hc.core5.util.Tokenizer;
+
+/**
+ * Incremental parser of {@code application/x-www-form-urlencoded} content.
+ * <p>
+ * Content can be fed to the parser in arbitrary chunks as it becomes available.
+ * Parameters are decoded as soon as their terminating separator has been seen and
+ * passed to the {@link NameValueHandler}, so that only the parameter currently being
+ * parsed is held in memory. Parameters are decoded the same way as by
+ * {@link WWWFormCodec#parse(CharSequence, Charset)}.
+ * </p>
+ * <p>
+ * The parser operates on raw content bytes and therefore requires the content charset
+ * to encode US-ASCII characters as single bytes of the same value, which is the case
+ * for UTF-8, ISO-8859-x and most other charsets used in practice.
+ * </p>
+ * <p>
+ * Instances of this class are not thread safe.
+ * </p>
+ *
+ * @since 5.3
+ */
+public final class WWWFormParser {
+
+    private static final BitSet FORM_SEPARATORS = new BitSet(256);
+
+    static {
+        FORM_SEPARATORS.set('&');
+    }
+
+    private final Charset charset;
+    private final BitSet separators;
+    private final NameValueHandler handler;
+    private final TokenBuilder nameBuilder;
+    private final TokenBuilder valueBuilder;
+
+    private boolean value;
+
+    WWWFormParser(
+            final Charset charset,
+            final BitSet separators,
+            final boolean plusAsBlank,
+            final NameValueHandler handler) {
+        this.charset = charset != null ? charset : StandardCharsets.UTF_8;
+        this.separators = separators;
+        this.handler = Args.notNull(handler, "Name / value handler");
+        this.nameBuilder = new TokenBuilder(plusAsBlank);
+        this.valueBuilder = new TokenBuilder(plusAsBlank);
+    }
+
+    /**
+     * @param charset parameter charset. {@code UTF-8} is used if {@code null}.
+     * @param handler the handler of parsed parameters.
+     */
+    public WWWFormParser(final Charset charset, final NameValueHandler handler) {
+        this(charset, FORM_SEPARATORS, true, handler);
+        Args.check(isAsciiCompatible(this.charset), "Charset %s is not ASCII compatible", this.charset);
+    }
+
+    static boolean isAsciiCompatible(final Charset charset) {
+        return charset.newEncoder().canEncode('&')
+                && Arrays.equals("&=%+ azAZ09".getBytes(charset), "&=%+ azAZ09".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    void update(final int ch) {
+        if (separators.get(ch)) {
+            emit();
+        } else if (!value && ch == '=') {
+            value = true;
+        } else if (value) {
+            valueBuilder.append(ch);
+        } else {
+            nameBuilder.append(ch);
+        }
+    }
+
+    private void emit() {
+        if (nameBuilder.hasContent()) {
+            handler.handle(
+                    nameBuilder.build(charset),
+                    value ? valueBuilder.build(charset) : null);
+        }
+        reset();
+    }
+
+    /**
+     * Parses the given chunk of content.
+     *
+     * @param b the content.
+     * @param off the start offset.
+     * @param len the number of bytes to parse.
+     */
+    public void update(final byte[] b, final int off, final int len) {
+        Args.notNull(b, "Content");
+        for (int i = off; i < off + len; i++) {
+            update(b[i] & 0xff);
+        }
+    }
+
+    /**
+     * Parses remaining content of the given buffer.
+     *
+     * @param src the content buffer.
+     */
+    public void update(final ByteBuffer src) {
+        Args.notNull(src, "Content");
+        if (src.hasArray()) {
+            final int pos = src.position();
+            update(src.array(), src.arrayOffset() + pos, src.remaining());
+            src.position(src.limit());
+        } else {
+            while (src.hasRemaining()) {
+                update(src.get() & 0xff);
+            }
+        }
+    }
+
+    /**
+     * Signals the end of content, passing the last parameter, if any, to the handler.
+     * The parser can be re-used afterwards.
+     */
+    public void complete() {
+        emit();
+    }
+
+    /**
+     * Discards the parameter currently being parsed.
+     */
+    public void reset() {
+        nameBuilder.reset();
+        valueBuilder.reset();
+        value = false;
+    }
+
+    /**
+     * Parses the content of the given input stream up to its end.
+     *
+     * @param inputStream the content stream.
+     * @throws IOException in case of an I/O error.
+     */
+    public void parse(final InputStream inputStream) throws IOException {
+        Args.notNull(inputStream, "Input stream");
+        final byte[] tmp = new byte[4096];
+        int l;
+        while ((l = inputStream.read(tmp)) != -1) {
+            update(tmp, 0, l);
+        }
+        complete();
+    }
+
+    /**
+     * Parses the given char sequence, casting its chars to bytes the way
+     * {@link PercentCodec#decode(CharSequence, Charset)} does.
+     */
+    void parse(final CharSequence s, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            update(s.charAt(i));
+        }
+        complete();
+    }
+
+    /**
+     * Accumulates decoded bytes of a single name or value discarding insignificant
+     * whitespace the way {@link Tokenizer#parseToken(CharSequence, Tokenizer.Cursor, BitSet)}
+     * does and decoding percent-encoded octets and {@code '+'} the way
+     * {@link PercentCodec#decode(CharSequence, Charset)} does.
+     */
+    static final class TokenBuilder {
+
+        private final boolean plusAsBlank;
+        private byte[] buffer;
+        private int len;
+        private boolean content;
+        private boolean whitespace;
+        // 0: plain, 1: after '%', 2: after '%' and one char
+        private int escape;
+        private int upper;
+
+        TokenBuilder(final boolean plusAsBlank) {
+            this.plusAsBlank = plusAsBlank;
+            this.buffer = new byte[64];
+        }
+
+        void append(final int ch) {
+            if (Tokenizer.isWhitespace((char) ch)) {
+                whitespace = content;
+                return;
+            }
+            if (whitespace) {
+                decode(' ');
+                whitespace = false;
+            }
+            decode(ch);
+            content = true;
+        }
+
+        private void decode(final int ch) {
+            switch (escape) {
+                case 1:
+                    upper = ch;
+                    escape = 2;
+                    break;
+                case 2:
+                    final int u = Character.digit(upper, 16);
+                    final int l = Character.digit(ch, 16);
+                    if (u != -1 && l != -1) {
+                        put((u << 4) + l);
+                    } else {
+                        put('%');
+                        put(upper);
+                        put(ch);
+                    }
+                    escape = 0;
+                    break;
+                default:
+                    if (ch == '%') {
+                        escape = 1;
+                    } else {
+                        put(plusAsBlank && ch == '+' ? ' ' : ch);
+                    }
+            }
+        }
+
+        private void put(final int b) {
+            if (len == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length << 1);
+            }
+            buffer[len++] = (byte) b;
+        }
+
+        boolean hasContent() {
+            return content;
+        }
+
+        String build(final Charset charset) {
+            if (escape > 0) {
+                // incomplete escape sequence is taken literally
+                put('%');
+                if (escape == 2) {
+                    put(plusAsBlank && upper == '+' ? ' ' : upper);
+                }
+                escape = 0;
+            }
+            return new String(buffer, 0, len, charset);
+        }
+
+        void reset() {
+            len = 0;
+            content = false;
+            whitespace = false;
+            escape = 0;
+        }
+
+    }
+
+}
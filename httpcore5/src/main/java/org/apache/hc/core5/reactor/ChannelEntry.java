@@ -33,11 +33,13 @@ final class ChannelEntry {
 
     final SocketChannel channel;
     final Object attachment;
+    final long timestamp;
 
     public ChannelEntry(final SocketChannel channel, final Object attachment) {
         super();
         this.channel = channel;
         this.attachment = attachment;
+        this.timestamp = System.currentTimeMillis();
     }
 
     @Override
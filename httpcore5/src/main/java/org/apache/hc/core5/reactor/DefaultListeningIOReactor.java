@@ -32,12 +32,14 @@
 import java.util.Set;
 import java.util.concurrent.Future;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.hc.core5.concurrent.DefaultThreadFactory;
 import org.apache.hc.core5.concurrent.FutureCallback;
 import org.apache.hc.core5.function.Callback;
 import org.apache.hc.core5.function.Decorator;
 import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.io.Closer;
 import org.apache.hc.core5.util.Args;
 import org.apache.hc.core5.util.TimeValue;
 
@@ -58,8 +60,10 @@ public class DefaultListeningIOReactor extends AbstractIOReactorBase implements
     private final int workerCount;
     private final SingleCoreIOReactor[] workers;
     private final SingleCoreListeningIOReactor listener;
+    private final SingleCoreListeningIOReactor[] listeners;
     private final MultiCoreIOReactor ioReactor;
     private final IOWorkers.Selector workerSelector;
+    private final AtomicLong rejectedChannelCount;
 
     /**
      * Creates an instance of DefaultListeningIOReactor with the given configuration.
@@ -82,8 +86,9 @@ public DefaultListeningIOReactor(
             final Callback<IOSession> sessionShutdownCallback) {
         Args.notNull(eventHandlerFactory, "Event handler factory");
         this.workerCount = ioReactorConfig != null ? ioReactorConfig.getIoThreadCount() : IOReactorConfig.DEFAULT.getIoThreadCount();
+        final int listenerCount = ioReactorConfig != null ? ioReactorConfig.getListenerThreadCount() : IOReactorConfig.DEFAULT.getListenerThreadCount();
         this.workers = new SingleCoreIOReactor[workerCount];
-        final Thread[] threads = new Thread[workerCount + 1];
+        final Thread[] threads = new Thread[workerCount + listenerCount];
         for (int i = 0; i < this.workers.length; i++) {
             final SingleCoreIOReactor dispatcher = new SingleCoreIOReactor(
                     exceptionCallback,
@@ -91,19 +96,33 @@ public DefaultListeningIOReactor(
                     ioReactorConfig != null ? ioReactorConfig : IOReactorConfig.DEFAULT,
                     ioSessionDecorator,
                     sessionListener,
-                    sessionShutdownCallback);
+                    sessionShutdownCallback,
+                    this::onChannelAdmission);
             this.workers[i] = dispatcher;
-            threads[i + 1] = (dispatchThreadFactory != null ? dispatchThreadFactory : DISPATCH_THREAD_FACTORY).newThread(new IOReactorWorker(dispatcher));
+            threads[i + listenerCount] = (dispatchThreadFactory != null ? dispatchThreadFactory : DISPATCH_THREAD_FACTORY).newThread(new IOReactorWorker(dispatcher));
         }
-        final IOReactor[] ioReactors = new IOReactor[this.workerCount + 1];
-        System.arraycopy(this.workers, 0, ioReactors, 1, this.workerCount);
-        this.listener = new SingleCoreListeningIOReactor(exceptionCallback, ioReactorConfig, this::enqueueChannel);
-        ioReactors[0] = this.listener;
-        threads[0] = (listenerThreadFactory != null ? listenerThreadFactory : LISTENER_THREAD_FACTORY).newThread(new IOReactorWorker(listener));
+        final IOReactor[] ioReactors = new IOReactor[this.workerCount + listenerCount];
+        System.arraycopy(this.workers, 0, ioReactors, listenerCount, this.workerCount);
+        this.listeners = new SingleCoreListeningIOReactor[listenerCount];
+        for (int i = 0; i < listenerCount; i++) {
+            // Only the first listener binds server sockets. Other listeners accept
+            // connections from the server sockets bound by the first one.
+            final SingleCoreListeningIOReactor acceptor = new SingleCoreListeningIOReactor(
+                    exceptionCallback,
+                    ioReactorConfig,
+                    this::enqueueChannel,
+                    this::canAccept,
+                    i == 0 && listenerCount > 1 ? this::shareEndpoint : null);
+            this.listeners[i] = acceptor;
+            ioReactors[i] = acceptor;
+            threads[i] = (listenerThreadFactory != null ? listenerThreadFactory : LISTENER_THREAD_FACTORY).newThread(new IOReactorWorker(acceptor));
+        }
+        this.listener = this.listeners[0];
 
         this.ioReactor = new MultiCoreIOReactor(ioReactors, threads);
 
         workerSelector = IOWorkers.newSelector(workers);
+        rejectedChannelCount = new AtomicLong(0);
     }
 
     /**
@@ -178,9 +197,87 @@ IOWorkers.Selector getWorkerSelector() {
         return workerSelector;
     }
 
+    /**
+     * Returns the number of TLS handshakes of incoming connections currently in progress.
+     *
+     * @see IOReactorConfig.Builder#setMaxTlsHandshakes(int)
+     *
+     * @since 5.3
+     */
+    public int getTlsHandshakeCount() {
+        int count = 0;
+        for (final SingleCoreIOReactor worker : workers) {
+            count += worker.getTlsHandshakeCount();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of accepted connections held back by the I/O dispatch threads.
+     *
+     * @see IOReactorConfig.Builder#setMaxPendingConnections(int)
+     *
+     * @since 5.3
+     */
+    public int getPendingConnectionCount() {
+        int count = 0;
+        for (final SingleCoreIOReactor worker : workers) {
+            count += worker.getPendingChannelCount();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the total number of accepted connections that have been closed without
+     * being processed, either because they had been held back for longer than the socket
+     * timeout or because none of the I/O dispatch threads could take them on.
+     *
+     * @since 5.3
+     */
+    public long getRejectedConnectionCount() {
+        long count = rejectedChannelCount.get();
+        for (final SingleCoreIOReactor worker : workers) {
+            count += worker.getRejectedChannelCount();
+        }
+        return count;
+    }
+
+    private boolean canAccept() {
+        for (final SingleCoreIOReactor worker : workers) {
+            if (!worker.isSaturated()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void onChannelAdmission() {
+        if (listeners != null) {
+            for (final SingleCoreListeningIOReactor acceptor : listeners) {
+                if (acceptor != null) {
+                    acceptor.wakeupSuspended();
+                }
+            }
+        }
+    }
+
+    private void shareEndpoint(final ListenerEndpointRequest request) {
+        for (int i = 1; i < listeners.length; i++) {
+            listeners[i].share(request);
+        }
+    }
+
     private void enqueueChannel(final ChannelEntry entry) {
         try {
-            workerSelector.next().enqueueChannel(entry);
+            for (int i = 0; i < workerCount; i++) {
+                final SingleCoreIOReactor worker = workerSelector.next();
+                if (!worker.isSaturated()) {
+                    worker.enqueueChannel(entry);
+                    return;
+                }
+            }
+            rejectedChannelCount.incrementAndGet();
+            Closer.closeQuietly(entry.channel);
         } catch (final IOReactorShutdownException ex) {
             initiateShutdown();
         }
@@ -60,6 +60,9 @@ public final class IOReactorConfig {
     private final SocketAddress socksProxyAddress;
     private final String socksProxyUsername;
     private final String socksProxyPassword;
+    private final int maxTlsHandshakes;
+    private final int maxPendingConnections;
+    private final int listenerThreadCount;
 
     IOReactorConfig(
             final TimeValue selectInterval,
@@ -75,7 +78,10 @@ public final class IOReactorConfig {
             final int backlogSize,
             final SocketAddress socksProxyAddress,
             final String socksProxyUsername,
-            final String socksProxyPassword) {
+            final String socksProxyPassword,
+            final int maxTlsHandshakes,
+            final int maxPendingConnections,
+            final int listenerThreadCount) {
         super();
         this.selectInterval = selectInterval;
         this.ioThreadCount = ioThreadCount;
@@ -91,6 +97,9 @@ public final class IOReactorConfig {
         this.socksProxyAddress = socksProxyAddress;
         this.socksProxyUsername = socksProxyUsername;
         this.socksProxyPassword = socksProxyPassword;
+        this.maxTlsHandshakes = maxTlsHandshakes;
+        this.maxPendingConnections = maxPendingConnections;
+        this.listenerThreadCount = listenerThreadCount;
     }
 
     /**
@@ -203,6 +212,33 @@ public String getSocksProxyPassword() {
         return this.socksProxyPassword;
     }
 
+    /**
+     * @see Builder#setMaxTlsHandshakes(int)
+     *
+     * @since 5.3
+     */
+    public int getMaxTlsHandshakes() {
+        return this.maxTlsHandshakes;
+    }
+
+    /**
+     * @see Builder#setMaxPendingConnections(int)
+     *
+     * @since 5.3
+     */
+    public int getMaxPendingConnections() {
+        return this.maxPendingConnections;
+    }
+
+    /**
+     * @see Builder#setListenerThreadCount(int)
+     *
+     * @since 5.3
+     */
+    public int getListenerThreadCount() {
+        return this.listenerThreadCount;
+    }
+
     public static Builder custom() {
         return new Builder();
     }
@@ -222,7 +258,10 @@ public static Builder copy(final IOReactorConfig config) {
             .setBacklogSize(config.getBacklogSize())
             .setSocksProxyAddress(config.getSocksProxyAddress())
             .setSocksProxyUsername(config.getSocksProxyUsername())
-            .setSocksProxyPassword(config.getSocksProxyPassword());
+            .setSocksProxyPassword(config.getSocksProxyPassword())
+            .setMaxTlsHandshakes(config.getMaxTlsHandshakes())
+            .setMaxPendingConnections(config.getMaxPendingConnections())
+            .setListenerThreadCount(config.getListenerThreadCount());
     }
 
     public static class Builder {
@@ -268,6 +307,9 @@ public static void setDefaultMaxIOThreadCount(final int defaultMaxIOThreadCount)
         private SocketAddress socksProxyAddress;
         private String socksProxyUsername;
         private String socksProxyPassword;
+        private int maxTlsHandshakes;
+        private int maxPendingConnections;
+        private int listenerThreadCount;
 
         Builder() {
             this.selectInterval = TimeValue.ofSeconds(1);
@@ -284,6 +326,9 @@ public static void setDefaultMaxIOThreadCount(final int defaultMaxIOThreadCount)
             this.socksProxyAddress = null;
             this.socksProxyUsername = null;
             this.socksProxyPassword = null;
+            this.maxTlsHandshakes = 0;
+            this.maxPendingConnections = 0;
+            this.listenerThreadCount = 1;
         }
 
         /**
@@ -486,6 +531,56 @@ public Builder setSocksProxyPassword(final String socksProxyPassword) {
             return this;
         }
 
+        /**
+         * Determines the maximum number of TLS handshakes of incoming connections that can be
+         * in progress at the same time per I/O dispatch thread. Connections accepted while
+         * the limit has been reached are held back by the I/O dispatch thread until one of
+         * the ongoing handshakes completes.
+         * <p>
+         * Default: {@code 0} (no limit)
+         * </p>
+         *
+         * @since 5.3
+         */
+        public Builder setMaxTlsHandshakes(final int maxTlsHandshakes) {
+            this.maxTlsHandshakes = maxTlsHandshakes;
+            return this;
+        }
+
+        /**
+         * Determines the maximum number of accepted connections that can be held back
+         * per I/O dispatch thread. Once all I/O dispatch threads have reached the limit
+         * the listener stops accepting new connections, which then remain in the server
+         * socket backlog until some of the pending ones get processed.
+         * <p>
+         * Default: {@code 0} (no limit)
+         * </p>
+         *
+         * @see #setBacklogSize(int)
+         * @see #setMaxTlsHandshakes(int)
+         *
+         * @since 5.3
+         */
+        public Builder setMaxPendingConnections(final int maxPendingConnections) {
+            this.maxPendingConnections = maxPendingConnections;
+            return this;
+        }
+
+        /**
+         * Determines the number of listener threads accepting incoming connections.
+         * All listener threads share the same server sockets, which spreads the work
+         * of accepting short-lived connections at high rates across multiple cores.
+         * <p>
+         * Default: {@code 1}
+         * </p>
+         *
+         * @since 5.3
+         */
+        public Builder setListenerThreadCount(final int listenerThreadCount) {
+            this.listenerThreadCount = Args.positive(listenerThreadCount, "Listener thread count");
+            return this;
+        }
+
         public IOReactorConfig build() {
             return new IOReactorConfig(
                     selectInterval != null ? selectInterval : TimeValue.ofSeconds(1),
@@ -497,7 +592,9 @@ public IOReactorConfig build() {
                     tcpNoDelay,
                     trafficClass,
                     sndBufSize, rcvBufSize, backlogSize,
-                    socksProxyAddress, socksProxyUsername, socksProxyPassword);
+                    socksProxyAddress, socksProxyUsername, socksProxyPassword,
+                    maxTlsHandshakes, maxPendingConnections,
+                    listenerThreadCount);
         }
 
     }
@@ -517,6 +614,9 @@ public String toString() {
                 .append(", rcvBufSize=").append(this.rcvBufSize)
                 .append(", backlogSize=").append(this.backlogSize)
                 .append(", socksProxyAddress=").append(this.socksProxyAddress)
+                .append(", maxTlsHandshakes=").append(this.maxTlsHandshakes)
+                .append(", maxPendingConnections=").append(this.maxPendingConnections)
+                .append(", listenerThreadCount=").append(this.listenerThreadCount)
                 .append("]");
         return builder.toString();
     }
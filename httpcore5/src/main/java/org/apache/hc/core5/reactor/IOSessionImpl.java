@@ -32,6 +32,7 @@
 import java.net.SocketException;
 import java.nio.ByteBuffer;
 import java.nio.channels.ByteChannel;
+import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.SocketChannel;
 import java.util.Deque;
@@ -46,7 +47,7 @@
 import org.apache.hc.core5.util.Args;
 import org.apache.hc.core5.util.Timeout;
 
-class IOSessionImpl implements IOSession {
+class IOSessionImpl implements IOSession, GatheringByteChannel {
 
     /** Counts instances created. */
     private final static AtomicLong COUNT = new AtomicLong(0);
@@ -207,6 +208,16 @@ public int write(final ByteBuffer src) throws IOException {
         return this.channel.write(src);
     }
 
+    @Override
+    public long write(final ByteBuffer[] srcs, final int offset, final int length) throws IOException {
+        return this.channel.write(srcs, offset, length);
+    }
+
+    @Override
+    public long write(final ByteBuffer[] srcs) throws IOException {
+        return this.channel.write(srcs);
+    }
+
     @Override
     public void updateReadTime() {
         lastReadTime = System.currentTimeMillis();
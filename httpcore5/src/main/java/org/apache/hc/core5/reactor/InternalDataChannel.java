@@ -31,11 +31,14 @@
 import java.net.SocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.ByteChannel;
+import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.SelectionKey;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 
@@ -59,7 +62,7 @@
 import org.apache.hc.core5.util.TextUtils;
 import org.apache.hc.core5.util.Timeout;
 
-final class InternalDataChannel extends InternalChannel implements ProtocolIOSession {
+final class InternalDataChannel extends InternalChannel implements ProtocolIOSession, GatheringByteChannel {
 
     private final IOSession ioSession;
     private final NamedEndpoint initialEndpoint;
@@ -71,13 +74,16 @@ final class InternalDataChannel extends InternalChannel implements ProtocolIOSes
     private final AtomicReference<IOEventHandler> eventHandlerRef;
     private final ConcurrentMap<String, ProtocolUpgradeHandler> protocolUpgradeHandlerMap;
     private final AtomicBoolean closed;
+    private final AtomicInteger tlsHandshakeCount;
+    private final AtomicBoolean tlsHandshakeActive;
 
     InternalDataChannel(
             final IOSession ioSession,
             final NamedEndpoint initialEndpoint,
             final Decorator<IOSession> ioSessionDecorator,
             final IOSessionListener sessionListener,
-            final Queue<InternalDataChannel> closedSessions) {
+            final Queue<InternalDataChannel> closedSessions,
+            final AtomicInteger tlsHandshakeCount) {
         this.ioSession = ioSession;
         this.initialEndpoint = initialEndpoint;
         this.closedSessions = closedSessions;
@@ -89,6 +95,17 @@ final class InternalDataChannel extends InternalChannel implements ProtocolIOSes
         this.eventHandlerRef = new AtomicReference<>();
         this.protocolUpgradeHandlerMap = new ConcurrentHashMap<>();
         this.closed = new AtomicBoolean(false);
+        this.tlsHandshakeCount = tlsHandshakeCount;
+        this.tlsHandshakeActive = new AtomicBoolean(false);
+    }
+
+    InternalDataChannel(
+            final IOSession ioSession,
+            final NamedEndpoint initialEndpoint,
+            final Decorator<IOSession> ioSessionDecorator,
+            final IOSessionListener sessionListener,
+            final Queue<InternalDataChannel> closedSessions) {
+        this(ioSession, initialEndpoint, ioSessionDecorator, sessionListener, closedSessions, null);
     }
 
     @Override
@@ -181,7 +198,14 @@ void onException(final Exception cause) {
         }
     }
 
+    private void releaseTlsHandshake() {
+        if (tlsHandshakeCount != null && tlsHandshakeActive.compareAndSet(true, false)) {
+            tlsHandshakeCount.decrementAndGet();
+        }
+    }
+
     void onTLSSessionStart(final SSLIOSession sslSession) {
+        releaseTlsHandshake();
         final IOSession currentSession = currentSessionRef.get();
         if (sessionListener != null) {
             sessionListener.connected(currentSession);
@@ -189,12 +213,14 @@ void onTLSSessionStart(final SSLIOSession sslSession) {
     }
 
     void onTLSSessionEnd(final SSLIOSession sslSession) {
+        releaseTlsHandshake();
         if (closed.compareAndSet(false, true)) {
             closedSessions.add(this);
         }
     }
 
     void disconnected() {
+        releaseTlsHandshake();
         final IOSession currentSession = currentSessionRef.get();
         if (sessionListener != null) {
             sessionListener.disconnected(currentSession);
@@ -225,6 +251,19 @@ public void startTls(
             final SSLSessionVerifier verifier,
             final Timeout handshakeTimeout,
             final FutureCallback<TransportSecurityLayer> callback) {
+        startTls(sslContext, endpoint, sslBufferMode, initializer, verifier, handshakeTimeout, null, callback);
+    }
+
+    @Override
+    public void startTls(
+            final SSLContext sslContext,
+            final NamedEndpoint endpoint,
+            final SSLBufferMode sslBufferMode,
+            final SSLSessionInitializer initializer,
+            final SSLSessionVerifier verifier,
+            final Timeout handshakeTimeout,
+            final Executor handshakeExecutor,
+            final FutureCallback<TransportSecurityLayer> callback) {
         final SSLIOSession sslioSession = new SSLIOSession(
                 endpoint != null ? endpoint : initialEndpoint,
                 ioSession,
@@ -245,12 +284,16 @@ public void completed(final SSLSession sslSession) {
                         }
                     }
 
-                });
+                },
+                handshakeExecutor);
         if (tlsSessionRef.compareAndSet(null, sslioSession)) {
             currentSessionRef.set(ioSessionDecorator != null ? ioSessionDecorator.decorate(sslioSession) : sslioSession);
         } else {
             throw new IllegalStateException("TLS already activated");
         }
+        if (tlsHandshakeCount != null && tlsHandshakeActive.compareAndSet(false, true)) {
+            tlsHandshakeCount.incrementAndGet();
+        }
         try {
             if (sessionListener != null) {
                 sessionListener.startTls(sslioSession);
@@ -280,6 +323,7 @@ public void close() {
 
     @Override
     public void close(final CloseMode closeMode) {
+        releaseTlsHandshake();
         final IOSession currentSession = currentSessionRef.get();
         if (closeMode == CloseMode.IMMEDIATE) {
             closed.set(true);
@@ -387,6 +431,30 @@ public int write(final ByteBuffer src) throws IOException {
         return currentSession.write(src);
     }
 
+    @Override
+    public long write(final ByteBuffer[] srcs, final int offset, final int length) throws IOException {
+        final IOSession currentSession = currentSessionRef.get();
+        if (currentSession instanceof GatheringByteChannel) {
+            return ((GatheringByteChannel) currentSession).write(srcs, offset, length);
+        }
+        long total = 0;
+        for (int i = offset; i < offset + length; i++) {
+            final ByteBuffer src = srcs[i];
+            if (src.hasRemaining()) {
+                total += currentSession.write(src);
+                if (src.hasRemaining()) {
+                    break;
+                }
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public long write(final ByteBuffer[] srcs) throws IOException {
+        return write(srcs, 0, srcs.length);
+    }
+
     @Override
     public void updateReadTime() {
         ioSession.updateReadTime();
@@ -32,6 +32,7 @@
 import java.nio.channels.SelectionKey;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.apache.hc.core5.function.Callback;
 import org.apache.hc.core5.io.CloseMode;
 import org.apache.hc.core5.io.Closer;
 
@@ -40,16 +41,26 @@ class ListenerEndpointImpl implements ListenerEndpoint {
     private final SelectionKey key;
     final SocketAddress address;
     final Object attachment;
+    private final Callback<ListenerEndpoint> closeCallback;
     private final AtomicBoolean closed;
 
-    public ListenerEndpointImpl(final SelectionKey key, final Object attachment, final SocketAddress address) {
+    public ListenerEndpointImpl(
+            final SelectionKey key,
+            final Object attachment,
+            final SocketAddress address,
+            final Callback<ListenerEndpoint> closeCallback) {
         super();
         this.key = key;
         this.address = address;
         this.attachment = attachment;
+        this.closeCallback = closeCallback;
         this.closed = new AtomicBoolean(false);
     }
 
+    public ListenerEndpointImpl(final SelectionKey key, final Object attachment, final SocketAddress address) {
+        this(key, attachment, address, null);
+    }
+
     @Override
     public SocketAddress getAddress() {
         return this.address;
@@ -70,6 +81,11 @@ public void close() throws IOException {
         if (closed.compareAndSet(false, true)) {
             key.cancel();
             key.channel().close();
+            // Make the selector release the channel without waiting for the next select interval
+            key.selector().wakeup();
+            if (closeCallback != null) {
+                closeCallback.execute(this);
+            }
         }
     }
 
@@ -29,6 +29,7 @@
 
 import java.io.Closeable;
 import java.net.SocketAddress;
+import java.nio.channels.ServerSocketChannel;
 
 import org.apache.hc.core5.concurrent.BasicFuture;
 
@@ -37,11 +38,24 @@ final class ListenerEndpointRequest implements Closeable {
     final SocketAddress address;
     final Object attachment;
     final BasicFuture<ListenerEndpoint> future;
+    final ServerSocketChannel channel;
 
     ListenerEndpointRequest(final SocketAddress address, final Object attachment, final BasicFuture<ListenerEndpoint> future) {
         this.address = address;
         this.attachment = attachment;
         this.future = future;
+        this.channel = null;
+    }
+
+    /**
+     * Creates a request to accept connections from a server channel already bound
+     * by another listener.
+     */
+    ListenerEndpointRequest(final ServerSocketChannel channel, final SocketAddress address, final Object attachment) {
+        this.address = address;
+        this.attachment = attachment;
+        this.future = null;
+        this.channel = channel;
     }
 
     public void completed(final ListenerEndpoint endpoint) {
@@ -44,6 +44,8 @@
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.hc.core5.concurrent.FutureCallback;
 import org.apache.hc.core5.function.Callback;
@@ -68,6 +70,10 @@ class SingleCoreIOReactor extends AbstractSingleCoreIOReactor implements Connect
     private final Queue<ChannelEntry> channelQueue;
     private final Queue<IOSessionRequest> requestQueue;
     private final AtomicBoolean shutdownInitiated;
+    private final AtomicInteger pendingChannelCount;
+    private final AtomicInteger tlsHandshakeCount;
+    private final AtomicLong rejectedChannelCount;
+    private final Runnable channelAdmissionCallback;
     private final long selectTimeoutMillis;
     private volatile long lastTimeoutCheckMillis;
 
@@ -77,7 +83,8 @@ class SingleCoreIOReactor extends AbstractSingleCoreIOReactor implements Connect
             final IOReactorConfig reactorConfig,
             final Decorator<IOSession> ioSessionDecorator,
             final IOSessionListener sessionListener,
-            final Callback<IOSession> sessionShutdownCallback) {
+            final Callback<IOSession> sessionShutdownCallback,
+            final Runnable channelAdmissionCallback) {
         super(exceptionCallback);
         this.eventHandlerFactory = Args.notNull(eventHandlerFactory, "Event handler factory");
         this.reactorConfig = Args.notNull(reactorConfig, "I/O reactor config");
@@ -88,17 +95,68 @@ class SingleCoreIOReactor extends AbstractSingleCoreIOReactor implements Connect
         this.closedSessions = new ConcurrentLinkedQueue<>();
         this.channelQueue = new ConcurrentLinkedQueue<>();
         this.requestQueue = new ConcurrentLinkedQueue<>();
+        this.pendingChannelCount = new AtomicInteger(0);
+        this.tlsHandshakeCount = new AtomicInteger(0);
+        this.rejectedChannelCount = new AtomicLong(0);
+        this.channelAdmissionCallback = channelAdmissionCallback;
         this.selectTimeoutMillis = this.reactorConfig.getSelectInterval().toMilliseconds();
     }
 
+    SingleCoreIOReactor(
+            final Callback<Exception> exceptionCallback,
+            final IOEventHandlerFactory eventHandlerFactory,
+            final IOReactorConfig reactorConfig,
+            final Decorator<IOSession> ioSessionDecorator,
+            final IOSessionListener sessionListener,
+            final Callback<IOSession> sessionShutdownCallback) {
+        this(exceptionCallback, eventHandlerFactory, reactorConfig, ioSessionDecorator, sessionListener,
+                sessionShutdownCallback, null);
+    }
+
     void enqueueChannel(final ChannelEntry entry) throws IOReactorShutdownException {
         if (getStatus().compareTo(IOReactorStatus.ACTIVE) > 0) {
             throw new IOReactorShutdownException("I/O reactor has been shut down");
         }
+        this.pendingChannelCount.incrementAndGet();
         this.channelQueue.add(entry);
         this.selector.wakeup();
     }
 
+    /**
+     * Returns the number of accepted channels waiting to be processed by this I/O reactor.
+     */
+    int getPendingChannelCount() {
+        return this.pendingChannelCount.get();
+    }
+
+    /**
+     * Returns the number of TLS handshakes of accepted connections currently in progress.
+     */
+    int getTlsHandshakeCount() {
+        return this.tlsHandshakeCount.get();
+    }
+
+    /**
+     * Returns the number of accepted channels closed by this I/O reactor because they had
+     * been pending for longer than the socket timeout.
+     */
+    long getRejectedChannelCount() {
+        return this.rejectedChannelCount.get();
+    }
+
+    /**
+     * Determines whether or not this I/O reactor can take on more accepted channels.
+     */
+    boolean isSaturated() {
+        final int maxPendingConnections = this.reactorConfig.getMaxPendingConnections();
+        return maxPendingConnections > 0 && this.pendingChannelCount.get() >= maxPendingConnections;
+    }
+
+    private boolean isTlsHandshakeLimitReached() {
+        final int maxTlsHandshakes = this.reactorConfig.getMaxTlsHandshakes();
+        return maxTlsHandshakes > 0 && this.tlsHandshakeCount.get() >= maxTlsHandshakes;
+    }
+
     @Override
     void doTerminate() {
         closePendingChannels();
@@ -185,10 +243,31 @@ private void processEvents(final Set<SelectionKey> selectedKeys) {
     }
 
     private void processPendingChannels() throws IOException {
+        if (this.channelQueue.isEmpty()) {
+            return;
+        }
+        try {
+            admitPendingChannels();
+        } finally {
+            if (this.channelAdmissionCallback != null) {
+                this.channelAdmissionCallback.run();
+            }
+        }
+    }
+
+    private void admitPendingChannels() throws IOException {
         ChannelEntry entry;
-        for (int i = 0; i < MAX_CHANNEL_REQUESTS && (entry = this.channelQueue.poll()) != null; i++) {
+        for (int i = 0; i < MAX_CHANNEL_REQUESTS && !isTlsHandshakeLimitReached() && (entry = this.channelQueue.poll()) != null; i++) {
+            this.pendingChannelCount.decrementAndGet();
             final SocketChannel socketChannel = entry.channel;
             final Object attachment = entry.attachment;
+            final Timeout soTimeout = this.reactorConfig.getSoTimeout();
+            if (soTimeout.isEnabled() && System.currentTimeMillis() - entry.timestamp > soTimeout.toMilliseconds()) {
+                // The peer is unlikely to still be waiting for this connection
+                this.rejectedChannelCount.incrementAndGet();
+                Closer.closeQuietly(socketChannel);
+                continue;
+            }
             try {
                 prepareSocket(socketChannel.socket());
                 socketChannel.configureBlocking(false);
@@ -213,7 +292,8 @@ private void processPendingChannels() throws IOException {
                     null,
                     ioSessionDecorator,
                     sessionListener,
-                    closedSessions);
+                    closedSessions,
+                    tlsHandshakeCount);
             dataChannel.setSocketTimeout(this.reactorConfig.getSoTimeout());
             dataChannel.upgrade(this.eventHandlerFactory.createHandler(dataChannel, attachment));
             key.attach(dataChannel);
@@ -368,6 +448,7 @@ private void processConnectionRequest(final SocketChannel socketChannel, final I
     private void closePendingChannels() {
         ChannelEntry entry;
         while ((entry = this.channelQueue.poll()) != null) {
+            this.pendingChannelCount.decrementAndGet();
             final SocketChannel socketChannel = entry.channel;
             try {
                 socketChannel.close();
@@ -32,6 +32,7 @@
 import java.net.ServerSocket;
 import java.net.SocketAddress;
 import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
@@ -48,6 +49,7 @@
 import org.apache.hc.core5.concurrent.BasicFuture;
 import org.apache.hc.core5.concurrent.FutureCallback;
 import org.apache.hc.core5.function.Callback;
+import org.apache.hc.core5.function.Supplier;
 import org.apache.hc.core5.io.Closer;
 
 class SingleCoreListeningIOReactor extends AbstractSingleCoreIOReactor implements ConnectionAcceptor {
@@ -57,21 +59,36 @@ class SingleCoreListeningIOReactor extends AbstractSingleCoreIOReactor implement
     private final Queue<ListenerEndpointRequest> requestQueue;
     private final ConcurrentMap<ListenerEndpointImpl, Boolean> endpoints;
     private final AtomicBoolean paused;
+    private final Supplier<Boolean> acceptCondition;
+    private final Callback<ListenerEndpointRequest> shareCallback;
+    private final AtomicBoolean acceptSuspended;
     private final long selectTimeoutMillis;
 
     SingleCoreListeningIOReactor(
             final Callback<Exception> exceptionCallback,
             final IOReactorConfig ioReactorConfig,
-            final Callback<ChannelEntry> callback) {
+            final Callback<ChannelEntry> callback,
+            final Supplier<Boolean> acceptCondition,
+            final Callback<ListenerEndpointRequest> shareCallback) {
         super(exceptionCallback);
         this.reactorConfig = ioReactorConfig != null ? ioReactorConfig : IOReactorConfig.DEFAULT;
         this.callback = callback;
         this.requestQueue = new ConcurrentLinkedQueue<>();
         this.endpoints = new ConcurrentHashMap<>();
         this.paused = new AtomicBoolean(false);
+        this.acceptCondition = acceptCondition;
+        this.shareCallback = shareCallback;
+        this.acceptSuspended = new AtomicBoolean(false);
         this.selectTimeoutMillis = this.reactorConfig.getSelectInterval().toMilliseconds();
     }
 
+    SingleCoreListeningIOReactor(
+            final Callback<Exception> exceptionCallback,
+            final IOReactorConfig ioReactorConfig,
+            final Callback<ChannelEntry> callback) {
+        this(exceptionCallback, ioReactorConfig, callback, null, null);
+    }
+
     @Override
     void doTerminate() {
         ListenerEndpointRequest request;
@@ -101,6 +118,9 @@ private void processEvents(final int readyCount) throws IOException {
         if (!this.paused.get()) {
             processSessionRequests();
         }
+        if (this.acceptSuspended.get() && canAccept()) {
+            resumeAccepting();
+        }
 
         if (readyCount > 0) {
             final Set<SelectionKey> selectedKeys = this.selector.selectedKeys();
@@ -120,6 +140,11 @@ private void processEvent(final SelectionKey key) throws IOException {
 
                 final ServerSocketChannel serverChannel = (ServerSocketChannel) key.channel();
                 for (;;) {
+                    if (!canAccept()) {
+                        // Leave new connections in the backlog until the pending ones get processed
+                        suspendAccepting();
+                        break;
+                    }
                     final SocketChannel socketChannel = serverChannel.accept();
                     if (socketChannel == null) {
                         break;
@@ -130,12 +155,42 @@ private void processEvent(final SelectionKey key) throws IOException {
             }
 
         } catch (final CancelledKeyException ex) {
-            final ListenerEndpointImpl endpoint = (ListenerEndpointImpl) key.attachment();
-            this.endpoints.remove(endpoint);
             key.attach(null);
         }
     }
 
+    private boolean canAccept() {
+        return this.acceptCondition == null || Boolean.TRUE.equals(this.acceptCondition.get());
+    }
+
+    private void suspendAccepting() {
+        this.acceptSuspended.set(true);
+        for (final SelectionKey key : this.selector.keys()) {
+            if (key.isValid()) {
+                key.interestOps(0);
+            }
+        }
+    }
+
+    private void resumeAccepting() {
+        if (this.acceptSuspended.compareAndSet(true, false)) {
+            for (final SelectionKey key : this.selector.keys()) {
+                if (key.isValid()) {
+                    key.interestOps(SelectionKey.OP_ACCEPT);
+                }
+            }
+        }
+    }
+
+    /**
+     * Signals that new connections may be accepted again if accepting has been suspended.
+     */
+    void wakeupSuspended() {
+        if (this.acceptSuspended.get()) {
+            this.selector.wakeup();
+        }
+    }
+
     @Override
     public Future<ListenerEndpoint> listen(
             final SocketAddress address, final Object attachment, final FutureCallback<ListenerEndpoint> callback) {
@@ -153,12 +208,39 @@ public Future<ListenerEndpoint> listen(final SocketAddress address, final Future
         return listen(address, null, callback);
     }
 
+    /**
+     * Starts accepting connections from a server channel bound by another listener.
+     * The channel remains owned by that listener and is not reported as an endpoint
+     * of this one. The owning listener also calls this method once the channel has
+     * been closed so that its registration with this listener gets released.
+     */
+    void share(final ListenerEndpointRequest request) {
+        if (getStatus().compareTo(IOReactorStatus.SHUTTING_DOWN) >= 0) {
+            return;
+        }
+        this.requestQueue.add(request);
+        this.selector.wakeup();
+    }
+
     private void processSessionRequests() throws IOException {
         ListenerEndpointRequest request;
         while ((request = this.requestQueue.poll()) != null) {
             if (request.isCancelled()) {
                 continue;
             }
+            if (request.channel != null) {
+                // A closed channel gets released once all selectors it has been registered
+                // with have been woken up and its cancelled keys got deregistered
+                if (request.channel.isOpen()) {
+                    try {
+                        final SelectionKey key = request.channel.register(this.selector,
+                                this.acceptSuspended.get() ? 0 : SelectionKey.OP_ACCEPT);
+                        key.attach(request);
+                    } catch (final ClosedChannelException ignore) {
+                    }
+                }
+                continue;
+            }
             final SocketAddress address = request.address;
             final ServerSocketChannel serverChannel = ServerSocketChannel.open();
             try {
@@ -181,9 +263,15 @@ private void processSessionRequests() throws IOException {
 
                 final SelectionKey key = serverChannel.register(this.selector, SelectionKey.OP_ACCEPT);
                 key.attach(request);
-                final ListenerEndpointImpl endpoint = new ListenerEndpointImpl(key, request.attachment, socket.getLocalSocketAddress());
+                final ListenerEndpointRequest sharedRequest = this.shareCallback != null ?
+                        new ListenerEndpointRequest(serverChannel, socket.getLocalSocketAddress(), request.attachment) : null;
+                final ListenerEndpointImpl endpoint = new ListenerEndpointImpl(key, request.attachment, socket.getLocalSocketAddress(),
+                        sharedRequest != null ? e -> this.shareCallback.execute(sharedRequest) : null);
                 this.endpoints.put(endpoint, Boolean.TRUE);
                 request.completed(endpoint);
+                if (sharedRequest != null) {
+                    this.shareCallback.execute(sharedRequest);
+                }
             } catch (final IOException ex) {
                 Closer.closeQuietly(serverChannel);
                 request.failed(ex);
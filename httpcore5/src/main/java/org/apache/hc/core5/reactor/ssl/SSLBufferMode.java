@@ -32,7 +32,33 @@
  */
 public enum SSLBufferMode {
 
+    /**
+     * Session buffers are allocated once on the heap and retained for the lifetime
+     * of the session.
+     */
     STATIC,
-    DYNAMIC
+
+    /**
+     * Session buffers are allocated on the heap on demand and released once empty.
+     */
+    DYNAMIC,
+
+    /**
+     * Session buffers are allocated once outside of the heap and retained for the lifetime
+     * of the session. This mode can reduce copying of data by SSL engines implemented
+     * in native code at the cost of a more expensive session setup.
+     * <p>
+     * Direct buffers are not pooled. Each session allocates two buffers of the TLS packet
+     * size and up to two buffers of the application buffer size, and their native memory
+     * is reclaimed only once the buffers get garbage collected. Native memory
+     * use is limited by {@code -XX:MaxDirectMemorySize}. This mode is therefore best
+     * suited for long-lived connections carrying bulk data and not for workloads with
+     * a high rate of short-lived connections, which should use {@link #STATIC} or
+     * {@link #DYNAMIC} instead.
+     * </p>
+     *
+     * @since 5.3
+     */
+    DIRECT
 
 }
@@ -33,7 +33,10 @@
 import java.nio.channels.ByteChannel;
 import java.nio.channels.CancelledKeyException;
 import java.nio.channels.ClosedChannelException;
+import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.SelectionKey;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
@@ -71,11 +74,12 @@
  */
 @Contract(threading = ThreadingBehavior.SAFE_CONDITIONAL)
 @Internal
-public class SSLIOSession implements IOSession {
+public class SSLIOSession implements IOSession, GatheringByteChannel {
 
     enum TLSHandShakeState { READY, INITIALIZED, HANDSHAKING, COMPLETE }
 
     private static final ByteBuffer EMPTY_BUFFER = ByteBuffer.allocate(0);
+    private static final int MAX_STAGED_WRITE = 4096;
 
     private final NamedEndpoint targetEndpoint;
     private final IOSession session;
@@ -83,6 +87,8 @@ enum TLSHandShakeState { READY, INITIALIZED, HANDSHAKING, COMPLETE }
     private final SSLManagedBuffer inEncrypted;
     private final SSLManagedBuffer outEncrypted;
     private final SSLManagedBuffer inPlain;
+    private final SSLBufferMode sslBufferMode;
+    private final int appBufferSize;
     private final SSLSessionInitializer initializer;
     private final SSLSessionVerifier verifier;
     private final Callback<SSLIOSession> sessionStartCallback;
@@ -93,6 +99,7 @@ enum TLSHandShakeState { READY, INITIALIZED, HANDSHAKING, COMPLETE }
     private final AtomicInteger outboundClosedCount;
     private final AtomicReference<TLSHandShakeState> handshakeStateRef;
     private final IOEventHandler internalEventHandler;
+    private final Executor handshakeExecutor;
 
     private int appEventMask;
 
@@ -100,6 +107,13 @@ enum TLSHandShakeState { READY, INITIALIZED, HANDSHAKING, COMPLETE }
     private volatile Status status = Status.ACTIVE;
     private volatile Timeout socketTimeout;
     private volatile TlsDetails tlsDetails;
+    private volatile long handshakeStartTime;
+    private volatile boolean delegatedTaskPending;
+    private volatile boolean delegatedTaskCompleted;
+    private volatile RuntimeException delegatedTaskFailure;
+    private volatile Thread stagingThread;
+    // Allocated on demand, only once outgoing data actually gets staged
+    private SSLManagedBuffer outPlain;
 
     /**
      * Creates new instance of {@code SSLIOSession} class.
@@ -157,6 +171,40 @@ public SSLIOSession(
             final Callback<SSLIOSession> sessionStartCallback,
             final Callback<SSLIOSession> sessionEndCallback,
             final FutureCallback<SSLSession> resultCallback) {
+        this(targetEndpoint, session, sslMode, sslContext, sslBufferMode, initializer, verifier, handshakeTimeout,
+                sessionStartCallback, sessionEndCallback, resultCallback, null);
+    }
+
+    /**
+     * Creates new instance of {@code SSLIOSession} class.
+     *
+     * @param session I/O session to be decorated with the TLS/SSL capabilities.
+     * @param sslMode SSL mode (client or server)
+     * @param targetEndpoint target endpoint (applicable in client mode only). May be {@code null}.
+     * @param sslContext SSL context to use for this I/O session.
+     * @param sslBufferMode buffer management mode
+     * @param initializer optional SSL session initializer. May be {@code null}.
+     * @param verifier optional SSL session verifier. May be {@code null}.
+     * @param handshakeTimeout timeout to apply for the TLS/SSL handshake. May be {@code null}.
+     * @param resultCallback result callback. May be {@code null}.
+     * @param handshakeExecutor executor to run delegated {@link SSLEngine} tasks with.
+     *   If {@code null} delegated tasks get executed by the I/O reactor thread.
+     *
+     * @since 5.3
+     */
+    public SSLIOSession(
+            final NamedEndpoint targetEndpoint,
+            final IOSession session,
+            final SSLMode sslMode,
+            final SSLContext sslContext,
+            final SSLBufferMode sslBufferMode,
+            final SSLSessionInitializer initializer,
+            final SSLSessionVerifier verifier,
+            final Timeout handshakeTimeout,
+            final Callback<SSLIOSession> sessionStartCallback,
+            final Callback<SSLIOSession> sessionEndCallback,
+            final FutureCallback<SSLSession> resultCallback,
+            final Executor handshakeExecutor) {
         super();
         Args.notNull(session, "IO session");
         Args.notNull(sslContext, "SSL context");
@@ -183,11 +231,13 @@ public SSLIOSession(
         this.outEncrypted = SSLManagedBuffer.create(sslBufferMode, netBufferSize);
 
         // Allocate buffers for application (unencrypted) data
-        final int appBufferSize = sslSession.getApplicationBufferSize();
-        this.inPlain = SSLManagedBuffer.create(sslBufferMode, appBufferSize);
+        this.appBufferSize = sslSession.getApplicationBufferSize();
+        this.inPlain = SSLManagedBuffer.create(sslBufferMode, this.appBufferSize);
+        this.sslBufferMode = sslBufferMode;
         this.outboundClosedCount = new AtomicInteger(0);
         this.handshakeStateRef = new AtomicReference<>(TLSHandShakeState.READY);
         this.handshakeTimeout = handshakeTimeout;
+        this.handshakeExecutor = handshakeExecutor;
         this.internalEventHandler = new IOEventHandler() {
 
             @Override
@@ -293,6 +343,7 @@ private void initialize(final IOSession protocolSession) throws IOException {
                 this.initializer.initialize(this.targetEndpoint, this.sslEngine);
             }
             this.handshakeStateRef.set(TLSHandShakeState.HANDSHAKING);
+            this.handshakeStartTime = System.currentTimeMillis();
             this.sslEngine.beginHandshake();
 
             this.inEncrypted.release();
@@ -325,6 +376,14 @@ private SSLEngineResult doWrap(final ByteBuffer src, final ByteBuffer dst) throw
         }
     }
 
+    private SSLEngineResult doWrap(final ByteBuffer[] srcs, final int offset, final int length, final ByteBuffer dst) throws SSLException {
+        try {
+            return this.sslEngine.wrap(srcs, offset, length, dst);
+        } catch (final RuntimeException ex) {
+            throw convert(ex);
+        }
+    }
+
     private SSLEngineResult doUnwrap(final ByteBuffer src, final ByteBuffer dst) throws SSLException {
         try {
             return this.sslEngine.unwrap(src, dst);
@@ -333,14 +392,72 @@ private SSLEngineResult doUnwrap(final ByteBuffer src, final ByteBuffer dst) thr
         }
     }
 
-    private void doRunTask() {
-        final Runnable r = this.sslEngine.getDelegatedTask();
-        if (r != null) {
-            r.run();
+    /**
+     * Executes a delegated task of the SSL engine. If a handshake executor has been
+     * configured the pending delegated tasks get handed over to the executor and
+     * the session gets suspended until they complete.
+     *
+     * @return {@code true} if the task has been executed, {@code false} if it has
+     *  been handed over to the handshake executor.
+     */
+    private boolean doRunTask() {
+        if (this.handshakeExecutor == null) {
+            final Runnable r = this.sslEngine.getDelegatedTask();
+            if (r != null) {
+                r.run();
+            }
+            return true;
+        }
+        final Runnable r;
+        this.session.getLock().lock();
+        try {
+            if (this.delegatedTaskPending) {
+                return false;
+            }
+            r = this.sslEngine.getDelegatedTask();
+            if (r == null) {
+                return true;
+            }
+            this.delegatedTaskPending = true;
+            try {
+                this.handshakeExecutor.execute(() -> runDelegatedTasks(r));
+                return false;
+            } catch (final RejectedExecutionException ex) {
+                this.delegatedTaskPending = false;
+            }
+        } finally {
+            this.session.getLock().unlock();
+        }
+        r.run();
+        return true;
+    }
+
+    private void runDelegatedTasks(final Runnable task) {
+        try {
+            for (Runnable r = task; r != null; r = this.sslEngine.getDelegatedTask()) {
+                r.run();
+            }
+        } catch (final RuntimeException ex) {
+            this.delegatedTaskFailure = ex;
+        } finally {
+            this.session.getLock().lock();
+            try {
+                this.delegatedTaskPending = false;
+                this.delegatedTaskCompleted = true;
+                // Resume the handshake on the I/O reactor thread
+                this.session.setEvent(EventMask.WRITE);
+            } finally {
+                this.session.getLock().unlock();
+            }
         }
     }
 
     private void doHandshake(final IOSession protocolSession) throws IOException {
+        final RuntimeException taskFailure = this.delegatedTaskFailure;
+        if (taskFailure != null) {
+            throw convert(taskFailure);
+        }
+        this.delegatedTaskCompleted = false;
         boolean handshaking = true;
 
         SSLEngineResult result = null;
@@ -407,7 +524,9 @@ private void doHandshake(final IOSession protocolSession) throws IOException {
                 }
                 break;
             case NEED_TASK:
-                doRunTask();
+                if (!doRunTask()) {
+                    handshaking = false;
+                }
                 break;
             case NOT_HANDSHAKING:
                 handshaking = false;
@@ -421,12 +540,20 @@ private void doHandshake(final IOSession protocolSession) throws IOException {
         if (result != null && result.getHandshakeStatus() == HandshakeStatus.FINISHED) {
             this.handshakeStateRef.set(TLSHandShakeState.COMPLETE);
             this.session.setSocketTimeout(this.socketTimeout);
+            // A resumed session retains the creation time of the session it has been resumed from
+            final SSLSession sslSession = this.sslEngine.getSession();
+            final boolean sessionResumed = sslSession.getCreationTime() < this.handshakeStartTime;
             if (this.verifier != null) {
-                this.tlsDetails = this.verifier.verify(this.targetEndpoint, this.sslEngine);
+                final TlsDetails verifiedDetails = this.verifier.verify(this.targetEndpoint, this.sslEngine);
+                if (verifiedDetails != null) {
+                    this.tlsDetails = new TlsDetails(
+                            verifiedDetails.getSSLSession(),
+                            verifiedDetails.getApplicationProtocol(),
+                            sessionResumed);
+                }
             }
             String applicationProtocol;
             if (this.tlsDetails == null) {
-                final SSLSession sslSession = this.sslEngine.getSession();
                 try {
                     applicationProtocol = this.sslEngine.getApplicationProtocol();
                 } catch (final UnsupportedOperationException e) {
@@ -436,7 +563,7 @@ private void doHandshake(final IOSession protocolSession) throws IOException {
                     // This workaround is temporary and is meant to maintain compatibility with older systems.
                     applicationProtocol = "http/1.1";
                 }
-                this.tlsDetails = new TlsDetails(sslSession, applicationProtocol);
+                this.tlsDetails = new TlsDetails(sslSession, applicationProtocol, sessionResumed);
             }
 
             ensureHandler().connected(protocolSession);
@@ -463,7 +590,7 @@ private void updateEventMask() {
                     resultCallback.failed(new SSLHandshakeException("TLS handshake failed"));
                 }
             }
-            if (this.status == Status.CLOSING && !this.outEncrypted.hasData()) {
+            if (this.status == Status.CLOSING && !this.outEncrypted.hasData() && !hasStagedData()) {
                 this.sslEngine.closeOutbound();
                 this.outboundClosedCount.incrementAndGet();
             }
@@ -497,6 +624,12 @@ private void updateEventMask() {
                 case NEED_UNWRAP:
                     newMask = EventMask.READ;
                     break;
+                case NEED_TASK:
+                    // Stay idle while delegated tasks are being executed
+                    if (this.delegatedTaskPending) {
+                        newMask = 0;
+                    }
+                    break;
                 case NOT_HANDSHAKING:
                     newMask = this.appEventMask;
                     break;
@@ -508,11 +641,21 @@ private void updateEventMask() {
                 newMask = newMask | EventMask.READ;
             }
 
-            // Do we have encrypted data ready to be sent?
-            if (this.outEncrypted.hasData()) {
+            // Make sure the handshake gets resumed if delegated tasks have completed
+            // after the last handshake round
+            if (this.delegatedTaskCompleted) {
+                newMask = newMask | EventMask.WRITE;
+            }
+
+            // Do we have encrypted or staged data ready to be sent?
+            if (this.outEncrypted.hasData() || hasStagedData()) {
                 newMask = newMask | EventMask.WRITE;
             } else if (this.sslEngine.isOutboundDone()) {
                 newMask = newMask & ~EventMask.WRITE;
+            } else if (this.status == Status.CLOSING) {
+                // Some engines such as Conscrypt do not ask for close_notify to be wrapped
+                // if the outbound side gets closed outside of the output event
+                newMask = newMask | EventMask.WRITE;
             }
 
             // Update the mask if necessary
@@ -527,6 +670,7 @@ private void updateEventMask() {
     private int sendEncryptedData() throws IOException {
         this.session.getLock().lock();
         try {
+            wrapStagedData();
             if (!this.outEncrypted.hasData()) {
                 // If the buffer isn't acquired or is empty, call write() with an empty buffer.
                 // This will ensure that tests performed by write() still take place without
@@ -542,6 +686,7 @@ private int sendEncryptedData() throws IOException {
             // in case there is still `close_notify` data stuck in it
             if (this.status == Status.CLOSED) {
                 outEncryptedBuf.clear();
+                discardStagedData();
             }
 
             // Perform operation
@@ -593,33 +738,45 @@ private void decryptData(final IOSession protocolSession) throws IOException {
             final ByteBuffer inEncryptedBuf = inEncrypted.acquire();
             inEncryptedBuf.flip();
             try {
-                while (inEncryptedBuf.hasRemaining()) {
-                    final ByteBuffer inPlainBuf = inPlain.acquire();
-                    try {
+                // Unwrap all complete records available in the input buffer and pass
+                // their content to the handler in as few chunks as possible
+                final ByteBuffer inPlainBuf = inPlain.acquire();
+                try {
+                    while (inEncryptedBuf.hasRemaining()) {
+                        if (inPlainBuf.position() > 0 && inPlainBuf.remaining() < getRecordLength(inEncryptedBuf)) {
+                            // Some engines may retain plain data of the next record internally
+                            // if it does not fit the output buffer
+                            deliverPlainData(protocolSession, inPlainBuf);
+                        }
                         final SSLEngineResult result = doUnwrap(inEncryptedBuf, inPlainBuf);
                         if (!inEncryptedBuf.hasRemaining() && result.getHandshakeStatus() == HandshakeStatus.NEED_UNWRAP) {
                             throw new SSLException("Unable to complete SSL handshake");
                         }
-                        if (sslEngine.isInboundDone()) {
-                            endOfStream = true;
-                        }
-                        if(inPlainBuf.position() > 0) {
-                            inPlainBuf.flip();
-                            try {
-                                ensureHandler().inputReady(protocolSession, inPlainBuf.hasRemaining() ? inPlainBuf : null);
-                            } finally {
-                                inPlainBuf.clear();
-                            }
-                        }
                         if (result.getStatus() != SSLEngineResult.Status.OK) {
+                            if (inPlainBuf.position() > 0) {
+                                deliverPlainData(protocolSession, inPlainBuf);
+                                if (result.getStatus() == SSLEngineResult.Status.BUFFER_OVERFLOW) {
+                                    continue;
+                                }
+                            }
+                            // Signal end of stream only after all preceding data has been delivered
+                            if (sslEngine.isInboundDone()) {
+                                endOfStream = true;
+                            }
                             if (result.getStatus() == SSLEngineResult.Status.BUFFER_UNDERFLOW && endOfStream) {
                                 throw new SSLException("Unable to decrypt incoming data due to unexpected end of stream");
                             }
                             break;
                         }
-                    } finally {
-                        inPlain.release();
                     }
+                    if (inPlainBuf.position() > 0) {
+                        deliverPlainData(protocolSession, inPlainBuf);
+                    }
+                    if (sslEngine.isInboundDone()) {
+                        endOfStream = true;
+                    }
+                } finally {
+                    inPlain.release();
                 }
             } finally {
                 inEncryptedBuf.compact();
@@ -634,6 +791,28 @@ private void decryptData(final IOSession protocolSession) throws IOException {
         }
     }
 
+    /**
+     * Returns the length of the TLS record starting at the current position of the buffer,
+     * which is also the upper bound of its plain content length, or {@code 0} if the record
+     * header is not available yet.
+     */
+    private static int getRecordLength(final ByteBuffer buf) {
+        if (buf.remaining() < 5) {
+            return 0;
+        }
+        final int pos = buf.position();
+        return ((buf.get(pos + 3) & 0xff) << 8) | (buf.get(pos + 4) & 0xff);
+    }
+
+    private void deliverPlainData(final IOSession protocolSession, final ByteBuffer inPlainBuf) throws IOException {
+        inPlainBuf.flip();
+        try {
+            ensureHandler().inputReady(protocolSession, inPlainBuf.hasRemaining() ? inPlainBuf : null);
+        } finally {
+            inPlainBuf.clear();
+        }
+    }
+
     private void encryptData(final IOSession protocolSession) throws IOException {
         final boolean appReady;
         this.session.getLock().lock();
@@ -645,10 +824,105 @@ private void encryptData(final IOSession protocolSession) throws IOException {
             this.session.getLock().unlock();
         }
         if (appReady) {
-            ensureHandler().outputReady(protocolSession);
+            this.stagingThread = Thread.currentThread();
+            try {
+                ensureHandler().outputReady(protocolSession);
+            } finally {
+                this.stagingThread = null;
+                this.session.getLock().lock();
+                try {
+                    wrapStagedData();
+                } finally {
+                    this.session.getLock().unlock();
+                }
+            }
         }
     }
 
+    // Small chunks of application data written by the protocol handler from within its
+    // #outputReady event get staged in the outPlain buffer and are encrypted together
+    // in larger TLS records once the event has been processed.
+    // The following methods must be called with the session lock held.
+
+    private boolean isStagingEnabled() {
+        return this.stagingThread == Thread.currentThread()
+                && this.handshakeStateRef.get() == TLSHandShakeState.COMPLETE
+                && this.sslEngine.getHandshakeStatus() == HandshakeStatus.NOT_HANDSHAKING;
+    }
+
+    private ByteBuffer acquireStagingBuffer() {
+        if (this.outPlain == null) {
+            this.outPlain = SSLManagedBuffer.create(this.sslBufferMode, this.appBufferSize);
+        }
+        return this.outPlain.acquire();
+    }
+
+    private boolean hasStagedData() {
+        return this.outPlain != null && this.outPlain.hasData();
+    }
+
+    private void releaseStagingBuffer() {
+        if (this.outPlain != null) {
+            this.outPlain.release();
+        }
+    }
+
+    private void discardStagedData() {
+        if (hasStagedData()) {
+            this.outPlain.acquire().clear();
+        }
+        releaseStagingBuffer();
+    }
+
+    private void wrapStagedData() throws SSLException {
+        if (!hasStagedData()) {
+            return;
+        }
+        final ByteBuffer outPlainBuf = this.outPlain.acquire();
+        if (this.sslEngine.isOutboundDone()) {
+            // Staged data can no longer be sent
+            outPlainBuf.clear();
+        } else {
+            final ByteBuffer outEncryptedBuf = this.outEncrypted.acquire();
+            outPlainBuf.flip();
+            try {
+                SSLEngineResult result;
+                do {
+                    result = doWrap(outPlainBuf, outEncryptedBuf);
+                } while (result.getStatus() == SSLEngineResult.Status.OK
+                        && result.bytesConsumed() > 0
+                        && outPlainBuf.hasRemaining());
+            } finally {
+                outPlainBuf.compact();
+            }
+        }
+        if (outPlainBuf.position() == 0) {
+            this.outPlain.release();
+        }
+    }
+
+    private long wrapWithStagedData(final ByteBuffer[] srcs, final int offset, final int length) throws SSLException {
+        // Top up the staging buffer in order to encrypt staged data together with new data
+        final ByteBuffer outPlainBuf = acquireStagingBuffer();
+        long bytesStaged = 0;
+        for (int i = offset; i < offset + length && outPlainBuf.hasRemaining(); i++) {
+            final ByteBuffer src = srcs[i];
+            final int chunk = Math.min(src.remaining(), outPlainBuf.remaining());
+            final ByteBuffer slice = src.duplicate();
+            slice.limit(slice.position() + chunk);
+            outPlainBuf.put(slice);
+            src.position(src.position() + chunk);
+            bytesStaged += chunk;
+        }
+        wrapStagedData();
+        if (hasStagedData()) {
+            return bytesStaged;
+        }
+        final ByteBuffer outEncryptedBuf = this.outEncrypted.acquire();
+        final SSLEngineResult result = doWrap(srcs, offset, length, outEncryptedBuf);
+        return bytesStaged + result.bytesConsumed();
+    }
+
     @Override
     public int write(final ByteBuffer src) throws IOException {
         Args.notNull(src, "Byte buffer");
@@ -660,6 +934,18 @@ public int write(final ByteBuffer src) throws IOException {
             if (this.handshakeStateRef.get() == TLSHandShakeState.READY) {
                 return 0;
             }
+            final int len = src.remaining();
+            if (len < MAX_STAGED_WRITE && isStagingEnabled()) {
+                final ByteBuffer outPlainBuf = acquireStagingBuffer();
+                if (len <= outPlainBuf.remaining()) {
+                    outPlainBuf.put(src);
+                    return len;
+                }
+            }
+            if (hasStagedData()) {
+                return (int) wrapWithStagedData(new ByteBuffer[] {src}, 0, 1);
+            }
+            releaseStagingBuffer();
             final ByteBuffer outEncryptedBuf = this.outEncrypted.acquire();
             final SSLEngineResult result = doWrap(src, outEncryptedBuf);
             return result.bytesConsumed();
@@ -668,6 +954,54 @@ public int write(final ByteBuffer src) throws IOException {
         }
     }
 
+    /**
+     * @since 5.3
+     */
+    @Override
+    public long write(final ByteBuffer[] srcs, final int offset, final int length) throws IOException {
+        Args.notNull(srcs, "Byte buffers");
+        this.session.getLock().lock();
+        try {
+            if (this.status != Status.ACTIVE) {
+                throw new ClosedChannelException();
+            }
+            if (this.handshakeStateRef.get() == TLSHandShakeState.READY) {
+                return 0;
+            }
+            long total = 0;
+            for (int i = offset; i < offset + length; i++) {
+                total += srcs[i].remaining();
+            }
+            if (total < MAX_STAGED_WRITE && isStagingEnabled()) {
+                final ByteBuffer outPlainBuf = acquireStagingBuffer();
+                if (total <= outPlainBuf.remaining()) {
+                    for (int i = offset; i < offset + length; i++) {
+                        outPlainBuf.put(srcs[i]);
+                    }
+                    return total;
+                }
+            }
+            if (hasStagedData()) {
+                return wrapWithStagedData(srcs, offset, length);
+            }
+            releaseStagingBuffer();
+            final ByteBuffer outEncryptedBuf = this.outEncrypted.acquire();
+            final SSLEngineResult result = doWrap(srcs, offset, length, outEncryptedBuf);
+            return result.bytesConsumed();
+        } finally {
+            this.session.getLock().unlock();
+        }
+    }
+
+    /**
+     * @since 5.3
+     */
+    @Override
+    public long write(final ByteBuffer[] srcs) throws IOException {
+        Args.notNull(srcs, "Byte buffers");
+        return write(srcs, 0, srcs.length);
+    }
+
     @Override
     public int read(final ByteBuffer dst) {
         return endOfStream ? -1 : 0;
@@ -732,6 +1066,7 @@ public void close(final CloseMode closeMode) {
                 this.inEncrypted.release();
                 this.outEncrypted.release();
                 this.inPlain.release();
+                discardStagedData();
 
                 this.status = Status.CLOSED;
                 this.session.close(closeMode);
@@ -58,16 +58,23 @@ abstract class SSLManagedBuffer {
     abstract boolean hasData();
 
     static SSLManagedBuffer create(final SSLBufferMode mode, final int size) {
-        return mode == SSLBufferMode.DYNAMIC ? new DynamicBuffer(size) : new StaticBuffer(size);
+        if (mode == SSLBufferMode.DYNAMIC) {
+            return new DynamicBuffer(size);
+        }
+        return new StaticBuffer(size, mode == SSLBufferMode.DIRECT);
     }
 
     static final class StaticBuffer extends SSLManagedBuffer {
 
         private final ByteBuffer buffer;
 
-        public StaticBuffer(final int size) {
+        public StaticBuffer(final int size, final boolean direct) {
             Args.positive(size, "size");
-            buffer = ByteBuffer.allocate(size);
+            buffer = direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+        }
+
+        public StaticBuffer(final int size) {
+            this(size, false);
         }
 
         @Override
@@ -38,10 +38,19 @@ public final class TlsDetails {
 
     private final SSLSession sslSession;
     private final String applicationProtocol;
+    private final boolean sessionResumed;
 
-    public TlsDetails(final SSLSession sslSession, final String applicationProtocol) {
+    /**
+     * @since 5.3
+     */
+    public TlsDetails(final SSLSession sslSession, final String applicationProtocol, final boolean sessionResumed) {
         this.sslSession = sslSession;
         this.applicationProtocol = applicationProtocol;
+        this.sessionResumed = sessionResumed;
+    }
+
+    public TlsDetails(final SSLSession sslSession, final String applicationProtocol) {
+        this(sslSession, applicationProtocol, false);
     }
 
     public SSLSession getSSLSession() {
@@ -52,11 +61,22 @@ public String getApplicationProtocol() {
         return applicationProtocol;
     }
 
+    /**
+     * Returns {@code true} if the TLS session has been resumed from an earlier
+     * session instead of being established with a full handshake.
+     *
+     * @since 5.3
+     */
+    public boolean isSessionResumed() {
+        return sessionResumed;
+    }
+
     @Override
     public String toString() {
         return "TlsDetails{" +
                 "sslSession=" + sslSession +
                 ", applicationProtocol='" + applicationProtocol + '\'' +
+                ", sessionResumed=" + sessionResumed +
                 '}';
     }
 
@@ -0,0 +1,250 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.core5.reactor.ssl;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSessionContext;
+
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+import org.apache.hc.core5.concurrent.CallbackContribution;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.net.NamedEndpoint;
+import org.apache.hc.core5.util.Args;
+import org.apache.hc.core5.util.TextUtils;
+import org.apache.hc.core5.util.TimeValue;
+
+/**
+ * Tracker of TLS sessions established with individual endpoints and of the rate
+ * of successful session resumption.
+ * <p>
+ * This class does not cache sessions for resumption. TLS session resumption is
+ * performed by the SSL engine based on the session context of the
+ * {@link javax.net.ssl.SSLContext} the sessions were created with. The tracker
+ * keeps the most recent session per {@link NamedEndpoint} for inspection.
+ * </p>
+ * <p>
+ * Sessions evicted from the tracker due to its size or time-to-live constraints
+ * are merely dropped and remain resumable. Only sessions explicitly
+ * {@link #invalidate(NamedEndpoint) invalidated} get invalidated in the session
+ * context of their {@link javax.net.ssl.SSLContext}, which forces a full handshake
+ * on the next connection to those endpoints from any user of that context.
+ * </p>
+ * <p>
+ * TLS strategies given a tracker apply its constraints to the client or server
+ * session context of their {@link javax.net.ssl.SSLContext} with
+ * {@link #configure(SSLSessionContext)}.
+ * </p>
+ *
+ * @since 5.3
+ */
+@Contract(threading = ThreadingBehavior.SAFE)
+public final class TlsSessionTracker {
+
+    private final int maxSize;
+    private final TimeValue timeToLive;
+    private final ReentrantLock lock;
+    private final Map<String, SSLSession> sessionMap;
+    private final AtomicLong resumedCount;
+    private final AtomicLong fullHandshakeCount;
+
+    /**
+     * @param maxSize the maximum number of sessions to track.
+     * @param timeToLive the maximum time to live of tracked sessions. If {@code null}
+     *   or non-positive the time to live of sessions is not limited by this tracker.
+     */
+    public TlsSessionTracker(final int maxSize, final TimeValue timeToLive) {
+        this.maxSize = Args.positive(maxSize, "Max size");
+        this.timeToLive = timeToLive;
+        this.lock = new ReentrantLock();
+        this.sessionMap = new LinkedHashMap<>(16, 0.75f, true);
+        this.resumedCount = new AtomicLong();
+        this.fullHandshakeCount = new AtomicLong();
+    }
+
+    public TlsSessionTracker(final int maxSize) {
+        this(maxSize, null);
+    }
+
+    /**
+     * Applies the size and time-to-live constraints of this tracker to the given
+     * session context. This method modifies the session context, which is shared
+     * by all users of the {@link javax.net.ssl.SSLContext} it belongs to.
+     */
+    public void configure(final SSLSessionContext sessionContext) {
+        if (sessionContext == null) {
+            return;
+        }
+        sessionContext.setSessionCacheSize(maxSize);
+        if (TimeValue.isPositive(timeToLive)) {
+            sessionContext.setSessionTimeout(Math.max(1, TimeValue.asBoundInt(timeToLive.toSeconds())));
+        }
+    }
+
+    private static String key(final NamedEndpoint endpoint) {
+        return TextUtils.toLowerCase(endpoint.getHostName()) + ":" + endpoint.getPort();
+    }
+
+    private boolean isExpired(final SSLSession sslSession, final long now) {
+        return !sslSession.isValid()
+                || TimeValue.isPositive(timeToLive) && now - sslSession.getCreationTime() > timeToLive.toMilliseconds();
+    }
+
+    /**
+     * Records a TLS session fully established with the given endpoint.
+     *
+     * @param endpoint the opposite endpoint. May be {@code null}.
+     * @param tlsDetails the TLS session details.
+     */
+    public void sessionEstablished(final NamedEndpoint endpoint, final TlsDetails tlsDetails) {
+        if (tlsDetails == null) {
+            return;
+        }
+        if (tlsDetails.isSessionResumed()) {
+            resumedCount.incrementAndGet();
+        } else {
+            fullHandshakeCount.incrementAndGet();
+        }
+        final SSLSession sslSession = tlsDetails.getSSLSession();
+        if (endpoint == null || sslSession == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            sessionMap.put(key(endpoint), sslSession);
+            if (sessionMap.size() > maxSize) {
+                final Iterator<SSLSession> it = sessionMap.values().iterator();
+                it.next();
+                it.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the most recent valid session established with the given endpoint
+     * or {@code null} if there is none.
+     */
+    public SSLSession getSession(final NamedEndpoint endpoint) {
+        Args.notNull(endpoint, "Endpoint");
+        lock.lock();
+        try {
+            final String key = key(endpoint);
+            final SSLSession sslSession = sessionMap.get(key);
+            if (sslSession != null && isExpired(sslSession, System.currentTimeMillis())) {
+                sessionMap.remove(key);
+                return null;
+            }
+            return sslSession;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Invalidates the session established with the given endpoint, so that
+     * the next connection to the endpoint performs a full handshake.
+     */
+    public void invalidate(final NamedEndpoint endpoint) {
+        Args.notNull(endpoint, "Endpoint");
+        final SSLSession sslSession;
+        lock.lock();
+        try {
+            sslSession = sessionMap.remove(key(endpoint));
+        } finally {
+            lock.unlock();
+        }
+        if (sslSession != null) {
+            sslSession.invalidate();
+        }
+    }
+
+    /**
+     * Returns a callback that records the TLS session established with the given
+     * endpoint upon successful completion of the TLS handshake prior to passing
+     * the result to the given callback.
+     */
+    public FutureCallback<TransportSecurityLayer> track(
+            final NamedEndpoint endpoint,
+            final FutureCallback<TransportSecurityLayer> callback) {
+        return new CallbackContribution<TransportSecurityLayer>(callback) {
+
+            @Override
+            public void completed(final TransportSecurityLayer transportSecurityLayer) {
+                if (transportSecurityLayer != null) {
+                    sessionEstablished(endpoint, transportSecurityLayer.getTlsDetails());
+                }
+                if (callback != null) {
+                    callback.completed(transportSecurityLayer);
+                }
+            }
+
+        };
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return sessionMap.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of TLS sessions that have been resumed.
+     */
+    public long getResumedCount() {
+        return resumedCount.get();
+    }
+
+    /**
+     * Returns the number of TLS sessions that have been established with a full handshake.
+     */
+    public long getFullHandshakeCount() {
+        return fullHandshakeCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "TlsSessionTracker{" +
+                "maxSize=" + maxSize +
+                ", timeToLive=" + timeToLive +
+                ", size=" + size() +
+                ", resumed=" + resumedCount +
+                ", fullHandshakes=" + fullHandshakeCount +
+                '}';
+    }
+
+}
@@ -27,6 +27,8 @@
 
 package org.apache.hc.core5.reactor.ssl;
 
+import java.util.concurrent.Executor;
+
 import javax.net.ssl.SSLContext;
 
 import org.apache.hc.core5.concurrent.FutureCallback;
@@ -88,6 +90,39 @@ default void startTls(
         }
     }
 
+    /**
+     * Starts TLS session over an existing network connection with the given SSL context.
+     * {@link NamedEndpoint} details are applicable for client side connections and
+     * are used for host name verification, when supported by the SSL engine.
+     * <p>
+     * Delegated tasks of the SSL engine such as key exchange computations
+     * or certificate validation can be executed by the given executor instead of
+     * the I/O reactor thread in order to avoid stalling other sessions
+     * served by the same I/O reactor.
+     * </p>
+     *
+     * @param sslContext SSL context to be used for this session.
+     * @param endpoint optional endpoint details for outgoing client side connections.
+     * @param sslBufferMode SSL buffer management mode.
+     * @param initializer SSL session initialization callback.
+     * @param verifier SSL session verification callback.
+     * @param handshakeTimeout the timeout to use while performing the TLS handshake; may be {@code null}.
+     * @param handshakeExecutor the executor to run delegated SSL engine tasks with; may be {@code null}.
+     *
+     * @since 5.3
+     */
+    default void startTls(
+            SSLContext sslContext,
+            NamedEndpoint endpoint,
+            SSLBufferMode sslBufferMode,
+            SSLSessionInitializer initializer,
+            SSLSessionVerifier verifier,
+            Timeout handshakeTimeout,
+            Executor handshakeExecutor,
+            FutureCallback<TransportSecurityLayer> callback) throws UnsupportedOperationException {
+        startTls(sslContext, endpoint, sslBufferMode, initializer, verifier, handshakeTimeout, callback);
+    }
+
     /**
      * Returns details of a fully established TLS session.
      *
@@ -54,6 +54,19 @@ public ByteArrayBuffer(final int capacity) {
         this.array = new byte[capacity];
     }
 
+    /**
+     * Creates an empty instance of {@link ByteArrayBuffer} backed by the given array
+     * until it needs to expand.
+     *
+     * @param array the backing array
+     *
+     * @since 5.3
+     */
+    public ByteArrayBuffer(final byte[] array) {
+        super();
+        this.array = Args.notNull(array, "Buffer array");
+    }
+
     private void expand(final int newlen) {
         final byte[] newArray = new byte[Math.max(this.array.length << 1, newlen)];
         System.arraycopy(this.array, 0, newArray, 0, this.len);
@@ -28,6 +28,7 @@
 package org.apache.hc.core5.http;
 
 import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
 import java.util.Arrays;
 
 import org.apache.hc.core5.http.message.BasicNameValuePair;
@@ -183,4 +184,46 @@ public void testWithParams() throws Exception {
         Assertions.assertEquals("text/blah; charset=ISO-8859-1; p=blah", contentType.toString());
     }
 
+    @Test
+    public void testParseCached() throws Exception {
+        final ContentType contentType1 = ContentType.parse("text/plain; charset=UTF-8; format=flowed");
+        final ContentType contentType2 = ContentType.parse(new StringBuilder("text/plain; charset=UTF-8; format=flowed"));
+        Assertions.assertSame(contentType1, contentType2);
+        Assertions.assertEquals(StandardCharsets.UTF_8, contentType2.getCharset());
+        Assertions.assertEquals("flowed", contentType2.getParameter("format"));
+    }
+
+    @Test
+    public void testParseCachedStrictAndLenient() throws Exception {
+        Assertions.assertThrows(UnsupportedCharsetException.class, () -> ContentType.parse("text/plain; charset=no-such"));
+        Assertions.assertNull(ContentType.parseLenient("text/plain; charset=no-such").getCharset());
+        Assertions.assertThrows(UnsupportedCharsetException.class, () -> ContentType.parse("text/plain; charset=no-such"));
+    }
+
+    @Test
+    public void testParseCharset() throws Exception {
+        final String[] values = {
+                "text/plain",
+                "text/plain; charset=UTF-8",
+                "text/plain;charset=utf-8;format=flowed",
+                "text/plain; format=flowed; CHARSET = \"ISO-8859-1\"",
+                "text/plain; name=\"a;charset=UTF-16\"; charset=us-ascii",
+                "text/plain; charset=; charset=UTF-8",
+                "text/plain, text/html; charset=UTF-8",
+                "text/plain; charset",
+                "; charset=UTF-8",
+                " "
+        };
+        for (final String value : values) {
+            final ContentType contentType = ContentType.parse(value);
+            Assertions.assertEquals(ContentType.getCharset(contentType, StandardCharsets.UTF_16),
+                    ContentType.parseCharset(value, StandardCharsets.UTF_16), value);
+            Assertions.assertEquals(ContentType.getCharset(contentType, null),
+                    ContentType.parseCharset(new StringBuilder(value), null), value);
+        }
+        Assertions.assertEquals(StandardCharsets.ISO_8859_1, ContentType.parseCharset(null, StandardCharsets.ISO_8859_1));
+        Assertions.assertThrows(UnsupportedCharsetException.class, () ->
+                ContentType.parseCharset("text/plain; charset=no-such-charset", null));
+    }
+
 }
@@ -27,6 +27,7 @@
 package org.apache.hc.core5.http.impl.io;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.InetAddress;
@@ -34,13 +35,23 @@
 import java.net.Socket;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ConnectionClosedException;
 import org.apache.hc.core5.http.ContentLengthStrategy;
 import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.config.Http1Config;
+import org.apache.hc.core5.http.impl.BasicHttpTransportMetrics;
 import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
 import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.CharArrayBuffer;
 import org.apache.hc.core5.util.Timeout;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -144,6 +155,143 @@ public void testConnectionShutdown() throws Exception {
         Mockito.verify(socket, Mockito.times(1)).close();
     }
 
+    @Test
+    public void testConnectionCloseReleasesBuffers() throws Exception {
+        final PooledBufferAllocator allocator = new PooledBufferAllocator();
+        final OutputStream outStream = Mockito.mock(OutputStream.class);
+        Mockito.when(socket.getOutputStream()).thenReturn(outStream);
+
+        conn = new BHttpConnectionBase(Http1Config.DEFAULT, null, null, allocator);
+        Assertions.assertEquals(2, allocator.getAllocatedCount());
+        Assertions.assertEquals(0, allocator.getPooledCount());
+
+        conn.bind(socket);
+        conn.outbuffer.write(0, outStream);
+        conn.close();
+
+        Mockito.verify(outStream, Mockito.times(1)).write(
+                ArgumentMatchers.any(), ArgumentMatchers.anyInt(), ArgumentMatchers.anyInt());
+        Assertions.assertEquals(2, allocator.getPooledCount());
+        Assertions.assertEquals(0, conn.inBuffer.capacity());
+        Assertions.assertEquals(0, conn.outbuffer.capacity());
+
+        conn.close(CloseMode.IMMEDIATE);
+        Assertions.assertEquals(2, allocator.getPooledCount());
+
+        final BHttpConnectionBase conn2 = new BHttpConnectionBase(Http1Config.DEFAULT, null, null, allocator);
+        Assertions.assertEquals(2, allocator.getAllocatedCount());
+        Assertions.assertEquals(2, allocator.getReusedCount());
+        Assertions.assertEquals(0, allocator.getPooledCount());
+        Assertions.assertEquals(Http1Config.DEFAULT.getBufferSize(), conn2.inBuffer.capacity());
+        Assertions.assertEquals(0, conn2.inBuffer.length());
+        Assertions.assertEquals(Http1Config.DEFAULT.getBufferSize(), conn2.outbuffer.capacity());
+        Assertions.assertEquals(0, conn2.outbuffer.length());
+
+        conn2.bind(socket);
+        conn2.close(CloseMode.IMMEDIATE);
+        Assertions.assertEquals(2, allocator.getPooledCount());
+    }
+
+    @Test
+    public void testConnectionCloseFromAnotherThreadDuringRead() throws Exception {
+        final PooledBufferAllocator allocator = new PooledBufferAllocator();
+        final CountDownLatch readStarted = new CountDownLatch(1);
+        final CountDownLatch socketClosed = new CountDownLatch(1);
+        final InputStream inStream = new InputStream() {
+
+            @Override
+            public int read() throws IOException {
+                final byte[] b = new byte[1];
+                return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+            }
+
+            @Override
+            public int read(final byte[] b, final int off, final int len) throws IOException {
+                readStarted.countDown();
+                try {
+                    socketClosed.await();
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new SocketException("Socket closed");
+            }
+
+        };
+        Mockito.when(socket.getInputStream()).thenReturn(inStream);
+        Mockito.doAnswer(invocation -> {
+            socketClosed.countDown();
+            return null;
+        }).when(socket).close();
+
+        conn = new BHttpConnectionBase(Http1Config.DEFAULT, null, null, allocator);
+        final ExecutorService ioExecutor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Boolean> readFuture = ioExecutor.submit(() -> {
+                conn.bind(socket);
+                return conn.isDataAvailable(Timeout.ofMinutes(1));
+            });
+            Assertions.assertTrue(readStarted.await(1, TimeUnit.MINUTES));
+
+            // Close the connection from a thread other than the I/O thread blocked in a read
+            conn.close(CloseMode.IMMEDIATE);
+            final ExecutionException ex = Assertions.assertThrows(ExecutionException.class, () ->
+                    readFuture.get(1, TimeUnit.MINUTES));
+            Assertions.assertInstanceOf(SocketException.class, ex.getCause());
+            Assertions.assertEquals(0, allocator.getPooledCount());
+            Assertions.assertEquals(Http1Config.DEFAULT.getBufferSize(), conn.inBuffer.capacity());
+            Assertions.assertEquals(Http1Config.DEFAULT.getBufferSize(), conn.outbuffer.capacity());
+
+            // Buffers get released upon the next attempt of the I/O thread to use the connection
+            final ExecutionException ex2 = Assertions.assertThrows(ExecutionException.class, () ->
+                    ioExecutor.submit(() -> conn.isDataAvailable(Timeout.ofMinutes(1))).get(1, TimeUnit.MINUTES));
+            Assertions.assertInstanceOf(ConnectionClosedException.class, ex2.getCause());
+            Assertions.assertEquals(2, allocator.getPooledCount());
+
+            ioExecutor.submit(() -> conn.close(CloseMode.IMMEDIATE)).get(1, TimeUnit.MINUTES);
+            Assertions.assertEquals(2, allocator.getPooledCount());
+        } finally {
+            ioExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testConnectionCloseByIOThreadAfterAbort() throws Exception {
+        final PooledBufferAllocator allocator = new PooledBufferAllocator();
+        conn = new BHttpConnectionBase(Http1Config.DEFAULT, null, null, allocator);
+        final ExecutorService ioExecutor = Executors.newSingleThreadExecutor();
+        try {
+            ioExecutor.submit(() -> {
+                conn.bind(socket);
+                return null;
+            }).get(1, TimeUnit.MINUTES);
+
+            conn.close(CloseMode.IMMEDIATE);
+            Assertions.assertEquals(0, allocator.getPooledCount());
+
+            ioExecutor.submit(() -> conn.close(CloseMode.GRACEFUL)).get(1, TimeUnit.MINUTES);
+            Assertions.assertEquals(2, allocator.getPooledCount());
+        } finally {
+            ioExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testReleasedInputBufferReallocated() throws Exception {
+        final PooledBufferAllocator allocator = new PooledBufferAllocator();
+        final SessionInputBufferImpl inBuffer = new SessionInputBufferImpl(
+                new BasicHttpTransportMetrics(), 16, 0, 0, null, allocator);
+        inBuffer.release();
+        Assertions.assertEquals(0, inBuffer.capacity());
+        Assertions.assertEquals(1, allocator.getPooledCount());
+
+        final CharArrayBuffer line = new CharArrayBuffer(16);
+        Assertions.assertEquals(5, inBuffer.readLine(line,
+                new ByteArrayInputStream("stuff\r\n".getBytes(StandardCharsets.US_ASCII))));
+        Assertions.assertEquals("stuff", line.toString());
+        Assertions.assertEquals(16, inBuffer.capacity());
+        Assertions.assertEquals(1, allocator.getPooledCount());
+    }
+
     @Test
     public void testCreateEntityLengthDelimited() throws Exception {
         final InputStream inStream = Mockito.mock(InputStream.class);
@@ -42,6 +42,7 @@
 import org.apache.hc.core5.http.io.SessionInputBuffer;
 import org.apache.hc.core5.http.io.SessionOutputBuffer;
 import org.apache.hc.core5.http.message.BasicHeader;
+import org.apache.hc.core5.http.message.PreEncodedHeader;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -340,14 +341,15 @@ public void testChunkedOutputStreamWithTrailers() throws IOException {
         final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
         final ChunkedOutputStream out = new ChunkedOutputStream(outbuffer, outputStream, 2, () -> Arrays.asList(
                 new BasicHeader("E", ""),
-                new BasicHeader("Y", "Z"))
+                new BasicHeader("Y", "Z"),
+                new PreEncodedHeader("P", "Q"))
         );
         out.write('x');
         out.finish();
         out.close();
 
         final String content = new String(outputStream.toByteArray(), StandardCharsets.US_ASCII);
-        Assertions.assertEquals("1\r\nx\r\n0\r\nE: \r\nY: Z\r\n\r\n", content);
+        Assertions.assertEquals("1\r\nx\r\n0\r\nE: \r\nY: Z\r\nP: Q\r\n\r\n", content);
     }
 
     @Test
@@ -28,21 +28,31 @@
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
 
 import org.apache.hc.core5.http.ClassicHttpRequest;
 import org.apache.hc.core5.http.ClassicHttpResponse;
 import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpHeaders;
 import org.apache.hc.core5.http.Method;
 import org.apache.hc.core5.http.NotImplementedException;
 import org.apache.hc.core5.http.ProtocolException;
 import org.apache.hc.core5.http.config.Http1Config;
 import org.apache.hc.core5.http.impl.DefaultContentLengthStrategy;
+import org.apache.hc.core5.http.io.entity.FileEntity;
 import org.apache.hc.core5.http.io.entity.StringEntity;
 import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.apache.hc.core5.http.message.PreEncodedHeader;
 import org.apache.hc.core5.util.Timeout;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -229,6 +239,26 @@ public void testWriteResponseHead() throws Exception {
         Assertions.assertEquals("HTTP/1.1 200 OK\r\nUser-Agent: test\r\n\r\n", s);
     }
 
+    @Test
+    public void testWriteResponseHeadPreEncodedHeaders() throws Exception {
+        final ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+        Mockito.when(socket.getOutputStream()).thenReturn(outStream);
+
+        conn.bind(socket);
+
+        final ClassicHttpResponse response = new BasicClassicHttpResponse(200, "OK");
+        response.addHeader(new PreEncodedHeader(HttpHeaders.SERVER, "test/1.1"));
+        response.addHeader("User-Agent", "test");
+        response.addHeader(new PreEncodedHeader("X-Stuff", "\u00e9t\u00e9"));
+
+        conn.sendResponseHeader(response);
+        conn.flush();
+
+        final String s = new String(outStream.toByteArray(), StandardCharsets.ISO_8859_1);
+        Assertions.assertEquals("HTTP/1.1 200 OK\r\nServer: test/1.1\r\nUser-Agent: test\r\n" +
+                "X-Stuff: \u00e9t\u00e9\r\n\r\n", s);
+    }
+
     @Test
     public void testWriteResponse100Head() throws Exception {
         final ByteArrayOutputStream outStream = new ByteArrayOutputStream();
@@ -271,6 +301,49 @@ public void testWriteResponseEntityWithContentLength() throws Exception {
         Assertions.assertEquals("HTTP/1.1 200 OK\r\nServer: test\r\nContent-Length: 3\r\n\r\n123", s);
     }
 
+    @Test
+    public void testWriteResponseFileEntityWithContentLength() throws Exception {
+        final byte[] content = new byte[100000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        final File file = File.createTempFile("httpcore", ".bin");
+        try (ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+            Files.write(file.toPath(), content);
+            serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            try (Socket client = new Socket(InetAddress.getLoopbackAddress(), serverChannel.socket().getLocalPort());
+                 SocketChannel channel = serverChannel.accept()) {
+                conn.bind(channel.socket());
+
+                final ClassicHttpResponse response = new BasicClassicHttpResponse(200, "OK");
+                response.addHeader("Content-Length", Integer.toString(content.length));
+                response.setEntity(new FileEntity(file, ContentType.APPLICATION_OCTET_STREAM));
+
+                conn.sendResponseHeader(response);
+                conn.sendResponseEntity(response);
+                conn.flush();
+
+                final String head = "HTTP/1.1 200 OK\r\nContent-Length: " + content.length + "\r\n\r\n";
+                Assertions.assertEquals(1, conn.getEndpointDetails().getResponseCount());
+                Assertions.assertEquals(head.length() + content.length, conn.getEndpointDetails().getSentBytesCount());
+
+                final InputStream inStream = client.getInputStream();
+                final byte[] received = new byte[head.length() + content.length];
+                int off = 0;
+                while (off < received.length) {
+                    final int l = inStream.read(received, off, received.length - off);
+                    Assertions.assertTrue(l > 0);
+                    off += l;
+                }
+                Assertions.assertEquals(head, new String(received, 0, head.length(), StandardCharsets.US_ASCII));
+                Assertions.assertArrayEquals(content, Arrays.copyOfRange(received, head.length(), received.length));
+            }
+        } finally {
+            conn.close();
+            file.delete();
+        }
+    }
+
     @Test
     public void testWriteResponseEntityChunkCoded() throws Exception {
         final ByteArrayOutputStream outStream = new ByteArrayOutputStream();
@@ -0,0 +1,80 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.core5.http.impl.io;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TestPooledBufferAllocator {
+
+    @Test
+    public void testAllocateAndRelease() {
+        final PooledBufferAllocator allocator = new PooledBufferAllocator(2);
+
+        final byte[] b1 = allocator.allocate(16);
+        final byte[] b2 = allocator.allocate(16);
+        final byte[] b3 = allocator.allocate(16);
+        Assertions.assertEquals(16, b1.length);
+        Assertions.assertEquals(3, allocator.getAllocatedCount());
+        Assertions.assertEquals(0, allocator.getPooledCount());
+
+        allocator.release(b1);
+        allocator.release(b2);
+        allocator.release(b3);
+        Assertions.assertEquals(2, allocator.getPooledCount());
+
+        final byte[] b4 = allocator.allocate(16);
+        Assertions.assertTrue(b4 == b1 || b4 == b2);
+        Assertions.assertEquals(1, allocator.getReusedCount());
+        Assertions.assertEquals(1, allocator.getPooledCount());
+
+        final byte[] b5 = allocator.allocate(32);
+        Assertions.assertEquals(32, b5.length);
+        Assertions.assertEquals(4, allocator.getAllocatedCount());
+    }
+
+    @Test
+    public void testReleaseForeignBuffer() {
+        final PooledBufferAllocator allocator = new PooledBufferAllocator();
+        allocator.allocate(16);
+
+        allocator.release(new byte[8]);
+        allocator.release(null);
+        Assertions.assertEquals(0, allocator.getPooledCount());
+
+        allocator.release(new byte[16]);
+        Assertions.assertEquals(1, allocator.getPooledCount());
+    }
+
+    @Test
+    public void testInvalidCapacity() {
+        final PooledBufferAllocator allocator = new PooledBufferAllocator();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> allocator.allocate(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PooledBufferAllocator(0));
+    }
+
+}
@@ -36,9 +36,13 @@
 import java.nio.charset.CharsetEncoder;
 import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.hc.core5.http.MessageConstraintException;
 import org.apache.hc.core5.http.impl.BasicHttpTransportMetrics;
+import org.apache.hc.core5.http.io.BufferAllocator;
 import org.apache.hc.core5.http.io.HttpTransportMetrics;
 import org.apache.hc.core5.http.io.SessionInputBuffer;
 import org.apache.hc.core5.http.io.SessionOutputBuffer;
@@ -394,6 +398,108 @@ public void testWriteSmallFragmentNoBuffering() throws Exception {
         Mockito.verify(outputStream, Mockito.times(2)).write(ArgumentMatchers.anyInt());
     }
 
+    @Test
+    public void testWriteHeadAndBodyNotCoalesced() throws Exception {
+        final OutputStream outputStream = Mockito.mock(OutputStream.class);
+        final BasicHttpTransportMetrics metrics = new BasicHttpTransportMetrics();
+        final SessionOutputBuffer outbuffer = new SessionOutputBufferImpl(metrics, 16, -1, null);
+        outbuffer.write(new byte[10], outputStream);
+        outbuffer.write(new byte[20], outputStream);
+        outbuffer.flush(outputStream);
+        Mockito.verify(outputStream, Mockito.times(2)).write(ArgumentMatchers.any(), ArgumentMatchers.anyInt(), ArgumentMatchers.anyInt());
+        Assertions.assertEquals(2, metrics.getTransferCount());
+        Assertions.assertEquals(30, metrics.getBytesTransferred());
+    }
+
+    @Test
+    public void testWriteHeadAndBodyCoalesced() throws Exception {
+        final AtomicInteger writeCount = new AtomicInteger();
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream() {
+
+            @Override
+            public synchronized void write(final byte[] b, final int off, final int len) {
+                writeCount.incrementAndGet();
+                super.write(b, off, len);
+            }
+
+        };
+        final BasicHttpTransportMetrics metrics = new BasicHttpTransportMetrics();
+        final SessionOutputBufferImpl outbuffer = new SessionOutputBufferImpl(metrics, 16, 64, -1, null, null);
+        final byte[] head = new byte[10];
+        final byte[] body = new byte[20];
+        for (int i = 0; i < body.length; i++) {
+            body[i] = (byte) i;
+        }
+        outbuffer.write(head, outputStream);
+        outbuffer.write(body, outputStream);
+        outbuffer.flush(outputStream);
+        Assertions.assertEquals(1, writeCount.get());
+        Assertions.assertEquals(1, metrics.getTransferCount());
+        Assertions.assertEquals(30, metrics.getBytesTransferred());
+        final byte[] written = outputStream.toByteArray();
+        Assertions.assertEquals(30, written.length);
+        for (int i = 0; i < body.length; i++) {
+            Assertions.assertEquals(body[i], written[head.length + i]);
+        }
+
+        // Content exceeding the max buffer size is not coalesced
+        outbuffer.write(head, outputStream);
+        outbuffer.write(new byte[60], outputStream);
+        outbuffer.flush(outputStream);
+        Assertions.assertEquals(3, metrics.getTransferCount());
+    }
+
+    @Test
+    public void testAdaptiveBufferSize() throws Exception {
+        final OutputStream outputStream = Mockito.mock(OutputStream.class);
+        final SessionOutputBufferImpl outbuffer = new SessionOutputBufferImpl(
+                new BasicHttpTransportMetrics(), 16, 1024, -1, null, null);
+        Assertions.assertEquals(16, outbuffer.capacity());
+        for (int i = 0; i < 10; i++) {
+            outbuffer.write(new byte[100], outputStream);
+            outbuffer.write(new byte[200], outputStream);
+            outbuffer.flush(outputStream);
+        }
+        Assertions.assertTrue(outbuffer.capacity() >= 300);
+        Assertions.assertTrue(outbuffer.capacity() <= 1024);
+        for (int i = 0; i < 20; i++) {
+            outbuffer.write(new byte[8], outputStream);
+            outbuffer.flush(outputStream);
+        }
+        Assertions.assertTrue(outbuffer.capacity() <= 32);
+    }
+
+    @Test
+    public void testAdaptiveBufferSizeClasses() throws Exception {
+        final Set<Integer> lengths = new TreeSet<>();
+        final BufferAllocator allocator = new BufferAllocator() {
+
+            @Override
+            public byte[] allocate(final int capacity) {
+                lengths.add(capacity);
+                return new byte[capacity];
+            }
+
+            @Override
+            public void release(final byte[] buffer) {
+            }
+
+        };
+        final OutputStream outputStream = Mockito.mock(OutputStream.class);
+        final SessionOutputBufferImpl outbuffer = new SessionOutputBufferImpl(
+                new BasicHttpTransportMetrics(), 16, 1000, -1, null, allocator);
+        for (int i = 1; i < 100; i++) {
+            outbuffer.write(new byte[(i * 37) % 300], outputStream);
+            outbuffer.write(new byte[(i * 53) % 700], outputStream);
+            outbuffer.flush(outputStream);
+        }
+        for (final int length : lengths) {
+            Assertions.assertTrue(length == 1000 || length <= 512 && Integer.bitCount(length / 16) == 1
+                    && length % 16 == 0, "Unexpected buffer length " + length);
+        }
+        outbuffer.release();
+    }
+
     @Test
     public void testLineLimit() throws Exception {
         final String s = "a very looooooooooooooooooooooooooooooooooooooooooong line\r\n";
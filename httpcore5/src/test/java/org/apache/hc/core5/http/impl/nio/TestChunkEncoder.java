@@ -29,6 +29,7 @@
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
@@ -224,4 +225,77 @@ public void testTrailers() throws IOException {
         Assertions.assertEquals("1\r\n1\r\n2\r\n23\r\n0\r\nE: \r\nY: Z\r\n\r\n", s);
         Assertions.assertEquals("[chunk-coded; completed: true]", encoder.toString());
     }
+
+    static class GatheringByteChannelMock extends WritableByteChannelMock implements GatheringByteChannel {
+
+        int gatheringWrites;
+
+        GatheringByteChannelMock(final int initialSize, final int capacityLimit) {
+            super(initialSize, capacityLimit);
+        }
+
+        @Override
+        public long write(final ByteBuffer[] srcs, final int offset, final int length) throws IOException {
+            gatheringWrites++;
+            long total = 0;
+            for (int i = offset; i < offset + length; i++) {
+                total += write(srcs[i]);
+                if (srcs[i].hasRemaining()) {
+                    break;
+                }
+            }
+            return total;
+        }
+
+        @Override
+        public long write(final ByteBuffer[] srcs) throws IOException {
+            return write(srcs, 0, srcs.length);
+        }
+
+    }
+
+    @Test
+    public void testGatheringWrite() throws Exception {
+        final GatheringByteChannelMock channel = new GatheringByteChannelMock(64, 0);
+        final SessionOutputBuffer outbuf = Mockito.spy(new SessionOutputBufferImpl(1024, 128));
+        final BasicHttpTransportMetrics metrics = new BasicHttpTransportMetrics();
+        final ChunkEncoder encoder = new ChunkEncoder(channel, outbuf, metrics, 8);
+
+        Assertions.assertEquals(16, encoder.write(CodecTestUtils.wrap("0123456789ABCDEF")));
+        Assertions.assertEquals(16, encoder.write(CodecTestUtils.wrap("0123456789ABCDEF")));
+        Assertions.assertEquals(2, channel.gatheringWrites);
+        Assertions.assertFalse(outbuf.hasData());
+        Mockito.verify(outbuf, Mockito.never()).write(ArgumentMatchers.<ByteBuffer>any());
+        Assertions.assertEquals(44, metrics.getBytesTransferred());
+
+        encoder.write(CodecTestUtils.wrap("0123"));
+        encoder.complete();
+        Assertions.assertEquals(2, channel.gatheringWrites);
+
+        outbuf.flush(channel);
+        final String s = channel.dump(StandardCharsets.US_ASCII);
+        Assertions.assertEquals("10\r\n0123456789ABCDEF\r\n10\r\n0123456789ABCDEF\r\n" +
+                "4\r\n0123\r\n0\r\n\r\n", s);
+    }
+
+    @Test
+    public void testGatheringWriteLimitedChannel() throws Exception {
+        final GatheringByteChannelMock channel = new GatheringByteChannelMock(64, 16);
+        final SessionOutputBuffer outbuf = new SessionOutputBufferImpl(1024, 128);
+        final BasicHttpTransportMetrics metrics = new BasicHttpTransportMetrics();
+        final ChunkEncoder encoder = new ChunkEncoder(channel, outbuf, metrics, 0);
+
+        final ByteBuffer src = CodecTestUtils.wrap("0123456789ABCDEF");
+        Assertions.assertEquals(16, encoder.write(src));
+        Assertions.assertFalse(src.hasRemaining());
+        Assertions.assertEquals(1, channel.gatheringWrites);
+        Assertions.assertTrue(outbuf.hasData());
+        Assertions.assertEquals(6, outbuf.length());
+
+        channel.flush();
+        outbuf.flush(channel);
+        final String s = channel.dump(StandardCharsets.US_ASCII);
+        Assertions.assertEquals("10\r\n0123456789ABCDEF\r\n", s);
+    }
+
 }
@@ -0,0 +1,101 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.core5.http.impl.nio;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.HttpVersion;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.apache.hc.core5.http.message.BasicLineFormatter;
+import org.apache.hc.core5.http.message.PreEncodedHeader;
+import org.apache.hc.core5.http.message.StatusLine;
+import org.apache.hc.core5.util.CharArrayBuffer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link DefaultHttpResponseWriter}.
+ */
+public class TestDefaultHttpResponseWriter {
+
+    private static String write(final HttpResponse response) throws Exception {
+        final SessionOutputBufferImpl outbuf = new SessionOutputBufferImpl(1024, 128);
+        final DefaultHttpResponseWriter<HttpResponse> writer = new DefaultHttpResponseWriter<>();
+        writer.write(response, outbuf);
+        final ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+        outbuf.flush(Channels.newChannel(outStream));
+        return new String(outStream.toByteArray(), StandardCharsets.ISO_8859_1);
+    }
+
+    private static String format(final HttpResponse response) {
+        final CharArrayBuffer buffer = new CharArrayBuffer(64);
+        BasicLineFormatter.INSTANCE.formatStatusLine(buffer, new StatusLine(response));
+        return buffer.toString();
+    }
+
+    @Test
+    public void testPreEncodedStatusLine() throws Exception {
+        final HttpResponse response1 = new BasicHttpResponse(200);
+        Assertions.assertEquals(format(response1) + "\r\n\r\n", write(response1));
+        Assertions.assertEquals("HTTP/1.1 200 OK\r\n\r\n", write(response1));
+
+        final HttpResponse response2 = new BasicHttpResponse(404, "Not Found");
+        Assertions.assertEquals(format(response2) + "\r\n\r\n", write(response2));
+        Assertions.assertEquals("HTTP/1.1 404 Not Found\r\n\r\n", write(response2));
+    }
+
+    @Test
+    public void testFormattedStatusLine() throws Exception {
+        final HttpResponse response1 = new BasicHttpResponse(200, "All Good");
+        Assertions.assertEquals("HTTP/1.1 200 All Good\r\n\r\n", write(response1));
+
+        final HttpResponse response2 = new BasicHttpResponse(200, "OK");
+        response2.setVersion(HttpVersion.HTTP_1_0);
+        Assertions.assertEquals("HTTP/1.0 200 OK\r\n\r\n", write(response2));
+
+        final HttpResponse response3 = new BasicHttpResponse(299);
+        Assertions.assertEquals("HTTP/1.1 299 \r\n\r\n", write(response3));
+    }
+
+    @Test
+    public void testPreEncodedHeaders() throws Exception {
+        final HttpResponse response = new BasicHttpResponse(200, "OK");
+        response.addHeader(new PreEncodedHeader(HttpHeaders.SERVER, "test/1.1"));
+        response.addHeader(HttpHeaders.CONTENT_LENGTH, "0");
+        response.addHeader(new PreEncodedHeader("X-Stuff", "\u00e9t\u00e9"));
+        Assertions.assertEquals("HTTP/1.1 200 OK\r\n" +
+                "Server: test/1.1\r\n" +
+                "Content-Length: 0\r\n" +
+                "X-Stuff: \u00e9t\u00e9\r\n" +
+                "\r\n", write(response));
+    }
+
+}
@@ -0,0 +1,148 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.core5.http.impl.nio;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.Method;
+import org.apache.hc.core5.http.impl.BasicEntityDetails;
+import org.apache.hc.core5.http.impl.DefaultConnectionReuseStrategy;
+import org.apache.hc.core5.http.message.BasicHttpRequest;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.apache.hc.core5.http.nio.AsyncServerExchangeHandler;
+import org.apache.hc.core5.http.nio.DataStreamChannel;
+import org.apache.hc.core5.http.nio.ResponseChannel;
+import org.apache.hc.core5.http.protocol.HttpCoreContext;
+import org.apache.hc.core5.http.protocol.HttpProcessorBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+public class TestServerHttp1StreamHandler {
+
+    @Mock
+    private Http1StreamChannel<HttpResponse> outputChannel;
+    @Mock
+    private AsyncServerExchangeHandler exchangeHandler;
+
+    private AutoCloseable closeable;
+    private ServerHttp1StreamHandler streamHandler;
+    private ResponseChannel responseChannel;
+    private List<Boolean> outputRequests;
+
+    @BeforeEach
+    public void prepareMocks() throws Exception {
+        closeable = MockitoAnnotations.openMocks(this);
+        final HttpCoreContext context = HttpCoreContext.create();
+        streamHandler = new ServerHttp1StreamHandler(
+                outputChannel,
+                HttpProcessorBuilder.create().build(),
+                DefaultConnectionReuseStrategy.INSTANCE,
+                (request, httpContext) -> exchangeHandler,
+                context);
+        final AtomicReference<ResponseChannel> responseChannelRef = new AtomicReference<>();
+        Mockito.doAnswer(invocation -> {
+            responseChannelRef.set(invocation.getArgument(2));
+            return null;
+        }).when(exchangeHandler).handleRequest(
+                ArgumentMatchers.any(),
+                ArgumentMatchers.any(),
+                ArgumentMatchers.any(),
+                ArgumentMatchers.any());
+        streamHandler.consumeHeader(new BasicHttpRequest(Method.GET, "/"), null);
+        responseChannel = responseChannelRef.get();
+        Assertions.assertNotNull(responseChannel);
+
+        // Record whether the response is final at the time output gets requested
+        outputRequests = new ArrayList<>();
+        Mockito.doAnswer(invocation -> {
+            outputRequests.add(streamHandler.isResponseFinal());
+            return null;
+        }).when(outputChannel).requestOutput();
+    }
+
+    @AfterEach
+    public void releaseMocks() throws Exception {
+        closeable.close();
+    }
+
+    @Test
+    public void testOutputRequestedOnceResponseWithoutContentFinal() throws Exception {
+        // The I/O dispatch thread may write out the response as soon as it gets submitted
+        // by a worker thread and find the exchange incomplete at that point
+        final List<Boolean> submitted = new ArrayList<>();
+        Mockito.doAnswer(invocation -> {
+            submitted.add(streamHandler.isResponseFinal());
+            return null;
+        }).when(outputChannel).submit(
+                ArgumentMatchers.any(),
+                ArgumentMatchers.anyBoolean(),
+                ArgumentMatchers.any());
+
+        responseChannel.sendResponse(new BasicHttpResponse(HttpStatus.SC_NO_CONTENT), null, null);
+
+        Assertions.assertEquals(1, submitted.size());
+        Assertions.assertFalse(submitted.get(0));
+        Assertions.assertTrue(streamHandler.isResponseFinal());
+        Assertions.assertTrue(outputRequests.contains(Boolean.TRUE),
+                "Output must be requested once the response is final");
+    }
+
+    @Test
+    public void testOutputRequestedOnceResponseContentFinal() throws Exception {
+        final List<Boolean> completed = new ArrayList<>();
+        Mockito.doAnswer(invocation -> {
+            completed.add(streamHandler.isResponseFinal());
+            return null;
+        }).when(outputChannel).complete(ArgumentMatchers.any());
+        Mockito.doAnswer(invocation -> {
+            final DataStreamChannel channel = invocation.getArgument(0);
+            channel.endStream();
+            return null;
+        }).when(exchangeHandler).produce(ArgumentMatchers.any());
+
+        responseChannel.sendResponse(new BasicHttpResponse(HttpStatus.SC_OK),
+                new BasicEntityDetails(0, ContentType.TEXT_PLAIN), null);
+
+        Assertions.assertEquals(1, completed.size());
+        Assertions.assertFalse(completed.get(0));
+        Assertions.assertTrue(streamHandler.isResponseFinal());
+        Assertions.assertTrue(outputRequests.contains(Boolean.TRUE),
+                "Output must be requested once the response is final");
+    }
+
+}
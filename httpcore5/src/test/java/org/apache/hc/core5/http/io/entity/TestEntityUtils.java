@@ -44,6 +44,7 @@
 import org.apache.hc.core5.http.ParseException;
 import org.apache.hc.core5.http.message.BasicNameValuePair;
 import org.apache.hc.core5.net.WWWFormCodec;
+import org.apache.hc.core5.util.ByteArrayBuffer;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -239,6 +240,22 @@ public void testParseUTF8Entity() throws Exception {
         assertNameValuePair(result.get(1), "swiss", ch_hello);
     }
 
+    @Test
+    public void testParseEntityStreaming() throws Exception {
+        final String ch_hello = constructString(SWISS_GERMAN_HELLO);
+        final StringEntity entity1 = new StringEntity("Name1=Value1&swiss=Gr%C3%BCezi_z%C3%A4m%C3%A4&Name2",
+                ContentType.APPLICATION_FORM_URLENCODED.withCharset(StandardCharsets.UTF_8));
+        final List<NameValuePair> result = new ArrayList<>();
+        EntityUtils.parse(entity1, (name, value) -> result.add(new BasicNameValuePair(name, value)));
+        Assertions.assertEquals(3, result.size());
+        assertNameValuePair(result.get(0), "Name1", "Value1");
+        assertNameValuePair(result.get(1), "swiss", ch_hello);
+        assertNameValuePair(result.get(2), "Name2", null);
+
+        final StringEntity entity2 = new StringEntity("Name1=Value1", ContentType.parse("text/test"));
+        EntityUtils.parse(entity2, (name, value) -> Assertions.fail("Unexpected parameter " + name));
+    }
+
     @Test
     public void testByteArrayMaxResultLength() throws IOException {
         final byte[] allBytes = "Message content".getBytes(StandardCharsets.ISO_8859_1);
@@ -303,4 +320,65 @@ public void testStringMaxResultLength() throws IOException, ParseException {
         }
     }
 
+    @Test
+    public void testContentLengthMismatchToByteArray() throws Exception {
+        final byte[] allBytes = new byte[] {1, 2, 3, 4, 5, 6, 7, 8};
+        final BasicHttpEntity entity1 = new BasicHttpEntity(new ByteArrayInputStream(allBytes), 3, null);
+        Assertions.assertArrayEquals(allBytes, EntityUtils.toByteArray(entity1));
+        final BasicHttpEntity entity2 = new BasicHttpEntity(new ByteArrayInputStream(allBytes), 20, null);
+        Assertions.assertArrayEquals(allBytes, EntityUtils.toByteArray(entity2));
+        final BasicHttpEntity entity3 = new BasicHttpEntity(new ByteArrayInputStream(allBytes), 0, null);
+        Assertions.assertArrayEquals(allBytes, EntityUtils.toByteArray(entity3));
+        final BasicHttpEntity entity4 = new BasicHttpEntity(new ByteArrayInputStream(allBytes), 3, null);
+        Assertions.assertArrayEquals(new byte[] {1, 2, 3, 4, 5}, EntityUtils.toByteArray(entity4, 5));
+    }
+
+    @Test
+    public void testReadIntoBuffer() throws Exception {
+        final ByteArrayBuffer buffer = new ByteArrayBuffer(4);
+        for (int i = 0; i < 3; i++) {
+            final byte[] bytes = new byte[5000 + i];
+            Arrays.fill(bytes, (byte) i);
+            buffer.clear();
+            final BasicHttpEntity entity = new BasicHttpEntity(new ByteArrayInputStream(bytes), i == 1 ? bytes.length : -1, null);
+            Assertions.assertEquals(bytes.length, EntityUtils.read(entity, buffer));
+            Assertions.assertArrayEquals(bytes, buffer.toByteArray());
+        }
+        final BasicHttpEntity entity = new BasicHttpEntity(new ByteArrayInputStream(new byte[] {1, 2, 3}), null);
+        Assertions.assertEquals(2, EntityUtils.read(entity, buffer, 2));
+        Assertions.assertEquals(5004, buffer.length());
+        Assertions.assertEquals(1, buffer.byteAt(5002));
+        Assertions.assertEquals(2, buffer.byteAt(5003));
+    }
+
+    @Test
+    public void testToStringWithBuffer() throws Exception {
+        final ByteArrayBuffer buffer = new ByteArrayBuffer(16);
+        final String[] contents = {"Message content", "\u0413\u0440\u0443\u0441\u0442\u044c", ""};
+        for (final String content : contents) {
+            final byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+            final BasicHttpEntity entity = new BasicHttpEntity(new ByteArrayInputStream(bytes), -1,
+                    ContentType.TEXT_PLAIN.withCharset(StandardCharsets.UTF_8));
+            Assertions.assertEquals(content, EntityUtils.toString(entity, null, buffer));
+        }
+        final byte[] bytes = "Message content".getBytes(StandardCharsets.UTF_16);
+        final BasicHttpEntity entity = new BasicHttpEntity(new ByteArrayInputStream(bytes), bytes.length,
+                ContentType.TEXT_PLAIN.withCharset(StandardCharsets.UTF_16));
+        Assertions.assertEquals("Message content", EntityUtils.toString(entity, null, buffer));
+    }
+
+    @Test
+    public void testStringMaxResultLengthMultiByte() throws IOException, ParseException {
+        final String allMessage = "\u00e9t\u00e9 \u20ac \ud83d\ude00 caf\u00e9";
+        final Charset[] charsets = {StandardCharsets.UTF_8, StandardCharsets.UTF_16LE};
+        for (final Charset charset : charsets) {
+            final byte[] allBytes = allMessage.getBytes(charset);
+            for (int max = 1; max <= allMessage.length() + 1; max++) {
+                final BasicHttpEntity entity = new BasicHttpEntity(new ByteArrayInputStream(allBytes), -1, null);
+                final String string = EntityUtils.toString(entity, charset, max);
+                Assertions.assertEquals(allMessage.substring(0, Math.min(max, allMessage.length())), string);
+            }
+        }
+    }
+
 }
@@ -0,0 +1,115 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.core5.http.message;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.hc.core5.http.impl.io.SessionOutputBufferImpl;
+import org.apache.hc.core5.util.CharArrayBuffer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link PreEncodedHeader}.
+ *
+ */
+public class TestPreEncodedHeader {
+
+    @Test
+    public void testBasicConstructor() throws Exception {
+        final PreEncodedHeader header = new PreEncodedHeader("name", "value");
+        Assertions.assertEquals("name", header.getName());
+        Assertions.assertEquals("value", header.getValue());
+        Assertions.assertEquals("name: value", header.getBuffer().toString());
+        Assertions.assertEquals(5, header.getValuePos());
+        Assertions.assertEquals("name: value", header.toString());
+
+        final ByteBuffer encoded = header.getEncoded();
+        Assertions.assertNotNull(encoded);
+        Assertions.assertTrue(encoded.isReadOnly());
+        final byte[] b = new byte[encoded.remaining()];
+        encoded.get(b);
+        Assertions.assertEquals("name: value\r\n", new String(b, StandardCharsets.US_ASCII));
+        Assertions.assertEquals(13, header.getEncoded().remaining());
+    }
+
+    @Test
+    public void testControlCharsSanitized() throws Exception {
+        final PreEncodedHeader header = new PreEncodedHeader("name", "a\r\nb");
+        Assertions.assertEquals("name: a  b", header.getBuffer().toString());
+    }
+
+    @Test
+    public void testBufferNotShared() throws Exception {
+        final PreEncodedHeader header = new PreEncodedHeader("name", "value");
+        final CharArrayBuffer buffer = header.getBuffer();
+        buffer.clear();
+        buffer.append("name: stuff");
+        Assertions.assertEquals("name: value", header.getBuffer().toString());
+        Assertions.assertEquals("name: value", header.toString());
+        Assertions.assertEquals("value", MessageSupport.parse(header)[0].getName());
+    }
+
+    @Test
+    public void testNonAsciiNotEncoded() throws Exception {
+        final PreEncodedHeader header = new PreEncodedHeader("name", "été");
+        Assertions.assertEquals("été", header.getValue());
+        Assertions.assertNull(header.getEncoded());
+    }
+
+    @Test
+    public void testWriteTo() throws Exception {
+        final SessionOutputBufferImpl outbuffer = new SessionOutputBufferImpl(16);
+        final ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+        Assertions.assertTrue(new PreEncodedHeader("name", "value").writeTo(outbuffer, outStream));
+        Assertions.assertFalse(new PreEncodedHeader("name", "\u00e9t\u00e9").writeTo(outbuffer, outStream));
+        outbuffer.flush(outStream);
+        Assertions.assertEquals("name: value\r\n", new String(outStream.toByteArray(), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        final PreEncodedHeader orig = new PreEncodedHeader("name", "value");
+        final ByteArrayOutputStream outbuffer = new ByteArrayOutputStream();
+        final ObjectOutputStream outStream = new ObjectOutputStream(outbuffer);
+        outStream.writeObject(orig);
+        outStream.close();
+        final byte[] raw = outbuffer.toByteArray();
+        final ByteArrayInputStream inBuffer = new ByteArrayInputStream(raw);
+        final ObjectInputStream inStream = new ObjectInputStream(inBuffer);
+        final PreEncodedHeader clone = (PreEncodedHeader) inStream.readObject();
+        Assertions.assertEquals(orig.getName(), clone.getName());
+        Assertions.assertEquals(orig.getValue(), clone.getValue());
+        Assertions.assertEquals(orig.toString(), clone.toString());
+    }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.core5.http.nio.entity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.hc.core5.http.ContentCoding;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.WritableByteChannelMock;
+import org.apache.hc.core5.http.message.BasicHeader;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.BasicDataStreamChannel;
+import org.apache.hc.core5.http.nio.DataStreamChannel;
+import org.apache.hc.core5.util.ByteArrayBuffer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TestDeflatingEntityProducer {
+
+    static byte[] createContent(final int len) {
+        final Random random = new Random(3);
+        final byte[] content = new byte[len];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) ('a' + random.nextInt(6));
+        }
+        return content;
+    }
+
+    static byte[] readAll(final InputStream inStream) throws Exception {
+        final ByteArrayBuffer buf = new ByteArrayBuffer(1024);
+        final byte[] tmp = new byte[1024];
+        int l;
+        while ((l = inStream.read(tmp)) != -1) {
+            buf.append(tmp, 0, l);
+        }
+        return buf.toByteArray();
+    }
+
+    @Test
+    public void testProduceGzip() throws Exception {
+        final byte[] content = createContent(100000);
+        final DeflatingEntityProducer producer = new DeflatingEntityProducer(
+                new BasicAsyncEntityProducer(content, ContentType.APPLICATION_OCTET_STREAM));
+
+        Assertions.assertEquals(-1, producer.getContentLength());
+        Assertions.assertEquals("gzip", producer.getContentEncoding());
+        Assertions.assertTrue(producer.isChunked());
+        Assertions.assertEquals(ContentType.APPLICATION_OCTET_STREAM.toString(), producer.getContentType());
+
+        final WritableByteChannelMock byteChannel = new WritableByteChannelMock(1024);
+        final BasicDataStreamChannel dataStreamChannel = new BasicDataStreamChannel(byteChannel);
+        while (byteChannel.isOpen()) {
+            producer.produce(dataStreamChannel);
+        }
+        Assertions.assertEquals(0, producer.available());
+
+        final byte[] compressed = byteChannel.toByteArray();
+        Assertions.assertTrue(compressed.length < content.length);
+        Assertions.assertArrayEquals(content, readAll(new GZIPInputStream(new ByteArrayInputStream(compressed))));
+    }
+
+    @Test
+    public void testProduceDeflate() throws Exception {
+        final byte[] content = createContent(20000);
+        final DeflatingEntityProducer producer = new DeflatingEntityProducer(
+                new BasicAsyncEntityProducer(content, ContentType.APPLICATION_OCTET_STREAM), ContentCoding.DEFLATE);
+        Assertions.assertEquals("deflate", producer.getContentEncoding());
+
+        final WritableByteChannelMock byteChannel = new WritableByteChannelMock(1024);
+        final BasicDataStreamChannel dataStreamChannel = new BasicDataStreamChannel(byteChannel);
+        while (byteChannel.isOpen()) {
+            producer.produce(dataStreamChannel);
+        }
+        Assertions.assertArrayEquals(content, readAll(new InflaterInputStream(new ByteArrayInputStream(byteChannel.toByteArray()))));
+    }
+
+    @Test
+    public void testProduceWithLimitedChannelCapacity() throws Exception {
+        final byte[] content = createContent(50000);
+        final DeflatingEntityProducer producer = new DeflatingEntityProducer(
+                new BasicAsyncEntityProducer(content, ContentType.APPLICATION_OCTET_STREAM),
+                ContentCoding.GZIP, 1, 256);
+
+        final WritableByteChannelMock byteChannel = new WritableByteChannelMock(1024, 100);
+        final BasicDataStreamChannel dataStreamChannel = new BasicDataStreamChannel(byteChannel);
+        int rounds = 0;
+        while (byteChannel.isOpen()) {
+            producer.produce(dataStreamChannel);
+            byteChannel.flush();
+            rounds++;
+            Assertions.assertTrue(rounds < 100000);
+        }
+        Assertions.assertTrue(rounds > 10);
+        Assertions.assertArrayEquals(content, readAll(new GZIPInputStream(new ByteArrayInputStream(byteChannel.toByteArray()))));
+    }
+
+    @Test
+    public void testProduceTrailers() throws Exception {
+        final AsyncEntityProducer wrapped = new AsyncEntityProducerWrapper(
+                new BasicAsyncEntityProducer("12345", ContentType.TEXT_PLAIN)) {
+
+            @Override
+            public void produce(final DataStreamChannel channel) throws IOException {
+                channel.write(ByteBuffer.wrap("12345".getBytes(StandardCharsets.US_ASCII)));
+                channel.endStream(Collections.singletonList(new BasicHeader("checksum", "abc")));
+            }
+
+        };
+        final DeflatingEntityProducer producer = new DeflatingEntityProducer(wrapped);
+        final WritableByteChannelMock byteChannel = new WritableByteChannelMock(1024);
+        final BasicDataStreamChannel dataStreamChannel = new BasicDataStreamChannel(byteChannel);
+        while (byteChannel.isOpen()) {
+            producer.produce(dataStreamChannel);
+        }
+        final List<Header> trailers = dataStreamChannel.getTrailers();
+        Assertions.assertNotNull(trailers);
+        Assertions.assertEquals("checksum", trailers.get(0).getName());
+        Assertions.assertEquals("12345", new String(
+                readAll(new GZIPInputStream(new ByteArrayInputStream(byteChannel.toByteArray()))), StandardCharsets.US_ASCII));
+    }
+
+}
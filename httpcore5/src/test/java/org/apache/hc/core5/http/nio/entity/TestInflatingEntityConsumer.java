@@ -0,0 +1,319 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.core5.http.nio.entity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.WritableByteChannelMock;
+import org.apache.hc.core5.http.nio.AsyncEntityConsumer;
+import org.apache.hc.core5.http.nio.BasicDataStreamChannel;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TestInflatingEntityConsumer {
+
+    static EntityDetails entityDetails(final String contentEncoding) {
+        return new EntityDetails() {
+
+            @Override
+            public long getContentLength() {
+                return -1;
+            }
+
+            @Override
+            public String getContentType() {
+                return ContentType.APPLICATION_OCTET_STREAM.toString();
+            }
+
+            @Override
+            public String getContentEncoding() {
+                return contentEncoding;
+            }
+
+            @Override
+            public boolean isChunked() {
+                return true;
+            }
+
+            @Override
+            public Set<String> getTrailerNames() {
+                return null;
+            }
+
+        };
+    }
+
+    static FutureCallback<byte[]> noopCallback() {
+        return new FutureCallback<byte[]>() {
+
+            @Override
+            public void completed(final byte[] result) {
+            }
+
+            @Override
+            public void failed(final Exception ex) {
+            }
+
+            @Override
+            public void cancelled() {
+            }
+
+        };
+    }
+
+    static byte[] consume(
+            final InflatingEntityConsumer<byte[]> consumer,
+            final String contentEncoding,
+            final byte[] data,
+            final int chunkSize) throws Exception {
+        consumer.streamStart(entityDetails(contentEncoding), noopCallback());
+        for (int i = 0; i < data.length; i += chunkSize) {
+            consumer.consume(ByteBuffer.wrap(data, i, Math.min(chunkSize, data.length - i)));
+        }
+        consumer.streamEnd(null);
+        return consumer.getContent();
+    }
+
+    /**
+     * Consumer that accepts only as much content as explicitly granted by the test.
+     */
+    static class ThrottledEntityConsumer implements AsyncEntityConsumer<byte[]> {
+
+        final BasicAsyncEntityConsumer delegate = new BasicAsyncEntityConsumer();
+        final AtomicInteger consumed = new AtomicInteger();
+        final AtomicInteger completed = new AtomicInteger();
+        CapacityChannel capacityChannel;
+
+        @Override
+        public void streamStart(
+                final EntityDetails entityDetails,
+                final FutureCallback<byte[]> resultCallback) throws HttpException, IOException {
+            delegate.streamStart(entityDetails, resultCallback);
+        }
+
+        @Override
+        public void updateCapacity(final CapacityChannel capacityChannel) {
+            this.capacityChannel = capacityChannel;
+        }
+
+        @Override
+        public void consume(final ByteBuffer src) throws IOException {
+            consumed.addAndGet(src.remaining());
+            delegate.consume(src);
+        }
+
+        @Override
+        public void streamEnd(final List<? extends Header> trailers) throws HttpException, IOException {
+            completed.incrementAndGet();
+            delegate.streamEnd(trailers);
+        }
+
+        @Override
+        public void failed(final Exception cause) {
+            delegate.failed(cause);
+        }
+
+        @Override
+        public byte[] getContent() {
+            return delegate.getContent();
+        }
+
+        @Override
+        public void releaseResources() {
+            delegate.releaseResources();
+        }
+
+    }
+
+    static byte[] gzip(final byte[] content) throws Exception {
+        final ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        try (final GZIPOutputStream outStream = new GZIPOutputStream(buf)) {
+            outStream.write(content);
+        }
+        return buf.toByteArray();
+    }
+
+    @Test
+    public void testConsumeGzip() throws Exception {
+        final byte[] content = TestDeflatingEntityProducer.createContent(50000);
+        final byte[] compressed = gzip(content);
+        for (final int chunkSize : new int[] {1, 7, 1024, compressed.length}) {
+            final InflatingEntityConsumer<byte[]> consumer = new InflatingEntityConsumer<>(
+                    new BasicAsyncEntityConsumer(), 256);
+            Assertions.assertArrayEquals(content, consume(consumer, "gzip", compressed, chunkSize));
+        }
+    }
+
+    @Test
+    public void testConsumeGzipOptionalHeaderFields() throws Exception {
+        final byte[] content = "blah blah blah".getBytes();
+        final ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        // FHCRC | FEXTRA | FNAME | FCOMMENT
+        buf.write(new byte[] {0x1f, (byte) 0x8b, 8, 2 | 4 | 8 | 16, 0, 0, 0, 0, 0, (byte) 0xff});
+        buf.write(new byte[] {3, 0, 'a', 'b', 'c'});
+        buf.write("name\0".getBytes());
+        buf.write("comment\0".getBytes());
+        buf.write(new byte[] {0, 0});
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try (final DeflaterOutputStream outStream = new DeflaterOutputStream(buf, deflater)) {
+            outStream.write(content);
+            outStream.finish();
+            final CRC32 crc = new CRC32();
+            crc.update(content);
+            final long v = crc.getValue() | (long) content.length << 32;
+            for (int i = 0; i < 8; i++) {
+                buf.write((int) (v >>> (8 * i)) & 0xff);
+            }
+        }
+        final byte[] compressed = buf.toByteArray();
+        for (final int chunkSize : new int[] {1, 3, compressed.length}) {
+            final InflatingEntityConsumer<byte[]> consumer = new InflatingEntityConsumer<>(new BasicAsyncEntityConsumer());
+            Assertions.assertArrayEquals(content, consume(consumer, "x-gzip", compressed, chunkSize));
+        }
+    }
+
+    @Test
+    public void testConsumeDeflate() throws Exception {
+        final byte[] content = TestDeflatingEntityProducer.createContent(10000);
+        final ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        try (final DeflaterOutputStream outStream = new DeflaterOutputStream(buf)) {
+            outStream.write(content);
+        }
+        final InflatingEntityConsumer<byte[]> consumer = new InflatingEntityConsumer<>(new BasicAsyncEntityConsumer());
+        Assertions.assertArrayEquals(content, consume(consumer, "deflate", buf.toByteArray(), 100));
+    }
+
+    @Test
+    public void testConsumeIdentity() throws Exception {
+        final byte[] content = "12345".getBytes();
+        final InflatingEntityConsumer<byte[]> consumer = new InflatingEntityConsumer<>(new BasicAsyncEntityConsumer());
+        Assertions.assertArrayEquals(content, consume(consumer, null, content, 2));
+    }
+
+    @Test
+    public void testConsumeTruncatedGzip() throws Exception {
+        final byte[] compressed = gzip(TestDeflatingEntityProducer.createContent(1000));
+        final InflatingEntityConsumer<byte[]> consumer = new InflatingEntityConsumer<>(new BasicAsyncEntityConsumer());
+        Assertions.assertThrows(ZipException.class, () ->
+                consume(consumer, "gzip", Arrays.copyOf(compressed, compressed.length - 4), 100));
+    }
+
+    @Test
+    public void testConsumeCorruptGzip() throws Exception {
+        final byte[] compressed = gzip(TestDeflatingEntityProducer.createContent(1000));
+        compressed[compressed.length - 6] ^= 0xff;
+        final InflatingEntityConsumer<byte[]> consumer = new InflatingEntityConsumer<>(new BasicAsyncEntityConsumer());
+        Assertions.assertThrows(ZipException.class, () -> consume(consumer, "gzip", compressed, 100));
+        final InflatingEntityConsumer<byte[]> consumer2 = new InflatingEntityConsumer<>(new BasicAsyncEntityConsumer());
+        Assertions.assertThrows(ZipException.class, () -> consume(consumer2, "gzip", new byte[] {1, 2, 3}, 100));
+    }
+
+    @Test
+    public void testOutputCapacity() throws Exception {
+        final byte[] content = TestDeflatingEntityProducer.createContent(50000);
+        final byte[] compressed = gzip(content);
+        final ThrottledEntityConsumer throttled = new ThrottledEntityConsumer();
+        final InflatingEntityConsumer<byte[]> consumer = new InflatingEntityConsumer<>(throttled, 256);
+        consumer.streamStart(entityDetails("gzip"), noopCallback());
+        consumer.consume(ByteBuffer.wrap(compressed));
+
+        // Inflation stops once the initial output window has been used up
+        Assertions.assertEquals(256, throttled.consumed.get());
+        Assertions.assertNotNull(throttled.capacityChannel);
+
+        consumer.streamEnd(null);
+        Assertions.assertEquals(0, throttled.completed.get());
+
+        throttled.capacityChannel.update(1000);
+        Assertions.assertEquals(1256, throttled.consumed.get());
+        Assertions.assertEquals(0, throttled.completed.get());
+
+        throttled.capacityChannel.update(Integer.MAX_VALUE);
+        Assertions.assertEquals(content.length, throttled.consumed.get());
+        Assertions.assertEquals(1, throttled.completed.get());
+        Assertions.assertArrayEquals(content, consumer.getContent());
+    }
+
+    @Test
+    public void testInputCapacity() throws Exception {
+        final byte[] content = TestDeflatingEntityProducer.createContent(50000);
+        final byte[] compressed = gzip(content);
+        final ThrottledEntityConsumer throttled = new ThrottledEntityConsumer();
+        final InflatingEntityConsumer<byte[]> consumer = new InflatingEntityConsumer<>(throttled, 256);
+        consumer.streamStart(entityDetails("gzip"), noopCallback());
+        final AtomicInteger inputCapacity = new AtomicInteger();
+        final int half = compressed.length / 2;
+        consumer.consume(ByteBuffer.wrap(compressed, 0, half));
+
+        // No more encoded content is requested while inflated content cannot be passed on
+        consumer.updateCapacity(inputCapacity::addAndGet);
+        Assertions.assertEquals(0, inputCapacity.get());
+
+        throttled.capacityChannel.update(1024);
+        Assertions.assertEquals(0, inputCapacity.get());
+
+        throttled.capacityChannel.update(Integer.MAX_VALUE);
+        Assertions.assertTrue(inputCapacity.get() > 0);
+
+        consumer.consume(ByteBuffer.wrap(compressed, half, compressed.length - half));
+        consumer.streamEnd(null);
+        Assertions.assertEquals(1, throttled.completed.get());
+        Assertions.assertArrayEquals(content, consumer.getContent());
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final byte[] content = TestDeflatingEntityProducer.createContent(30000);
+        final DeflatingEntityProducer producer = new DeflatingEntityProducer(
+                new BasicAsyncEntityProducer(content, ContentType.APPLICATION_OCTET_STREAM));
+        final WritableByteChannelMock byteChannel = new WritableByteChannelMock(1024);
+        final BasicDataStreamChannel dataStreamChannel = new BasicDataStreamChannel(byteChannel);
+        while (byteChannel.isOpen()) {
+            producer.produce(dataStreamChannel);
+        }
+        final InflatingEntityConsumer<byte[]> consumer = new InflatingEntityConsumer<>(new BasicAsyncEntityConsumer());
+        Assertions.assertArrayEquals(content, consume(consumer, producer.getContentEncoding(), byteChannel.toByteArray(), 512));
+    }
+
+}
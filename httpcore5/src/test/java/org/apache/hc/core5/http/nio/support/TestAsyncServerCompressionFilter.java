@@ -0,0 +1,407 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.core5.http.nio.support;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.hc.core5.http.ContentCoding;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.Method;
+import org.apache.hc.core5.http.WritableByteChannelMock;
+import org.apache.hc.core5.http.message.BasicHttpRequest;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.apache.hc.core5.http.nio.AsyncDataConsumer;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.AsyncFilterChain;
+import org.apache.hc.core5.http.nio.AsyncPushProducer;
+import org.apache.hc.core5.http.nio.BasicDataStreamChannel;
+import org.apache.hc.core5.http.nio.entity.BasicAsyncEntityProducer;
+import org.apache.hc.core5.http.protocol.BasicHttpContext;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.ByteArrayBuffer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TestAsyncServerCompressionFilter {
+
+    static byte[] createContent(final int len, final long seed) {
+        final Random random = new Random(seed);
+        final byte[] content = new byte[len];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) ('a' + random.nextInt(6));
+        }
+        return content;
+    }
+
+    static byte[] readAll(final InputStream inStream) throws Exception {
+        final ByteArrayBuffer buf = new ByteArrayBuffer(1024);
+        final byte[] tmp = new byte[1024];
+        int l;
+        while ((l = inStream.read(tmp)) != -1) {
+            buf.append(tmp, 0, l);
+        }
+        return buf.toByteArray();
+    }
+
+    static byte[] produceAll(final AsyncEntityProducer producer) throws Exception {
+        final WritableByteChannelMock byteChannel = new WritableByteChannelMock(1024);
+        final BasicDataStreamChannel dataStreamChannel = new BasicDataStreamChannel(byteChannel);
+        while (byteChannel.isOpen()) {
+            producer.produce(dataStreamChannel);
+        }
+        return byteChannel.toByteArray();
+    }
+
+    static final class Result {
+
+        final HttpResponse response;
+        final AsyncEntityProducer entityProducer;
+
+        Result(final HttpResponse response, final AsyncEntityProducer entityProducer) {
+            this.response = response;
+            this.entityProducer = entityProducer;
+        }
+
+    }
+
+    static Result execute(
+            final AsyncServerCompressionFilter filter,
+            final HttpRequest request,
+            final HttpResponse response,
+            final AsyncEntityProducer entityProducer) throws HttpException, IOException {
+        return execute(filter, request, r -> new Result(response, entityProducer));
+    }
+
+    static Result execute(
+            final AsyncServerCompressionFilter filter,
+            final HttpRequest request,
+            final Function<HttpRequest, Result> handler) throws HttpException, IOException {
+        final AtomicReference<Result> resultRef = new AtomicReference<>();
+        final AsyncFilterChain.ResponseTrigger responseTrigger = new AsyncFilterChain.ResponseTrigger() {
+
+            @Override
+            public void sendInformation(final HttpResponse response) {
+            }
+
+            @Override
+            public void submitResponse(final HttpResponse response, final AsyncEntityProducer entityProducer) {
+                resultRef.set(new Result(response, entityProducer));
+            }
+
+            @Override
+            public void pushPromise(final HttpRequest promise, final AsyncPushProducer responseProducer) {
+            }
+
+        };
+        final AsyncFilterChain chain = new AsyncFilterChain() {
+
+            @Override
+            public AsyncDataConsumer proceed(
+                    final HttpRequest request,
+                    final EntityDetails entityDetails,
+                    final HttpContext context,
+                    final ResponseTrigger responseTrigger) throws HttpException, IOException {
+                final Result result = handler.apply(request);
+                responseTrigger.submitResponse(result.response, result.entityProducer);
+                return null;
+            }
+
+        };
+        filter.handle(request, null, new BasicHttpContext(), responseTrigger, chain);
+        return resultRef.get();
+    }
+
+    static HttpRequest createRequest(final String acceptEncoding) {
+        final HttpRequest request = new BasicHttpRequest(Method.GET, "/stuff");
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return request;
+    }
+
+    @Test
+    public void testNegotiate() throws Exception {
+        Assertions.assertNull(AsyncServerCompressionFilter.negotiate(createRequest(null)));
+        Assertions.assertNull(AsyncServerCompressionFilter.negotiate(createRequest("identity")));
+        Assertions.assertNull(AsyncServerCompressionFilter.negotiate(createRequest("gzip;q=0, deflate;q=0")));
+        Assertions.assertNull(AsyncServerCompressionFilter.negotiate(createRequest("*;q=0")));
+        Assertions.assertEquals("gzip", AsyncServerCompressionFilter.negotiate(createRequest("gzip")).id);
+        Assertions.assertEquals("gzip", AsyncServerCompressionFilter.negotiate(createRequest("x-gzip")).id);
+        Assertions.assertEquals("gzip", AsyncServerCompressionFilter.negotiate(createRequest("deflate, gzip")).id);
+        Assertions.assertEquals("gzip", AsyncServerCompressionFilter.negotiate(createRequest("*")).id);
+        Assertions.assertEquals("deflate", AsyncServerCompressionFilter.negotiate(createRequest("deflate")).id);
+        Assertions.assertEquals("deflate", AsyncServerCompressionFilter.negotiate(createRequest("gzip;q=0.5, deflate")).id);
+        Assertions.assertEquals("deflate", AsyncServerCompressionFilter.negotiate(createRequest("gzip;q=0, *")).id);
+        Assertions.assertEquals("deflate", AsyncServerCompressionFilter.negotiate(createRequest("gzip;q=blah, deflate;q=0.1")).id);
+    }
+
+    @Test
+    public void testCompressAndCacheIdenticalContent() throws Exception {
+        final AsyncServerCompressionFilter filter = new AsyncServerCompressionFilter();
+        final byte[] content = createContent(10000, 1);
+
+        for (int i = 0; i < 3; i++) {
+            final Result result = execute(filter, createRequest("gzip, deflate"), new BasicHttpResponse(HttpStatus.SC_OK),
+                    new BasicAsyncEntityProducer(content, ContentType.TEXT_PLAIN));
+            Assertions.assertEquals(HttpHeaders.ACCEPT_ENCODING, result.response.getFirstHeader(HttpHeaders.VARY).getValue());
+            final AsyncEntityProducer producer = result.entityProducer;
+            Assertions.assertEquals("gzip", producer.getContentEncoding());
+            Assertions.assertEquals(ContentType.TEXT_PLAIN.toString(), producer.getContentType());
+            final byte[] compressed = produceAll(producer);
+            Assertions.assertEquals(compressed.length, producer.getContentLength());
+            Assertions.assertTrue(compressed.length < content.length);
+            Assertions.assertArrayEquals(content, readAll(new GZIPInputStream(new ByteArrayInputStream(compressed))));
+        }
+        Assertions.assertEquals(1, filter.getMissCount());
+        Assertions.assertEquals(2, filter.getHitCount());
+
+        final Result result = execute(filter, createRequest("deflate"), new BasicHttpResponse(HttpStatus.SC_OK),
+                new BasicAsyncEntityProducer(content, ContentType.TEXT_PLAIN));
+        Assertions.assertEquals("deflate", result.entityProducer.getContentEncoding());
+        Assertions.assertArrayEquals(content, readAll(new InflaterInputStream(
+                new ByteArrayInputStream(produceAll(result.entityProducer)))));
+        Assertions.assertEquals(2, filter.getMissCount());
+    }
+
+    @Test
+    public void testCacheByEntityTag() throws Exception {
+        final AsyncServerCompressionFilter filter = new AsyncServerCompressionFilter();
+        final byte[] content = createContent(10000, 1);
+
+        final HttpResponse response1 = new BasicHttpResponse(HttpStatus.SC_OK);
+        response1.addHeader(HttpHeaders.ETAG, "\"1\"");
+        final Result result1 = execute(filter, createRequest("gzip"), response1,
+                new BasicAsyncEntityProducer(content, ContentType.APPLICATION_JSON));
+        final byte[] compressed1 = produceAll(result1.entityProducer);
+        Assertions.assertEquals(1, filter.getMissCount());
+        Assertions.assertEquals("\"1-gzip\"", result1.response.getFirstHeader(HttpHeaders.ETAG).getValue());
+        // Content cached by digest and by entity tag is accounted for once
+        Assertions.assertEquals(compressed1.length, filter.getCacheSize());
+
+        final HttpResponse response2 = new BasicHttpResponse(HttpStatus.SC_OK);
+        response2.addHeader(HttpHeaders.ETAG, "\"1\"");
+        final AsyncEntityProducer original = new BasicAsyncEntityProducer(content, ContentType.APPLICATION_JSON) {
+
+            @Override
+            public int available() {
+                Assertions.fail("Content should not be produced");
+                return 0;
+            }
+
+        };
+        final Result result2 = execute(filter, createRequest("gzip"), response2, original);
+        Assertions.assertEquals(1, filter.getHitCount());
+        Assertions.assertArrayEquals(compressed1, produceAll(result2.entityProducer));
+        Assertions.assertEquals(compressed1.length, filter.getCacheSize());
+        Assertions.assertEquals("\"1-gzip\"", result2.response.getFirstHeader(HttpHeaders.ETAG).getValue());
+
+        // Weak entity tags are not used as cache keys
+        final HttpResponse response3 = new BasicHttpResponse(HttpStatus.SC_OK);
+        response3.addHeader(HttpHeaders.ETAG, "W/\"2\"");
+        final Result result3 = execute(filter, createRequest("gzip"), response3,
+                new BasicAsyncEntityProducer(createContent(10000, 2), ContentType.APPLICATION_JSON));
+        Assertions.assertEquals(2, filter.getMissCount());
+        Assertions.assertEquals("W/\"2\"", result3.response.getFirstHeader(HttpHeaders.ETAG).getValue());
+    }
+
+    @Test
+    public void testCacheByEntityTagDistinguishesAuthority() throws Exception {
+        final AsyncServerCompressionFilter filter = new AsyncServerCompressionFilter();
+        final byte[] content1 = createContent(10000, 1);
+        final byte[] content2 = createContent(10000, 2);
+
+        final HttpResponse response1 = new BasicHttpResponse(HttpStatus.SC_OK);
+        response1.addHeader(HttpHeaders.ETAG, "\"1\"");
+        final HttpRequest request1 = new BasicHttpRequest(Method.GET, new HttpHost("somehost"), "/stuff");
+        request1.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        execute(filter, request1, response1, new BasicAsyncEntityProducer(content1, ContentType.TEXT_PLAIN));
+
+        final HttpResponse response2 = new BasicHttpResponse(HttpStatus.SC_OK);
+        response2.addHeader(HttpHeaders.ETAG, "\"1\"");
+        final HttpRequest request2 = new BasicHttpRequest(Method.GET, new HttpHost("otherhost"), "/stuff");
+        request2.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        final Result result2 = execute(filter, request2, response2,
+                new BasicAsyncEntityProducer(content2, ContentType.TEXT_PLAIN));
+        Assertions.assertEquals(0, filter.getHitCount());
+        Assertions.assertEquals(2, filter.getMissCount());
+        Assertions.assertArrayEquals(content2, readAll(new GZIPInputStream(
+                new ByteArrayInputStream(produceAll(result2.entityProducer)))));
+    }
+
+    @Test
+    public void testEncodeEntityTag() throws Exception {
+        Assertions.assertEquals("\"abc-gzip\"", AsyncServerCompressionFilter.encodeEntityTag("\"abc\"", ContentCoding.GZIP));
+        Assertions.assertEquals("\"-deflate\"", AsyncServerCompressionFilter.encodeEntityTag("\"\"", ContentCoding.DEFLATE));
+        Assertions.assertEquals("W/\"abc\"", AsyncServerCompressionFilter.encodeEntityTag("W/\"abc\"", ContentCoding.GZIP));
+        Assertions.assertEquals("abc", AsyncServerCompressionFilter.encodeEntityTag("abc", ContentCoding.GZIP));
+        Assertions.assertEquals("\"", AsyncServerCompressionFilter.encodeEntityTag("\"", ContentCoding.GZIP));
+    }
+
+    @Test
+    public void testDecodeEntityTag() throws Exception {
+        Assertions.assertEquals("\"abc\"", AsyncServerCompressionFilter.decodeEntityTag("\"abc-gzip\"", ContentCoding.GZIP));
+        Assertions.assertEquals("\"abc-gzip\"", AsyncServerCompressionFilter.decodeEntityTag("\"abc-gzip\"", ContentCoding.DEFLATE));
+        Assertions.assertEquals("\"\"", AsyncServerCompressionFilter.decodeEntityTag("\"-deflate\"", ContentCoding.DEFLATE));
+        Assertions.assertEquals("W/\"abc-gzip\"", AsyncServerCompressionFilter.decodeEntityTag("W/\"abc-gzip\"", ContentCoding.GZIP));
+        Assertions.assertEquals("-gzip\"", AsyncServerCompressionFilter.decodeEntityTag("-gzip\"", ContentCoding.GZIP));
+
+        final HttpRequest request = createRequest("gzip");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"a,b-gzip\", W/\"c-gzip\",\"d-deflate\"");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"e-gzip\"");
+        request.addHeader(HttpHeaders.IF_MATCH, "*");
+        Assertions.assertTrue(AsyncServerCompressionFilter.decodeEntityTags(request, ContentCoding.GZIP));
+        final Header[] headers = request.getHeaders(HttpHeaders.IF_NONE_MATCH);
+        Assertions.assertEquals(2, headers.length);
+        Assertions.assertEquals("\"a,b\", W/\"c-gzip\",\"d-deflate\"", headers[0].getValue());
+        Assertions.assertEquals("\"e\"", headers[1].getValue());
+        Assertions.assertEquals("*", request.getFirstHeader(HttpHeaders.IF_MATCH).getValue());
+        Assertions.assertFalse(AsyncServerCompressionFilter.decodeEntityTags(request, ContentCoding.GZIP));
+    }
+
+    @Test
+    public void testConditionalRequest() throws Exception {
+        final AsyncServerCompressionFilter filter = new AsyncServerCompressionFilter();
+        final byte[] content = createContent(10000, 1);
+        final Function<HttpRequest, Result> handler = request -> {
+            final Header condition = request.getFirstHeader(HttpHeaders.IF_NONE_MATCH);
+            if (condition != null && condition.getValue().equals("\"1\"")) {
+                final HttpResponse response = new BasicHttpResponse(HttpStatus.SC_NOT_MODIFIED);
+                response.addHeader(HttpHeaders.ETAG, "\"1\"");
+                return new Result(response, null);
+            }
+            final HttpResponse response = new BasicHttpResponse(HttpStatus.SC_OK);
+            response.addHeader(HttpHeaders.ETAG, "\"1\"");
+            return new Result(response, new BasicAsyncEntityProducer(content, ContentType.TEXT_PLAIN));
+        };
+
+        final Result result1 = execute(filter, createRequest("gzip"), handler);
+        Assertions.assertEquals(HttpStatus.SC_OK, result1.response.getCode());
+        Assertions.assertEquals("\"1-gzip\"", result1.response.getFirstHeader(HttpHeaders.ETAG).getValue());
+
+        final HttpRequest request2 = createRequest("gzip");
+        request2.addHeader(HttpHeaders.IF_NONE_MATCH, "\"1-gzip\"");
+        final Result result2 = execute(filter, request2, handler);
+        Assertions.assertEquals(HttpStatus.SC_NOT_MODIFIED, result2.response.getCode());
+        Assertions.assertEquals("\"1-gzip\"", result2.response.getFirstHeader(HttpHeaders.ETAG).getValue());
+        Assertions.assertEquals(HttpHeaders.ACCEPT_ENCODING, result2.response.getFirstHeader(HttpHeaders.VARY).getValue());
+
+        // The client holds the gzip representation but now prefers deflate
+        final HttpRequest request3 = createRequest("deflate");
+        request3.addHeader(HttpHeaders.IF_NONE_MATCH, "\"1-gzip\"");
+        final Result result3 = execute(filter, request3, handler);
+        Assertions.assertEquals(HttpStatus.SC_OK, result3.response.getCode());
+        Assertions.assertEquals("\"1-deflate\"", result3.response.getFirstHeader(HttpHeaders.ETAG).getValue());
+
+        // The client holds the original representation
+        final HttpRequest request4 = createRequest("gzip");
+        request4.addHeader(HttpHeaders.IF_NONE_MATCH, "\"1\"");
+        final Result result4 = execute(filter, request4, handler);
+        Assertions.assertEquals(HttpStatus.SC_NOT_MODIFIED, result4.response.getCode());
+        Assertions.assertEquals("\"1\"", result4.response.getFirstHeader(HttpHeaders.ETAG).getValue());
+    }
+
+    @Test
+    public void testCacheEviction() throws Exception {
+        final AsyncServerCompressionFilter filter = new AsyncServerCompressionFilter(0, 100000, 10000);
+        long total = 0;
+        for (int i = 0; i < 10; i++) {
+            final Result result = execute(filter, createRequest("gzip"), new BasicHttpResponse(HttpStatus.SC_OK),
+                    new BasicAsyncEntityProducer(createContent(10000, i), ContentType.TEXT_PLAIN));
+            total += result.entityProducer.getContentLength();
+            Assertions.assertTrue(filter.getCacheSize() <= 10000);
+        }
+        Assertions.assertTrue(total > 10000);
+        Assertions.assertEquals(10, filter.getMissCount());
+        Assertions.assertTrue(filter.getCacheSize() > 0);
+    }
+
+    @Test
+    public void testUncacheableContentCompressedOnTheFly() throws Exception {
+        final AsyncServerCompressionFilter filter = new AsyncServerCompressionFilter(0, 1000, 10000);
+        final byte[] content = createContent(10000, 1);
+        final Result result = execute(filter, createRequest("gzip"), new BasicHttpResponse(HttpStatus.SC_OK),
+                new BasicAsyncEntityProducer(content, ContentType.TEXT_PLAIN));
+        Assertions.assertEquals("gzip", result.entityProducer.getContentEncoding());
+        Assertions.assertEquals(-1, result.entityProducer.getContentLength());
+        Assertions.assertArrayEquals(content, readAll(new GZIPInputStream(
+                new ByteArrayInputStream(produceAll(result.entityProducer)))));
+        Assertions.assertEquals(0, filter.getMissCount());
+        Assertions.assertEquals(0, filter.getCacheSize());
+
+        final HttpResponse response = new BasicHttpResponse(HttpStatus.SC_OK);
+        response.addHeader(HttpHeaders.ETAG, "\"1\"");
+        final Result result2 = execute(filter, createRequest("deflate"), response,
+                new BasicAsyncEntityProducer(content, ContentType.TEXT_PLAIN));
+        Assertions.assertEquals(-1, result2.entityProducer.getContentLength());
+        Assertions.assertEquals("\"1-deflate\"", result2.response.getFirstHeader(HttpHeaders.ETAG).getValue());
+    }
+
+    @Test
+    public void testNotCompressed() throws Exception {
+        final AsyncServerCompressionFilter filter = new AsyncServerCompressionFilter();
+        final byte[] content = createContent(10000, 1);
+
+        final AsyncEntityProducer binary = new BasicAsyncEntityProducer(content, ContentType.IMAGE_PNG);
+        final Result result1 = execute(filter, createRequest("gzip"), new BasicHttpResponse(HttpStatus.SC_OK), binary);
+        Assertions.assertSame(binary, result1.entityProducer);
+        Assertions.assertNull(result1.response.getFirstHeader(HttpHeaders.VARY));
+
+        final AsyncEntityProducer small = new BasicAsyncEntityProducer("stuff", ContentType.TEXT_PLAIN);
+        final HttpResponse response2 = new BasicHttpResponse(HttpStatus.SC_OK);
+        response2.addHeader(HttpHeaders.ETAG, "\"1\"");
+        final Result result2 = execute(filter, createRequest("gzip"), response2, small);
+        Assertions.assertSame(small, result2.entityProducer);
+        Assertions.assertEquals("\"1\"", result2.response.getFirstHeader(HttpHeaders.ETAG).getValue());
+
+        final AsyncEntityProducer text = new BasicAsyncEntityProducer(content, ContentType.TEXT_PLAIN);
+        final Result result3 = execute(filter, createRequest(null), new BasicHttpResponse(HttpStatus.SC_OK), text);
+        Assertions.assertSame(text, result3.entityProducer);
+        Assertions.assertEquals(HttpHeaders.ACCEPT_ENCODING, result3.response.getFirstHeader(HttpHeaders.VARY).getValue());
+
+        final AsyncEntityProducer partial = new BasicAsyncEntityProducer(content, ContentType.TEXT_PLAIN);
+        final Result result4 = execute(filter, createRequest("gzip"), new BasicHttpResponse(HttpStatus.SC_PARTIAL_CONTENT), partial);
+        Assertions.assertSame(partial, result4.entityProducer);
+
+        Assertions.assertEquals(0, filter.getMissCount());
+    }
+
+}
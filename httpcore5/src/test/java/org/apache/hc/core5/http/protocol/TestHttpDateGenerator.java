@@ -0,0 +1,92 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.core5.http.protocol;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.impl.io.DefaultHttpResponseWriter;
+import org.apache.hc.core5.http.impl.io.SessionOutputBufferImpl;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.apache.hc.core5.http.message.PreEncodedHeader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TestHttpDateGenerator {
+
+    private static Instant parse(final String date) {
+        return ZonedDateTime.parse(date, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+    }
+
+    @Test
+    public void testCurrentDate() throws Exception {
+        final Instant before = Instant.ofEpochSecond(Instant.now().getEpochSecond());
+        final String date = HttpDateGenerator.INSTANCE.getCurrentDate();
+        final Instant after = Instant.now();
+        Assertions.assertNotNull(date);
+        final Instant instant = parse(date);
+        Assertions.assertFalse(instant.isBefore(before));
+        Assertions.assertFalse(instant.isAfter(after));
+    }
+
+    @Test
+    public void testCurrentDateHeader() throws Exception {
+        final Header header = HttpDateGenerator.INSTANCE.getCurrentDateHeader();
+        Assertions.assertEquals(HttpHeaders.DATE, header.getName());
+        Assertions.assertNotNull(parse(header.getValue()));
+        Assertions.assertTrue(header instanceof PreEncodedHeader);
+        final ByteBuffer encoded = ((PreEncodedHeader) header).getEncoded();
+        Assertions.assertNotNull(encoded);
+        final byte[] b = new byte[encoded.remaining()];
+        encoded.get(b);
+        Assertions.assertEquals(header + "\r\n", new String(b, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void testDateHeaderClassicWriter() throws Exception {
+        final ClassicHttpResponse response = new BasicClassicHttpResponse(HttpStatus.SC_OK);
+        new ResponseDate().process(response, null, HttpCoreContext.create());
+        final Header header = response.getFirstHeader(HttpHeaders.DATE);
+        Assertions.assertTrue(header instanceof PreEncodedHeader);
+
+        final SessionOutputBufferImpl outbuffer = new SessionOutputBufferImpl(128);
+        final ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+        new DefaultHttpResponseWriter().write(response, outbuffer, outStream);
+        outbuffer.flush(outStream);
+        Assertions.assertEquals("HTTP/1.1 200 OK\r\n" + header + "\r\n\r\n",
+                new String(outStream.toByteArray(), StandardCharsets.US_ASCII));
+    }
+
+}
@@ -84,4 +84,35 @@ public void testResolveByUnknownHostname() throws Exception {
                 handlerRegistry.resolve(new BasicHttpRequest(Method.GET, new HttpHost("otherhost"), "/test"), context));
     }
 
+    @Test
+    public void testResolveWithRouteCache() throws Exception {
+        final RequestHandlerRegistry<String> cachingRegistry = new RequestHandlerRegistry<>("myhost", UriPatternMatcher::new, 2);
+        cachingRegistry.register(null, "/test*", "stuff");
+        cachingRegistry.register("otherhost", "/test*", "other stuff");
+        Assertions.assertEquals("stuff", cachingRegistry.resolve(new BasicHttpRequest(Method.GET, "/test?a"), context));
+        Assertions.assertEquals("stuff", cachingRegistry.resolve(new BasicHttpRequest(Method.GET, "/test?b"), context));
+        Assertions.assertEquals(1, cachingRegistry.getRouteCacheSize());
+        Assertions.assertEquals("other stuff", cachingRegistry.resolve(new BasicHttpRequest(Method.GET, new HttpHost("otherhost"), "/test"), context));
+        Assertions.assertEquals(2, cachingRegistry.getRouteCacheSize());
+        Assertions.assertNull(cachingRegistry.resolve(new BasicHttpRequest(Method.GET, "/abc"), context));
+        Assertions.assertNull(cachingRegistry.resolve(new BasicHttpRequest(Method.GET, "/def"), context));
+        Assertions.assertTrue(cachingRegistry.getRouteCacheSize() <= 2);
+
+        // registration invalidates cached routes
+        cachingRegistry.register(null, "/abc", "more stuff");
+        Assertions.assertEquals(0, cachingRegistry.getRouteCacheSize());
+        Assertions.assertEquals("more stuff", cachingRegistry.resolve(new BasicHttpRequest(Method.GET, "/abc"), context));
+        Assertions.assertEquals("stuff", cachingRegistry.resolve(new BasicHttpRequest(Method.GET, "/test"), context));
+    }
+
+    @Test
+    public void testRouteCacheEviction() throws Exception {
+        final RequestHandlerRegistry<String> cachingRegistry = new RequestHandlerRegistry<>("myhost", UriPatternMatcher::new, 10);
+        cachingRegistry.register(null, "*", "stuff");
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertEquals("stuff", cachingRegistry.resolve(new BasicHttpRequest(Method.GET, "/" + i), context));
+            Assertions.assertTrue(cachingRegistry.getRouteCacheSize() <= 10);
+        }
+    }
+
 }
@@ -50,4 +50,16 @@ public void testUriPatternInOrder() {
         Assertions.assertTrue(matcher instanceof UriPatternOrderedMatcher);
     }
 
+    @Test
+    public void testUriPatternTrie() {
+        final LookupRegistry<Object> matcher = UriPatternType.newMatcher(UriPatternType.URI_PATTERN_TRIE);
+        Assertions.assertTrue(matcher instanceof UriPatternTrieMatcher);
+    }
+
+    @Test
+    public void testRegexCompiled() {
+        final LookupRegistry<Object> matcher = UriPatternType.newMatcher(UriPatternType.REGEX_COMPILED);
+        Assertions.assertTrue(matcher instanceof CompiledUriRegexMatcher);
+    }
+
 }
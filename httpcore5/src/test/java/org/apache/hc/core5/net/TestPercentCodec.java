@@ -29,9 +29,14 @@
 
 import static org.hamcrest.MatcherAssert.assertThat;
 
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Random;
 
 import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -68,4 +73,67 @@ public void testDecodingPartialContent() {
                 CoreMatchers.equalTo("blah! %wa"));
     }
 
+    @Test
+    public void testEncodingNonAscii() {
+        assertThat(PercentCodec.encode("caf\u00e9 \u20ac\ud83d\ude00", StandardCharsets.UTF_8),
+                CoreMatchers.equalTo("caf%C3%A9%20%E2%82%AC%F0%9F%98%80"));
+        assertThat(PercentCodec.encode("caf\u00e9", StandardCharsets.ISO_8859_1),
+                CoreMatchers.equalTo("caf%E9"));
+        assertThat(PercentCodec.encode("a\ud83db\ude00", StandardCharsets.UTF_8),
+                CoreMatchers.equalTo("a%3Fb%3F"));
+        assertThat(PercentCodec.encode("ab", StandardCharsets.UTF_16BE),
+                CoreMatchers.equalTo("%00a%00b"));
+    }
+
+    @Test
+    public void testDecodingNoEscapes() {
+        final String s = "blah-blah";
+        Assertions.assertSame(s, PercentCodec.decode(s, StandardCharsets.UTF_8));
+        assertThat(PercentCodec.decode("caf%C3%A9", StandardCharsets.UTF_8),
+                CoreMatchers.equalTo("caf\u00e9"));
+    }
+
+    private static final String[] TOKENS = {"a", "Z", "09", "-._~", " ", "!*'()", ";:@&=+$,", "/?#[]", "%",
+            "\u00e9", "\u20ac", "\ud83d\ude00", "\ud800"};
+
+    static String referenceEncode(final CharSequence content, final Charset charset, final boolean blankAsPlus) {
+        final StringBuilder buf = new StringBuilder();
+        final ByteBuffer bb = charset.encode(CharBuffer.wrap(content));
+        while (bb.hasRemaining()) {
+            final int b = bb.get() & 0xff;
+            if (PercentCodec.UNRESERVED.get(b)) {
+                buf.append((char) b);
+            } else if (blankAsPlus && b == ' ') {
+                buf.append("+");
+            } else {
+                buf.append(String.format("%%%02X", b));
+            }
+        }
+        return buf.toString();
+    }
+
+    @Test
+    public void testEncodingConsistentWithCharsetEncoder() {
+        final Random random = new Random(7);
+        final Charset[] charsets = {StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1,
+                StandardCharsets.US_ASCII, StandardCharsets.UTF_16};
+        for (int i = 0; i < 2000; i++) {
+            final StringBuilder content = new StringBuilder();
+            final int len = random.nextInt(12);
+            for (int j = 0; j < len; j++) {
+                content.append(TOKENS[random.nextInt(TOKENS.length)]);
+            }
+            for (final Charset charset : charsets) {
+                final boolean blankAsPlus = random.nextBoolean();
+                final StringBuilder buf = new StringBuilder();
+                PercentCodec.encode(buf, content, charset, blankAsPlus);
+                final String encoded = buf.toString();
+                Assertions.assertEquals(referenceEncode(content, charset, blankAsPlus), encoded, content.toString());
+                if (StandardCharsets.UTF_8.equals(charset) && content.indexOf("\ud800") < 0) {
+                    Assertions.assertEquals(content.toString(), PercentCodec.decode(encoded, charset, blankAsPlus));
+                }
+            }
+        }
+    }
+
 }
@@ -0,0 +1,131 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.core5.net;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.NameValuePair;
+import org.apache.hc.core5.http.io.support.ClassicRequestBuilder;
+import org.apache.hc.core5.http.message.BasicNameValuePair;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link RequestTargetTemplate}.
+ */
+public class TestRequestTargetTemplate {
+
+    @Test
+    public void testFormatFromURI() {
+        final RequestTargetTemplate template = RequestTargetTemplate.create(URI.create("https://user@host:8443/some%20path/stuff#frag"));
+        Assertions.assertEquals("https", template.getScheme());
+        Assertions.assertEquals(new URIAuthority("user", "host", 8443), template.getAuthority());
+        Assertions.assertEquals("/some%20path/stuff", template.getPath());
+        Assertions.assertEquals("/some%20path/stuff?q=a%20b%26c", template.format("q", "a b&c"));
+        Assertions.assertEquals("/some%20path/stuff?flag", template.format("flag", null));
+        Assertions.assertEquals("/some%20path/stuff?a=1&b=%D0%B0",
+                template.format(new BasicNameValuePair("a", "1"), new BasicNameValuePair("b", "а")));
+        Assertions.assertEquals("/some%20path/stuff", template.format(Collections.emptyList()));
+        Assertions.assertEquals("https://user@host:8443/some%20path/stuff?x=y",
+                template.formatAbsolute(Collections.singletonList(new BasicNameValuePair("x", "y"))));
+    }
+
+    @Test
+    public void testFormatWithFixedQuery() {
+        final RequestTargetTemplate template = RequestTargetTemplate.create(URI.create("http://host/api?key=123"));
+        Assertions.assertEquals("/api?key=123", template.getPath());
+        Assertions.assertEquals("/api?key=123&q=x", template.format("q", "x"));
+    }
+
+    @Test
+    public void testFormatEmptyPath() {
+        final RequestTargetTemplate template = RequestTargetTemplate.create(URI.create("http://host"));
+        Assertions.assertEquals("/?q=x", template.format("q", "x"));
+        Assertions.assertEquals("http://host/", template.toString());
+    }
+
+    @Test
+    public void testFormatFromIPv6URI() {
+        final RequestTargetTemplate template = RequestTargetTemplate.create(URI.create("http://[::1]:8080/api"));
+        Assertions.assertEquals(new URIAuthority("::1", 8080), template.getAuthority());
+        Assertions.assertEquals("::1", template.getAuthority().getHostName());
+        Assertions.assertEquals("/api?q=x", template.format("q", "x"));
+        Assertions.assertEquals("http://[::1]:8080/api", template.toString());
+    }
+
+    @Test
+    public void testFormatFromPathSegments() {
+        final RequestTargetTemplate template = RequestTargetTemplate.create(
+                "http", new URIAuthority("host", 8080), "blah blah", "a/b");
+        Assertions.assertEquals("/blah%20blah/a%2Fb", template.getPath());
+        Assertions.assertEquals("http://host:8080/blah%20blah/a%2Fb", template.toString());
+    }
+
+    @Test
+    public void testFormatToReusableBuffer() {
+        final RequestTargetTemplate template = RequestTargetTemplate.create(URI.create("http://host/search"));
+        final StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < 3; i++) {
+            buf.setLength(0);
+            template.formatTo(buf, "page", Integer.toString(i));
+            Assertions.assertEquals("/search?page=" + i, buf.toString());
+        }
+    }
+
+    @Test
+    public void testFormatConsistentWithURIBuilder() throws Exception {
+        final RequestTargetTemplate template = RequestTargetTemplate.create(
+                URI.create("http://host/path"), StandardCharsets.UTF_8);
+        final List<NameValuePair> params = Arrays.asList(
+                new BasicNameValuePair("name 1", "value+1"),
+                new BasicNameValuePair("été", "!*'();:@&=$,/?#[]%~"),
+                new BasicNameValuePair("empty", ""),
+                new BasicNameValuePair("null", null));
+        final URI expected = new URIBuilder("http://host/path").setParameters(params).build();
+        Assertions.assertEquals(expected.getRawPath() + "?" + expected.getRawQuery(), template.format(params));
+        Assertions.assertEquals(expected.toASCIIString(), template.formatAbsolute(params));
+    }
+
+    @Test
+    public void testRequestBuilder() {
+        final RequestTargetTemplate template = RequestTargetTemplate.create(URI.create("https://host/search"));
+        final ClassicHttpRequest request = ClassicRequestBuilder.get()
+                .setScheme(template.getScheme())
+                .setAuthority(template.getAuthority())
+                .setPath(template.format("q", "stuff"))
+                .build();
+        Assertions.assertEquals("https", request.getScheme());
+        Assertions.assertEquals(new URIAuthority("host"), request.getAuthority());
+        Assertions.assertEquals("/search?q=stuff", request.getPath());
+    }
+
+}
@@ -29,14 +29,22 @@
 
 import static org.hamcrest.MatcherAssert.assertThat;
 
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import org.apache.hc.core5.http.NameValuePair;
 import org.apache.hc.core5.http.NameValuePairListMatcher;
 import org.apache.hc.core5.http.message.BasicNameValuePair;
+import org.apache.hc.core5.util.Tokenizer;
 import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 public class TestWWWFormCodec {
@@ -121,4 +129,111 @@ public void testFormat() throws Exception {
                         "&swiss=" + PercentCodec.encode(CH_HELLO, StandardCharsets.UTF_8)));
     }
 
+    private static List<NameValuePair> parseStreaming(final byte[] content, final int chunkSize) {
+        final List<NameValuePair> list = new ArrayList<>();
+        final WWWFormParser parser = new WWWFormParser(StandardCharsets.UTF_8,
+                (name, value) -> list.add(new BasicNameValuePair(name, value)));
+        for (int off = 0; off < content.length; off += chunkSize) {
+            parser.update(content, off, Math.min(chunkSize, content.length - off));
+        }
+        parser.complete();
+        return list;
+    }
+
+    /**
+     * Reference implementation of form parsing based on {@link Tokenizer}.
+     */
+    private static List<NameValuePair> parseReference(final String s) {
+        final BitSet paramSeparators = new BitSet();
+        paramSeparators.set('&');
+        paramSeparators.set('=');
+        final BitSet valueSeparators = new BitSet();
+        valueSeparators.set('&');
+        final Tokenizer.Cursor cursor = new Tokenizer.Cursor(0, s.length());
+        final List<NameValuePair> list = new ArrayList<>();
+        while (!cursor.atEnd()) {
+            final String name = Tokenizer.INSTANCE.parseToken(s, cursor, paramSeparators);
+            String value = null;
+            if (!cursor.atEnd()) {
+                final int delim = s.charAt(cursor.getPos());
+                cursor.updatePos(cursor.getPos() + 1);
+                if (delim == '=') {
+                    value = Tokenizer.INSTANCE.parseToken(s, cursor, valueSeparators);
+                    if (!cursor.atEnd()) {
+                        cursor.updatePos(cursor.getPos() + 1);
+                    }
+                }
+            }
+            if (!name.isEmpty()) {
+                list.add(new BasicNameValuePair(
+                        PercentCodec.decode(name, StandardCharsets.UTF_8, true),
+                        PercentCodec.decode(value, StandardCharsets.UTF_8, true)));
+            }
+        }
+        return list;
+    }
+
+    @Test
+    public void testParseStreaming() throws Exception {
+        final String s = "Name5=aaa&Name6=b%2Cb+b&&=x& Name7 = c  c &Name8&price=10%20%E2%82%AC";
+        final byte[] content = s.getBytes(StandardCharsets.US_ASCII);
+        final List<NameValuePair> expected = parse(s);
+        for (final int chunkSize : new int[] {1, 2, 3, 7, content.length}) {
+            Assertions.assertEquals(expected, parseStreaming(content, chunkSize));
+        }
+
+        final List<NameValuePair> list1 = new ArrayList<>();
+        WWWFormCodec.parse(new ByteArrayInputStream(content), StandardCharsets.UTF_8,
+                (name, value) -> list1.add(new BasicNameValuePair(name, value)));
+        Assertions.assertEquals(expected, list1);
+
+        final List<NameValuePair> list2 = new ArrayList<>();
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(content.length);
+        buffer.put(content).flip();
+        WWWFormCodec.parse(buffer, StandardCharsets.UTF_8,
+                (name, value) -> list2.add(new BasicNameValuePair(name, value)));
+        Assertions.assertEquals(expected, list2);
+        Assertions.assertFalse(buffer.hasRemaining());
+
+        final List<NameValuePair> list3 = new ArrayList<>();
+        WWWFormCodec.parse(new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_16)), StandardCharsets.UTF_16,
+                (name, value) -> list3.add(new BasicNameValuePair(name, value)));
+        Assertions.assertEquals(WWWFormCodec.parse(s, StandardCharsets.UTF_16), list3);
+    }
+
+    @Test
+    public void testParseStreamingRawUtf8() throws Exception {
+        final List<NameValuePair> list = parseStreaming(("swiss=" + CH_HELLO).getBytes(StandardCharsets.UTF_8), 5);
+        Assertions.assertEquals(Collections.singletonList(new BasicNameValuePair("swiss", CH_HELLO)), list);
+    }
+
+    @Test
+    public void testParseLazily() throws Exception {
+        final String s = "Name5=aaa&Name6=b%2Cb+b&&=x& Name7 = c  c &Name8&price=10%20%E2%82%AC";
+        final List<NameValuePair> view = WWWFormCodec.parseLazily(s, StandardCharsets.UTF_8);
+        Assertions.assertEquals(parse(s), view);
+        Assertions.assertSame(view.get(1), view.get(1));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> view.add(new BasicNameValuePair("a", "b")));
+    }
+
+    @Test
+    public void testParseSameAsReference() throws Exception {
+        final String[] fragments = {"a", "B", "=", "&", "+", "%", "%2", "%20", "%zz", "%E2%82%AC", " ", "\t", "\u00FC"};
+        final Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            final StringBuilder buf = new StringBuilder();
+            final int n = random.nextInt(12);
+            for (int j = 0; j < n; j++) {
+                buf.append(fragments[random.nextInt(fragments.length)]);
+            }
+            final String s = buf.toString();
+            final List<NameValuePair> expected = parseReference(s);
+            Assertions.assertEquals(expected, parse(s), s);
+            Assertions.assertEquals(expected, WWWFormCodec.parseLazily(s, StandardCharsets.UTF_8), s);
+            final List<NameValuePair> list = new ArrayList<>();
+            WWWFormCodec.parse(s, StandardCharsets.UTF_8, (name, value) -> list.add(new BasicNameValuePair(name, value)));
+            Assertions.assertEquals(expected, list, s);
+        }
+    }
+
 }
@@ -51,6 +51,7 @@ public void testCustomIOReactorConfig() throws Exception {
                 .setSocksProxyAddress(new InetSocketAddress(8888))
                 .setSocksProxyUsername("socksProxyUsername")
                 .setSocksProxyPassword("socksProxyPassword")
+                .setListenerThreadCount(4)
                 .build();
 
         Assertions.assertEquals(TimeValue.ofMilliseconds(500), reactorConfig.getSelectInterval());
@@ -67,5 +68,6 @@ public void testCustomIOReactorConfig() throws Exception {
         Assertions.assertEquals(new InetSocketAddress(8888), reactorConfig.getSocksProxyAddress());
         Assertions.assertEquals("socksProxyUsername", reactorConfig.getSocksProxyUsername());
         Assertions.assertEquals("socksProxyPassword", reactorConfig.getSocksProxyPassword());
+        Assertions.assertEquals(4, reactorConfig.getListenerThreadCount());
     }
 }
@@ -0,0 +1,123 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.core5.reactor.ssl;
+
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSessionContext;
+
+import org.apache.hc.core5.net.Host;
+import org.apache.hc.core5.util.TimeValue;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+public class TestTlsSessionTracker {
+
+    private static SSLSession createSession(final long creationTime) {
+        final SSLSession sslSession = Mockito.mock(SSLSession.class);
+        Mockito.when(sslSession.isValid()).thenReturn(true);
+        Mockito.when(sslSession.getCreationTime()).thenReturn(creationTime);
+        return sslSession;
+    }
+
+    @Test
+    public void testConfigure() throws Exception {
+        final TlsSessionTracker sessionTracker = new TlsSessionTracker(10, TimeValue.ofMinutes(2));
+        final SSLSessionContext sessionContext = Mockito.mock(SSLSessionContext.class);
+        sessionTracker.configure(sessionContext);
+        Mockito.verify(sessionContext).setSessionCacheSize(10);
+        Mockito.verify(sessionContext).setSessionTimeout(120);
+    }
+
+    @Test
+    public void testResumedAndFullHandshakeCounts() throws Exception {
+        final TlsSessionTracker sessionTracker = new TlsSessionTracker(10);
+        final Host host = new Host("somehost", 443);
+        final SSLSession sslSession1 = createSession(System.currentTimeMillis());
+        sessionTracker.sessionEstablished(host, new TlsDetails(sslSession1, null, false));
+        Assertions.assertSame(sslSession1, sessionTracker.getSession(host));
+        Assertions.assertSame(sslSession1, sessionTracker.getSession(new Host("SomeHost", 443)));
+        Assertions.assertNull(sessionTracker.getSession(new Host("somehost", 8443)));
+        sessionTracker.sessionEstablished(host, new TlsDetails(sslSession1, null, true));
+        sessionTracker.sessionEstablished(null, new TlsDetails(sslSession1, null, true));
+
+        Assertions.assertEquals(2, sessionTracker.getResumedCount());
+        Assertions.assertEquals(1, sessionTracker.getFullHandshakeCount());
+        Assertions.assertEquals(1, sessionTracker.size());
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        final TlsSessionTracker sessionTracker = new TlsSessionTracker(2);
+        final Host host1 = new Host("host1", 443);
+        final Host host2 = new Host("host2", 443);
+        final Host host3 = new Host("host3", 443);
+        final SSLSession sslSession1 = createSession(System.currentTimeMillis());
+        final SSLSession sslSession2 = createSession(System.currentTimeMillis());
+        final SSLSession sslSession3 = createSession(System.currentTimeMillis());
+        sessionTracker.sessionEstablished(host1, new TlsDetails(sslSession1, null, false));
+        sessionTracker.sessionEstablished(host2, new TlsDetails(sslSession2, null, false));
+        Assertions.assertSame(sslSession1, sessionTracker.getSession(host1));
+        sessionTracker.sessionEstablished(host3, new TlsDetails(sslSession3, null, false));
+
+        Assertions.assertEquals(2, sessionTracker.size());
+        Assertions.assertSame(sslSession1, sessionTracker.getSession(host1));
+        Assertions.assertNull(sessionTracker.getSession(host2));
+        Assertions.assertSame(sslSession3, sessionTracker.getSession(host3));
+        Mockito.verify(sslSession1, Mockito.never()).invalidate();
+        Mockito.verify(sslSession2, Mockito.never()).invalidate();
+    }
+
+    @Test
+    public void testExpiry() throws Exception {
+        final TlsSessionTracker sessionTracker = new TlsSessionTracker(10, TimeValue.ofSeconds(1));
+        final Host host1 = new Host("host1", 443);
+        final Host host2 = new Host("host2", 443);
+        final SSLSession sslSession1 = createSession(System.currentTimeMillis() - 5000);
+        final SSLSession sslSession2 = createSession(System.currentTimeMillis());
+        sessionTracker.sessionEstablished(host1, new TlsDetails(sslSession1, null, false));
+        sessionTracker.sessionEstablished(host2, new TlsDetails(sslSession2, null, false));
+
+        Assertions.assertNull(sessionTracker.getSession(host1));
+        Mockito.verify(sslSession1, Mockito.never()).invalidate();
+        Assertions.assertSame(sslSession2, sessionTracker.getSession(host2));
+        Assertions.assertEquals(1, sessionTracker.size());
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        final TlsSessionTracker sessionTracker = new TlsSessionTracker(10);
+        final Host host = new Host("somehost", 443);
+        final SSLSession sslSession = createSession(System.currentTimeMillis());
+        sessionTracker.sessionEstablished(host, new TlsDetails(sslSession, null, false));
+        sessionTracker.invalidate(host);
+        Mockito.verify(sslSession).invalidate();
+        Assertions.assertNull(sessionTracker.getSession(host));
+        Assertions.assertEquals(0, sessionTracker.size());
+    }
+
+}